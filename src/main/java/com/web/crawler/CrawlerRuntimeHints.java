@@ -0,0 +1,23 @@
+package com.web.crawler;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection and resources that AOT processing cannot see, for the native image. Models bound by controllers are
+ * registered by Spring itself and those sent between cluster nodes by {@code ClusterClient}; Jsoup
+ * and commons-validator need nothing on the paths the crawler uses, beyond the charsets that the
+ * native build includes.
+ */
+public class CrawlerRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // aircompressor's zstd decoder reads these once, when ContentDecoder first meets a zstd body
+        hints.reflection().registerType(TypeReference.of("sun.misc.Unsafe"), type -> type.withField("theUnsafe"));
+        hints.reflection().registerType(TypeReference.of("java.nio.Buffer"), type -> type.withField("address"));
+        // Crawl scopes compile the public suffix list that httpclient5 bundles
+        hints.resources().registerPattern("org/publicsuffix/list/effective_tld_names.dat");
+    }
+}
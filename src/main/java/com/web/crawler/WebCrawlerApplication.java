@@ -2,12 +2,14 @@ package com.web.crawler;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 @SpringBootApplication
+@ImportRuntimeHints(CrawlerRuntimeHints.class)
 public class WebCrawlerApplication {
 
     public static void main(String[] args) {
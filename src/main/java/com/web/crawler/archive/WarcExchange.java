@@ -0,0 +1,64 @@
+package com.web.crawler.archive;
+
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.http.ProtocolVersion;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One fetched page as it came over the wire, queued for the {@link WarcWriter}.
+ *
+ * @param url          the URL the response came from, after redirects
+ * @param request      the request line and headers as sent
+ * @param responseHead the status line and headers as received
+ * @param body         the body before content decoding, valid up to {@code bodyLength}
+ * @param truncated    the body was cut short by a fetch limit
+ */
+public record WarcExchange(String url, Instant fetchedAt, byte[] request, byte[] responseHead, byte[] body,
+                           int bodyLength, boolean truncated) {
+
+    public static WarcExchange of(String url, Instant fetchedAt, HttpRequest request, HttpResponse response,
+                                  byte[] body, int bodyLength, boolean truncated) {
+        StringBuilder requestHead = new StringBuilder()
+                .append(request.getMethod()).append(' ').append(request.getRequestUri()).append(' ')
+                .append(version(request.getVersion())).append("\r\n");
+        appendHeaders(requestHead, request.getHeaders());
+
+        StringBuilder responseHead = new StringBuilder()
+                .append(version(response.getVersion())).append(' ').append(response.getCode());
+        if (response.getReasonPhrase() != null) {
+            responseHead.append(' ').append(response.getReasonPhrase());
+        }
+        responseHead.append("\r\n");
+        appendHeaders(responseHead, response.getHeaders());
+
+        return new WarcExchange(url, fetchedAt, requestHead.toString().getBytes(StandardCharsets.ISO_8859_1),
+                responseHead.toString().getBytes(StandardCharsets.ISO_8859_1), body, bodyLength, truncated);
+    }
+
+    /**
+     * @return the bytes this exchange holds on heap while it is queued
+     */
+    public long size() {
+        return request.length + responseHead.length + (long) bodyLength;
+    }
+
+    private static String version(ProtocolVersion version) {
+        return (version != null ? version : HttpVersion.HTTP_1_1).format();
+    }
+
+    // The body is kept de-chunked, so a Transfer-Encoding header would no longer describe it
+    private static void appendHeaders(StringBuilder head, Header[] headers) {
+        for (Header header : headers) {
+            if (!HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(header.getName())) {
+                head.append(header.getName()).append(": ").append(header.getValue()).append("\r\n");
+            }
+        }
+        head.append("\r\n");
+    }
+}
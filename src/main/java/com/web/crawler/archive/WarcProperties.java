@@ -0,0 +1,19 @@
+package com.web.crawler.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.warc")
+public class WarcProperties {
+    private String directory = "warc";
+    private String filePrefix = "crawl";
+    // A file is closed and a new one started once it reaches this size
+    private long maxFileBytes = 1024L * 1024 * 1024;
+    // Responses waiting for the writer; beyond this, new ones are dropped rather than blocking fetches
+    private long queueBytes = 64L * 1024 * 1024;
+    // Records written per batch before the file is flushed
+    private int batchRecords = 64;
+}
@@ -0,0 +1,287 @@
+package com.web.crawler.archive;
+
+import com.web.crawler.fetch.HttpClientProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archives fetched pages as WARC 1.1 request and response records. Fetch threads only enqueue; a
+ * single writer thread drains the queue in batches and appends each record as its own gzip member
+ * to the current file, which is written as {@code .warc.gz.open} and renamed once it reaches
+ * {@code maxFileBytes}. When the queue holds {@code queueBytes}, new pages are dropped instead of
+ * slowing the crawl. One writer serves every crawl on this node.
+ */
+@Component
+@Slf4j
+public final class WarcWriter {
+
+    private static final String OPEN_SUFFIX = ".open";
+    private static final long IDLE_FLUSH_MS = 1000;
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
+    private static final char[] BASE32 = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
+
+    private final WarcProperties properties;
+    private final String software;
+    private final LinkedBlockingQueue<WarcExchange> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicLong filesWritten = new AtomicLong();
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong failedRecords = new AtomicLong();
+    private Thread thread;
+    private volatile boolean closed;
+
+    // Writer thread only
+    private final ByteArrayOutputStream member = new ByteArrayOutputStream(64 * 1024);
+    private final MessageDigest sha1;
+    private OutputStream out;
+    private Path openFile;
+    private long fileBytes;
+    private int fileSerial;
+
+    public WarcWriter(WarcProperties properties, HttpClientProperties http) {
+        this.properties = properties;
+        // Named in each file's warcinfo record, as the crawler identifies itself to servers
+        this.software = http.getUserAgent();
+        try {
+            this.sha1 = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+        log.info("WARC archive: {} ({} MB files)", Path.of(properties.getDirectory()).toAbsolutePath(),
+                properties.getMaxFileBytes() >> 20);
+    }
+
+    /**
+     * Queues a page for archiving without waiting for disk.
+     *
+     * @return false if the page was dropped because the writer is behind or closed
+     */
+    public boolean submit(WarcExchange exchange) {
+        if (closed) {
+            return false;
+        }
+        long size = exchange.size();
+        if (queuedBytes.addAndGet(size) > properties.getQueueBytes()) {
+            queuedBytes.addAndGet(-size);
+            return false;
+        }
+        startIfNeeded();
+        queue.add(exchange);
+        return true;
+    }
+
+    public long filesWritten() {
+        return filesWritten.get();
+    }
+
+    public long recordsWritten() {
+        return recordsWritten.get();
+    }
+
+    public long failedRecords() {
+        return failedRecords.get();
+    }
+
+    /**
+     * Writes what is queued, closes the current file and stops the writer thread.
+     */
+    @PreDestroy
+    public void close() {
+        Thread writer;
+        synchronized (this) {
+            closed = true;
+            writer = thread;
+        }
+        if (writer == null) {
+            return;
+        }
+        // Not interrupted: that would close the file channel mid-write. The writer sees the flag within a poll
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void startIfNeeded() {
+        if (thread != null || closed) {
+            return;
+        }
+        thread = new Thread(this::run, "warc-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "warc-writer-shutdown"));
+    }
+
+    private void run() {
+        List<WarcExchange> batch = new ArrayList<>(properties.getBatchRecords());
+        while (!closed || !queue.isEmpty()) {
+            try {
+                WarcExchange first = queue.poll(IDLE_FLUSH_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                closed = true;
+            }
+            queue.drainTo(batch, Math.max(0, properties.getBatchRecords() - batch.size()));
+            writeBatch(batch);
+            batch.clear();
+        }
+        closeFile();
+    }
+
+    private void writeBatch(List<WarcExchange> batch) {
+        for (WarcExchange exchange : batch) {
+            queuedBytes.addAndGet(-exchange.size());
+            try {
+                write(exchange);
+                recordsWritten.addAndGet(2);
+            } catch (IOException e) {
+                failedRecords.addAndGet(2);
+                log.warn("Could not archive {}: {}", exchange.url(), e.getMessage());
+                closeFile();
+            }
+        }
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                log.warn("Could not flush WARC file {}: {}", openFile, e.getMessage());
+                closeFile();
+            }
+        }
+    }
+
+    private void write(WarcExchange exchange) throws IOException {
+        if (out == null || fileBytes >= properties.getMaxFileBytes()) {
+            closeFile();
+            openFile();
+        }
+        String date = DateTimeFormatter.ISO_INSTANT.format(exchange.fetchedAt().truncatedTo(ChronoUnit.SECONDS));
+        String responseId = recordId();
+        List<String> responseHeaders = new ArrayList<>();
+        if (exchange.truncated()) {
+            responseHeaders.add("WARC-Truncated: length");
+        }
+        writeRecord("response", responseId, date, exchange.url(), "application/http;msgtype=response",
+                responseHeaders, exchange.responseHead(), exchange.body(), exchange.bodyLength());
+        writeRecord("request", recordId(), date, exchange.url(), "application/http;msgtype=request",
+                List.of("WARC-Concurrent-To: " + responseId), exchange.request(), new byte[0], 0);
+    }
+
+    private void openFile() throws IOException {
+        Path directory = Path.of(properties.getDirectory());
+        Files.createDirectories(directory);
+        String name = properties.getFilePrefix() + "-" + FILE_TIMESTAMP.format(Instant.now())
+                + String.format("-%05d-%d.warc.gz", fileSerial++, ProcessHandle.current().pid());
+        openFile = directory.resolve(name + OPEN_SUFFIX);
+        out = new BufferedOutputStream(Files.newOutputStream(openFile), 1 << 20);
+        fileBytes = 0;
+
+        byte[] info = ("software: " + software + "\r\n"
+                + "format: WARC File Format 1.1\r\n"
+                + "conformsTo: http://iipc.github.io/warc-specifications/specifications/warc-format/warc-1.1/\r\n")
+                .getBytes(StandardCharsets.UTF_8);
+        writeRecord("warcinfo", recordId(), DateTimeFormatter.ISO_INSTANT.format(Instant.now().truncatedTo(ChronoUnit.SECONDS)),
+                null, "application/warc-fields", List.of("WARC-Filename: " + name), info, new byte[0], 0);
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        Path file = openFile;
+        try {
+            out.close();
+            String name = file.getFileName().toString();
+            Files.move(file, file.resolveSibling(name.substring(0, name.length() - OPEN_SUFFIX.length())),
+                    StandardCopyOption.ATOMIC_MOVE);
+            filesWritten.incrementAndGet();
+        } catch (IOException e) {
+            log.warn("Could not close WARC file {}: {}", file, e.getMessage());
+        } finally {
+            out = null;
+            openFile = null;
+        }
+    }
+
+    // Each record is its own gzip member, so readers can seek to any record
+    private void writeRecord(String type, String id, String date, String targetUri, String contentType,
+                             List<String> extraHeaders, byte[] head, byte[] body, int bodyLength) throws IOException {
+        sha1.reset();
+        sha1.update(head);
+        sha1.update(body, 0, bodyLength);
+
+        StringBuilder header = new StringBuilder("WARC/1.1\r\n")
+                .append("WARC-Type: ").append(type).append("\r\n")
+                .append("WARC-Record-ID: ").append(id).append("\r\n")
+                .append("WARC-Date: ").append(date).append("\r\n");
+        if (targetUri != null) {
+            header.append("WARC-Target-URI: ").append(targetUri).append("\r\n");
+        }
+        for (String extra : extraHeaders) {
+            header.append(extra).append("\r\n");
+        }
+        header.append("WARC-Block-Digest: sha1:").append(base32(sha1.digest())).append("\r\n")
+                .append("Content-Type: ").append(contentType).append("\r\n")
+                .append("Content-Length: ").append(head.length + (long) bodyLength).append("\r\n\r\n");
+
+        member.reset();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(member, 8192)) {
+            gzip.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            gzip.write(head);
+            gzip.write(body, 0, bodyLength);
+            gzip.write("\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        member.writeTo(out);
+        fileBytes += member.size();
+    }
+
+    private static String recordId() {
+        return "<urn:uuid:" + UUID.randomUUID() + ">";
+    }
+
+    private static String base32(byte[] bytes) {
+        StringBuilder encoded = new StringBuilder((bytes.length * 8 + 4) / 5);
+        int buffer = 0;
+        int bits = 0;
+        for (byte b : bytes) {
+            buffer = (buffer << 8) | (b & 0xFF);
+            bits += 8;
+            while (bits >= 5) {
+                encoded.append(BASE32[(buffer >> (bits - 5)) & 31]);
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            encoded.append(BASE32[(buffer << (5 - bits)) & 31]);
+        }
+        return encoded.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package com.web.crawler.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Serialized responses that no longer change, kept in least-recently-used order within
+ * {@code crawler.response-cache.max-bytes} of compressed bodies.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, SerializedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public ResponseCache(ObjectMapper objectMapper, ResponseCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = properties.getMaxBytes();
+    }
+
+    /**
+     * Returns the response cached under the key, or serializes and caches the body read by the supplier.
+     * A null body gives null and is not cached, nor is a response larger than the whole cache.
+     */
+    public SerializedResponse get(String key, Supplier<?> body) {
+        SerializedResponse cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object value = body.get();
+        if (value == null) {
+            return null;
+        }
+        SerializedResponse response;
+        try {
+            response = SerializedResponse.of(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        put(key, response);
+        return response;
+    }
+
+    public synchronized SerializedResponse get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, SerializedResponse response) {
+        if (response.size() > maxBytes) {
+            return;
+        }
+        SerializedResponse previous = entries.put(key, response);
+        bytes += response.size() - (previous != null ? previous.size() : 0);
+        Iterator<Map.Entry<String, SerializedResponse>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            Map.Entry<String, SerializedResponse> evicted = eldest.next();
+            bytes -= evicted.getValue().size();
+            eldest.remove();
+            log.debug("Evicted cached response {} ({} bytes)", evicted.getKey(), evicted.getValue().size());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+}
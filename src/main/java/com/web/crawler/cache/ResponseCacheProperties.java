@@ -0,0 +1,13 @@
+package com.web.crawler.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.response-cache")
+public class ResponseCacheProperties {
+    // Compressed bytes of finished crawls' responses kept for reuse; 0 serializes them on every read
+    private long maxBytes = 64 * 1024 * 1024;
+}
@@ -0,0 +1,59 @@
+package com.web.crawler.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A JSON response body kept gzip-compressed, with a strong entity tag derived from its content.
+ * The gzip and identity encodings are different representations, so each has its own tag.
+ */
+public record SerializedResponse(byte[] gzipped, String tag) {
+
+    private static final int TAG_BYTES = 16;
+
+    public static SerializedResponse of(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SerializedResponse(compressed.toByteArray(), digest(json));
+    }
+
+    private static String digest(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(Arrays.copyOf(hash, TAG_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String etag(boolean gzip) {
+        return "\"" + tag + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * @return the uncompressed JSON, for clients that do not accept gzip
+     */
+    public byte[] json() {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int size() {
+        return gzipped.length;
+    }
+}
@@ -0,0 +1,72 @@
+package com.web.crawler.cluster;
+
+import com.web.crawler.model.CrawlStatusDto;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+@Component
+@RegisterReflectionForBinding({PartitionRequest.class, UrlBatch.class, PartitionActivity.class, CrawlStatusDto.class})
+public class ClusterClient {
+
+    private static final String BASE_PATH = "/api/v1/cluster/crawls/{crawlId}";
+
+    private final RestClient restClient;
+
+    public ClusterClient(ClusterProperties properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getRequestTimeoutMs());
+        requestFactory.setReadTimeout(properties.getRequestTimeoutMs());
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    public void startPartition(String node, String crawlId, PartitionRequest request) {
+        restClient.post()
+                .uri(node + BASE_PATH, crawlId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    public void forward(String node, String crawlId, String batchId, List<UrlBatch> batches) {
+        restClient.post()
+                .uri(node + BASE_PATH + "/urls?batchId={batchId}", crawlId, batchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(batches)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    public CrawlStatusDto fetchStatus(String node, String crawlId) {
+        return restClient.get()
+                .uri(node + BASE_PATH + "/status", crawlId)
+                .retrieve()
+                .body(CrawlStatusDto.class);
+    }
+
+    public PartitionActivity fetchActivity(String node, String crawlId) {
+        return restClient.get()
+                .uri(node + BASE_PATH + "/activity", crawlId)
+                .retrieve()
+                .body(PartitionActivity.class);
+    }
+
+    public void endPartition(String node, String crawlId) {
+        restClient.post()
+                .uri(node + BASE_PATH + "/end", crawlId)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    public void stopPartition(String node, String crawlId) {
+        restClient.post()
+                .uri(node + BASE_PATH + "/stop", crawlId)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,264 @@
+package com.web.crawler.cluster;
+
+import com.web.crawler.manager.UrlRouter;
+import com.web.crawler.model.CrawlStatusDto;
+import com.web.crawler.scope.PublicSuffixList;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Partitions crawls across the configured nodes by registrable domain. Every node runs a partition
+ * of each crawl under the same crawl ID; discovered URLs owned by another node are forwarded to it.
+ * <p>
+ * The node that started a crawl decides when it has ended: it polls every partition's
+ * {@link PartitionActivity} and ends them all once two rounds in a row find every node idle, the same
+ * counts, and as many URLs received as sent. A partition that became busy in between must have
+ * received URLs, which changes the counts.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class ClusterCoordinator {
+
+    private final ClusterProperties properties;
+    private final ClusterClient client;
+    private final PublicSuffixList suffixes;
+    private final ConsistentHashRing ring;
+    private final String selfUrl;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, UrlForwarder> forwarders = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> flushTasks = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> terminationTasks = new ConcurrentHashMap<>();
+    private final Map<String, List<PartitionActivity>> lastRounds = new ConcurrentHashMap<>();
+
+    public ClusterCoordinator(ClusterProperties properties, ClusterClient client, PublicSuffixList suffixes) {
+        this.properties = properties;
+        this.client = client;
+        this.suffixes = suffixes;
+        if (!properties.isEnabled()) {
+            this.ring = null;
+            this.selfUrl = null;
+            this.scheduler = null;
+            return;
+        }
+
+        List<String> nodes = properties.getNodes().stream().map(ClusterCoordinator::trimSlash).toList();
+        this.selfUrl = trimSlash(properties.getSelfUrl());
+        if (selfUrl == null || !nodes.contains(selfUrl)) {
+            throw new IllegalStateException("crawler.cluster.self-url must be one of crawler.cluster.nodes");
+        }
+        this.ring = new ConsistentHashRing(nodes, properties.getVirtualNodes());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cluster-forwarder");
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("Cluster mode enabled: self={}, nodes={}", selfUrl, nodes);
+    }
+
+    public boolean isEnabled() {
+        return ring != null && ring.nodes().size() > 1;
+    }
+
+    public int nodeCount() {
+        return ring != null ? ring.nodes().size() : 1;
+    }
+
+    public UrlRouter routerFor(String crawlId) {
+        if (!isEnabled()) {
+            return UrlRouter.LOCAL;
+        }
+        return forwarders.computeIfAbsent(crawlId, id -> {
+            UrlForwarder forwarder = new UrlForwarder(id, ring, selfUrl, client, suffixes, properties.getForwardBatchSize(),
+                    properties.getForwardIntervalMs(), properties.getForwardRetryMaxMs());
+            flushTasks.put(id, scheduler.scheduleWithFixedDelay(forwarder::flushAll,
+                    properties.getForwardIntervalMs(), properties.getForwardIntervalMs(), TimeUnit.MILLISECONDS));
+            return forwarder;
+        });
+    }
+
+    /**
+     * @return this node's partition of the crawl, or null if it has none
+     */
+    public UrlForwarder partition(String crawlId) {
+        return forwarders.get(crawlId);
+    }
+
+    public PartitionActivity activity(String crawlId) {
+        UrlForwarder forwarder = forwarders.get(crawlId);
+        return forwarder != null ? forwarder.activity() : null;
+    }
+
+    /**
+     * Makes this node the one that detects when the crawl has ended everywhere.
+     */
+    public void coordinate(String crawlId) {
+        if (!isEnabled()) {
+            return;
+        }
+        terminationTasks.put(crawlId, scheduler.scheduleWithFixedDelay(() -> checkTermination(crawlId),
+                properties.getTerminationCheckMs(), properties.getTerminationCheckMs(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Called when the local run of a partition is over. Its forwarder stays until the crawl ends, so it
+     * keeps taking URLs from peers and sending what it still buffers; past {@code endTimeoutMs} it
+     * gives up on peers that never finish.
+     */
+    public void partitionFinished(String crawlId) {
+        UrlForwarder forwarder = forwarders.get(crawlId);
+        if (forwarder == null) {
+            return;
+        }
+        if (forwarder.markLocalDone()) {
+            release(crawlId);
+        } else {
+            scheduler.schedule(() -> {
+                if (forwarders.get(crawlId) == forwarder) {
+                    log.warn("Crawl {} has not ended across the cluster within {} ms, releasing its partition",
+                            crawlId, properties.getEndTimeoutMs());
+                    release(crawlId);
+                }
+            }, properties.getEndTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Ends this node's partition once the crawl has ended everywhere.
+     */
+    public void endPartition(String crawlId) {
+        UrlForwarder forwarder = forwarders.get(crawlId);
+        if (forwarder != null && forwarder.end()) {
+            release(crawlId);
+        }
+    }
+
+    public void release(String crawlId) {
+        cancel(flushTasks.remove(crawlId));
+        cancel(terminationTasks.remove(crawlId));
+        lastRounds.remove(crawlId);
+        UrlForwarder forwarder = forwarders.remove(crawlId);
+        if (forwarder != null) {
+            forwarder.finish();
+        }
+    }
+
+    /**
+     * @return whether the crawl was found to have ended, and its partitions were told so
+     */
+    boolean checkTermination(String crawlId) {
+        PartitionActivity local = activity(crawlId);
+        if (local == null) {
+            return false;
+        }
+        List<PartitionActivity> round = new ArrayList<>();
+        round.add(local);
+        for (String node : peers()) {
+            PartitionActivity activity;
+            try {
+                activity = client.fetchActivity(node, crawlId);
+            } catch (Exception e) {
+                log.debug("Failed to fetch activity of crawl {} from {}: {}", crawlId, node, e.getMessage());
+                activity = null;
+            }
+            if (activity == null) {
+                lastRounds.remove(crawlId);
+                return false;
+            }
+            round.add(activity);
+        }
+
+        boolean quiet = round.stream().allMatch(PartitionActivity::idle)
+                && round.stream().mapToLong(PartitionActivity::sentUrls).sum()
+                == round.stream().mapToLong(PartitionActivity::receivedUrls).sum();
+        if (!quiet) {
+            lastRounds.remove(crawlId);
+            return false;
+        }
+        if (!round.equals(lastRounds.put(crawlId, round))) {
+            return false;
+        }
+
+        log.info("Crawl {} has ended on all {} nodes", crawlId, round.size());
+        cancel(terminationTasks.remove(crawlId));
+        for (String node : peers()) {
+            try {
+                client.endPartition(node, crawlId);
+            } catch (Exception e) {
+                log.warn("Failed to end partition of crawl {} on {}: {}", crawlId, node, e.getMessage());
+            }
+        }
+        endPartition(crawlId);
+        return true;
+    }
+
+    public void broadcastStart(String crawlId, PartitionRequest request) {
+        for (String node : peers()) {
+            try {
+                client.startPartition(node, crawlId, request);
+            } catch (Exception e) {
+                log.warn("Failed to start partition of crawl {} on {}: {}", crawlId, node, e.getMessage());
+            }
+        }
+    }
+
+    public void broadcastStop(String crawlId) {
+        for (String node : peers()) {
+            try {
+                client.stopPartition(node, crawlId);
+            } catch (Exception e) {
+                log.warn("Failed to stop partition of crawl {} on {}: {}", crawlId, node, e.getMessage());
+            }
+        }
+    }
+
+    public PeerStatuses fetchPeerStatuses(String crawlId) {
+        List<CrawlStatusDto> statuses = new ArrayList<>();
+        List<String> unreachable = new ArrayList<>();
+        for (String node : peers()) {
+            try {
+                CrawlStatusDto status = client.fetchStatus(node, crawlId);
+                if (status != null) {
+                    statuses.add(status);
+                } else {
+                    unreachable.add(node);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to fetch status of crawl {} from {}: {}", crawlId, node, e.getMessage());
+                unreachable.add(node);
+            }
+        }
+        return new PeerStatuses(statuses, unreachable);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private List<String> peers() {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        return ring.nodes().stream().filter(node -> !node.equals(selfUrl)).toList();
+    }
+
+    private static void cancel(ScheduledFuture<?> task) {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    private static String trimSlash(String url) {
+        return url != null && url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
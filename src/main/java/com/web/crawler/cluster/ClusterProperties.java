@@ -0,0 +1,28 @@
+package com.web.crawler.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.cluster")
+public class ClusterProperties {
+    private boolean enabled = false;
+    // Base URL other nodes use to reach this one; must appear verbatim in nodes
+    private String selfUrl;
+    private List<String> nodes = new ArrayList<>();
+    private int virtualNodes = 128;
+    private int forwardBatchSize = 500;
+    private long forwardIntervalMs = 200;
+    // Longest wait between retries to an unreachable node; retries start at forwardIntervalMs and double
+    private long forwardRetryMaxMs = 30000;
+    // How often the node that started a crawl polls the partitions to tell whether it has ended
+    private long terminationCheckMs = 1000;
+    // How long a partition whose own work is done waits for the rest of the cluster before it gives up
+    private long endTimeoutMs = 600000;
+    private int requestTimeoutMs = 5000;
+}
@@ -0,0 +1,10 @@
+package com.web.crawler.cluster;
+
+/**
+ * One node's view of a crawl, polled by the node that started it to tell when the whole crawl has ended.
+ *
+ * @param sentUrls     URLs this node forwarded that their owner acknowledged
+ * @param receivedUrls URLs peers forwarded to this node
+ */
+public record PartitionActivity(boolean idle, long sentUrls, long receivedUrls) {
+}
@@ -0,0 +1,13 @@
+package com.web.crawler.cluster;
+
+import com.web.crawler.model.CrawlOptions;
+import com.web.crawler.model.CrawlType;
+
+import java.util.List;
+
+/**
+ * Sent by the node that accepted a crawl to every peer so each starts its own partition.
+ */
+public record PartitionRequest(List<String> urls, CrawlType strategy, int maxPages, int maxDepth,
+                               CrawlOptions options) {
+}
@@ -0,0 +1,11 @@
+package com.web.crawler.cluster;
+
+import com.web.crawler.model.CrawlStatusDto;
+
+import java.util.List;
+
+/**
+ * Partition statuses collected from the peers, and the peers that could not be asked.
+ */
+public record PeerStatuses(List<CrawlStatusDto> statuses, List<String> unreachable) {
+}
@@ -0,0 +1,6 @@
+package com.web.crawler.cluster;
+
+import java.util.List;
+
+public record UrlBatch(int depth, List<String> urls) {
+}
@@ -0,0 +1,284 @@
+package com.web.crawler.cluster;
+
+import com.web.crawler.graph.UrlIdDictionary;
+import com.web.crawler.manager.UrlRouter;
+import com.web.crawler.scope.PublicSuffixList;
+import com.web.crawler.util.UrlUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Routes one crawl's URLs across the cluster and tracks this node's partition of it. URLs owned by a
+ * peer are buffered per node and depth and shipped in batches, either when a node's buffer reaches
+ * the batch size or on the periodic {@link #flushAll()} driven by {@link ClusterCoordinator}. A failed
+ * send is retried unchanged, under the same batch ID, with exponential backoff; {@link #finish()}
+ * makes the last attempt.
+ * <p>
+ * The partition ends only when {@link #end()} reports that the whole crawl has; until then it keeps
+ * accepting forwarded URLs, even after its own work ran out. {@link #activity()} feeds the
+ * coordinator's check for that moment: whether the partition is idle, and how many URLs it has sent
+ * and received.
+ */
+@Slf4j
+public class UrlForwarder implements UrlRouter {
+
+    private final String crawlId;
+    private final ConsistentHashRing ring;
+    private final String selfUrl;
+    private final ClusterClient client;
+    private final PublicSuffixList suffixes;
+    private final int batchSize;
+    private final long retryBaseNanos;
+    private final long retryMaxNanos;
+    private final LongSupplier clock;
+
+    // Marked only once the owner accepted them; the owner dedups again against its own visited set
+    private final UrlIdDictionary forwarded = new UrlIdDictionary();
+    private final Map<String, Map<Integer, Set<String>>> buffers = new HashMap<>();
+    private final Map<String, Integer> bufferedCounts = new HashMap<>();
+    private final Map<String, Send> unacked = new HashMap<>();
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+    private final Map<String, Long> retryAt = new HashMap<>();
+    private long sequence;
+    private int inFlight;
+    private long sentUrls;
+
+    // Batch IDs taken from peers, so a send retried after a lost response is not counted twice
+    private final Set<String> receivedBatches = new HashSet<>();
+    private long receivedUrls;
+    private volatile BooleanSupplier partitionIdle = () -> false;
+    private boolean localDone;
+    private volatile boolean ended;
+
+    public UrlForwarder(String crawlId, ConsistentHashRing ring, String selfUrl, ClusterClient client,
+                        PublicSuffixList suffixes, int batchSize, long retryBaseMillis, long retryMaxMillis) {
+        this(crawlId, ring, selfUrl, client, suffixes, batchSize, retryBaseMillis, retryMaxMillis, System::nanoTime);
+    }
+
+    UrlForwarder(String crawlId, ConsistentHashRing ring, String selfUrl, ClusterClient client, PublicSuffixList suffixes,
+                 int batchSize, long retryBaseMillis, long retryMaxMillis, LongSupplier clock) {
+        this.crawlId = crawlId;
+        this.ring = ring;
+        this.selfUrl = selfUrl;
+        this.client = client;
+        this.suffixes = suffixes;
+        this.batchSize = batchSize;
+        this.retryBaseNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, retryBaseMillis));
+        this.retryMaxNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(retryBaseMillis, retryMaxMillis));
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean isLocal(String url) {
+        return selfUrl.equals(ownerOf(url));
+    }
+
+    @Override
+    public void forwardAll(List<String> urls, int depth) {
+        int[] ids = forwarded.internAll(urls);
+        Map<String, List<String>> byOwner = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (!forwarded.isVisited(ids[i])) {
+                byOwner.computeIfAbsent(ownerOf(urls.get(i)), k -> new ArrayList<>()).add(urls.get(i));
+            }
+        }
+        List<String> full = new ArrayList<>();
+        synchronized (this) {
+            byOwner.forEach((node, owned) -> {
+                if (buffer(node, depth, owned) >= batchSize) {
+                    full.add(node);
+                }
+            });
+        }
+        for (String node : full) {
+            flush(node, false);
+        }
+    }
+
+    @Override
+    public void watchIdle(BooleanSupplier partitionIdle) {
+        this.partitionIdle = partitionIdle;
+    }
+
+    @Override
+    public boolean crawlEnded() {
+        return ended;
+    }
+
+    /**
+     * Counts URLs a peer forwarded; a send retried after its response was lost is counted once.
+     */
+    public synchronized void received(String batchId, int urls) {
+        if (receivedBatches.add(batchId)) {
+            receivedUrls += urls;
+        }
+    }
+
+    /**
+     * Idle means the local partition has no work and nothing is buffered or on its way to a peer.
+     */
+    public synchronized PartitionActivity activity() {
+        boolean idle = (localDone || partitionIdle.getAsBoolean())
+                && buffers.isEmpty() && unacked.isEmpty() && inFlight == 0;
+        return new PartitionActivity(idle, sentUrls, receivedUrls);
+    }
+
+    /**
+     * Marks the local partition's run as over; it still takes forwarded URLs until the crawl ends.
+     *
+     * @return whether the crawl had already ended, so nothing more will arrive
+     */
+    public synchronized boolean markLocalDone() {
+        localDone = true;
+        return ended;
+    }
+
+    /**
+     * @return whether the local partition's run was already over
+     */
+    public synchronized boolean end() {
+        ended = true;
+        return localDone;
+    }
+
+    /**
+     * Sends every node's buffer, except to nodes still backing off after a failure.
+     */
+    public void flushAll() {
+        for (String node : pendingNodes()) {
+            flush(node, false);
+        }
+    }
+
+    /**
+     * Called once the partition is released: the last sends per node, ignoring backoff. URLs that
+     * still fail are dropped, since no later flush will come.
+     */
+    public void finish() {
+        for (String node : pendingNodes()) {
+            while (hasPending(node)) {
+                if (!flush(node, true)) {
+                    int lost;
+                    synchronized (this) {
+                        Send send = unacked.remove(node);
+                        lost = send != null ? send.urlCount() : 0;
+                        lost += take(node).stream().mapToInt(batch -> batch.urls().size()).sum();
+                    }
+                    log.warn("Dropping {} URLs for {} of crawl {}: node unreachable when the partition ended",
+                            lost, node, crawlId);
+                    break;
+                }
+            }
+        }
+    }
+
+    private synchronized List<String> pendingNodes() {
+        Set<String> nodes = new LinkedHashSet<>(unacked.keySet());
+        nodes.addAll(buffers.keySet());
+        return new ArrayList<>(nodes);
+    }
+
+    private synchronized boolean hasPending(String node) {
+        return unacked.containsKey(node) || buffers.containsKey(node);
+    }
+
+    private String ownerOf(String url) {
+        return ring.ownerOf(UrlUtils.registrableDomain(suffixes, UrlUtils.host(url)));
+    }
+
+    /**
+     * @return the number of URLs now buffered for {@code node}
+     */
+    private int buffer(String node, int depth, Collection<String> urls) {
+        buffers.computeIfAbsent(node, k -> new TreeMap<>())
+                .computeIfAbsent(depth, k -> new LinkedHashSet<>())
+                .addAll(urls);
+        return bufferedCounts.merge(node, urls.size(), Integer::sum);
+    }
+
+    // URLs buffered again while an earlier send of them was failing are left out once that send got through
+    private List<UrlBatch> take(String node) {
+        Map<Integer, Set<String>> byDepth = buffers.remove(node);
+        bufferedCounts.remove(node);
+        List<UrlBatch> batches = new ArrayList<>();
+        if (byDepth != null) {
+            byDepth.forEach((depth, urls) -> {
+                List<String> pending = new ArrayList<>(urls);
+                int[] ids = forwarded.internAll(pending);
+                List<String> unsent = new ArrayList<>(pending.size());
+                for (int i = 0; i < ids.length; i++) {
+                    if (!forwarded.isVisited(ids[i])) {
+                        unsent.add(pending.get(i));
+                    }
+                }
+                if (!unsent.isEmpty()) {
+                    batches.add(new UrlBatch(depth, unsent));
+                }
+            });
+        }
+        return batches;
+    }
+
+    /**
+     * Sends the node's failed send if there is one, otherwise its buffer.
+     *
+     * @return false if the send failed and is kept for a retry
+     */
+    private boolean flush(String node, boolean ignoreBackoff) {
+        Send send;
+        synchronized (this) {
+            Long due = retryAt.get(node);
+            if (!ignoreBackoff && due != null && clock.getAsLong() - due < 0) {
+                return true;
+            }
+            send = unacked.remove(node);
+            if (send == null) {
+                List<UrlBatch> batches = take(node);
+                if (batches.isEmpty()) {
+                    return true;
+                }
+                send = new Send(selfUrl + "#" + ++sequence, batches);
+            }
+            inFlight++;
+        }
+
+        try {
+            client.forward(node, crawlId, send.batchId(), send.batches());
+        } catch (Exception e) {
+            synchronized (this) {
+                inFlight--;
+                unacked.put(node, send);
+                int attempts = failedAttempts.merge(node, 1, Integer::sum);
+                long delay = retryBaseNanos << Math.min(attempts - 1, 30);
+                retryAt.put(node, clock.getAsLong() + Math.min(delay, retryMaxNanos));
+                // Logged on the 1st, 2nd, 4th, 8th... failure so a long outage does not flood the log
+                if (Integer.bitCount(attempts) == 1) {
+                    log.warn("Forwarding to {} failed {} time(s), retrying with backoff: {}", node, attempts, e.getMessage());
+                }
+            }
+            return false;
+        }
+
+        for (UrlBatch batch : send.batches()) {
+            forwarded.markAllVisited(batch.urls());
+        }
+        synchronized (this) {
+            inFlight--;
+            sentUrls += send.urlCount();
+            failedAttempts.remove(node);
+            retryAt.remove(node);
+        }
+        return true;
+    }
+
+    private record Send(String batchId, List<UrlBatch> batches) {
+
+        int urlCount() {
+            return batches.stream().mapToInt(batch -> batch.urls().size()).sum();
+        }
+    }
+}
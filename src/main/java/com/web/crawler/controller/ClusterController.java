@@ -0,0 +1,63 @@
+package com.web.crawler.controller;
+
+import com.web.crawler.cluster.PartitionActivity;
+import com.web.crawler.cluster.PartitionRequest;
+import com.web.crawler.cluster.UrlBatch;
+import com.web.crawler.model.CrawlStatusDto;
+import com.web.crawler.service.CrawlService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Node-to-node endpoints used in cluster mode; clients should use {@link CrawlController}.
+ */
+@RestController
+@RequestMapping("/api/v1/cluster/crawls")
+@AllArgsConstructor
+public class ClusterController {
+
+    private final CrawlService crawlService;
+
+    @PostMapping("/{crawlId}")
+    public Mono<ResponseEntity<Void>> startPartition(@PathVariable String crawlId, @RequestBody PartitionRequest request) {
+        return Offload.run(() -> crawlService.startPartition(crawlId, request))
+                .thenReturn(ResponseEntity.accepted().build());
+    }
+
+    @PostMapping("/{crawlId}/urls")
+    public Mono<ResponseEntity<Void>> acceptUrls(@PathVariable String crawlId, @RequestParam String batchId,
+                                                 @RequestBody List<UrlBatch> batches) {
+        return Offload.call(() -> crawlService.acceptForwardedUrls(crawlId, batchId, batches))
+                .map(accepted -> accepted
+                        ? ResponseEntity.accepted().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    @GetMapping("/{crawlId}/status")
+    public Mono<ResponseEntity<CrawlStatusDto>> getPartitionStatus(@PathVariable String crawlId) {
+        return Offload.call(() -> crawlService.getLocalCrawlStatusDto(crawlId)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{crawlId}/activity")
+    public Mono<ResponseEntity<PartitionActivity>> getPartitionActivity(@PathVariable String crawlId) {
+        return Offload.call(() -> crawlService.getPartitionActivity(crawlId))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{crawlId}/end")
+    public Mono<ResponseEntity<Void>> endPartition(@PathVariable String crawlId) {
+        return Offload.run(() -> crawlService.endPartition(crawlId))
+                .thenReturn(ResponseEntity.ok().build());
+    }
+
+    @PostMapping("/{crawlId}/stop")
+    public Mono<ResponseEntity<Void>> stopPartition(@PathVariable String crawlId) {
+        return Offload.call(() -> crawlService.stopLocalCrawl(crawlId))
+                .thenReturn(ResponseEntity.ok().build());
+    }
+}
@@ -1,88 +1,181 @@
 package com.web.crawler.controller;
 
+import com.web.crawler.cache.ResponseCache;
+import com.web.crawler.cache.SerializedResponse;
 import com.web.crawler.model.*;
 import com.web.crawler.service.CrawlService;
 import jakarta.validation.Valid;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/crawlers")
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class CrawlController {
 
     private final CrawlService crawlService;
 
+    private final ResponseCache responseCache;
+
+    // Polls of one crawl that arrive together share a single status read
+    private final Map<String, Mono<CrawlStatusDto>> statusReads = new ConcurrentHashMap<>();
+
     @PostMapping(value = "/upload", consumes = {"multipart/form-data"})
-    public ResponseEntity<CrawlResponseDto> initiateCrawlFromFile(
-            @RequestPart("file") MultipartFile file,
+    public Mono<ResponseEntity<CrawlResponseDto>> initiateCrawlFromFile(
+            @RequestPart("file") FilePart file,
             @RequestParam("strategy") CrawlType strategy,
             @RequestParam(defaultValue = "100") int maxPages,
             @RequestParam(defaultValue = "5") int maxDepth) {
 
-        try {
-            String crawlId = crawlService.handleFileUrls(file, strategy, maxPages, maxDepth);
-            return ResponseEntity.ok(CrawlResponseDto.builder()
-                    .crawlId(crawlId)
-                    .status(CrawlStatus.RUNNING)
-                    .message("Crawl started from file upload")
-                    .timestamp(LocalDateTime.now())
-                    .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(CrawlResponseDto.builder()
-                    .status(CrawlStatus.FAILED)
-                    .message("Failed to process uploaded file: " + e.getMessage())
-                    .timestamp(LocalDateTime.now())
-                    .build()
-            );
-        }
+        // The upload is streamed to our own file, which the crawl reads and then deletes
+        return Offload.call(() -> Files.createTempFile("crawl-seeds-", ".txt"))
+                .flatMap(seedFile -> file.transferTo(seedFile)
+                        .onErrorResume(e -> Offload.delete(seedFile).then(Mono.error(e)))
+                        .then(Offload.call(() -> crawlService.handleFileUrls(seedFile, strategy, maxPages, maxDepth))))
+                .map(crawlId -> ResponseEntity.ok(CrawlResponseDto.builder()
+                        .crawlId(crawlId)
+                        .status(CrawlStatus.RUNNING)
+                        .message("Crawl started from file upload")
+                        .timestamp(LocalDateTime.now())
+                        .build()
+                ))
+                .onErrorResume(e -> Mono.just(ResponseEntity.internalServerError().body(CrawlResponseDto.builder()
+                        .status(CrawlStatus.FAILED)
+                        .message("Failed to process uploaded file: " + e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build()
+                )));
     }
 
     @PostMapping
-    public ResponseEntity<CrawlResponseDto> initiateCrawling(@Valid @RequestBody CrawlRequest request) {
-        String crawlId = crawlService.startCrawlAsync(request.getUrls(), request.getStrategy(),
-                request.getMaxPages(), request.getMaxDepth());
-
-        return ResponseEntity.ok(CrawlResponseDto.builder()
-                .crawlId(crawlId)
-                .status(CrawlStatus.RUNNING)
-                .message("Crawl started with strategy: " + request.getStrategy())
-                .timestamp(LocalDateTime.now())
-                .build()
-        );
+    public Mono<ResponseEntity<CrawlResponseDto>> initiateCrawling(@Valid @RequestBody CrawlRequest request) {
+        return Offload.call(() -> crawlService.startCrawlAsync(request.getUrls(), request.getStrategy(),
+                        request.getMaxPages(), request.getMaxDepth(), request.getOptions()))
+                .map(crawlId -> ResponseEntity.ok(CrawlResponseDto.builder()
+                        .crawlId(crawlId)
+                        .status(CrawlStatus.RUNNING)
+                        .message("Crawl started with strategy: " + request.getStrategy())
+                        .timestamp(LocalDateTime.now())
+                        .build()
+                ));
     }
 
     @GetMapping("/{crawlId}/status")
-    public ResponseEntity<CrawlStatusDto> getCrawlStatus(@PathVariable String crawlId) {
-        return ResponseEntity.ok(crawlService.getCrawlStatusDto(crawlId));
+    public Mono<ResponseEntity<?>> getCrawlStatus(@PathVariable String crawlId, ServerWebExchange exchange) {
+        return Offload.call(() -> finished(crawlId, crawlId + "/status", () -> finalStatus(crawlId)))
+                .<ResponseEntity<?>>map(response -> serialized(response, exchange))
+                .switchIfEmpty(Mono.defer(() -> statusReads.computeIfAbsent(crawlId, id ->
+                                Offload.call(() -> crawlService.getCrawlStatusDto(id))
+                                        .doFinally(signal -> statusReads.remove(id))
+                                        .cache())
+                        .map(ResponseEntity::ok)));
+    }
+
+    @GetMapping("/{crawlId}/graph")
+    public Mono<ResponseEntity<?>> getLinkGraph(
+            @PathVariable String crawlId,
+            @RequestParam(defaultValue = "20") int top,
+            ServerWebExchange exchange) {
+        return Offload.call(() -> finished(crawlId, crawlId + "/graph?top=" + top,
+                        () -> crawlService.getLinkGraph(crawlId, top)))
+                .<ResponseEntity<?>>map(response -> serialized(response, exchange))
+                .switchIfEmpty(Mono.defer(() -> Offload.call(() -> crawlService.getLinkGraph(crawlId, top))
+                        .map(ResponseEntity::ok)));
+    }
+
+    // Responses of a finished crawl never change, so they are serialized once and then served as bytes
+    private SerializedResponse finished(String crawlId, String key, Supplier<?> body) {
+        return crawlService.isFinished(crawlId) ? responseCache.get(key, body) : null;
+    }
+
+    private CrawlStatusDto finalStatus(String crawlId) {
+        CrawlStatusDto status = crawlService.getCrawlStatusDto(crawlId);
+        // Peers may still be crawling their partitions, or be down and missing from the totals
+        boolean complete = status.getUnreachableNodes() == null || status.getUnreachableNodes().isEmpty();
+        return status.isRunning() || !complete ? null : status;
+    }
+
+    private static ResponseEntity<?> serialized(SerializedResponse response, ServerWebExchange exchange) {
+        boolean gzip = acceptsGzip(exchange.getRequest().getHeaders());
+        String etag = response.etag(gzip);
+        if (exchange.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? response.gzipped() : response.json());
+    }
+
+    private static boolean acceptsGzip(HttpHeaders headers) {
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    @GetMapping("/{crawlId}/results")
+    public Mono<ResponseEntity<CrawlResultsPageDto>> getResults(
+            @PathVariable String crawlId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return Offload.call(() -> crawlService.getResults(crawlId, page, size)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{crawlId}/search")
+    public Mono<ResponseEntity<SearchResultDto>> search(
+            @PathVariable String crawlId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return Offload.call(() -> crawlService.search(crawlId, q, limit)).map(ResponseEntity::ok);
     }
 
     @PostMapping("/{crawlId}/stop")
-    public ResponseEntity<CrawlResponseDto> stopCrawl(@PathVariable String crawlId) {
-        boolean stopped = crawlService.stopCrawl(crawlId);
-
-        return ResponseEntity.ok(CrawlResponseDto.builder()
-                .crawlId(crawlId)
-                .status(stopped ? CrawlStatus.STOPPED : CrawlStatus.NOT_FOUND)
-                .message(stopped ? "Crawl stopped successfully" : "Crawl not found or already completed")
-                .timestamp(LocalDateTime.now())
-                .build()
-        );
+    public Mono<ResponseEntity<CrawlResponseDto>> stopCrawl(@PathVariable String crawlId) {
+        return Offload.call(() -> crawlService.stopCrawl(crawlId))
+                .map(stopped -> ResponseEntity.ok(CrawlResponseDto.builder()
+                        .crawlId(crawlId)
+                        .status(stopped ? CrawlStatus.STOPPED : CrawlStatus.NOT_FOUND)
+                        .message(stopped ? "Crawl stopped successfully" : "Crawl not found or already completed")
+                        .timestamp(LocalDateTime.now())
+                        .build()
+                ));
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<CrawlResult>> getCrawlHistory(
+    public Mono<ResponseEntity<List<CrawlResult>>> getCrawlHistory(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) CrawlStatus status
     ) {
-        return ResponseEntity.ok(crawlService.getCrawlHistory(page, size, Optional.ofNullable(status)));
+        return Offload.call(() -> crawlService.getCrawlHistory(page, size, Optional.ofNullable(status)))
+                .map(ResponseEntity::ok);
     }
 }
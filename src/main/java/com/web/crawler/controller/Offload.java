@@ -0,0 +1,37 @@
+package com.web.crawler.controller;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * Moves service calls off the event loop. Most of them take locks shared with fetch threads, touch
+ * disk or call peer nodes, any of which would stall every connection the loop serves.
+ */
+final class Offload {
+
+    private Offload() {
+    }
+
+    static <T> Mono<T> call(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    static Mono<Void> run(Runnable run) {
+        return Mono.<Void>fromRunnable(run).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    static Mono<Void> delete(Path temporaryFile) {
+        return run(() -> {
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException e) {
+                // Left to the temp directory's own cleanup
+            }
+        });
+    }
+}
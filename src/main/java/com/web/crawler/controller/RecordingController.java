@@ -0,0 +1,87 @@
+package com.web.crawler.controller;
+
+import com.web.crawler.model.RecordingDto;
+import com.web.crawler.profiling.ProfilingProperties;
+import com.web.crawler.profiling.RecordingService;
+import lombok.AllArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Admin endpoints for Flight Recorder recordings of this node; crawl events are under "Web Crawler"
+ * in JDK Mission Control. They answer 404 unless {@code crawler.profiling.enabled} is set, checked per
+ * request rather than by a bean condition so AOT-built jars still honour it.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/recordings")
+@AllArgsConstructor
+public class RecordingController {
+
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
+    private final RecordingService recordingService;
+    private final ProfilingProperties properties;
+
+    @PostMapping
+    public Mono<ResponseEntity<RecordingDto>> start(
+            @RequestParam(defaultValue = "profile") String settings,
+            @RequestParam(defaultValue = "256") long maxSizeMb,
+            @RequestParam(required = false) Long durationSeconds) {
+        Duration duration = durationSeconds != null ? Duration.ofSeconds(durationSeconds) : null;
+        return ifEnabled(Offload.call(() -> recordingService.start(settings, maxSizeMb, duration)).map(ResponseEntity::ok));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<RecordingDto>>> list() {
+        return ifEnabled(Offload.call(recordingService::list).map(ResponseEntity::ok));
+    }
+
+    @PostMapping("/{id}/stop")
+    public Mono<ResponseEntity<RecordingDto>> stop(@PathVariable long id) {
+        return ifEnabled(Offload.call(() -> recordingService.stop(id)).map(ResponseEntity::ok));
+    }
+
+    @GetMapping("/{id}/file")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> download(@PathVariable long id) {
+        return ifEnabled(Offload.call(() -> {
+            Path file = recordingService.dump(id);
+            long size = Files.size(file);
+            // The dump is a temporary copy, removed once the response has been streamed
+            Flux<DataBuffer> body = DataBufferUtils.read(file, DefaultDataBufferFactory.sharedInstance, DOWNLOAD_BUFFER_SIZE)
+                    .doFinally(signal -> Offload.delete(file).subscribe());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(size)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename("crawler-" + id + ".jfr").build().toString())
+                    .body(body);
+        }));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable long id) {
+        return ifEnabled(Offload.run(() -> recordingService.delete(id)).thenReturn(ResponseEntity.noContent().build()));
+    }
+
+    private <T> Mono<T> ifEnabled(Mono<T> action) {
+        if (!properties.isEnabled()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Profiling is disabled"));
+        }
+        return action;
+    }
+}
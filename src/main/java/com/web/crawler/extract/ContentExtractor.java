@@ -0,0 +1,150 @@
+package com.web.crawler.extract;
+
+import com.web.crawler.model.ExtractionRule;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.jsoup.select.Selector;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A crawl's extraction rules, with selectors compiled once and shared by every fetch thread. Rules
+ * are evaluated on each element as the streaming parser completes it, in the same pass that finds
+ * links. The parser drops completed elements to keep the tree small, so elements are kept while
+ * an open ancestor could still match a text rule and needs their text.
+ */
+public class ContentExtractor {
+
+    static final int MAX_VALUE_LENGTH = 2000;
+    private static final int MAX_VALUES = 100;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Evaluator> evaluators = new ArrayList<>();
+    private final List<String> attributes = new ArrayList<>();
+    private final int[] maxValues;
+    private final boolean hasTextRules;
+
+    private ContentExtractor(List<ExtractionRule> rules) {
+        Set<String> seen = new HashSet<>();
+        maxValues = new int[rules.size()];
+        boolean text = false;
+        for (ExtractionRule rule : rules) {
+            if (rule.getName() == null || rule.getName().isBlank() || !seen.add(rule.getName())) {
+                throw new IllegalArgumentException("Extraction rule names must be present and unique");
+            }
+            if (rule.getSelector() == null || rule.getSelector().isBlank()) {
+                throw new IllegalArgumentException("Extraction rule '" + rule.getName() + "' has no selector");
+            }
+            try {
+                evaluators.add(QueryParser.parse(rule.getSelector()));
+            } catch (Selector.SelectorParseException e) {
+                throw new IllegalArgumentException("Invalid selector for extraction rule '" + rule.getName() + "': "
+                        + e.getMessage(), e);
+            }
+            maxValues[names.size()] = Math.max(1, Math.min(MAX_VALUES, rule.getMaxValues()));
+            names.add(rule.getName());
+            String attribute = rule.getAttribute() == null || rule.getAttribute().isBlank() ? null : rule.getAttribute();
+            attributes.add(attribute);
+            text |= attribute == null;
+        }
+        this.hasTextRules = text;
+    }
+
+    /**
+     * @return the compiled rules, or null if there are none
+     */
+    public static ContentExtractor compile(List<ExtractionRule> rules) {
+        return rules == null || rules.isEmpty() ? null : new ContentExtractor(rules);
+    }
+
+    public List<String> fieldNames() {
+        return names;
+    }
+
+    public PageExtraction begin() {
+        return new PageExtraction();
+    }
+
+    /**
+     * Extraction state for one page; not thread-safe.
+     */
+    public class PageExtraction {
+
+        private final List<List<String>> values = new ArrayList<>(names.size());
+        private final Map<Element, Boolean> retaining = new IdentityHashMap<>();
+
+        private PageExtraction() {
+            for (int i = 0; i < names.size(); i++) {
+                values.add(new ArrayList<>(1));
+            }
+        }
+
+        /**
+         * Evaluates the rules on an element the parser has just completed.
+         */
+        public void accept(Document document, Element element) {
+            for (int i = 0; i < evaluators.size(); i++) {
+                List<String> found = values.get(i);
+                if (found.size() >= maxValues[i] || !evaluators.get(i).matches(document, element)) {
+                    continue;
+                }
+                String attribute = attributes.get(i);
+                String value = (attribute == null ? element.text() : element.attr(attribute)).strip();
+                if (!value.isEmpty()) {
+                    found.add(value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value);
+                }
+            }
+            retaining.remove(element);
+        }
+
+        /**
+         * @return whether a completed element must stay in the tree because an open ancestor may still
+         *         match a text rule
+         */
+        public boolean retains(Document document, Element element) {
+            return hasTextRules && isTextTarget(document, element.parent());
+        }
+
+        public Map<String, List<String>> fields() {
+            Map<String, List<String>> fields = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (!values.get(i).isEmpty()) {
+                    fields.put(names.get(i), values.get(i));
+                }
+            }
+            return fields;
+        }
+
+        // Open elements are matched on their tag, attributes and ancestors, which are known once they start
+        private boolean isTextTarget(Document document, Element element) {
+            if (element == null || element == document) {
+                return false;
+            }
+            Boolean cached = retaining.get(element);
+            if (cached != null) {
+                return cached;
+            }
+            boolean target = matchesOpenTextRule(document, element) || isTextTarget(document, element.parent());
+            retaining.put(element, target);
+            return target;
+        }
+
+        private boolean matchesOpenTextRule(Document document, Element element) {
+            for (int i = 0; i < evaluators.size(); i++) {
+                if (attributes.get(i) == null && values.get(i).size() < maxValues[i]
+                        && evaluators.get(i).matches(document, element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
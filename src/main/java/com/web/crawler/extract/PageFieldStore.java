@@ -0,0 +1,98 @@
+package com.web.crawler.extract;
+
+import com.web.crawler.graph.UrlIdDictionary;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracted fields of crawled pages, indexed by URL id. Each page keeps one array of values per
+ * rule, in rule order, so field names are stored once per crawl rather than once per page.
+ */
+public class PageFieldStore {
+
+    private static final String[] NO_VALUES = new String[0];
+
+    private final UrlIdDictionary dictionary;
+    private final List<String> names;
+    private String[][][] pages = new String[1024][][];
+    private long bytes;
+
+    public PageFieldStore(UrlIdDictionary dictionary, List<String> names) {
+        this.dictionary = dictionary;
+        this.names = List.copyOf(names);
+    }
+
+    public void put(String url, Map<String, List<String>> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return;
+        }
+        String[][] values = new String[names.size()][];
+        for (int i = 0; i < values.length; i++) {
+            List<String> found = fields.get(names.get(i));
+            values[i] = found == null || found.isEmpty() ? NO_VALUES : found.toArray(String[]::new);
+        }
+        int id = dictionary.intern(url);
+        synchronized (this) {
+            if (id >= pages.length) {
+                pages = Arrays.copyOf(pages, Math.max(pages.length * 2, id + 1));
+            }
+            // A revisited page replaces its earlier values
+            if (pages[id] != null) {
+                bytes -= sizeOf(pages[id]);
+            }
+            pages[id] = values;
+            bytes += sizeOf(values);
+        }
+    }
+
+    public synchronized Map<String, List<String>> get(int id) {
+        String[][] values = id < pages.length ? pages[id] : null;
+        if (values == null) {
+            return null;
+        }
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].length > 0) {
+                fields.put(names.get(i), List.of(values[i]));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Decodes the fields of up to {@code limit} pages, keyed by URL, for API responses only.
+     */
+    public Map<String, Map<String, List<String>>> toMap(int limit) {
+        Map<String, Map<String, List<String>>> result = new LinkedHashMap<>();
+        int length;
+        synchronized (this) {
+            length = pages.length;
+        }
+        for (int id = 0; id < length && result.size() < limit; id++) {
+            Map<String, List<String>> fields = get(id);
+            if (fields != null) {
+                result.put(dictionary.urlOf(id), fields);
+            }
+        }
+        return result;
+    }
+
+    public synchronized long memoryFootprint() {
+        return bytes + 8L * pages.length;
+    }
+
+    // Array headers and references, plus each string's header and characters
+    private static long sizeOf(String[][] values) {
+        long size = 16 + 8L * values.length;
+        for (String[] found : values) {
+            size += found.length == 0 ? 0 : 16 + 8L * found.length;
+            for (String value : found) {
+                size += 40 + 2L * value.length();
+            }
+        }
+        return size;
+    }
+}
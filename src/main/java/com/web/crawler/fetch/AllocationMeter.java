@@ -0,0 +1,34 @@
+package com.web.crawler.fetch;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the heap bytes allocated by the current thread, where the JVM supports it.
+ */
+public class AllocationMeter {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * @return bytes allocated so far by the calling thread, or -1 when unsupported
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()) {
+            if (!sun.isThreadAllocatedMemoryEnabled()) {
+                sun.setThreadAllocatedMemoryEnabled(true);
+            }
+            return sun;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.web.crawler.fetch;
+
+import org.apache.hc.client5.http.DnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches lookups for {@code ttlSeconds}, and failed lookups for {@code negativeTtlSeconds}, so a
+ * crawl resolves each host about once instead of once per connection.
+ */
+public class CachingDnsResolver implements DnsResolver {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final DnsResolver delegate;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    private final Map<String, CachedLookup> cache = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingDnsResolver(DnsResolver delegate, int ttlSeconds, int negativeTtlSeconds, LongSupplier clock) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.clock = clock;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        String key = host.toLowerCase();
+        long now = clock.getAsLong();
+        CachedLookup cached = cache.get(key);
+        if (cached != null && now - cached.expiresAt < 0) {
+            hits.incrementAndGet();
+            return cached.get();
+        }
+
+        misses.incrementAndGet();
+        if (cache.size() > PRUNE_THRESHOLD) {
+            cache.values().removeIf(lookup -> now - lookup.expiresAt >= 0);
+        }
+        long started = System.nanoTime();
+        try {
+            InetAddress[] addresses = delegate.resolve(host);
+            cache.put(key, new CachedLookup(addresses, null, now + ttlNanos));
+            return addresses.clone();
+        } catch (UnknownHostException e) {
+            cache.put(key, new CachedLookup(null, e.getMessage(), now + negativeTtlNanos));
+            throw e;
+        } finally {
+            FetchTimer.resolved(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    private record CachedLookup(InetAddress[] addresses, String failure, long expiresAt) {
+
+        InetAddress[] get() throws UnknownHostException {
+            if (addresses == null) {
+                throw new UnknownHostException(failure);
+            }
+            return addresses.clone();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.web.crawler.fetch;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Keeps a copy of the bytes read through it, up to {@code limit}, so a body that was streamed to
+ * the parser can still be archived as received.
+ */
+public class CaptureInputStream extends FilterInputStream {
+
+    private final int limit;
+    private byte[] buffer = new byte[8192];
+    private int length;
+    private boolean overflowed;
+
+    public CaptureInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = (int) Math.min(limit, Integer.MAX_VALUE - 8);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            capture(new byte[]{(byte) b}, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int count) throws IOException {
+        int read = super.read(bytes, offset, count);
+        if (read > 0) {
+            capture(bytes, offset, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            overflowed = true;
+        }
+        return skipped;
+    }
+
+    private void capture(byte[] bytes, int offset, int count) {
+        int kept = Math.min(count, limit - length);
+        if (kept < count) {
+            overflowed = true;
+        }
+        if (kept <= 0) {
+            return;
+        }
+        if (length + kept > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(limit, Math.max(length + kept, 2L * buffer.length)));
+        }
+        System.arraycopy(bytes, offset, buffer, length, kept);
+        length += kept;
+    }
+
+    /**
+     * @return the captured bytes, valid up to {@link #length()}
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return true if bytes were read past the limit or skipped, so the capture is incomplete
+     */
+    public boolean overflowed() {
+        return overflowed;
+    }
+}
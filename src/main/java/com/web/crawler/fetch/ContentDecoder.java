@@ -0,0 +1,62 @@
+package com.web.crawler.fetch;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+import org.brotli.dec.BrotliInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Streaming decoders for the {@code Content-Encoding} values the crawler advertises.
+ */
+public final class ContentDecoder {
+
+    public static final String ACCEPT_ENCODING = "gzip, deflate, br, zstd";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentDecoder() {
+    }
+
+    /**
+     * Wraps {@code raw} in a decoder for each coding listed in {@code contentEncoding}, undoing them
+     * in reverse order of application.
+     */
+    public static InputStream decode(InputStream raw, String contentEncoding) throws IOException {
+        if (contentEncoding == null || contentEncoding.isBlank()) {
+            return raw;
+        }
+        String[] codings = contentEncoding.split(",");
+        InputStream decoded = raw;
+        for (int i = codings.length - 1; i >= 0; i--) {
+            decoded = decodeOne(decoded, codings[i].trim().toLowerCase());
+        }
+        return decoded;
+    }
+
+    private static InputStream decodeOne(InputStream in, String coding) throws IOException {
+        return switch (coding) {
+            case "", "identity" -> in;
+            case "gzip", "x-gzip" -> new GZIPInputStream(in, BUFFER_SIZE);
+            case "deflate" -> inflate(in);
+            case "br" -> new BrotliInputStream(in);
+            case "zstd" -> new ZstdInputStream(in);
+            default -> throw new FetchAbortedException(FetchOutcome.FAILED, "Unsupported content encoding: " + coding);
+        };
+    }
+
+    // "deflate" should be zlib-wrapped, but some servers send a raw deflate stream
+    private static InputStream inflate(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        int cmf = buffered.read();
+        int flg = buffered.read();
+        buffered.reset();
+        boolean zlib = cmf != -1 && flg != -1 && (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new InflaterInputStream(buffered, new Inflater(!zlib), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,55 @@
+package com.web.crawler.fetch;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read through it, and the time spent waiting for them.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    private long count;
+    private long readNanos;
+
+    public CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        long started = System.nanoTime();
+        int b = super.read();
+        readNanos += System.nanoTime() - started;
+        if (b != -1) {
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        long started = System.nanoTime();
+        int read = super.read(buffer, offset, length);
+        readNanos += System.nanoTime() - started;
+        if (read > 0) {
+            count += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count += skipped;
+        return skipped;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long readNanos() {
+        return readNanos;
+    }
+}
@@ -0,0 +1,16 @@
+package com.web.crawler.fetch;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+@Getter
+public class FetchAbortedException extends IOException {
+
+    private final FetchOutcome outcome;
+
+    public FetchAbortedException(FetchOutcome outcome, String message) {
+        super(message);
+        this.outcome = outcome;
+    }
+}
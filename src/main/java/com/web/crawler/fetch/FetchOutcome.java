@@ -0,0 +1,12 @@
+package com.web.crawler.fetch;
+
+public enum FetchOutcome {
+    OK,
+    // Body exceeded crawler.http.max-body-bytes; links before the cut were kept
+    TRUNCATED,
+    TIMED_OUT,
+    TOO_SLOW,
+    NOT_HTML,
+    HTTP_ERROR,
+    FAILED
+}
@@ -0,0 +1,127 @@
+package com.web.crawler.fetch;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+
+import java.io.IOException;
+
+/**
+ * Splits a fetch's wall time into {@link FetchTiming} phases as it runs. The timer is bound to the
+ * fetching thread, where the classic client also resolves, connects, handshakes and executes, so
+ * {@link CachingDnsResolver}, the TLS strategy and two exec-chain interceptors report to it directly.
+ * Time between two marks goes to the phase the fetch was in; DNS and TLS are timed on their own
+ * and taken out of the connect phase.
+ */
+public final class FetchTimer {
+
+    /**
+     * Sits before the client's connect step: each request, redirect or not, starts connecting here.
+     */
+    public static final ExecChainHandler BEFORE_CONNECT = FetchTimer::beforeConnect;
+
+    /**
+     * Sits after the client's connect step, so it runs once the connection is open and returns once
+     * the response headers are in.
+     */
+    public static final ExecChainHandler AFTER_CONNECT = FetchTimer::afterConnect;
+
+    private static final ThreadLocal<FetchTimer> CURRENT = new ThreadLocal<>();
+
+    private enum Phase { CONNECT, FIRST_BYTE, BODY }
+
+    private Phase phase = Phase.CONNECT;
+    private long mark;
+    private long dnsNanos;
+    private long tlsNanos;
+    private long connectNanos;
+    private long firstByteNanos;
+    private long downloadNanos;
+    private long parseNanos;
+    // DNS and TLS time since the last mark, which would otherwise count as connect time
+    private long timedSinceMark;
+    private long downloadSinceMark;
+    private int status;
+
+    private FetchTimer(long now) {
+        this.mark = now;
+    }
+
+    /**
+     * Starts timing a fetch on this thread. {@link #finish} must be called on the same thread.
+     */
+    public static FetchTimer start() {
+        FetchTimer timer = new FetchTimer(System.nanoTime());
+        CURRENT.set(timer);
+        return timer;
+    }
+
+    static void resolved(long nanos) {
+        FetchTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.dnsNanos += nanos;
+            timer.timedSinceMark += nanos;
+        }
+    }
+
+    static void handshaken(long nanos) {
+        FetchTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.tlsNanos += nanos;
+            timer.timedSinceMark += nanos;
+        }
+    }
+
+    private static ClassicHttpResponse beforeConnect(ClassicHttpRequest request, ExecChain.Scope scope,
+                                                     ExecChain chain) throws IOException, HttpException {
+        FetchTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.advance(Phase.CONNECT);
+        }
+        return chain.proceed(request, scope);
+    }
+
+    private static ClassicHttpResponse afterConnect(ClassicHttpRequest request, ExecChain.Scope scope,
+                                                    ExecChain chain) throws IOException, HttpException {
+        FetchTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.advance(Phase.FIRST_BYTE);
+        }
+        ClassicHttpResponse response = chain.proceed(request, scope);
+        if (timer != null) {
+            timer.advance(Phase.BODY);
+            timer.status = response.getCode();
+        }
+        return response;
+    }
+
+    /**
+     * Adds time spent blocked reading the response body.
+     */
+    public void downloaded(long nanos) {
+        downloadNanos += nanos;
+        downloadSinceMark += nanos;
+    }
+
+    public FetchTiming finish() {
+        CURRENT.remove();
+        advance(phase);
+        return new FetchTiming(status, dnsNanos, connectNanos, tlsNanos, firstByteNanos, downloadNanos, parseNanos);
+    }
+
+    private void advance(Phase next) {
+        long now = System.nanoTime();
+        long elapsed = now - mark;
+        switch (phase) {
+            case CONNECT -> connectNanos += Math.max(0, elapsed - timedSinceMark);
+            case FIRST_BYTE -> firstByteNanos += Math.max(0, elapsed - timedSinceMark);
+            case BODY -> parseNanos += Math.max(0, elapsed - timedSinceMark - downloadSinceMark);
+        }
+        timedSinceMark = 0;
+        downloadSinceMark = 0;
+        mark = now;
+        phase = next;
+    }
+}
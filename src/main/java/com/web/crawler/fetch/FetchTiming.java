@@ -0,0 +1,19 @@
+package com.web.crawler.fetch;
+
+/**
+ * Where one fetch's time went. Phases are summed over every request the fetch made, including
+ * redirects and a HEAD precheck, so they add up to its wall time.
+ *
+ * @param status         the status code of the last response, or 0 when none was received
+ * @param connectNanos   leasing a pooled connection and opening a new one, excluding DNS and TLS
+ * @param firstByteNanos from sending a request to receiving its response headers
+ * @param downloadNanos  blocked reading the body from the connection
+ * @param parseNanos     decoding and parsing the body, and everything else after the headers
+ */
+public record FetchTiming(int status, long dnsNanos, long connectNanos, long tlsNanos, long firstByteNanos,
+                          long downloadNanos, long parseNanos) {
+
+    public long totalNanos() {
+        return dnsNanos + connectNanos + tlsNanos + firstByteNanos + downloadNanos + parseNanos;
+    }
+}
@@ -0,0 +1,122 @@
+package com.web.crawler.fetch;
+
+import com.web.crawler.model.FetchTimingStats;
+import com.web.crawler.model.Percentiles;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates a crawl's {@link FetchTiming}s into HdrHistograms: one per phase for the crawl, and
+ * one of total fetch time per host. Fetch threads record into lock-free {@link Recorder}s; a status
+ * read drains them into running totals. Host histograms are packed, so a host costs memory in
+ * proportion to the distinct latencies it has seen, and only the first {@link #MAX_HOSTS} hosts get one.
+ */
+public class FetchTimingRecorder {
+
+    static final int MAX_HOSTS = 10_000;
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final String[] PHASES = {"total", "dns", "connect", "tls", "firstByte", "download", "parse"};
+
+    private final Distribution[] phases = new Distribution[PHASES.length];
+    private final Distribution pageBytes = new Distribution(false);
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final Map<String, Distribution> hosts = new ConcurrentHashMap<>();
+
+    public FetchTimingRecorder() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new Distribution(false);
+        }
+    }
+
+    public void record(String host, FetchTiming timing, long wireBytes) {
+        long total = micros(timing.totalNanos());
+        phases[0].record(total);
+        phases[1].record(micros(timing.dnsNanos()));
+        phases[2].record(micros(timing.connectNanos()));
+        phases[3].record(micros(timing.tlsNanos()));
+        phases[4].record(micros(timing.firstByteNanos()));
+        phases[5].record(micros(timing.downloadNanos()));
+        phases[6].record(micros(timing.parseNanos()));
+        pageBytes.record(wireBytes);
+        statusCodes.computeIfAbsent(timing.status(), status -> new LongAdder()).increment();
+
+        Distribution hostTimes = hosts.get(host);
+        if (hostTimes == null && hosts.size() < MAX_HOSTS) {
+            hostTimes = hosts.computeIfAbsent(host, h -> new Distribution(true));
+        }
+        if (hostTimes != null) {
+            hostTimes.record(total);
+        }
+    }
+
+    /**
+     * @param hostLimit how many of the slowest hosts, by p99 total time, to include
+     */
+    public FetchTimingStats snapshot(int hostLimit) {
+        Map<String, Percentiles> phasesMs = new LinkedHashMap<>();
+        for (int i = 0; i < phases.length; i++) {
+            phasesMs.put(PHASES[i], phases[i].summarize(1000.0));
+        }
+        Map<String, Long> codes = new LinkedHashMap<>();
+        statusCodes.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> codes.put(String.valueOf(entry.getKey()), entry.getValue().sum()));
+        Map<String, Percentiles> hostsMs = new LinkedHashMap<>();
+        hosts.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().summarize(1000.0)))
+                .sorted(Comparator.comparingDouble((Map.Entry<String, Percentiles> entry) -> entry.getValue().getP99())
+                        .reversed())
+                .limit(hostLimit)
+                .forEach(entry -> hostsMs.put(entry.getKey(), entry.getValue()));
+        return FetchTimingStats.builder()
+                .phasesMs(phasesMs)
+                .pageBytes(pageBytes.summarize(1))
+                .statusCodes(codes)
+                .hostsMs(hostsMs)
+                .build();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+    }
+
+    private static final class Distribution {
+        private final Recorder recorder;
+        private final Histogram total;
+        private Histogram interval;
+
+        Distribution(boolean packed) {
+            this.recorder = new Recorder(SIGNIFICANT_DIGITS, packed);
+            this.total = packed ? new PackedHistogram(SIGNIFICANT_DIGITS) : new Histogram(SIGNIFICANT_DIGITS);
+        }
+
+        void record(long value) {
+            recorder.recordValue(value);
+        }
+
+        synchronized Percentiles summarize(double divisor) {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return Percentiles.builder()
+                    .count(total.getTotalCount())
+                    .mean(round(total.getMean() / divisor))
+                    .p50(round(total.getValueAtPercentile(50) / divisor))
+                    .p90(round(total.getValueAtPercentile(90) / divisor))
+                    .p99(round(total.getValueAtPercentile(99) / divisor))
+                    .max(round(total.getMaxValue() / divisor))
+                    .build();
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.web.crawler.fetch;
+
+import com.web.crawler.archive.WarcExchange;
+import com.web.crawler.search.TermCounts;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param wireBytes      body bytes received, before content decoding
+ * @param decodedBytes   body bytes after decoding, as seen by the parser
+ * @param allocatedBytes heap bytes the fetching thread allocated for this page, or -1 when not measured
+ * @param status         the status code of an {@link FetchOutcome#HTTP_ERROR} response, otherwise 0
+ * @param retryAfterMs   the delay requested by a {@code Retry-After} header, or -1 when absent
+ * @param contentHash    hash of the page's text and links, or 0 when the body was not parsed to the end
+ * @param fields         values found by the crawl's extraction rules, by rule name
+ * @param terms          the page's term counts when the crawl is indexed and the body was parsed, otherwise null
+ * @param exchange       the raw request and response when the crawl is archived and the body was parsed, otherwise null
+ * @param timing         where the fetch's time went, or null when not measured
+ */
+public record FetchedPage(List<String> links, FetchOutcome outcome, long wireBytes, long decodedBytes,
+                          long allocatedBytes, int status, long retryAfterMs, long contentHash,
+                          Map<String, List<String>> fields, TermCounts terms, WarcExchange exchange,
+                          FetchTiming timing) {
+
+    public FetchedPage(List<String> links, FetchOutcome outcome, long wireBytes, long decodedBytes,
+                       long contentHash, Map<String, List<String>> fields, TermCounts terms, WarcExchange exchange) {
+        this(links, outcome, wireBytes, decodedBytes, -1, 0, -1, contentHash, fields, terms, exchange, null);
+    }
+
+    public FetchedPage(List<String> links, FetchOutcome outcome, long wireBytes, long decodedBytes,
+                       long contentHash) {
+        this(links, outcome, wireBytes, decodedBytes, contentHash, Map.of(), null, null);
+    }
+
+    public FetchedPage(List<String> links, FetchOutcome outcome, long wireBytes, long decodedBytes) {
+        this(links, outcome, wireBytes, decodedBytes, 0);
+    }
+
+    public FetchedPage(List<String> links, FetchOutcome outcome) {
+        this(links, outcome, 0, 0);
+    }
+
+    public static FetchedPage httpError(List<String> links, int status, long retryAfterMs) {
+        return new FetchedPage(links, FetchOutcome.HTTP_ERROR, 0, 0, -1, status, retryAfterMs, 0, Map.of(), null, null,
+                null);
+    }
+
+    public FetchedPage withAllocatedBytes(long allocatedBytes) {
+        return new FetchedPage(links, outcome, wireBytes, decodedBytes, allocatedBytes, status, retryAfterMs,
+                contentHash, fields, terms, exchange, timing);
+    }
+
+    public FetchedPage withTiming(FetchTiming timing) {
+        return new FetchedPage(links, outcome, wireBytes, decodedBytes, allocatedBytes, status, retryAfterMs,
+                contentHash, fields, terms, exchange, timing);
+    }
+}
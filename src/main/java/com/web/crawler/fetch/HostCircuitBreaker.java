@@ -0,0 +1,122 @@
+package com.web.crawler.fetch;
+
+import com.web.crawler.model.HostFailureStats;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-host circuit breaker. After {@code failureThreshold} consecutive transient failures a host's
+ * circuit opens and dispatch to it pauses for {@code openMillis}; then a single probe is let through,
+ * and its outcome either closes the circuit or opens it again.
+ */
+public class HostCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    public HostCircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.clock = clock;
+    }
+
+    public static HostCircuitBreaker from(HttpClientProperties properties) {
+        return new HostCircuitBreaker(properties.getCircuitFailureThreshold(), properties.getCircuitOpenMs(),
+                System::nanoTime);
+    }
+
+    /**
+     * @return 0 if a page on {@code host} may be dispatched now, otherwise the milliseconds until it may
+     */
+    public long blockedForMillis(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            if (!state.open) {
+                return 0;
+            }
+            long now = clock.getAsLong();
+            if (now - state.openUntil < 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(state.openUntil - now));
+            }
+            // Half-open: let this dispatch probe the host, holding the rest back until it reports
+            state.openUntil = now + openNanos;
+            return 0;
+        }
+    }
+
+    public void recordSuccess(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            state.consecutiveFailures = 0;
+            state.open = false;
+        }
+    }
+
+    public void recordFailure(String host) {
+        HostState state = hosts.computeIfAbsent(host, h -> new HostState());
+        synchronized (state) {
+            state.failures++;
+            state.consecutiveFailures++;
+            if (state.consecutiveFailures >= failureThreshold) {
+                if (!state.open) {
+                    state.open = true;
+                    state.openings++;
+                }
+                state.openUntil = clock.getAsLong() + openNanos;
+            }
+        }
+    }
+
+    public void recordRetry(String host) {
+        HostState state = hosts.computeIfAbsent(host, h -> new HostState());
+        synchronized (state) {
+            state.retries++;
+        }
+    }
+
+    /**
+     * @return stats for up to {@code limit} hosts, most failures first
+     */
+    public Map<String, HostFailureStats> snapshot(int limit) {
+        Map<String, HostFailureStats> stats = new LinkedHashMap<>();
+        hosts.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().toStats()))
+                .sorted(Comparator.comparingLong((Map.Entry<String, HostFailureStats> entry) -> entry.getValue().getFailures())
+                        .reversed())
+                .limit(limit)
+                .forEach(entry -> stats.put(entry.getKey(), entry.getValue()));
+        return stats;
+    }
+
+    private static class HostState {
+        long failures;
+        int consecutiveFailures;
+        long retries;
+        long openings;
+        boolean open;
+        long openUntil;
+
+        synchronized HostFailureStats toStats() {
+            return HostFailureStats.builder()
+                    .failures(failures)
+                    .consecutiveFailures(consecutiveFailures)
+                    .retries(retries)
+                    .circuitOpenings(openings)
+                    .circuitOpen(open)
+                    .build();
+        }
+    }
+}
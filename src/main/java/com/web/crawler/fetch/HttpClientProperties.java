@@ -0,0 +1,36 @@
+package com.web.crawler.fetch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.http")
+public class HttpClientProperties {
+    private String userAgent = "WebCrawler/1.0";
+    private String acceptEncoding = ContentDecoder.ACCEPT_ENCODING;
+    private int maxConnections = 200;
+    private int maxConnectionsPerHost = 8;
+    private int connectTimeoutMs = 5000;
+    private int responseTimeoutMs = 10000;
+    private int keepAliveSeconds = 30;
+    private int dnsCacheTtlSeconds = 300;
+    private int dnsNegativeTtlSeconds = 30;
+    private int tlsSessionCacheSize = 1024;
+    private int tlsSessionTimeoutSeconds = 3600;
+    // Per-fetch limits, enforced while the body streams
+    private long maxBodyBytes = 5 * 1024 * 1024;
+    private long maxFetchMs = 30000;
+    private long minTransferBytesPerSecond = 1024;
+    private long minTransferGraceMs = 5000;
+    // Issue a HEAD first and skip non-HTML resources before downloading them
+    private boolean headPrecheck = false;
+    // Transient failures are re-queued with exponential backoff, or after the server's Retry-After
+    private int retryMaxAttempts = 3;
+    private long retryBaseDelayMs = 1000;
+    private long retryMaxDelayMs = 60000;
+    // Consecutive failures that pause dispatch to a host, and for how long
+    private int circuitFailureThreshold = 5;
+    private long circuitOpenMs = 30000;
+}
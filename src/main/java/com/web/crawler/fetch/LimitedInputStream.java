@@ -0,0 +1,77 @@
+package com.web.crawler.fetch;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the fetch limits as the body streams in: reading past {@code maxBytes} ends the stream
+ * early (the page is truncated), while exceeding the deadline or falling below the minimum transfer
+ * rate after the grace period aborts with {@link FetchAbortedException}. The rate counts only time
+ * spent waiting in reads, so a slow consumer between reads is never taken for a slow server.
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private final long deadline;
+    private final long graceNanos;
+    private final long minBytesPerSecond;
+    private final byte[] single = new byte[1];
+    private long bytesRead;
+    private long readNanos;
+    private boolean truncated;
+
+    public LimitedInputStream(InputStream in, long maxBytes, long deadline, long graceMillis, long minBytesPerSecond) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.deadline = deadline;
+        this.graceNanos = TimeUnit.MILLISECONDS.toNanos(graceMillis);
+        this.minBytesPerSecond = minBytesPerSecond;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        checkLimits();
+        if (bytesRead >= maxBytes) {
+            truncated = true;
+            return -1;
+        }
+        long started = System.nanoTime();
+        int read = super.read(buffer, offset, (int) Math.min(length, maxBytes - bytesRead));
+        readNanos += System.nanoTime() - started;
+        if (read > 0) {
+            bytesRead += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        int chunk = (int) Math.min(n, 8192);
+        return Math.max(0, read(new byte[chunk], 0, chunk));
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    public void checkLimits() throws FetchAbortedException {
+        long now = System.nanoTime();
+        if (now - deadline > 0) {
+            throw new FetchAbortedException(FetchOutcome.TIMED_OUT, "Fetch exceeded its time limit");
+        }
+        if (readNanos > graceNanos && bytesRead * TimeUnit.SECONDS.toNanos(1) / readNanos < minBytesPerSecond) {
+            throw new FetchAbortedException(FetchOutcome.TOO_SLOW, "Transfer rate below minimum after " + bytesRead + " bytes");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.web.crawler.fetch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A charset-decoding reader whose byte buffer and decoders belong to the calling thread and are
+ * reused across pages, replacing the per-page {@link java.io.InputStreamReader}. A thread that opens
+ * a second reader while its pooled one is still in use gets an unpooled instance.
+ */
+public final class PooledReader extends Reader {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<PooledReader> POOL = ThreadLocal.withInitial(PooledReader::new);
+
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Map<Charset, CharsetDecoder> decoders = new HashMap<>(4);
+    private InputStream in;
+    private CharsetDecoder decoder;
+    private boolean endOfInput;
+    private boolean drained;
+
+    private PooledReader() {
+    }
+
+    public static PooledReader open(InputStream in, Charset charset) {
+        PooledReader reader = POOL.get();
+        if (reader.in != null) {
+            reader = new PooledReader();
+        }
+        reader.reset(in, charset);
+        return reader;
+    }
+
+    private void reset(InputStream in, Charset charset) {
+        this.in = in;
+        this.decoder = decoders.computeIfAbsent(charset, c -> c.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE));
+        decoder.reset();
+        bytes.clear().flip();
+        endOfInput = false;
+        drained = false;
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+        if (in == null) {
+            throw new IOException("Stream closed");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (drained) {
+            return -1;
+        }
+
+        CharBuffer out = CharBuffer.wrap(chars, offset, length);
+        while (!endOfInput) {
+            // Hand back whatever is decoded rather than blocking on the network for a full buffer
+            if (decoder.decode(bytes, out, false).isOverflow() || out.position() > offset) {
+                return out.position() - offset;
+            }
+            fill();
+        }
+        if (decoder.decode(bytes, out, true).isUnderflow() && decoder.flush(out).isUnderflow()) {
+            drained = true;
+        }
+        int read = out.position() - offset;
+        return read == 0 && drained ? -1 : read;
+    }
+
+    private void fill() throws IOException {
+        bytes.compact();
+        int read = in.read(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            bytes.position(bytes.position() + read);
+        }
+        bytes.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        InputStream stream = in;
+        in = null;
+        decoder = null;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.web.crawler.fetch;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed fetch is worth another attempt and how long to wait first: exponential
+ * backoff from {@code retryBaseDelayMs} with jitter over the upper half of each step, or the server's
+ * {@code Retry-After} when it sent one.
+ */
+public class RetryPolicy {
+
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(408, 425, 429, 500, 502, 503, 504);
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public static RetryPolicy from(HttpClientProperties properties) {
+        return new RetryPolicy(properties.getRetryMaxAttempts(), properties.getRetryBaseDelayMs(),
+                properties.getRetryMaxDelayMs());
+    }
+
+    /**
+     * Whether the host failed to serve the page, as opposed to serving an answer we do not want.
+     */
+    public static boolean isTransientFailure(FetchedPage page) {
+        return switch (page.outcome()) {
+            case TIMED_OUT, TOO_SLOW, FAILED -> true;
+            case HTTP_ERROR -> TRANSIENT_STATUSES.contains(page.status());
+            default -> false;
+        };
+    }
+
+    /**
+     * @param attempt failed attempts before this one
+     * @return milliseconds to wait before the next attempt, or -1 to give up
+     */
+    public long delayMillis(int attempt, FetchedPage page) {
+        if (!isTransientFailure(page) || attempt + 1 >= maxAttempts) {
+            return -1;
+        }
+        if (page.retryAfterMs() >= 0) {
+            // A server asking for longer than we are willing to wait is treated as a refusal
+            return page.retryAfterMs() <= maxDelayMs ? page.retryAfterMs() : -1;
+        }
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt, 30));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+}
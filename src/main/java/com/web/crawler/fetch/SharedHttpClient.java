@@ -0,0 +1,113 @@
+package com.web.crawler.fetch;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The HTTP client every crawl fetches through. One pooled client keeps connections alive per host,
+ * one {@link SSLContext} lets TLS sessions resume across connections, and DNS answers are cached.
+ */
+@Component
+@Slf4j
+public final class SharedHttpClient {
+
+    private final HttpClientProperties properties;
+    private final CachingDnsResolver dnsResolver;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient client;
+
+    public SharedHttpClient(HttpClientProperties properties) {
+        this.properties = properties;
+        this.dnsResolver = new CachingDnsResolver(SystemDefaultDnsResolver.INSTANCE,
+                properties.getDnsCacheTtlSeconds(), properties.getDnsNegativeTtlSeconds(), System::nanoTime);
+
+        SSLContext sslContext = SSLContexts.createSystemDefault();
+        sslContext.getClientSessionContext().setSessionCacheSize(properties.getTlsSessionCacheSize());
+        sslContext.getClientSessionContext().setSessionTimeout(properties.getTlsSessionTimeoutSeconds());
+
+        TlsSocketStrategy tls = new DefaultClientTlsStrategy(sslContext);
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setDnsResolver(dnsResolver)
+                .setTlsSocketStrategy((socket, target, port, attachment, context) -> {
+                    long started = System.nanoTime();
+                    try {
+                        return tls.upgrade(socket, target, port, attachment, context);
+                    } finally {
+                        FetchTimer.handshaken(System.nanoTime() - started);
+                    }
+                })
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerHost())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(properties.getResponseTimeoutMs()))
+                        .build())
+                .build();
+
+        this.client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), "fetch-timer-connect", FetchTimer.BEFORE_CONNECT)
+                .addExecInterceptorAfter(ChainElement.CONNECT.name(), "fetch-timer-exchange", FetchTimer.AFTER_CONNECT)
+                .setUserAgent(properties.getUserAgent())
+                // Bodies are decoded by ContentDecoder so both wire and decoded sizes can be counted
+                .disableContentCompression()
+                .setDefaultHeaders(List.of(new BasicHeader(HttpHeaders.ACCEPT_ENCODING, properties.getAcceptEncoding())))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getResponseTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(properties.getResponseTimeoutMs()))
+                        .setConnectionKeepAlive(TimeValue.ofSeconds(properties.getKeepAliveSeconds()))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(properties.getKeepAliveSeconds()))
+                .evictExpiredConnections()
+                .build();
+        log.info("HTTP client configured: {} connections, {} per host, DNS TTL {}s",
+                properties.getMaxConnections(), properties.getMaxConnectionsPerHost(), properties.getDnsCacheTtlSeconds());
+    }
+
+    public CloseableHttpClient client() {
+        return client;
+    }
+
+    public HttpClientProperties properties() {
+        return properties;
+    }
+
+    public Map<String, Object> stats() {
+        PoolStats pool = connectionManager.getTotalStats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leasedConnections", pool.getLeased());
+        stats.put("idleConnections", pool.getAvailable());
+        stats.put("pendingConnections", pool.getPending());
+        stats.put("dnsCacheHits", dnsResolver.hits());
+        stats.put("dnsCacheMisses", dnsResolver.misses());
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+}
@@ -0,0 +1,121 @@
+package com.web.crawler.frontier;
+
+import com.web.crawler.graph.UrlIdDictionary;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Priority frontier that quantizes {@link UrlScorer} scores into buckets. A URL whose in-link count
+ * moves it into a better bucket is queued again; the stale copy is skipped when it is polled.
+ * Dispatched URLs are tracked as one bit per id of the crawl's {@link UrlIdDictionary}.
+ */
+public class BestFirstFrontier extends BucketedFrontier {
+
+    private static final int BUCKETS = 64;
+
+    private final UrlScorer scorer;
+    private final InlinkCounter inlinks;
+    private final UrlIdDictionary urlIds;
+    private final Object dispatchLock = new Object();
+    private long[] dispatched = new long[16];
+
+    public BestFirstFrontier(int capacity, UrlScorer scorer, UrlIdDictionary urlIds) {
+        super(BUCKETS, capacity);
+        this.scorer = scorer;
+        this.inlinks = new InlinkCounter(capacity);
+        this.urlIds = urlIds;
+    }
+
+    @Override
+    protected int bucketOf(FrontierEntry entry) {
+        return bucketFor(entry.url(), entry.depth(), inlinks.estimate(entry.url()));
+    }
+
+    @Override
+    public boolean recordInlink(String url, int depth) {
+        return recordInlinks(List.of(url), new int[]{urlIds.intern(url)}, depth)[0];
+    }
+
+    @Override
+    public boolean[] recordInlinks(List<String> urls, int[] ids, int depth) {
+        boolean[] skip = new boolean[urls.size()];
+        synchronized (dispatchLock) {
+            for (int i = 0; i < skip.length; i++) {
+                skip[i] = isDispatched(ids[i]);
+            }
+        }
+        boolean[] promoted = new boolean[urls.size()];
+        for (int i = 0; i < promoted.length; i++) {
+            if (!skip[i]) {
+                String url = urls.get(i);
+                int count = inlinks.increment(url);
+                promoted[i] = bucketFor(url, depth, count) < bucketFor(url, depth, count - 1);
+            }
+        }
+        return promoted;
+    }
+
+    @Override
+    public void offerLater(FrontierEntry entry, long delay, TimeUnit unit) {
+        // The URL comes back from dispatch, so it must not be skipped as a stale copy
+        clearDispatched(urlIds.intern(entry.url()));
+        super.offerLater(entry, delay, unit);
+    }
+
+    @Override
+    public FrontierEntry poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            FrontierEntry entry = super.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (entry == null || markDispatched(urlIds.intern(entry.url()))) {
+                return entry;
+            }
+        }
+    }
+
+    @Override
+    public long memoryFootprint() {
+        synchronized (dispatchLock) {
+            return inlinks.memoryFootprint() + (long) dispatched.length * Long.BYTES;
+        }
+    }
+
+    /**
+     * @return true if this call was the first to mark the id dispatched
+     */
+    private boolean markDispatched(int id) {
+        synchronized (dispatchLock) {
+            if (id >= dispatched.length * 64) {
+                dispatched = Arrays.copyOf(dispatched, Math.max(dispatched.length * 2, (id >>> 6) + 1));
+            }
+            long bit = 1L << id;
+            if ((dispatched[id >>> 6] & bit) != 0) {
+                return false;
+            }
+            dispatched[id >>> 6] |= bit;
+            return true;
+        }
+    }
+
+    private boolean isDispatched(int id) {
+        synchronized (dispatchLock) {
+            return (id >>> 6) < dispatched.length && (dispatched[id >>> 6] & (1L << id)) != 0;
+        }
+    }
+
+    private void clearDispatched(int id) {
+        synchronized (dispatchLock) {
+            if ((id >>> 6) < dispatched.length) {
+                dispatched[id >>> 6] &= ~(1L << id);
+            }
+        }
+    }
+
+    private int bucketFor(String url, int depth, int inlinkCount) {
+        double score = scorer.score(url, depth, inlinkCount);
+        int rank = (int) (Math.max(0.0, Math.min(1.0, score)) * BUCKETS);
+        return BUCKETS - 1 - Math.min(BUCKETS - 1, rank);
+    }
+}
@@ -0,0 +1,151 @@
+package com.web.crawler.frontier;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Array of lock-free FIFO buckets; bucket 0 is polled first. Producers never contend on a shared
+ * heap lock, and the semaphore lets the crawl loop block while every bucket is empty. Delayed
+ * entries wait in a {@link DelayQueue} and move into their bucket once due.
+ */
+public abstract class BucketedFrontier implements Frontier {
+
+    private final Queue<FrontierEntry>[] buckets;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger(0);
+    private final Semaphore available = new Semaphore(0);
+    private final DelayQueue<DelayedEntry> delayed = new DelayQueue<>();
+
+    @SuppressWarnings("unchecked")
+    protected BucketedFrontier(int bucketCount, int capacity) {
+        if (bucketCount <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("bucketCount and capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.buckets = new Queue[bucketCount];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * @return the bucket the entry belongs in, or a value outside {@code [0, bucketCount)} to reject it
+     */
+    protected abstract int bucketOf(FrontierEntry entry);
+
+    @Override
+    public boolean offer(FrontierEntry entry) {
+        return offerAll(List.of(entry)) == 1;
+    }
+
+    @Override
+    public int offerAll(List<FrontierEntry> entries) {
+        int reserved = reserve(entries.size());
+        int accepted = 0;
+        for (int i = 0; i < entries.size() && accepted < reserved; i++) {
+            FrontierEntry entry = entries.get(i);
+            int bucket = bucketOf(entry);
+            if (bucket >= 0 && bucket < buckets.length) {
+                buckets[bucket].add(entry);
+                accepted++;
+            }
+        }
+        if (accepted < reserved) {
+            size.addAndGet(accepted - reserved);
+        }
+        available.release(accepted);
+        return accepted;
+    }
+
+    @Override
+    public void offerLater(FrontierEntry entry, long delay, TimeUnit unit) {
+        size.incrementAndGet();
+        delayed.add(new DelayedEntry(entry, System.nanoTime() + unit.toNanos(delay)));
+    }
+
+    @Override
+    public FrontierEntry poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            releaseDue();
+            long remaining = deadline - System.nanoTime();
+            DelayedEntry next = delayed.peek();
+            long wait = next == null ? remaining : Math.min(remaining, next.getDelay(TimeUnit.NANOSECONDS));
+            if (available.tryAcquire(Math.max(0, wait), TimeUnit.NANOSECONDS)) {
+                return take();
+            }
+            if (remaining <= 0) {
+                return null;
+            }
+        }
+    }
+
+    private FrontierEntry take() {
+        // A permit guarantees an entry exists, but a concurrent poller may take it from a better bucket first
+        while (true) {
+            for (Queue<FrontierEntry> bucket : buckets) {
+                FrontierEntry entry = bucket.poll();
+                if (entry != null) {
+                    size.decrementAndGet();
+                    return entry;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size.get());
+    }
+
+    private void releaseDue() {
+        DelayedEntry due;
+        while ((due = delayed.poll()) != null) {
+            int bucket = bucketOf(due.entry());
+            if (bucket >= 0 && bucket < buckets.length) {
+                buckets[bucket].add(due.entry());
+                available.release();
+            } else {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    private int reserve(int requested) {
+        while (true) {
+            int current = size.get();
+            int granted = Math.min(requested, capacity - current);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (size.compareAndSet(current, current + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    private record DelayedEntry(FrontierEntry entry, long dueAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((DelayedEntry) other).dueAt);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.web.crawler.frontier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Logistic blend of a depth penalty, the in-links seen so far and user supplied path weights.
+ * Path weight keys are regular expressions matched anywhere in the URL, e.g. {@code "/tag/": -2.0}.
+ */
+public class DefaultUrlScorer implements UrlScorer {
+
+    private static final double DEPTH_WEIGHT = 0.5;
+    private static final double INLINK_WEIGHT = 1.0;
+
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final double[] weights;
+
+    public DefaultUrlScorer(Map<String, Double> pathWeights) {
+        Map<String, Double> source = pathWeights != null ? pathWeights : Map.of();
+        this.weights = new double[source.size()];
+        int i = 0;
+        for (Map.Entry<String, Double> entry : source.entrySet()) {
+            patterns.add(Pattern.compile(entry.getKey()));
+            weights[i++] = entry.getValue() != null ? entry.getValue() : 0.0;
+        }
+    }
+
+    @Override
+    public double score(String url, int depth, int inlinks) {
+        double raw = INLINK_WEIGHT * Math.log1p(inlinks) - DEPTH_WEIGHT * depth;
+        for (int i = 0; i < weights.length; i++) {
+            if (patterns.get(i).matcher(url).find()) {
+                raw += weights[i];
+            }
+        }
+        return 1.0 / (1.0 + Math.exp(-raw));
+    }
+}
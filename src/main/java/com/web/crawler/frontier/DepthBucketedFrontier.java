@@ -0,0 +1,17 @@
+package com.web.crawler.frontier;
+
+/**
+ * Frontier with one FIFO bucket per depth. Polling always drains the shallowest non-empty bucket,
+ * so pages are dispatched in strict BFS order even while deeper links keep arriving.
+ */
+public class DepthBucketedFrontier extends BucketedFrontier {
+
+    public DepthBucketedFrontier(int maxDepth, int capacity) {
+        super(maxDepth + 1, capacity);
+    }
+
+    @Override
+    protected int bucketOf(FrontierEntry entry) {
+        return entry.depth();
+    }
+}
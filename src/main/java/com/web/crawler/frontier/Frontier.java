@@ -0,0 +1,55 @@
+package com.web.crawler.frontier;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public interface Frontier {
+
+    boolean offer(FrontierEntry entry);
+
+    /**
+     * Offers the entries in order until the frontier is full.
+     *
+     * @return the number of entries accepted
+     */
+    int offerAll(List<FrontierEntry> entries);
+
+    /**
+     * Queues an entry that must not be polled before {@code delay} has passed, such as a retry or a
+     * page on a host whose circuit is open. The entry was already admitted once, so it is accepted
+     * even when the frontier is full; it counts towards {@link #size()} while it waits.
+     */
+    void offerLater(FrontierEntry entry, long delay, TimeUnit unit);
+
+    FrontierEntry poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    int size();
+
+    int remainingCapacity();
+
+    /**
+     * Records another link to {@code url}, which may already be queued.
+     *
+     * @return true if the URL should be offered again at a better priority
+     */
+    default boolean recordInlink(String url, int depth) {
+        return false;
+    }
+
+    /**
+     * Records one more link to each URL of a page, as {@link #recordInlink} does.
+     *
+     * @param ids the URLs' ids in the crawl's URL dictionary
+     * @return for each URL, whether it should be offered again at a better priority
+     */
+    default boolean[] recordInlinks(List<String> urls, int[] ids, int depth) {
+        return new boolean[urls.size()];
+    }
+
+    /**
+     * @return bytes held besides the queued entries themselves, such as priority bookkeeping
+     */
+    default long memoryFootprint() {
+        return 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.web.crawler.frontier;
+
+/**
+ * @param attempt how many times this URL has already been fetched and failed transiently
+ */
+public record FrontierEntry(String url, int depth, long sequence, long parentSequence, int attempt) {
+
+    public static final long NO_PARENT = -1L;
+    // Record, queue node and URL string headers; add one byte per URL character
+    public static final int OVERHEAD_BYTES = 104;
+
+    public FrontierEntry(String url, int depth, long sequence, long parentSequence) {
+        this(url, depth, sequence, parentSequence, 0);
+    }
+
+    public static FrontierEntry seed(String url, long sequence) {
+        return new FrontierEntry(url, 0, sequence, NO_PARENT);
+    }
+
+    public FrontierEntry child(String childUrl, long childSequence) {
+        return new FrontierEntry(childUrl, depth + 1, childSequence, sequence);
+    }
+
+    public FrontierEntry retry() {
+        return new FrontierEntry(url, depth, sequence, parentSequence, attempt + 1);
+    }
+
+    public FrontierEntry revisit() {
+        return new FrontierEntry(url, depth, sequence, parentSequence, 0);
+    }
+}
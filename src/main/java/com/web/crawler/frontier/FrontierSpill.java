@@ -0,0 +1,115 @@
+package com.web.crawler.frontier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Disk overflow for frontier entries that do not fit in memory. Entries are appended to a temporary
+ * file and read back in the order they were written; the file is created on the first write and
+ * emptied whenever the reader catches up with the writer.
+ */
+public class FrontierSpill implements Closeable {
+
+    private final Path directory;
+    private Path file;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private long written;
+    private long read;
+    // written - read, kept apart so size() does not wait for a write to disk
+    private volatile long pending;
+    private boolean closed;
+
+    public FrontierSpill(Path directory) {
+        this.directory = directory;
+    }
+
+    public synchronized void writeAll(List<FrontierEntry> entries) throws IOException {
+        if (closed || entries.isEmpty()) {
+            return;
+        }
+        if (out == null) {
+            file = Files.createTempFile(directory, "frontier-", ".spill");
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        }
+        for (FrontierEntry entry : entries) {
+            // Length-prefixed rather than writeUTF, which is limited to 64 KB
+            byte[] url = entry.url().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(url.length);
+            out.write(url);
+            out.writeInt(entry.depth());
+            out.writeLong(entry.sequence());
+            out.writeLong(entry.parentSequence());
+            out.writeInt(entry.attempt());
+            written++;
+        }
+        pending = written - read;
+    }
+
+    /**
+     * @return up to {@code max} of the oldest spilled entries
+     */
+    public synchronized List<FrontierEntry> read(int max) throws IOException {
+        int count = (int) Math.min(max, written - read);
+        if (closed || count <= 0) {
+            return List.of();
+        }
+        out.flush();
+        if (in == null) {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        }
+        List<FrontierEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] url = new byte[in.readInt()];
+            in.readFully(url);
+            entries.add(new FrontierEntry(new String(url, StandardCharsets.UTF_8),
+                    in.readInt(), in.readLong(), in.readLong(), in.readInt()));
+        }
+        read += count;
+        if (read == written) {
+            reset();
+        }
+        pending = written - read;
+        return entries;
+    }
+
+    public long size() {
+        return pending;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        reset();
+    }
+
+    private void reset() throws IOException {
+        try {
+            if (in != null) {
+                in.close();
+            }
+            if (out != null) {
+                out.close();
+            }
+        } finally {
+            in = null;
+            out = null;
+            written = 0;
+            read = 0;
+            pending = 0;
+            if (file != null) {
+                Files.deleteIfExists(file);
+                file = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.web.crawler.frontier;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch of in-link counts per URL. Memory stays fixed regardless of how many URLs are
+ * seen, and estimates only ever over-count.
+ */
+class InlinkCounter {
+
+    private static final int ROWS = 3;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35};
+
+    private final AtomicIntegerArray counts;
+    private final int mask;
+
+    InlinkCounter(int expectedUrls) {
+        int width = Integer.highestOneBit(Math.max(1024, Math.min(1 << 20, expectedUrls * 2)) - 1) << 1;
+        this.mask = width - 1;
+        this.counts = new AtomicIntegerArray(ROWS * width);
+    }
+
+    int increment(String url) {
+        int hash = url.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < ROWS; row++) {
+            min = Math.min(min, counts.incrementAndGet(index(row, hash)));
+        }
+        return min;
+    }
+
+    int estimate(String url) {
+        int hash = url.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < ROWS; row++) {
+            min = Math.min(min, counts.get(index(row, hash)));
+        }
+        return min;
+    }
+
+    long memoryFootprint() {
+        return (long) counts.length() * Integer.BYTES;
+    }
+
+    private int index(int row, int hash) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 16;
+        return row * (mask + 1) + (h & mask);
+    }
+}
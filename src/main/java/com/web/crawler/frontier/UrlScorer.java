@@ -0,0 +1,10 @@
+package com.web.crawler.frontier;
+
+@FunctionalInterface
+public interface UrlScorer {
+
+    /**
+     * @return a priority in {@code [0, 1]}; higher scores are crawled first
+     */
+    double score(String url, int depth, int inlinks);
+}
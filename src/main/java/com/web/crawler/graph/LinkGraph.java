@@ -0,0 +1,219 @@
+package com.web.crawler.graph;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Crawled link graph built incrementally as pages complete. Each page's out-links are stored as
+ * sorted, de-duplicated URL ids encoded as varint deltas, so a typical edge costs one or two bytes.
+ */
+public class LinkGraph {
+
+    private static final byte[] NO_LINKS = new byte[0];
+
+    private final UrlIdDictionary dictionary = new UrlIdDictionary();
+    private final AtomicLong edgeCount = new AtomicLong(0);
+    private byte[][] adjacency = new byte[1024][];
+    // Written under the lock, read without it so status polls never wait on writers
+    private volatile int crawledPages;
+    private long adjacencyBytes;
+
+    public void addPage(String url, Collection<String> links) {
+        int source = dictionary.intern(url);
+        int[] targets = dictionary.internAll(links);
+        byte[] encoded = encode(targets);
+        int edges = decodeCount(encoded);
+
+        synchronized (this) {
+            ensureCapacity(source);
+            byte[] previous = adjacency[source];
+            if (previous == null) {
+                crawledPages++;
+            } else {
+                edgeCount.addAndGet(-decodeCount(previous));
+                adjacencyBytes -= arrayBytes(previous);
+            }
+            adjacency[source] = encoded;
+            adjacencyBytes += arrayBytes(encoded);
+        }
+        edgeCount.addAndGet(edges);
+    }
+
+    public int[] outLinks(int id) {
+        byte[] encoded;
+        synchronized (this) {
+            encoded = id < adjacency.length ? adjacency[id] : null;
+        }
+        return encoded == null ? new int[0] : decode(encoded);
+    }
+
+    /**
+     * @return encoded out-links for every known node; uncrawled nodes map to an empty array
+     */
+    synchronized byte[][] snapshotAdjacency() {
+        int n = dictionary.size();
+        byte[][] snapshot = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            byte[] encoded = i < adjacency.length ? adjacency[i] : null;
+            snapshot[i] = encoded != null ? encoded : NO_LINKS;
+        }
+        return snapshot;
+    }
+
+    public int outLinkCount(int id) {
+        byte[] encoded;
+        synchronized (this) {
+            encoded = id < adjacency.length ? adjacency[id] : null;
+        }
+        return encoded == null ? 0 : decodeCount(encoded);
+    }
+
+    /**
+     * Decodes the first {@code limit} crawled pages and their out-links back to strings, for API responses only.
+     */
+    public Map<String, List<String>> toResultMap(int limit) {
+        Map<String, List<String>> results = new LinkedHashMap<>();
+        for (int id : crawledIds(0, limit)) {
+            int[] targets = outLinks(id);
+            List<String> links = new ArrayList<>(targets.length);
+            for (int target : targets) {
+                links.add(dictionary.urlOf(target));
+            }
+            results.put(dictionary.urlOf(id), links);
+        }
+        return results;
+    }
+
+    /**
+     * @return ids of up to {@code limit} crawled pages, after skipping the first {@code skip} in id order
+     */
+    public int[] crawledIds(long skip, int limit) {
+        // Reads one page at a time rather than snapshotting, so a small page holds the lock briefly
+        int[] ids = new int[Math.max(0, Math.min(limit, crawledPages))];
+        int found = 0;
+        long skipped = 0;
+        int nodes = dictionary.size();
+        for (int id = 0; id < nodes && found < ids.length; id++) {
+            if (!isCrawled(id)) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                ids[found++] = id;
+            }
+        }
+        return found == ids.length ? ids : Arrays.copyOf(ids, found);
+    }
+
+    public UrlIdDictionary dictionary() {
+        return dictionary;
+    }
+
+    public boolean isCrawled(int id) {
+        synchronized (this) {
+            return id < adjacency.length && adjacency[id] != null;
+        }
+    }
+
+    public String urlOf(int id) {
+        return dictionary.urlOf(id);
+    }
+
+    public int nodeCount() {
+        return dictionary.size();
+    }
+
+    public int crawledPageCount() {
+        return crawledPages;
+    }
+
+    public long edgeCount() {
+        return edgeCount.get();
+    }
+
+    /**
+     * @return approximate heap bytes held by the adjacency lists, excluding the URL dictionary
+     */
+    public synchronized long memoryFootprint() {
+        return adjacencyBytes + 8L * adjacency.length;
+    }
+
+    // Array header plus contents, padded to 8 bytes; the shared empty array costs nothing
+    private static long arrayBytes(byte[] encoded) {
+        return encoded.length == 0 ? 0 : (16 + encoded.length + 7) & ~7L;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= adjacency.length) {
+            adjacency = Arrays.copyOf(adjacency, Math.max(adjacency.length * 2, id + 1));
+        }
+    }
+
+    static byte[] encode(int[] ids) {
+        if (ids.length == 0) {
+            return NO_LINKS;
+        }
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(unique + 5);
+        writeVarInt(out, unique);
+        int previous = 0;
+        for (int i = 0; i < unique; i++) {
+            writeVarInt(out, sorted[i] - previous);
+            previous = sorted[i];
+        }
+        return out.toByteArray();
+    }
+
+    static int[] decode(byte[] encoded) {
+        if (encoded.length == 0) {
+            return new int[0];
+        }
+        int[] position = {0};
+        int[] ids = new int[readVarInt(encoded, position)];
+        int previous = 0;
+        for (int i = 0; i < ids.length; i++) {
+            previous += readVarInt(encoded, position);
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    private static int decodeCount(byte[] encoded) {
+        return encoded.length == 0 ? 0 : readVarInt(encoded, new int[]{0});
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] buffer, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
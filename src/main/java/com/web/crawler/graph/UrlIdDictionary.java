@@ -0,0 +1,313 @@
+package com.web.crawler.graph;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Assigns dense int ids to URLs and stores them compactly: the scheme and authority go into a small
+ * host table, and the path is front-coded against the previous entry in 64 KB byte chunks (with a
+ * restart every {@value #RESTART_INTERVAL} entries to bound decode cost). Lookups go through an
+ * open-addressing table of ids, comparing cached hashes before decoding. Each id also carries a
+ * visited flag so the crawl's dedup set lives here instead of in a separate {@code Set<String>}.
+ * <p>
+ * All methods lock the dictionary; callers should prefer the batch methods, which take the lock
+ * once per page.
+ */
+public class UrlIdDictionary {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int RESTART_INTERVAL = 8;
+
+    private final List<String> prefixes = new ArrayList<>();
+    private final Map<String, Integer> prefixIds = new HashMap<>();
+    private final List<byte[]> chunks = new ArrayList<>();
+    private int chunkPosition = CHUNK_SIZE;
+
+    private int[] offsets = new int[1024];
+    private int[] hashes = new int[1024];
+    private int[] table = new int[2048];
+    private long[] visited = new long[16];
+    private int size;
+    private int visitedCount;
+
+    private byte[] previousPath = new byte[256];
+    private int previousPathLength;
+    private int previousPrefix = -1;
+    private byte[] scratch = new byte[256];
+    private int scratchLength;
+    private int cursor;
+
+    public synchronized int intern(String url) {
+        return internLocked(url);
+    }
+
+    public synchronized int[] internAll(Collection<String> batch) {
+        int[] result = new int[batch.size()];
+        int i = 0;
+        for (String url : batch) {
+            result[i++] = internLocked(url);
+        }
+        return result;
+    }
+
+    public boolean[] markAllVisited(List<String> batch) {
+        return markAllVisited(batch, new int[batch.size()]);
+    }
+
+    /**
+     * Interns every URL and sets its visited flag.
+     *
+     * @param ids filled with each URL's id, so callers need not look them up again
+     * @return for each URL, whether this call was the first to mark it visited
+     */
+    public synchronized boolean[] markAllVisited(List<String> batch, int[] ids) {
+        boolean[] fresh = new boolean[batch.size()];
+        for (int i = 0; i < fresh.length; i++) {
+            int id = internLocked(batch.get(i));
+            ids[i] = id;
+            if (id >= visited.length * 64) {
+                visited = Arrays.copyOf(visited, Math.max(visited.length * 2, (id >>> 6) + 1));
+            }
+            long bit = 1L << id;
+            if ((visited[id >>> 6] & bit) == 0) {
+                visited[id >>> 6] |= bit;
+                visitedCount++;
+                fresh[i] = true;
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Keeps the URLs already marked visited, and of the rest those {@code admitNew} accepts. URLs it
+     * rejects are not interned. The predicate runs under the dictionary lock, so it must be cheap.
+     */
+    public synchronized List<String> retainVisitedOr(List<String> batch, Predicate<String> admitNew) {
+        List<String> kept = new ArrayList<>(batch.size());
+        for (String url : batch) {
+            int id = findLocked(url);
+            if ((id >= 0 && isVisited(id)) || admitNew.test(url)) {
+                kept.add(url);
+            }
+        }
+        return kept;
+    }
+
+    public synchronized boolean isVisited(int id) {
+        return id >= 0 && (id >>> 6) < visited.length && (visited[id >>> 6] & (1L << id)) != 0;
+    }
+
+    public synchronized int visitedCount() {
+        return visitedCount;
+    }
+
+    public synchronized List<String> visitedUrls() {
+        List<String> urls = new ArrayList<>(visitedCount);
+        for (int id = 0; id < size; id++) {
+            if (isVisited(id)) {
+                urls.add(urlOf(id));
+            }
+        }
+        return urls;
+    }
+
+    public synchronized String urlOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown URL id: " + id);
+        }
+        int prefix = decode(id);
+        return prefixes.get(prefix) + new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long memoryFootprint() {
+        long chunkBytes = 0;
+        for (byte[] chunk : chunks) {
+            chunkBytes += chunk.length;
+        }
+        return chunkBytes + 4L * (offsets.length + hashes.length + table.length) + 8L * visited.length;
+    }
+
+    private int internLocked(String url) {
+        return probe(url, true);
+    }
+
+    private int findLocked(String url) {
+        return probe(url, false);
+    }
+
+    /**
+     * @return the URL's id, or -1 if it is unknown and {@code insert} is false
+     */
+    private int probe(String url, boolean insert) {
+        int split = prefixEnd(url);
+        String prefix = url.substring(0, split);
+        byte[] path = url.substring(split).getBytes(StandardCharsets.UTF_8);
+        int hash = url.hashCode();
+
+        Integer prefixId = prefixIds.get(prefix);
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (prefixId != null && hashes[id] == hash && decode(id) == prefixId && pathEquals(path)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!insert) {
+            return -1;
+        }
+
+        if (prefixId == null) {
+            prefixId = prefixes.size();
+            prefixes.add(prefix);
+            prefixIds.put(prefix, prefixId);
+        }
+        int id = append(prefixId, path, hash);
+        table[slot] = id + 1;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private int append(int prefixId, byte[] path, int hash) {
+        int id = size;
+        int shared = 0;
+        if (id % RESTART_INTERVAL != 0 && prefixId == previousPrefix) {
+            int limit = Math.min(previousPathLength, path.length);
+            while (shared < limit && previousPath[shared] == path[shared]) {
+                shared++;
+            }
+        }
+        int suffixLength = path.length - shared;
+
+        byte[] header = new byte[15];
+        int headerLength = writeVarInt(header, 0, prefixId);
+        headerLength = writeVarInt(header, headerLength, shared);
+        headerLength = writeVarInt(header, headerLength, suffixLength);
+        int entryLength = headerLength + suffixLength;
+
+        byte[] chunk;
+        if (chunkPosition + entryLength > CHUNK_SIZE) {
+            chunk = new byte[Math.max(CHUNK_SIZE, entryLength)];
+            chunks.add(chunk);
+            chunkPosition = 0;
+        } else {
+            chunk = chunks.get(chunks.size() - 1);
+        }
+        System.arraycopy(header, 0, chunk, chunkPosition, headerLength);
+        System.arraycopy(path, shared, chunk, chunkPosition + headerLength, suffixLength);
+
+        if (id == offsets.length) {
+            offsets = Arrays.copyOf(offsets, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        offsets[id] = (chunks.size() - 1) * CHUNK_SIZE + chunkPosition;
+        hashes[id] = hash;
+        chunkPosition += entryLength;
+        // An oversized entry owns its chunk; force the next entry into a fresh one
+        if (chunk.length > CHUNK_SIZE) {
+            chunkPosition = CHUNK_SIZE;
+        }
+
+        if (previousPath.length < path.length) {
+            previousPath = new byte[Math.max(path.length, previousPath.length * 2)];
+        }
+        System.arraycopy(path, 0, previousPath, 0, path.length);
+        previousPathLength = path.length;
+        previousPrefix = prefixId;
+        size++;
+        return id;
+    }
+
+    /**
+     * Decodes the path of {@code id} into {@code scratch}, walking forward from its restart point.
+     *
+     * @return the entry's prefix id
+     */
+    private int decode(int id) {
+        int prefix = 0;
+        scratchLength = 0;
+        for (int current = id - id % RESTART_INTERVAL; current <= id; current++) {
+            byte[] chunk = chunks.get(offsets[current] / CHUNK_SIZE);
+            cursor = offsets[current] % CHUNK_SIZE;
+            prefix = readVarInt(chunk);
+            int shared = readVarInt(chunk);
+            int suffixLength = readVarInt(chunk);
+            if (scratch.length < shared + suffixLength) {
+                scratch = Arrays.copyOf(scratch, Math.max(shared + suffixLength, scratch.length * 2));
+            }
+            System.arraycopy(chunk, cursor, scratch, shared, suffixLength);
+            scratchLength = shared + suffixLength;
+        }
+        return prefix;
+    }
+
+    private boolean pathEquals(byte[] path) {
+        return scratchLength == path.length && Arrays.equals(scratch, 0, scratchLength, path, 0, path.length);
+    }
+
+    private void rehash() {
+        int[] newTable = new int[table.length * 2];
+        int mask = newTable.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = id + 1;
+        }
+        table = newTable;
+    }
+
+    private static int prefixEnd(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return 0;
+        }
+        for (int i = scheme + 3; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return url.length();
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int writeVarInt(byte[] buffer, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private int readVarInt(byte[] buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[cursor++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
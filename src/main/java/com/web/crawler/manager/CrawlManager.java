@@ -1,5 +1,11 @@
 package com.web.crawler.manager;
 
+import com.web.crawler.extract.PageFieldStore;
+import com.web.crawler.graph.LinkGraph;
+import com.web.crawler.search.SearchIndex;
+import com.web.crawler.seed.SeedBatch;
+
+import java.util.Collection;
 import java.util.Map;
 
 public interface CrawlManager {
@@ -12,4 +18,43 @@ public interface CrawlManager {
     Map<String, Object> getStatus();
 
     void enqueueUrl(String url, int depth);
+
+    void enqueueAll(Collection<String> urls, int depth);
+
+    /**
+     * Marks the crawl as still receiving seeds, so it does not complete when the frontier drains.
+     */
+    void beginSeeding();
+
+    /**
+     * Adds start URLs, and their domains to the crawl scope, while the crawl runs. Blocks while the
+     * frontier is full.
+     *
+     * @return false once the crawl accepts no more seeds
+     */
+    boolean addSeeds(SeedBatch batch) throws InterruptedException;
+
+    void seedingFinished();
+
+    LinkGraph getLinkGraph();
+
+    /**
+     * Names the crawl in the manager's profiling events.
+     */
+    default void setCrawlId(String crawlId) {
+    }
+
+    /**
+     * @return fields extracted from crawled pages, or null if the crawl has no extraction rules
+     */
+    default PageFieldStore getPageFields() {
+        return null;
+    }
+
+    /**
+     * @return the full-text index of crawled pages, or null if the crawl is not indexed
+     */
+    default SearchIndex getSearchIndex() {
+        return null;
+    }
 }
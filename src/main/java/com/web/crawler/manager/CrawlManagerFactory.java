@@ -1,6 +1,8 @@
 package com.web.crawler.manager;
 
+import com.web.crawler.model.CrawlOptions;
 import com.web.crawler.model.CrawlType;
+import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -8,14 +10,23 @@ import java.util.List;
 import java.util.Objects;
 
 @Component
+@AllArgsConstructor
 public class CrawlManagerFactory {
 
+    private final CrawlResources resources;
+
     public CrawlManager create(List<String> urls, CrawlType type, int maxPages,
-                               int maxDepth, int crawlTimeoutMinutes) {
+                               int maxDepth, int crawlTimeoutMinutes, CrawlOptions options) {
+        return create(urls, type, maxPages, maxDepth, crawlTimeoutMinutes, options, UrlRouter.LOCAL);
+    }
+
+    public CrawlManager create(List<String> urls, CrawlType type, int maxPages, int maxDepth,
+                               int crawlTimeoutMinutes, CrawlOptions options, UrlRouter router) {
         Objects.requireNonNull(type, "CrawlType must not be null");
 
         return switch (type) {
-            case SINGLE_DOMAIN -> new SingleDomainCrawlManager(urls, maxPages, maxDepth, crawlTimeoutMinutes);
+            case SINGLE_DOMAIN -> new SingleDomainCrawlManager(urls, maxPages, maxDepth, crawlTimeoutMinutes,
+                    options != null ? options : CrawlOptions.defaults(), router, resources);
             case MULTI_DOMAIN -> new MultiDomainCrawlManager(urls);
         };
     }
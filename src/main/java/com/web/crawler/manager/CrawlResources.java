@@ -0,0 +1,46 @@
+package com.web.crawler.manager;
+
+import com.web.crawler.archive.WarcProperties;
+import com.web.crawler.archive.WarcWriter;
+import com.web.crawler.fetch.HttpClientProperties;
+import com.web.crawler.fetch.SharedHttpClient;
+import com.web.crawler.graph.UrlIdDictionary;
+import com.web.crawler.memory.MemoryBudget;
+import com.web.crawler.memory.MemoryProperties;
+import com.web.crawler.scope.PublicSuffixList;
+import com.web.crawler.search.SearchIndex;
+import com.web.crawler.search.SearchProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * The node-wide services every crawl shares, handed to each crawl by {@link CrawlManagerFactory}.
+ * Eager so that bad {@code crawler.*} settings fail at startup, even when beans are otherwise lazy.
+ */
+@Component
+@Lazy(false)
+public record CrawlResources(SharedHttpClient http, MemoryBudget memory, PublicSuffixList suffixes,
+                             WarcWriter archive, SearchProperties search) {
+
+    /**
+     * Default settings for crawls built outside a Spring context, such as in tests and benchmarks.
+     * Created on first use and shared from then on.
+     */
+    public static CrawlResources defaults() {
+        return Defaults.INSTANCE;
+    }
+
+    public SearchIndex newSearchIndex(UrlIdDictionary dictionary) {
+        return SearchIndex.create(dictionary, search, memory.spillDirectory());
+    }
+
+    private static final class Defaults {
+        static final CrawlResources INSTANCE;
+
+        static {
+            HttpClientProperties http = new HttpClientProperties();
+            INSTANCE = new CrawlResources(new SharedHttpClient(http), new MemoryBudget(new MemoryProperties()),
+                    PublicSuffixList.bundled(), new WarcWriter(new WarcProperties(), http), new SearchProperties());
+        }
+    }
+}
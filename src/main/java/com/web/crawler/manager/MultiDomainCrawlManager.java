@@ -1,5 +1,9 @@
 package com.web.crawler.manager;
 
+import com.web.crawler.graph.LinkGraph;
+import com.web.crawler.seed.SeedBatch;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -32,4 +36,29 @@ public class MultiDomainCrawlManager implements CrawlManager {
     public void enqueueUrl(String url, int depth) {
 
     }
+
+    @Override
+    public void enqueueAll(Collection<String> urls, int depth) {
+
+    }
+
+    @Override
+    public void beginSeeding() {
+
+    }
+
+    @Override
+    public boolean addSeeds(SeedBatch batch) {
+        return false;
+    }
+
+    @Override
+    public void seedingFinished() {
+
+    }
+
+    @Override
+    public LinkGraph getLinkGraph() {
+        return null;
+    }
 }
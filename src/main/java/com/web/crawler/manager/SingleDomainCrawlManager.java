@@ -1,73 +1,184 @@
 package com.web.crawler.manager;
 
+import com.web.crawler.archive.WarcExchange;
+import com.web.crawler.archive.WarcWriter;
+import com.web.crawler.extract.ContentExtractor;
+import com.web.crawler.extract.PageFieldStore;
+import com.web.crawler.fetch.FetchOutcome;
+import com.web.crawler.fetch.FetchTimingRecorder;
+import com.web.crawler.fetch.FetchedPage;
+import com.web.crawler.fetch.HostCircuitBreaker;
+import com.web.crawler.fetch.HttpClientProperties;
+import com.web.crawler.fetch.RetryPolicy;
+import com.web.crawler.fetch.SharedHttpClient;
+import com.web.crawler.frontier.BestFirstFrontier;
+import com.web.crawler.frontier.DefaultUrlScorer;
+import com.web.crawler.frontier.DepthBucketedFrontier;
+import com.web.crawler.frontier.Frontier;
+import com.web.crawler.frontier.FrontierEntry;
+import com.web.crawler.frontier.FrontierSpill;
+import com.web.crawler.graph.LinkGraph;
+import com.web.crawler.graph.UrlIdDictionary;
+import com.web.crawler.memory.CrawlMemory;
+import com.web.crawler.memory.MemoryBudget;
+import com.web.crawler.model.ArchiveStats;
+import com.web.crawler.model.CrawlOptions;
+import com.web.crawler.model.FrontierOrder;
+import com.web.crawler.model.MemoryStats;
+import com.web.crawler.model.RecrawlStats;
+import com.web.crawler.profiling.DedupEvent;
+import com.web.crawler.profiling.EnqueueEvent;
+import com.web.crawler.profiling.SaveEvent;
+import com.web.crawler.recrawl.RevisitSchedule;
+import com.web.crawler.scope.CrawlScope;
+import com.web.crawler.search.SearchIndex;
+import com.web.crawler.seed.SeedBatch;
+import com.web.crawler.seed.SeedLoader;
 import com.web.crawler.service.CrawlWorker;
+import com.web.crawler.trap.CrawlTrapFilter;
 import com.web.crawler.util.UrlUtils;
 import lombok.extern.slf4j.Slf4j;
 
-import java.net.URI;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Slf4j
 public class SingleDomainCrawlManager implements CrawlManager {
 
     private static final ExecutorService SHARED_EXECUTOR = createSharedExecutor();
-    private final Set<String> visitedUrls;
-    private final BlockingQueue<UrlDepthPair> urlQueue;
+    private static final int HOST_STATS_LIMIT = 50;
+    private static final int MIN_FRONTIER_ENTRIES = 1024;
+    private static final int TYPICAL_URL_LENGTH = 100;
+    private static final long MEMORY_UPDATE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long PAUSE_STEP_MILLIS = 100;
+    private static final int REFILL_BATCH = 256;
+    // URL storage shared by the visited set and the link graph
+    private final LinkGraph linkGraph = new LinkGraph();
+    private final UrlIdDictionary urlStore = linkGraph.dictionary();
+    private final Frontier frontier;
+    private final AtomicLong discoverySequence = new AtomicLong(0);
     private final AtomicInteger pendingTasks = new AtomicInteger(0);
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicBoolean shouldStop = new AtomicBoolean(false);
     private final CountDownLatch completionLatch = new CountDownLatch(1);
 
-    private final Set<String> allowedDomains;
+    private final CrawlScope scope;
     private final int maxPages;
     private final int maxDepth;
     private final int crawlTimeoutMinutes;
+    private final UrlRouter router;
+    private final SharedHttpClient httpClient;
+    private final RetryPolicy retryPolicy;
+    private final HostCircuitBreaker circuitBreaker;
+    private final CrawlTrapFilter trapFilter;
+    // Only set for continuous crawls
+    private final RevisitSchedule revisits;
+    // Only set when the crawl has extraction rules
+    private final ContentExtractor extractor;
+    private final PageFieldStore pageFields;
+    // Only set for indexed crawls
+    private final SearchIndex searchIndex;
+    // Only set for archived crawls
+    private final WarcWriter archive;
+    private final CrawlMemory memory;
+    private final FrontierSpill spill;
+    private final int frontierCapacity;
+    private final int statusResultsLimit;
+    private final long maxPauseMillis;
     private final AtomicInteger processedPages = new AtomicInteger(0);
-    private final Map<String, List<String>> crawlResults = new ConcurrentHashMap<>();
     private final AtomicBoolean crawlCompleted = new AtomicBoolean(false);
+    private final AtomicLongArray fetchOutcomes = new AtomicLongArray(FetchOutcome.values().length);
+    private final FetchTimingRecorder fetchTimings = new FetchTimingRecorder();
+    private final AtomicLong bytesOnWire = new AtomicLong();
+    private final AtomicLong bytesDecoded = new AtomicLong();
+    private final AtomicLong bytesAllocated = new AtomicLong();
+    private final AtomicLong allocationSamples = new AtomicLong();
+    private final AtomicLong queuedUrls = new AtomicLong();
+    private final AtomicLong queuedUrlChars = new AtomicLong();
+    private final AtomicLong droppedUrls = new AtomicLong();
+    private final AtomicLong droppedLinkLists = new AtomicLong();
+    private final AtomicLong pausedMillis = new AtomicLong();
+    private final AtomicLong archivedPages = new AtomicLong();
+    private final AtomicLong archivedBytes = new AtomicLong();
+    private final AtomicLong droppedArchivePages = new AtomicLong();
+    private final AtomicLong lastMemoryUpdate = new AtomicLong(System.nanoTime() - MEMORY_UPDATE_NANOS);
+    private long pauseStartedAt;
+    private volatile boolean seeding;
+    private volatile String crawlId;
 
     private volatile LocalDateTime startTime;
     private volatile LocalDateTime endTime;
 
 
     public SingleDomainCrawlManager(List<String> startUrls, int maxPages, int maxDepth, int crawlTimeoutMinutes) {
+        this(startUrls, maxPages, maxDepth, crawlTimeoutMinutes, CrawlOptions.defaults());
+    }
+
+    public SingleDomainCrawlManager(List<String> startUrls, int maxPages, int maxDepth, int crawlTimeoutMinutes,
+                                    CrawlOptions options) {
+        this(startUrls, maxPages, maxDepth, crawlTimeoutMinutes, options, UrlRouter.LOCAL);
+    }
+
+    public SingleDomainCrawlManager(List<String> startUrls, int maxPages, int maxDepth, int crawlTimeoutMinutes,
+                                    CrawlOptions options, UrlRouter router) {
+        this(startUrls, maxPages, maxDepth, crawlTimeoutMinutes, options, router, CrawlResources.defaults());
+    }
+
+    public SingleDomainCrawlManager(List<String> startUrls, int maxPages, int maxDepth, int crawlTimeoutMinutes,
+                                    CrawlOptions options, UrlRouter router, CrawlResources resources) {
         if (startUrls == null || startUrls.isEmpty()) {
             throw new IllegalArgumentException("At least one start URL must be provided.");
         }
         this.crawlTimeoutMinutes = crawlTimeoutMinutes;
-
-        this.allowedDomains = ConcurrentHashMap.newKeySet();
-        for (String url : startUrls) {
-            String domain = extractDomain(url);
-            if (domain != null) {
-                this.allowedDomains.add(domain);
-            }
-        }
-
-        if (allowedDomains.isEmpty()) {
+        this.router = router;
+        this.httpClient = resources.http();
+        HttpClientProperties http = httpClient.properties();
+        this.retryPolicy = RetryPolicy.from(http);
+        this.circuitBreaker = HostCircuitBreaker.from(http);
+
+        // One URI parse per seed yields both the normalized URL and its scope domain
+        SeedBatch seeds = SeedLoader.validate(startUrls);
+        if (seeds.domains().isEmpty()) {
             throw new IllegalArgumentException("No valid domains found in start URLs.");
         }
-        this.visitedUrls = ConcurrentHashMap.newKeySet();
-
-        this.maxPages = Math.min(maxPages, 1000);
-        this.maxDepth = Math.min(maxDepth, 10);
-
-        this.urlQueue = new ArrayBlockingQueue<>(maxPages * 2);
-
-        for (String url : startUrls) {
-            if (isSameDomain(url)) {
-                enqueueUrl(url, 0);
-            } else {
-                log.warn("Start URL {} is not in allowed domains {}, skipping", url, allowedDomains);
-            }
-        }
-
-        log.info("Initialized crawler for domains: {}, maxPages: {}, maxDepth: {}",
-                allowedDomains, this.maxPages, this.maxDepth);
+        this.scope = CrawlScope.of(options, seeds.domains(), resources.suffixes());
+
+        this.maxPages = maxPages;
+        this.maxDepth = maxDepth;
+
+        MemoryBudget budget = resources.memory();
+        this.memory = budget.register(linkGraph);
+        this.spill = new FrontierSpill(budget.spillDirectory());
+        this.statusResultsLimit = budget.properties().getStatusResultsLimit();
+        this.maxPauseMillis = budget.properties().getMaxPauseMs();
+        // The frontier holds what its memory share allows, never less than a working set; the rest spills to disk
+        long budgetEntries = memory.frontierLimitBytes() / (FrontierEntry.OVERHEAD_BYTES + TYPICAL_URL_LENGTH);
+        this.frontierCapacity = (int) Math.min(2L * maxPages, Math.max(MIN_FRONTIER_ENTRIES, budgetEntries));
+
+        this.frontier = options.getFrontierOrder() == FrontierOrder.BEST_FIRST
+                ? new BestFirstFrontier(frontierCapacity, new DefaultUrlScorer(options.getPathWeights()), urlStore)
+                : new DepthBucketedFrontier(this.maxDepth, frontierCapacity);
+        this.trapFilter = new CrawlTrapFilter(options, (int) Math.min(Integer.MAX_VALUE, 4L * maxPages));
+        this.revisits = options.isContinuous()
+                ? new RevisitSchedule(options.getInitialRevisitSeconds(), options.getMinRevisitSeconds(),
+                        options.getMaxRevisitSeconds(), System::currentTimeMillis)
+                : null;
+        this.extractor = ContentExtractor.compile(options.getExtract());
+        this.pageFields = extractor != null ? new PageFieldStore(urlStore, extractor.fieldNames()) : null;
+        this.searchIndex = options.isIndex() ? resources.newSearchIndex(urlStore) : null;
+        this.archive = options.isArchive() ? resources.archive() : null;
+
+        // Every cluster node is started with the same seeds, so each keeps only its own
+        admit(seeds.urls().stream().filter(router::isLocal).toList(), 0, FrontierEntry.NO_PARENT);
+
+        log.info("Initialized crawler for domains: {}, maxPages: {}, maxDepth: {}, order: {}, frontier: {} in memory",
+                scope, this.maxPages, this.maxDepth, options.getFrontierOrder(), frontierCapacity);
     }
 
     private static ExecutorService createSharedExecutor() {
@@ -114,17 +225,23 @@ public class SingleDomainCrawlManager implements CrawlManager {
     @Override
     public void start() {
         if (!running.compareAndSet(false, true)) {
-            log.warn("Crawl already running for domains: {}, skipping", allowedDomains);
+            log.warn("Crawl already running for domains: {}, skipping", scope);
             return;
         }
 
         log.info("Starting crawl for domains: {}, maxPages: {}, maxDepth: {}",
-                allowedDomains, maxPages, maxDepth);
+                scope, maxPages, maxDepth);
 
+        router.watchIdle(() -> isIdle() && !seeding);
         try {
             this.startTime = LocalDateTime.now();
             CompletableFuture<Void> crawlFuture = CompletableFuture.runAsync(this::executeCrawl, SHARED_EXECUTOR);
-            crawlFuture.get(crawlTimeoutMinutes, TimeUnit.MINUTES);
+            if (revisits != null) {
+                // A continuous crawl runs until it is stopped
+                crawlFuture.get();
+            } else {
+                crawlFuture.get(crawlTimeoutMinutes, TimeUnit.MINUTES);
+            }
         } catch (TimeoutException e) {
             log.warn("Crawl timed out after {} minutes", crawlTimeoutMinutes);
             shouldStop.set(true);
@@ -140,25 +257,36 @@ public class SingleDomainCrawlManager implements CrawlManager {
 
     private void executeCrawl() {
         try {
-            while (running.get() && !shouldStop.get() && processedPages.get() < maxPages) {
-                UrlDepthPair urlPair = urlQueue.poll(2, TimeUnit.SECONDS);
-
-                if (urlPair != null && urlPair.depth <= maxDepth) {
+            while (running.get() && !shouldStop.get() && !fetchLimitReached()) {
+                updateMemoryUsage();
+                if (pauseForMemory()) {
+                    continue;
+                }
+                refillFromSpill();
+                FrontierEntry entry = frontier.poll(2, TimeUnit.SECONDS);
+
+                if (entry != null && entry.depth() <= maxDepth) {
+                    long blockedMillis = circuitBreaker.blockedForMillis(hostOf(entry.url()));
+                    if (blockedMillis > 0) {
+                        frontier.offerLater(entry, blockedMillis, TimeUnit.MILLISECONDS);
+                        continue;
+                    }
                     pendingTasks.incrementAndGet();
-                    SHARED_EXECUTOR.submit(() -> {
-                        try {
-                            new CrawlWorker(urlPair.url, urlPair.depth, this).run();
-                        } finally {
-                            taskCompleted();
-                        }
-                    });
-
-                } else if (urlPair == null && pendingTasks.get() == 0) {
-                    log.info("No more URLs to process and no pending tasks. Crawl complete.");
-                    break;
+                    // CrawlWorker reports taskCompleted() itself
+                    SHARED_EXECUTOR.submit(new CrawlWorker(entry, this));
+
+                } else if (entry == null && pendingTasks.get() == 0 && !seeding && spill.size() == 0) {
+                    // In cluster mode peers may still forward URLs after this partition drains
+                    while (isIdle() && !shouldStop.get() && !router.crawlEnded()) {
+                        Thread.sleep(100);
+                    }
+                    if (isIdle() && router.crawlEnded()) {
+                        log.info("No more URLs to process and no pending tasks. Crawl complete.");
+                        break;
+                    }
                 }
 
-                if (processedPages.get() >= maxPages) {
+                if (fetchLimitReached()) {
                     log.info("Reached maximum pages limit: {}", maxPages);
                     break;
                 }
@@ -184,7 +312,7 @@ public class SingleDomainCrawlManager implements CrawlManager {
             }
 
             log.info("All tasks completed. Final processed pages: {}, Final results count: {}",
-                    processedPages.get(), crawlResults.size());
+                    processedPages.get(), linkGraph.crawledPageCount());
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -194,6 +322,102 @@ public class SingleDomainCrawlManager implements CrawlManager {
         }
     }
 
+    // A continuous crawl keeps revisiting its pages, so maxPages bounds the pages it tracks instead
+    private boolean fetchLimitReached() {
+        return revisits == null && processedPages.get() >= maxPages;
+    }
+
+    private boolean pageLimitReached() {
+        return revisits == null ? processedPages.get() >= maxPages : urlStore.visitedCount() >= maxPages;
+    }
+
+    private boolean isIdle() {
+        return frontier.size() == 0 && pendingTasks.get() == 0 && spill.size() == 0;
+    }
+
+    // Under heap pressure dispatch stops so in-flight pages can finish; past maxPauseMs the crawl goes on degraded
+    private boolean pauseForMemory() throws InterruptedException {
+        if (!memory.underPressure()) {
+            pauseStartedAt = 0;
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (pauseStartedAt == 0) {
+            pauseStartedAt = now;
+            log.warn("Heap under pressure, pausing dispatch for domains: {}", scope);
+        }
+        if (now - pauseStartedAt >= maxPauseMillis) {
+            return false;
+        }
+        Thread.sleep(PAUSE_STEP_MILLIS);
+        pausedMillis.addAndGet(System.currentTimeMillis() - now);
+        updateMemoryUsage();
+        return true;
+    }
+
+    private void refillFromSpill() {
+        int room = frontier.remainingCapacity();
+        if (room < Math.min(REFILL_BATCH, frontierCapacity / 2) || spill.size() == 0) {
+            return;
+        }
+        try {
+            List<FrontierEntry> entries = spill.read(room);
+            int offered = frontier.offerAll(entries);
+            if (offered < entries.size()) {
+                spill.writeAll(entries.subList(offered, entries.size()));
+            }
+        } catch (IOException e) {
+            log.warn("Could not read spilled frontier entries: {}", e.getMessage());
+        }
+    }
+
+    private void spill(List<FrontierEntry> entries) {
+        try {
+            spill.writeAll(entries);
+        } catch (IOException e) {
+            log.warn("Could not spill {} frontier entries: {}", entries.size(), e.getMessage());
+            droppedUrls.addAndGet(entries.size());
+        }
+    }
+
+    private void updateMemoryUsage() {
+        long now = System.nanoTime();
+        long last = lastMemoryUpdate.get();
+        if (now - last < MEMORY_UPDATE_NANOS || !lastMemoryUpdate.compareAndSet(last, now)) {
+            return;
+        }
+        memory.update(frontierBytes(), visitedBytes(), resultBytes());
+    }
+
+    private long resultBytes() {
+        return linkGraph.memoryFootprint() + (pageFields != null ? pageFields.memoryFootprint() : 0)
+                + (searchIndex != null ? searchIndex.memoryFootprint() : 0);
+    }
+
+    private long visitedBytes() {
+        return urlStore.memoryFootprint() + (revisits != null ? revisits.memoryFootprint() : 0);
+    }
+
+    private long frontierBytes() {
+        long urls = queuedUrls.get();
+        long averageUrlLength = urls == 0 ? TYPICAL_URL_LENGTH : queuedUrlChars.get() / urls;
+        return frontier.size() * (FrontierEntry.OVERHEAD_BYTES + averageUrlLength) + frontier.memoryFootprint();
+    }
+
+    private MemoryStats memoryStats() {
+        return MemoryStats.builder()
+                .budgetBytes(memory.allowanceBytes())
+                .frontierBytes(memory.frontierBytes())
+                .visitedBytes(memory.visitedBytes())
+                .resultBytes(memory.resultBytes())
+                .frontierCapacity(frontierCapacity)
+                .spilledEntries(spill.size())
+                .droppedUrls(droppedUrls.get())
+                .droppedLinkLists(droppedLinkLists.get())
+                .pausedMs(pausedMillis.get())
+                .build();
+    }
+
     @Override
     public void stop() {
         shouldStop.set(true);
@@ -218,18 +442,47 @@ public class SingleDomainCrawlManager implements CrawlManager {
         status.put("completed", crawlCompleted.get());
         status.put("processedPages", processedPages.get());
         status.put("pendingTasks", pendingTasks.get());
-        status.put("queueSize", urlQueue.size());
-        status.put("visitedUrlsCount", visitedUrls.size());
-        status.put("visitedUrls", new ArrayList<>(visitedUrls));
+        status.put("queueSize", frontier.size() + (int) spill.size());
+        status.put("visitedUrlsCount", urlStore.visitedCount());
         status.put("maxPages", maxPages);
         status.put("maxDepth", maxDepth);
-        status.put("domains", new ArrayList<>(allowedDomains));
-        status.put("resultsCount", crawlResults.size());
-        status.put("results", new HashMap<>(crawlResults));
-        status.put("hasResults", !crawlResults.isEmpty());
+        status.put("domains", new ArrayList<>(scope.domains()));
+        status.put("resultsCount", linkGraph.crawledPageCount());
+        // Status is polled, so it carries a bounded sample; the full results stay in the graph
+        status.put("results", linkGraph.toResultMap(statusResultsLimit));
+        if (pageFields != null) {
+            status.put("extractedFields", pageFields.toMap(statusResultsLimit));
+        }
+        status.put("hasResults", linkGraph.crawledPageCount() > 0);
+        status.put("urlStorageBytes", urlStore.memoryFootprint());
+        status.put("fetchOutcomes", fetchOutcomeCounts());
+        status.put("bytesOnWire", bytesOnWire.get());
+        status.put("bytesDecoded", bytesDecoded.get());
+        status.put("hostFailures", circuitBreaker.snapshot(HOST_STATS_LIMIT));
+        status.put("fetchTimings", fetchTimings.snapshot(HOST_STATS_LIMIT));
+        status.put("trapRejections", trapFilter.rejectionCounts());
+        status.put("trapRejectedUrls", trapFilter.rejectedSamples());
+        status.put("memory", memoryStats());
+        if (revisits != null) {
+            status.put("recrawl", RecrawlStats.builder()
+                    .revisits(revisits.revisits())
+                    .changedRevisits(revisits.changedRevisits())
+                    .meanRevisitSeconds(revisits.meanIntervalSeconds())
+                    .build());
+        }
+        if (archive != null) {
+            status.put("archive", ArchiveStats.builder()
+                    .archivedPages(archivedPages.get())
+                    .archivedBytes(archivedBytes.get())
+                    .droppedPages(droppedArchivePages.get())
+                    .build());
+        }
+        status.put("bytesAllocated", bytesAllocated.get());
+        long samples = allocationSamples.get();
+        status.put("allocatedBytesPerPage", samples == 0 ? 0L : bytesAllocated.get() / samples);
         if (log.isDebugEnabled()) {
             log.debug("Status check - Results: {}, Processed: {}, Running: {}",
-                    crawlResults.size(), processedPages.get(), running.get());
+                    linkGraph.crawledPageCount(), processedPages.get(), running.get());
         }
         status.put("startTime", startTime);
         status.put("endTime", endTime);
@@ -239,38 +492,229 @@ public class SingleDomainCrawlManager implements CrawlManager {
 
     @Override
     public void enqueueUrl(String url, int depth) {
-        if (url == null || shouldStop.get() || processedPages.get() >= maxPages || depth > maxDepth) {
-            return;
+        enqueueAll(Collections.singletonList(url), depth);
+    }
+
+    @Override
+    public void enqueueAll(Collection<String> urls, int depth) {
+        enqueueAll(urls, depth, FrontierEntry.NO_PARENT, null);
+    }
+
+    /**
+     * Enqueues the links found on {@code parent}, forwarding those owned by other cluster nodes.
+     *
+     * @return the distinct, normalized, in-scope links
+     */
+    public List<String> enqueueLinks(FrontierEntry parent, Collection<String> links) {
+        return enqueueAll(links, parent.depth() + 1, parent.sequence(), parent.url());
+    }
+
+    private List<String> enqueueAll(Collection<String> urls, int depth, long parentSequence, String parentUrl) {
+        if (urls == null || urls.isEmpty()) {
+            return Collections.emptyList();
+        }
+        EnqueueEvent event = new EnqueueEvent();
+        event.begin();
+
+        // Normalize and dedup within the page first so each distinct link is scope-checked and probed once
+        Set<String> candidates = new LinkedHashSet<>();
+        for (String url : urls) {
+            if (url == null || url.isBlank()) {
+                continue;
+            }
+            String normalizedUrl = UrlUtils.normalizeUrl(url);
+            if (normalizedUrl != null) {
+                candidates.add(trapFilter.canonicalize(normalizedUrl));
+            }
         }
 
-        String normalizedUrl = UrlUtils.normalizeUrl(url);
-        // We don't need  isSameDomain check. that has been already done
-        if (normalizedUrl != null && isSameDomain(normalizedUrl) && visitedUrls.add(normalizedUrl)) {
-            if (!urlQueue.offer(new UrlDepthPair(normalizedUrl, depth))) {
-                log.debug("URL queue full, skipping: {}", normalizedUrl);
+        List<String> inScope = new ArrayList<>(candidates.size());
+        for (String normalizedUrl : candidates) {
+            if (scope.contains(normalizedUrl)) {
+                inScope.add(normalizedUrl);
             }
         }
+        if (shouldStop.get() || pageLimitReached() || depth > maxDepth) {
+            event.commit(crawlId, parentUrl, depth, urls.size(), inScope.size(), 0);
+            return inScope;
+        }
+        List<String> rejected = admit(inScope, depth, parentSequence);
+        if (!rejected.isEmpty()) {
+            inScope.removeAll(new HashSet<>(rejected));
+        }
+        event.commit(crawlId, parentUrl, depth, urls.size(), inScope.size() + rejected.size(), rejected.size());
+        return inScope;
+    }
+
+    /**
+     * Routes normalized, in-scope URLs: foreign ones to their owning node, new local ones to the frontier.
+     *
+     * @return the new local URLs turned away as likely crawl traps or for lack of memory
+     */
+    private List<String> admit(List<String> inScope, int depth, long parentSequence) {
+        List<String> local = new ArrayList<>(inScope.size());
+        List<String> remote = new ArrayList<>();
+        for (String normalizedUrl : inScope) {
+            (router.isLocal(normalizedUrl) ? local : remote).add(normalizedUrl);
+        }
+        if (!remote.isEmpty()) {
+            router.forwardAll(remote, depth);
+        }
+        DedupEvent dedup = new DedupEvent();
+        dedup.begin();
+        int checked = local.size();
+        List<String> rejected = new ArrayList<>();
+        if (depth > 0) {
+            // Only URLs new to the crawl count against the limits; rejected ones never enter the visited set
+            boolean visitedFull = memory.visitedExhausted();
+            local = urlStore.retainVisitedOr(local, url -> {
+                if (visitedFull) {
+                    droppedUrls.incrementAndGet();
+                } else if (trapFilter.admit(url)) {
+                    return true;
+                }
+                rejected.add(url);
+                return false;
+            });
+        }
+        int[] ids = new int[local.size()];
+        boolean[] fresh = urlStore.markAllVisited(local, ids);
+        // A best-first frontier may re-queue an already seen URL whose in-links raised its priority
+        boolean[] promoted = frontier.recordInlinks(local, ids, depth);
+
+        List<FrontierEntry> accepted = new ArrayList<>(local.size());
+        for (int i = 0; i < fresh.length; i++) {
+            String normalizedUrl = local.get(i);
+            if (fresh[i] || promoted[i]) {
+                accepted.add(new FrontierEntry(normalizedUrl, depth,
+                        discoverySequence.getAndIncrement(), parentSequence));
+                queuedUrlChars.addAndGet(normalizedUrl.length());
+            }
+        }
+        queuedUrls.addAndGet(accepted.size());
+        dedup.commit(crawlId, checked, fresh, accepted.size());
+
+        int offered = frontier.offerAll(accepted);
+        if (offered < accepted.size()) {
+            log.debug("URL frontier full, spilling {} URLs to disk", accepted.size() - offered);
+            spill(accepted.subList(offered, accepted.size()));
+        }
+        return rejected;
+    }
+
+    @Override
+    public void beginSeeding() {
+        seeding = true;
+    }
+
+    @Override
+    public boolean addSeeds(SeedBatch batch) throws InterruptedException {
+        scope.addSeedDomains(batch.domains());
+        List<String> urls = batch.urls();
+        int next = 0;
+        while (next < urls.size()) {
+            if (shouldStop.get() || pageLimitReached()) {
+                return false;
+            }
+            int room = frontier.remainingCapacity();
+            if (room == 0) {
+                Thread.sleep(50);
+                continue;
+            }
+            int end = Math.min(urls.size(), next + room);
+            admit(urls.subList(next, end), 0, FrontierEntry.NO_PARENT);
+            next = end;
+        }
+        return true;
+    }
+
+    @Override
+    public void seedingFinished() {
+        seeding = false;
+    }
+
+    @Override
+    public LinkGraph getLinkGraph() {
+        return linkGraph;
+    }
+
+    @Override
+    public PageFieldStore getPageFields() {
+        return pageFields;
+    }
+
+    @Override
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public boolean isArchived() {
+        return archive != null;
+    }
+
+    public SharedHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Hands a fetched page to the WARC writer; it is dropped and counted if the writer is behind.
+     */
+    public void archive(WarcExchange exchange) {
+        if (archive.submit(exchange)) {
+            archivedPages.incrementAndGet();
+            archivedBytes.addAndGet(exchange.size());
+        } else {
+            droppedArchivePages.incrementAndGet();
+        }
+    }
+
+    public ContentExtractor getExtractor() {
+        return extractor;
+    }
+
+    @Override
+    public void setCrawlId(String crawlId) {
+        this.crawlId = crawlId;
+    }
+
+    public String getCrawlId() {
+        return crawlId;
     }
 
     public void recordCrawlResult(String url, List<String> links) {
+        recordCrawlResult(url, links, Map.of());
+    }
+
+    public void recordCrawlResult(String url, List<String> links, Map<String, List<String>> fields) {
         if (url == null || links == null) {
             log.warn("Null URL or links provided to recordCrawlResult");
             return;
         }
 
-        List<String> limitedLinks = links.size() > 100 ? links.subList(0, 100) : new ArrayList<>(links);
-        crawlResults.put(url, limitedLinks);
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        updateMemoryUsage();
+        boolean dropped = memory.resultsExhausted() && (!links.isEmpty() || !fields.isEmpty());
+        if (dropped) {
+            // The page still counts as crawled; only its out-links and fields are not kept
+            droppedLinkLists.incrementAndGet();
+            linkGraph.addPage(url, List.of());
+        } else {
+            linkGraph.addPage(url, links);
+            if (pageFields != null) {
+                pageFields.put(url, fields);
+            }
+        }
+        event.commit(crawlId, url, links.size(), dropped);
 
         int processed = processedPages.incrementAndGet();
 
-        if (processed >= maxPages) {
+        if (revisits == null && processed >= maxPages) {
             log.info("Reached maximum pages limit: {}", maxPages);
             shouldStop.set(true);
             return;
         }
 
-        String domain = extractDomain(url);
-
         log.info("✅ Visited: {}", url);
         log.info("     Found {} links:", links.size());
 
@@ -282,23 +726,66 @@ public class SingleDomainCrawlManager implements CrawlManager {
         if (links.size() > displayLimit) {
             log.info("   → ... ({} more)", links.size() - displayLimit);
         }
+    }
 
-        for (String link : links) {
-            if (link != null && !link.trim().isEmpty()) {
-                enqueueUrl(link, extractDepthFromUrl(url) + 1);
-            }
+    /**
+     * Records a fetch attempt and, if it failed transiently and may be retried, re-queues the entry
+     * with a backoff delay.
+     *
+     * @return true if the page was re-queued, in which case it has no result yet
+     */
+    public boolean recordFetch(FrontierEntry entry, FetchedPage page) {
+        recordFetchStats(page);
+        String host = hostOf(entry.url());
+        if (page.timing() != null) {
+            fetchTimings.record(host, page.timing(), page.wireBytes());
         }
+        if (!RetryPolicy.isTransientFailure(page)) {
+            circuitBreaker.recordSuccess(host);
+            scheduleRevisit(entry, page);
+            return false;
+        }
+        circuitBreaker.recordFailure(host);
+        long delayMillis = retryPolicy.delayMillis(entry.attempt(), page);
+        if (delayMillis < 0 || shouldStop.get()) {
+            scheduleRevisit(entry, page);
+            return false;
+        }
+        circuitBreaker.recordRetry(host);
+        log.debug("Retrying {} in {} ms after {} (attempt {})", entry.url(), delayMillis, page.outcome(),
+                entry.attempt() + 1);
+        frontier.offerLater(entry.retry(), delayMillis, TimeUnit.MILLISECONDS);
+        return true;
     }
 
-    private int extractDepthFromUrl(String url) {
-        try {
-            URI uri = URI.create(url);
-            String path = uri.getPath();
-            if (path == null || path.equals("/")) return 0;
-            return path.split("/").length - 1;
-        } catch (Exception e) {
-            return 0;
+    // In continuous mode each fetched page goes back on the frontier, due when it has likely changed
+    private void scheduleRevisit(FrontierEntry entry, FetchedPage page) {
+        if (revisits == null || shouldStop.get()) {
+            return;
+        }
+        long delayMillis = revisits.recordFetch(urlStore.intern(entry.url()), page.contentHash());
+        frontier.offerLater(entry.revisit(), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void recordFetchStats(FetchedPage page) {
+        fetchOutcomes.incrementAndGet(page.outcome().ordinal());
+        bytesOnWire.addAndGet(page.wireBytes());
+        bytesDecoded.addAndGet(page.decodedBytes());
+        if (page.allocatedBytes() >= 0) {
+            bytesAllocated.addAndGet(page.allocatedBytes());
+            allocationSamples.incrementAndGet();
+        }
+    }
+
+    private Map<String, Long> fetchOutcomeCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (FetchOutcome outcome : FetchOutcome.values()) {
+            long count = fetchOutcomes.get(outcome.ordinal());
+            if (count > 0) {
+                counts.put(outcome.name(), count);
+            }
         }
+        return counts;
     }
 
     public void taskCompleted() {
@@ -308,66 +795,58 @@ public class SingleDomainCrawlManager implements CrawlManager {
         }
     }
 
-    private boolean isSameDomain(String url) {
-        String urlDomain = extractDomain(url);
-        return urlDomain != null && allowedDomains.contains(urlDomain);
+    private static String hostOf(String url) {
+        String host = UrlUtils.host(url);
+        return host != null ? host : "";
     }
 
-    private String extractDomain(String url) {
-        try {
-            URI uri = URI.create(url);
-            String host = uri.getHost();
-            if (host == null) return null;
-
-            // Remove www. prefix if present
-            if (host.startsWith("www.")) {
-                host = host.substring(4);
-            }
-            return host.toLowerCase();
-        } catch (Exception e) {
-            if (log.isDebugEnabled()) {
-                log.debug("Failed to extract domain from URL: {}", url);
-            }
-            return null;
-        }
+    private static String extractDomain(String url) {
+        return UrlUtils.scopeDomain(UrlUtils.host(url));
     }
 
     private void shutdown() {
         running.set(false);
+        // Final sizes stay in the status; the share goes back so later crawls get a full allowance,
+        // while results kept in the repository still count through the heap-pressure check
+        memory.update(0, visitedBytes(), resultBytes());
+        memory.close();
+        try {
+            spill.close();
+        } catch (IOException e) {
+            log.warn("Could not remove frontier spill file: {}", e.getMessage());
+        }
 
-        log.info("\n✅ Crawling finished for domains: {}", allowedDomains);
+        log.info("\n✅ Crawling finished for domains: {}", scope);
         log.info("Total pages crawled: {}", processedPages.get());
-        log.info("Total results collected: {}", crawlResults.size());
+        log.info("Total results collected: {}", linkGraph.crawledPageCount());
         log.info("Pending tasks at shutdown: {}", pendingTasks.get());
 
-        if (crawlResults.isEmpty()) {
+        if (linkGraph.crawledPageCount() == 0) {
             log.warn("⚠️  No results were collected during crawling. Check CrawlWorker implementation.");
         }
 
-        if (visitedUrls.size() <= 50) {
+        if (urlStore.visitedCount() <= 50) {
             logDetailedResults();
         } else {
-            log.info("Crawled {} URLs across {} domains", visitedUrls.size(), allowedDomains.size());
+            log.info("Crawled {} URLs across {} domains", urlStore.visitedCount(), scope.size());
         }
     }
 
     private void logDetailedResults() {
         log.info("Visited URLs:");
-        Map<String, List<String>> urlsByDomain = new HashMap<>();
-        for (String url : visitedUrls) {
-            String domain = extractDomain(url);
-            urlsByDomain.computeIfAbsent(domain, k -> new ArrayList<>()).add(url);
+        Map<String, List<Integer>> idsByDomain = new HashMap<>();
+        for (int id = 0; id < urlStore.size(); id++) {
+            if (urlStore.isVisited(id)) {
+                String domain = extractDomain(urlStore.urlOf(id));
+                idsByDomain.computeIfAbsent(domain, k -> new ArrayList<>()).add(id);
+            }
         }
 
-        for (Map.Entry<String, List<String>> entry : urlsByDomain.entrySet()) {
+        for (Map.Entry<String, List<Integer>> entry : idsByDomain.entrySet()) {
             log.info("Domain: {}", entry.getKey());
-            for (String url : entry.getValue()) {
-                List<String> links = crawlResults.get(url);
-                log.info("  • {} (Found {} links)", url, links != null ? links.size() : 0);
+            for (int id : entry.getValue()) {
+                log.info("  • {} (Found {} links)", urlStore.urlOf(id), linkGraph.outLinkCount(id));
             }
         }
     }
-
-    private record UrlDepthPair(String url, int depth) {
-    }
 }
\ No newline at end of file
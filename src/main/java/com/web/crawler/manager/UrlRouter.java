@@ -0,0 +1,40 @@
+package com.web.crawler.manager;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides which node crawls a URL. In cluster mode, URLs owned by another node are handed to
+ * {@link #forwardAll} instead of entering the local frontier.
+ */
+public interface UrlRouter {
+
+    UrlRouter LOCAL = new UrlRouter() {
+        @Override
+        public boolean isLocal(String url) {
+            return true;
+        }
+
+        @Override
+        public void forwardAll(List<String> urls, int depth) {
+        }
+    };
+
+    boolean isLocal(String url);
+
+    void forwardAll(List<String> urls, int depth);
+
+    /**
+     * Lets the router see whether the local partition has run out of work.
+     */
+    default void watchIdle(BooleanSupplier partitionIdle) {
+    }
+
+    /**
+     * Asked while the partition is idle. In cluster mode peers may still forward URLs to it, so it ends
+     * only once the whole crawl has.
+     */
+    default boolean crawlEnded() {
+        return true;
+    }
+}
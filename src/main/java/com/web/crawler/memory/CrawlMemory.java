@@ -0,0 +1,83 @@
+package com.web.crawler.memory;
+
+/**
+ * One crawl's share of the {@link MemoryBudget}. The crawl reports the estimated sizes of its
+ * frontier, visited set and stored results through {@link #update}; a structure past its share of
+ * the crawl's allowance, or any structure while the crawl is over its allowance or the heap is under
+ * pressure, reads as exhausted so the crawl degrades instead of growing. The checks only read the flags set by the last update.
+ */
+public class CrawlMemory implements AutoCloseable {
+
+    private final MemoryBudget budget;
+    private volatile long frontierBytes;
+    private volatile long visitedBytes;
+    private volatile long resultBytes;
+    private volatile long allowanceBytes;
+    private volatile boolean underPressure;
+    private volatile boolean visitedExhausted;
+    private volatile boolean resultsExhausted;
+
+    CrawlMemory(MemoryBudget budget) {
+        this.budget = budget;
+    }
+
+    public void update(long frontierBytes, long visitedBytes, long resultBytes) {
+        this.frontierBytes = frontierBytes;
+        this.visitedBytes = visitedBytes;
+        this.resultBytes = resultBytes;
+        MemoryProperties properties = budget.properties();
+        long allowance = budget.allowanceFor(this);
+        boolean pressure = budget.underPressure();
+        double resultsShare = Math.max(0, 1 - properties.getFrontierShare() - properties.getVisitedShare());
+        this.allowanceBytes = allowance;
+        this.underPressure = pressure;
+        // A crawl over its whole allowance degrades everywhere, not just in the structure that grew
+        boolean over = pressure || usedBytes() > allowance;
+        this.visitedExhausted = over || visitedBytes > allowance * properties.getVisitedShare();
+        this.resultsExhausted = over || resultBytes > allowance * resultsShare;
+    }
+
+    /**
+     * @return the bytes the frontier may keep in memory; entries beyond that belong on disk
+     */
+    public long frontierLimitBytes() {
+        return (long) (allowanceBytes * budget.properties().getFrontierShare());
+    }
+
+    public boolean visitedExhausted() {
+        return visitedExhausted;
+    }
+
+    public boolean resultsExhausted() {
+        return resultsExhausted;
+    }
+
+    public boolean underPressure() {
+        return underPressure;
+    }
+
+    public long usedBytes() {
+        return frontierBytes + visitedBytes + resultBytes;
+    }
+
+    public long allowanceBytes() {
+        return allowanceBytes;
+    }
+
+    public long frontierBytes() {
+        return frontierBytes;
+    }
+
+    public long visitedBytes() {
+        return visitedBytes;
+    }
+
+    public long resultBytes() {
+        return resultBytes;
+    }
+
+    @Override
+    public void close() {
+        budget.release(this);
+    }
+}
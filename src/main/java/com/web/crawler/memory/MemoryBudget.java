@@ -0,0 +1,103 @@
+package com.web.crawler.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.Cleaner;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The heap budget shared by every crawl on this node. Each crawl registers a {@link CrawlMemory} and
+ * reports the estimated size of its structures; its allowance is whatever the global budget has left
+ * after the other crawls, capped by {@code maxCrawlBytes}. Heap pressure is judged from the heap
+ * still live after the last collection, so uncollected garbage does not pause crawls. A crawl hands
+ * its share back when it finishes.
+ */
+@Component
+@Slf4j
+public final class MemoryBudget {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final MemoryProperties properties;
+    private final long maxHeapBytes;
+    private final LongSupplier liveHeapBytes;
+    private final Set<CrawlMemory> crawls = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public MemoryBudget(MemoryProperties properties) {
+        this(properties, Runtime.getRuntime().maxMemory(), MemoryBudget::liveHeapAfterCollection);
+        log.info("Crawl memory budget: {} MB of {} MB heap", globalBytes() >> 20, maxHeapBytes >> 20);
+    }
+
+    MemoryBudget(MemoryProperties properties, long maxHeapBytes, LongSupplier liveHeapBytes) {
+        this.properties = properties;
+        this.maxHeapBytes = maxHeapBytes;
+        this.liveHeapBytes = liveHeapBytes;
+    }
+
+    public MemoryProperties properties() {
+        return properties;
+    }
+
+    /**
+     * @param owner the structure holding the crawl's results; the share is released once it is unreachable,
+     *              in case the crawl is dropped without finishing
+     */
+    public CrawlMemory register(Object owner) {
+        CrawlMemory crawl = new CrawlMemory(this);
+        crawls.add(crawl);
+        crawl.update(0, 0, 0);
+        CLEANER.register(owner, crawl::close);
+        return crawl;
+    }
+
+    void release(CrawlMemory crawl) {
+        crawls.remove(crawl);
+    }
+
+    public long globalBytes() {
+        return (long) (maxHeapBytes * properties.getHeapFraction());
+    }
+
+    long allowanceFor(CrawlMemory crawl) {
+        long others = 0;
+        for (CrawlMemory other : crawls) {
+            if (other != crawl) {
+                others += other.usedBytes();
+            }
+        }
+        long allowance = Math.max(0, globalBytes() - others);
+        return properties.getMaxCrawlBytes() > 0 ? Math.min(allowance, properties.getMaxCrawlBytes()) : allowance;
+    }
+
+    public boolean underPressure() {
+        return liveHeapBytes.getAsLong() > maxHeapBytes * properties.getPauseHeapFraction();
+    }
+
+    public Path spillDirectory() {
+        String directory = properties.getSpillDirectory();
+        return Path.of(directory == null || directory.isBlank() ? System.getProperty("java.io.tmpdir") : directory);
+    }
+
+    private static long liveHeapAfterCollection() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()) {
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (usage != null) {
+                    used += usage.getUsed();
+                }
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,25 @@
+package com.web.crawler.memory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.memory")
+public class MemoryProperties {
+    // Share of the max heap that all crawls' frontiers, visited sets and results may use together
+    private double heapFraction = 0.5;
+    // Cap for a single crawl; 0 lets one crawl use the whole global budget
+    private long maxCrawlBytes = 0;
+    // How a crawl's budget splits between its structures; results get the rest
+    private double frontierShare = 0.2;
+    private double visitedShare = 0.4;
+    // Dispatch pauses while live heap after GC is above this fraction of the max heap
+    private double pauseHeapFraction = 0.85;
+    private long maxPauseMs = 30000;
+    // Where frontier overflow is written; empty uses the system temp directory
+    private String spillDirectory = "";
+    // Crawled pages included in a status response
+    private int statusResultsLimit = 1000;
+}
@@ -0,0 +1,18 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveStats {
+    // Pages handed to the WARC writer, and their raw request and response bytes
+    private long archivedPages;
+    private long archivedBytes;
+    // Pages not archived because the writer's queue was full
+    private long droppedPages;
+}
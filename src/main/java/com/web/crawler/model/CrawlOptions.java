@@ -0,0 +1,78 @@
+package com.web.crawler.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrawlOptions {
+
+    @Builder.Default
+    private FrontierOrder frontierOrder = FrontierOrder.BREADTH_FIRST;
+
+    // Which links are followed; HOST_LIST follows scopeHosts instead of the seeds' hosts
+    @Builder.Default
+    private ScopeMode scope = ScopeMode.HOST;
+    private List<String> scopeHosts;
+
+    // Regex -> weight, applied by the BEST_FIRST scorer (e.g. "/tag/": -2.0, "/blog/": 1.0)
+    private Map<String, Double> pathWeights;
+
+    // Crawl-trap limits, counted over newly discovered URLs; 0 disables a limit. The per-pattern and
+    // per-path counts would cut off legitimate listings such as /item?id=N, so they are opt-in
+    @PositiveOrZero(message = "maxUrlsPerPathPattern cannot be negative")
+    private int maxUrlsPerPathPattern;
+    @PositiveOrZero(message = "maxQueryVariantsPerPath cannot be negative")
+    private int maxQueryVariantsPerPath;
+    @Builder.Default
+    @PositiveOrZero(message = "maxPathLength cannot be negative")
+    private int maxPathLength = 512;
+    @Builder.Default
+    @PositiveOrZero(message = "maxPathSegmentRepeats cannot be negative")
+    private int maxPathSegmentRepeats = 3;
+
+    // Query parameters dropped before dedup; a trailing * matches a prefix. Null uses CrawlTrapFilter's defaults
+    private List<String> stripQueryParams;
+
+    // Continuous crawls never finish: every fetched page is revisited once it is likely to have changed
+    private boolean continuous;
+    @Builder.Default
+    @Positive(message = "initialRevisitSeconds must be positive")
+    private int initialRevisitSeconds = 86_400;
+    @Builder.Default
+    @Positive(message = "minRevisitSeconds must be positive")
+    private int minRevisitSeconds = 3_600;
+    @Builder.Default
+    @Positive(message = "maxRevisitSeconds must be positive")
+    private int maxRevisitSeconds = 2_592_000;
+
+    // Fields extracted from every page in the same parse that finds its links
+    private List<ExtractionRule> extract;
+
+    // Page text is indexed as it is parsed and can be searched while the crawl runs
+    private boolean index;
+
+    // Raw requests and responses are written to WARC files under crawler.warc.directory
+    private boolean archive;
+
+    @JsonIgnore
+    @AssertTrue(message = "minRevisitSeconds cannot exceed maxRevisitSeconds")
+    public boolean isRevisitRangeValid() {
+        return minRevisitSeconds <= maxRevisitSeconds;
+    }
+
+    public static CrawlOptions defaults() {
+        return CrawlOptions.builder().build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.web.crawler.model;
 
 import com.web.crawler.model.CrawlType;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
@@ -22,10 +23,13 @@ public class CrawlRequest {
     private CrawlType strategy;
 
     @Min(value = 1, message = "maxPages must be at least 1")
-    @Max(value = 1000, message = "maxPages cannot exceed 1000")
+    @Max(value = 10_000_000, message = "maxPages cannot exceed 10000000")
     private Integer maxPages;
 
     @Min(value = 1, message = "maxDepth must be at least 1")
     @Max(value = 50, message = "maxDepth cannot exceed 50")
     private Integer maxDepth;
+
+    @Valid
+    private CrawlOptions options;
 }
\ No newline at end of file
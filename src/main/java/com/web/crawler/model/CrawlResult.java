@@ -1,5 +1,9 @@
 package com.web.crawler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.web.crawler.extract.PageFieldStore;
+import com.web.crawler.graph.LinkGraph;
+import com.web.crawler.search.SearchIndex;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,6 +29,54 @@ public class CrawlResult {
     private String domain;
     private List<String> visitedUrls;
     private Map<String, List<String>> crawlResults;
+    private Map<String, Map<String, List<String>>> extractedFields;
     private String errorMessage;
+    private SeedLoadReport seedLoad;
+    private Map<String, Long> fetchOutcomes;
+    private Map<String, HostFailureStats> hostFailures;
+    private Map<String, Long> trapRejections;
+    private Map<String, List<String>> trapRejectedUrls;
+    private MemoryStats memory;
+    private RecrawlStats recrawl;
+    private ArchiveStats archive;
+    private FetchTimingStats fetchTimings;
+    private long bytesOnWire;
+    private long bytesDecoded;
+    private long bytesAllocated;
+    private long allocatedBytesPerPage;
+
+    @JsonIgnore
+    private LinkGraph linkGraph;
+
+    @JsonIgnore
+    private PageFieldStore pageFields;
+
+    @JsonIgnore
+    private SearchIndex searchIndex;
+
+    // Decoding a large crawl is unbounded, so these stay out of JSON; GET /{crawlId}/results pages through them
+    @JsonIgnore
+    public List<String> getVisitedUrls() {
+        if (visitedUrls == null && linkGraph != null) {
+            return linkGraph.dictionary().visitedUrls();
+        }
+        return visitedUrls;
+    }
+
+    @JsonIgnore
+    public Map<String, List<String>> getCrawlResults() {
+        if (crawlResults == null && linkGraph != null) {
+            return linkGraph.toResultMap(Integer.MAX_VALUE);
+        }
+        return crawlResults;
+    }
+
+    @JsonIgnore
+    public Map<String, Map<String, List<String>>> getExtractedFields() {
+        if (extractedFields == null && pageFields != null) {
+            return pageFields.toMap(Integer.MAX_VALUE);
+        }
+        return extractedFields;
+    }
 }
 
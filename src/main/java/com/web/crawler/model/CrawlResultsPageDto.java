@@ -0,0 +1,23 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrawlResultsPageDto {
+    private String crawlId;
+    private int page;
+    private int size;
+    private int crawledPages;
+    // Crawled page -> its out-links, in crawl id order
+    private Map<String, List<String>> results;
+    private Map<String, Map<String, List<String>>> extractedFields;
+}
@@ -21,11 +21,28 @@ public class CrawlStatusDto {
     private int maxDepth;
     private String domain;
     private Map<String, List<String>> results;
+    private Map<String, Map<String, List<String>>> extractedFields;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private boolean running;
     private int pendingTasks;
     private int queueSize;
     private String errorMessage;
+    private SeedLoadReport seedLoad;
+    private Map<String, Long> fetchOutcomes;
+    private Map<String, HostFailureStats> hostFailures;
+    private Map<String, Long> trapRejections;
+    // A few rejected URLs per reason; for the count limits, the URL that first went over each one
+    private Map<String, List<String>> trapRejectedUrls;
+    private MemoryStats memory;
+    private RecrawlStats recrawl;
+    private ArchiveStats archive;
+    private FetchTimingStats fetchTimings;
+    private long bytesOnWire;
+    private long bytesDecoded;
+    private long bytesAllocated;
+    private long allocatedBytesPerPage;
+    // Cluster peers whose partition could not be read; their pages are missing from the totals
+    private List<String> unreachableNodes;
 }
 
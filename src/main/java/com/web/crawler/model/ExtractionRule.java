@@ -0,0 +1,20 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionRule {
+    private String name;
+    // CSS selector, e.g. "meta[property=og:title]" or "article h2"
+    private String selector;
+    // Attribute to read, e.g. "content" or "abs:src"; null takes the element's text
+    private String attribute;
+    @Builder.Default
+    private int maxValues = 1;
+}
@@ -0,0 +1,23 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FetchTimingStats {
+    // Per fetch phase: total, dns, connect (including the wait for a pooled connection), tls, firstByte, download, parse
+    private Map<String, Percentiles> phasesMs;
+    // Bytes received per page, before content decoding
+    private Percentiles pageBytes;
+    // Final response status code -> fetches; "0" counts fetches that got no response
+    private Map<String, Long> statusCodes;
+    // Total fetch time of the slowest hosts by p99
+    private Map<String, Percentiles> hostsMs;
+}
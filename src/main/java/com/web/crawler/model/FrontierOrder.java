@@ -0,0 +1,6 @@
+package com.web.crawler.model;
+
+public enum FrontierOrder {
+    BREADTH_FIRST,
+    BEST_FIRST
+}
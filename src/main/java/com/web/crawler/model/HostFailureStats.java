@@ -0,0 +1,18 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HostFailureStats {
+    private long failures;
+    private int consecutiveFailures;
+    private long retries;
+    private long circuitOpenings;
+    private boolean circuitOpen;
+}
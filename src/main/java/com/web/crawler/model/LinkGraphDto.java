@@ -0,0 +1,21 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinkGraphDto {
+    private String crawlId;
+    private int nodes;
+    private int crawledPages;
+    private long edges;
+    private int iterations;
+    private List<PageRankEntry> topPages;
+}
@@ -0,0 +1,22 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemoryStats {
+    private long budgetBytes;
+    private long frontierBytes;
+    private long visitedBytes;
+    private long resultBytes;
+    private int frontierCapacity;
+    private long spilledEntries;
+    private long droppedUrls;
+    private long droppedLinkLists;
+    private long pausedMs;
+}
@@ -0,0 +1,18 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageRankEntry {
+    private String url;
+    private double pageRank;
+    private int inDegree;
+    private int outDegree;
+    private boolean crawled;
+}
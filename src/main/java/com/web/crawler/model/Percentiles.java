@@ -0,0 +1,20 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A distribution's summary, in the unit its field is named for
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Percentiles {
+    private long count;
+    private double mean;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double max;
+}
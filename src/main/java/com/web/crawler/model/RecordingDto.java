@@ -0,0 +1,24 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingDto {
+    private long id;
+    private String name;
+    // NEW, RUNNING, STOPPED or CLOSED, as reported by Flight Recorder
+    private String state;
+    private String settings;
+    private Instant startTime;
+    private Instant stopTime;
+    private long sizeBytes;
+    private long maxSizeBytes;
+}
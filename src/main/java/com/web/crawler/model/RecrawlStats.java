@@ -0,0 +1,16 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecrawlStats {
+    private long revisits;
+    private long changedRevisits;
+    private long meanRevisitSeconds;
+}
@@ -0,0 +1,10 @@
+package com.web.crawler.model;
+
+public enum ScopeMode {
+    // The seeds' hosts, with or without a leading www.
+    HOST,
+    // Any host under the seeds' registrable domains, e.g. blog.example.co.uk for www.example.co.uk
+    DOMAIN,
+    // Only the hosts listed in scopeHosts
+    HOST_LIST
+}
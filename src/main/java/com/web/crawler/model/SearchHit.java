@@ -0,0 +1,20 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private String url;
+    private double score;
+    // The page's extracted fields, when the crawl has extraction rules
+    private Map<String, List<String>> fields;
+}
@@ -0,0 +1,21 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+    private String crawlId;
+    private String query;
+    private int totalHits;
+    private int indexedPages;
+    private int segments;
+    private List<SearchHit> hits;
+}
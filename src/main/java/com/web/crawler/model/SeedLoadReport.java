@@ -0,0 +1,23 @@
+package com.web.crawler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeedLoadReport {
+    private long linesRead;
+    private long accepted;
+    private long rejected;
+    private boolean loading;
+    // False when loading stopped before the end of the file, e.g. because the page budget was spent
+    private boolean complete;
+    private String errorMessage;
+    private List<RejectedSeed> rejectedSamples;
+}
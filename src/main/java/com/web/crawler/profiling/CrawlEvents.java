@@ -0,0 +1,24 @@
+package com.web.crawler.profiling;
+
+import java.net.URI;
+
+/**
+ * Shared by the crawl's JFR events. Events are recorded only while a Flight Recorder recording
+ * enables them; otherwise {@code shouldCommit()} is false and no event fields are computed.
+ */
+final class CrawlEvents {
+
+    static final String CATEGORY = "Web Crawler";
+
+    private CrawlEvents() {
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.web.crawler.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.web.crawler.Dedup")
+@Label("Deduplication")
+@Category(CrawlEvents.CATEGORY)
+@Description("Checking a batch of local URLs against the visited set and queueing the new ones")
+@StackTrace(false)
+public class DedupEvent extends Event {
+
+    @Label("Crawl ID")
+    String crawlId;
+
+    @Label("URLs")
+    int urls;
+
+    @Label("New")
+    int fresh;
+
+    @Label("Queued")
+    @Description("New URLs plus seen ones a best-first frontier re-queued at a higher priority")
+    int queued;
+
+    /**
+     * @param fresh which of the URLs that passed the trap filter were new to the crawl
+     */
+    public void commit(String crawlId, int urls, boolean[] fresh, int queued) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.crawlId = crawlId;
+        this.urls = urls;
+        for (boolean isNew : fresh) {
+            if (isNew) {
+                this.fresh++;
+            }
+        }
+        this.queued = queued;
+        commit();
+    }
+}
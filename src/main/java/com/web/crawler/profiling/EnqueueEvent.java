@@ -0,0 +1,49 @@
+package com.web.crawler.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.web.crawler.Enqueue")
+@Label("Link Enqueue")
+@Category(CrawlEvents.CATEGORY)
+@Description("Normalizing, scoping and admitting the links found on one page; its Deduplication event is nested inside")
+@StackTrace(false)
+public class EnqueueEvent extends Event {
+
+    @Label("Crawl ID")
+    String crawlId;
+
+    @Label("Host")
+    String host;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Links")
+    int links;
+
+    @Label("In Scope")
+    int inScope;
+
+    @Label("Rejected")
+    @Description("New links turned away as likely crawl traps or for lack of memory")
+    int rejected;
+
+    public void commit(String crawlId, String parentUrl, int depth, int links, int inScope, int rejected) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.crawlId = crawlId;
+        this.host = parentUrl != null ? CrawlEvents.hostOf(parentUrl) : "";
+        this.depth = depth;
+        this.links = links;
+        this.inScope = inScope;
+        this.rejected = rejected;
+        commit();
+    }
+}
@@ -0,0 +1,60 @@
+package com.web.crawler.profiling;
+
+import com.web.crawler.fetch.FetchedPage;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.web.crawler.Fetch")
+@Label("Page Fetch")
+@Category(CrawlEvents.CATEGORY)
+@Description("Fetching one page, from sending the request to the end of its body; the body's Page Parse event is nested inside")
+@StackTrace(false)
+public class FetchEvent extends Event {
+
+    @Label("Crawl ID")
+    String crawlId;
+
+    @Label("URL")
+    String url;
+
+    @Label("Host")
+    String host;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Status")
+    int status;
+
+    @Label("Bytes on Wire")
+    @DataAmount
+    long wireBytes;
+
+    @Label("Bytes Decoded")
+    @DataAmount
+    long decodedBytes;
+
+    @Label("Links")
+    int links;
+
+    public void commit(String crawlId, String url, FetchedPage page) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.crawlId = crawlId;
+        this.url = url;
+        this.host = CrawlEvents.hostOf(url);
+        this.outcome = page.outcome().name();
+        this.status = page.status();
+        this.wireBytes = page.wireBytes();
+        this.decodedBytes = page.decodedBytes();
+        this.links = page.links().size();
+        commit();
+    }
+}
@@ -0,0 +1,47 @@
+package com.web.crawler.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.web.crawler.Parse")
+@Label("Page Parse")
+@Category(CrawlEvents.CATEGORY)
+@Description("Streaming one response body through the parser; body reads are included, since the page is parsed as it arrives")
+@StackTrace(false)
+public class ParseEvent extends Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Host")
+    String host;
+
+    @Label("Bytes Decoded")
+    @DataAmount
+    long decodedBytes;
+
+    @Label("Links")
+    int links;
+
+    @Label("Truncated")
+    @Description("The body was cut short by a size, time or transfer-rate limit")
+    boolean truncated;
+
+    public void commit(String url, long decodedBytes, int links, boolean truncated) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.url = url;
+        this.host = CrawlEvents.hostOf(url);
+        this.decodedBytes = decodedBytes;
+        this.links = links;
+        this.truncated = truncated;
+        commit();
+    }
+}
@@ -0,0 +1,13 @@
+package com.web.crawler.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.profiling")
+public class ProfilingProperties {
+    // Serves the Flight Recorder endpoints; recordings expose JVM internals, so only enable on trusted networks
+    private boolean enabled = false;
+}
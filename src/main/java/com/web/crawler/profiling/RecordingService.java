@@ -0,0 +1,156 @@
+package com.web.crawler.profiling;
+
+import com.web.crawler.model.RecordingDto;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts and stops Flight Recorder recordings in this JVM, so a slow crawl can be profiled without
+ * attaching external tools. One recording runs at a time; stopped ones are kept for download until
+ * deleted, the oldest being closed once {@link #MAX_RECORDINGS} exist.
+ */
+@Service
+@Slf4j
+public class RecordingService {
+
+    static final int MAX_RECORDINGS = 5;
+    private static final List<Class<? extends jdk.jfr.Event>> CRAWL_EVENTS = List.of(
+            FetchEvent.class, ParseEvent.class, EnqueueEvent.class, DedupEvent.class, SaveEvent.class);
+    // Both JDK settings files record every environment variable and system property, secrets included
+    private static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+    private final Map<Long, String> settingsNames = new LinkedHashMap<>();
+
+    /**
+     * @param settings    a JDK settings file: {@code default} (about 1% overhead) or {@code profile} (about 2%)
+     * @param maxSizeMb   disk the recording may use before its oldest data is discarded
+     * @param maxDuration stops the recording after this long, or null to run until stopped
+     */
+    public synchronized RecordingDto start(String settings, long maxSizeMb, Duration maxDuration) {
+        if (maxSizeMb <= 0) {
+            throw new IllegalArgumentException("maxSizeMb must be positive");
+        }
+        for (Recording recording : recordings.values()) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                throw new IllegalArgumentException("Recording " + recording.getId() + " is already running");
+            }
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings + "; use default or profile");
+        }
+        evictOldest();
+
+        Recording recording = new Recording(configuration);
+        recording.setName("crawler-" + settings);
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSizeMb << 20);
+        if (maxDuration != null) {
+            recording.setDuration(maxDuration);
+        }
+        for (Class<? extends jdk.jfr.Event> event : CRAWL_EVENTS) {
+            recording.enable(event).withoutStackTrace().withThreshold(Duration.ZERO);
+        }
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        settingsNames.put(recording.getId(), settings);
+        log.info("Started JFR recording {} with {} settings", recording.getId(), settings);
+        return toDto(recording);
+    }
+
+    public synchronized RecordingDto stop(long id) {
+        Recording recording = find(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording {}", id);
+        }
+        return toDto(recording);
+    }
+
+    public synchronized List<RecordingDto> list() {
+        List<RecordingDto> dtos = new ArrayList<>(recordings.size());
+        for (Recording recording : recordings.values()) {
+            dtos.add(toDto(recording));
+        }
+        return dtos;
+    }
+
+    /**
+     * Copies what the recording holds so far, running or stopped, to a temporary file the caller
+     * must delete.
+     */
+    public Path dump(long id) throws IOException {
+        Recording recording;
+        synchronized (this) {
+            recording = find(id);
+        }
+        Path file = Files.createTempFile("crawler-recording-" + id + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | IllegalStateException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    public synchronized void delete(long id) {
+        find(id).close();
+        recordings.remove(id);
+        settingsNames.remove(id);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+        settingsNames.clear();
+    }
+
+    private Recording find(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new IllegalArgumentException("Recording not found: " + id);
+        }
+        return recording;
+    }
+
+    private void evictOldest() {
+        while (recordings.size() >= MAX_RECORDINGS) {
+            long oldest = recordings.keySet().iterator().next();
+            recordings.remove(oldest).close();
+            settingsNames.remove(oldest);
+        }
+    }
+
+    private RecordingDto toDto(Recording recording) {
+        return RecordingDto.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .settings(settingsNames.get(recording.getId()))
+                .startTime(recording.getStartTime())
+                .stopTime(recording.getStopTime())
+                .sizeBytes(recording.getSize())
+                .maxSizeBytes(recording.getMaxSize())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.web.crawler.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.web.crawler.Save")
+@Label("Result Save")
+@Category(CrawlEvents.CATEGORY)
+@Description("Storing one crawled page's links and extracted fields in the crawl's results")
+@StackTrace(false)
+public class SaveEvent extends Event {
+
+    @Label("Crawl ID")
+    String crawlId;
+
+    @Label("URL")
+    String url;
+
+    @Label("Host")
+    String host;
+
+    @Label("Links")
+    int links;
+
+    @Label("Links Dropped")
+    @Description("The page was recorded without its links and fields because the result store was full")
+    boolean linksDropped;
+
+    public void commit(String crawlId, String url, int links, boolean linksDropped) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.crawlId = crawlId;
+        this.url = url;
+        this.host = CrawlEvents.hostOf(url);
+        this.links = links;
+        this.linksDropped = linksDropped;
+        commit();
+    }
+}
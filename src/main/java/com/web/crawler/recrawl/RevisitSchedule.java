@@ -0,0 +1,119 @@
+package com.web.crawler.recrawl;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-URL revisit intervals for a continuous crawl, adapted from each page's content-hash history.
+ * A page's change rate is estimated from how many of its revisits found a new hash, using the
+ * estimator {@code -ln((n - X + 0.5) / (n + 0.5))} changes per mean interval for {@code X} changes
+ * in {@code n} revisits, which stays finite for pages that changed on every visit. The next revisit
+ * is due after the expected time to one change, at most doubling per visit and kept within
+ * {@code [minSeconds, maxSeconds]}. State is held in parallel arrays indexed by URL id.
+ */
+public class RevisitSchedule {
+
+    private final int initialSeconds;
+    private final int minSeconds;
+    private final int maxSeconds;
+    private final LongSupplier clockMillis;
+    private final long startMillis;
+
+    private long[] hashes = new long[1024];
+    private int[] lastFetched = new int[1024];
+    private int[] intervals = new int[1024];
+    private int[] revisits = new int[1024];
+    private int[] changes = new int[1024];
+    private long[] observedSeconds = new long[1024];
+    private long totalRevisits;
+    private long totalChanges;
+    private long fetchedPages;
+
+    public RevisitSchedule(int initialSeconds, int minSeconds, int maxSeconds, LongSupplier clockMillis) {
+        if (minSeconds <= 0 || maxSeconds < minSeconds) {
+            throw new IllegalArgumentException("Revisit bounds must satisfy 0 < min <= max");
+        }
+        this.initialSeconds = Math.max(minSeconds, Math.min(maxSeconds, initialSeconds));
+        this.minSeconds = minSeconds;
+        this.maxSeconds = maxSeconds;
+        this.clockMillis = clockMillis;
+        this.startMillis = clockMillis.getAsLong();
+    }
+
+    /**
+     * Records a fetch of URL {@code id}.
+     *
+     * @param contentHash the page's content hash, or 0 if the fetch yielded none
+     * @return milliseconds until the page should be fetched again
+     */
+    public synchronized long recordFetch(int id, long contentHash) {
+        ensureCapacity(id);
+        int now = (int) TimeUnit.MILLISECONDS.toSeconds(clockMillis.getAsLong() - startMillis);
+        if (intervals[id] == 0) {
+            fetchedPages++;
+            intervals[id] = initialSeconds;
+        } else {
+            // A fetch without a hash (an error, a truncated body) counts as a visit that saw no change
+            boolean changed = contentHash != 0 && hashes[id] != 0 && contentHash != hashes[id];
+            revisits[id]++;
+            observedSeconds[id] += Math.max(1, now - lastFetched[id]);
+            totalRevisits++;
+            if (changed) {
+                changes[id]++;
+                totalChanges++;
+            }
+            intervals[id] = nextInterval(id);
+        }
+        if (contentHash != 0) {
+            hashes[id] = contentHash;
+        }
+        lastFetched[id] = now;
+        return TimeUnit.SECONDS.toMillis(intervals[id]);
+    }
+
+    private int nextInterval(int id) {
+        double n = revisits[id];
+        double changeEvents = -Math.log((n - changes[id] + 0.5) / (n + 0.5));
+        double meanInterval = observedSeconds[id] / n;
+        double expected = changeEvents > 0 ? meanInterval / changeEvents : Double.MAX_VALUE;
+        double next = Math.min(expected, 2.0 * intervals[id]);
+        return (int) Math.max(minSeconds, Math.min(maxSeconds, next));
+    }
+
+    public synchronized int intervalSeconds(int id) {
+        return id < intervals.length ? intervals[id] : 0;
+    }
+
+    public synchronized long revisits() {
+        return totalRevisits;
+    }
+
+    public synchronized long changedRevisits() {
+        return totalChanges;
+    }
+
+    public synchronized long meanIntervalSeconds() {
+        long sum = 0;
+        for (int interval : intervals) {
+            sum += interval;
+        }
+        return fetchedPages == 0 ? 0 : sum / fetchedPages;
+    }
+
+    public synchronized long memoryFootprint() {
+        return 32L * intervals.length;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= intervals.length) {
+            int length = Math.max(intervals.length * 2, id + 1);
+            hashes = Arrays.copyOf(hashes, length);
+            lastFetched = Arrays.copyOf(lastFetched, length);
+            intervals = Arrays.copyOf(intervals, length);
+            revisits = Arrays.copyOf(revisits, length);
+            changes = Arrays.copyOf(changes, length);
+            observedSeconds = Arrays.copyOf(observedSeconds, length);
+        }
+    }
+}
@@ -19,6 +19,25 @@ public class InMemoryCrawlRepository implements CrawlRepository {
     public void save(CrawlResult crawlResult) {
         crawlHistory.put(crawlResult.getCrawlId(), crawlResult);
         log.debug("Saved crawl result for ID: {}", crawlResult.getCrawlId());
+        trimHistory();
+    }
+
+    // Drops the oldest finished crawls past the bound; running crawls are never evicted
+    private void trimHistory() {
+        int excess = crawlHistory.size() - MAX_HISTORY_SIZE;
+        if (excess <= 0) {
+            return;
+        }
+        crawlHistory.values().stream()
+                .filter(result -> result.getStatus() != CrawlStatus.RUNNING)
+                .sorted(Comparator.comparing(CrawlResult::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .limit(excess)
+                .map(CrawlResult::getCrawlId)
+                .toList()
+                .forEach(crawlId -> {
+                    crawlHistory.remove(crawlId);
+                    log.debug("Evicted crawl result for ID: {}", crawlId);
+                });
     }
 
     @Override
@@ -54,6 +73,4 @@ public class InMemoryCrawlRepository implements CrawlRepository {
                 .limit(size)
                 .toList();
     }
-
-
 }
\ No newline at end of file
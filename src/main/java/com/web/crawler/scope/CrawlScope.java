@@ -0,0 +1,94 @@
+package com.web.crawler.scope;
+
+import com.web.crawler.model.CrawlOptions;
+import com.web.crawler.model.ScopeMode;
+import com.web.crawler.util.UrlUtils;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which links a crawl follows. Seed domains are compiled into lookup keys for the crawl's
+ * {@link ScopeMode}, so a link costs one host read, at most one public suffix walk, and one set lookup.
+ */
+public final class CrawlScope {
+
+    private final ScopeMode mode;
+    private final PublicSuffixList suffixes;
+    // What a link's host (or registrable domain) is looked up in, and what the status reports
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+    private final Set<String> domains = ConcurrentHashMap.newKeySet();
+
+    private CrawlScope(ScopeMode mode, PublicSuffixList suffixes) {
+        this.mode = mode;
+        this.suffixes = suffixes;
+    }
+
+    public static CrawlScope of(CrawlOptions options, Collection<String> seedDomains, PublicSuffixList suffixes) {
+        ScopeMode mode = options.getScope() != null ? options.getScope() : ScopeMode.HOST;
+        CrawlScope scope = new CrawlScope(mode, suffixes);
+        if (mode == ScopeMode.HOST_LIST) {
+            if (options.getScopeHosts() == null || options.getScopeHosts().isEmpty()) {
+                throw new IllegalArgumentException("scopeHosts must list at least one host for scope HOST_LIST.");
+            }
+            for (String host : options.getScopeHosts()) {
+                String key = host.strip().toLowerCase(Locale.ROOT);
+                scope.keys.add(key);
+                scope.domains.add(key);
+            }
+        } else {
+            scope.addSeedDomains(seedDomains);
+        }
+        return scope;
+    }
+
+    /**
+     * Brings the scope domains of seeds added while the crawl runs into scope; an explicit host list stays as given.
+     */
+    public void addSeedDomains(Collection<String> seedDomains) {
+        if (mode == ScopeMode.HOST_LIST) {
+            return;
+        }
+        for (String domain : seedDomains) {
+            if (mode == ScopeMode.DOMAIN) {
+                String registrable = suffixes.registrableDomain(domain);
+                domain = registrable != null ? registrable : domain;
+            } else {
+                keys.add("www." + domain);
+            }
+            keys.add(domain);
+            domains.add(domain);
+        }
+    }
+
+    public boolean contains(String url) {
+        String host = UrlUtils.host(url);
+        if (host == null) {
+            return false;
+        }
+        if (mode == ScopeMode.DOMAIN) {
+            String registrable = suffixes.registrableDomain(host);
+            return keys.contains(registrable != null ? registrable : host);
+        }
+        return keys.contains(host);
+    }
+
+    public boolean isEmpty() {
+        return domains.isEmpty();
+    }
+
+    public Set<String> domains() {
+        return domains;
+    }
+
+    public int size() {
+        return domains.size();
+    }
+
+    @Override
+    public String toString() {
+        return domains.toString();
+    }
+}
@@ -0,0 +1,228 @@
+package com.web.crawler.scope;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The public suffix list compiled into a trie of labels from the right, so a host's registrable domain
+ * (eTLD+1) is found in one right-to-left pass without splitting the host. Rules are read from
+ * {@code crawler.scope.public-suffix-list}, or from the copy bundled with httpclient5 when it is blank.
+ */
+@Component
+@Slf4j
+public final class PublicSuffixList {
+
+    private static final String BUNDLED_LIST = "org/publicsuffix/list/effective_tld_names.dat";
+
+    private final Node root;
+    private final int rules;
+
+    @Autowired
+    public PublicSuffixList(ScopeProperties properties) {
+        this(load(properties.getPublicSuffixList()));
+    }
+
+    private PublicSuffixList(PublicSuffixList loaded) {
+        this(loaded.root, loaded.rules);
+    }
+
+    private PublicSuffixList(Node root, int rules) {
+        this.root = root;
+        this.rules = rules;
+    }
+
+    private static PublicSuffixList load(String file) {
+        if (file == null || file.isBlank()) {
+            return bundled();
+        }
+        try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            PublicSuffixList list = parse(reader);
+            log.info("Loaded {} public suffix rules from {}", list.rules, file);
+            return list;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read public suffix list " + file, e);
+        }
+    }
+
+    public static PublicSuffixList bundled() {
+        InputStream in = PublicSuffixList.class.getClassLoader().getResourceAsStream(BUNDLED_LIST);
+        if (in == null) {
+            throw new IllegalStateException("Public suffix list not found on the classpath: " + BUNDLED_LIST);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compiles rules in the list's format: one per line, {@code //} comments, {@code *.} wildcards and
+     * {@code !} exceptions. Internationalized rules are stored in their ASCII form, as hosts arrive.
+     */
+    public static PublicSuffixList parse(Reader reader) throws IOException {
+        Builder root = new Builder();
+        int rules = 0;
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("//")) {
+                continue;
+            }
+            int space = line.indexOf(' ');
+            String rule = (space < 0 ? line : line.substring(0, space)).toLowerCase(Locale.ROOT);
+            boolean exception = rule.startsWith("!");
+            boolean wildcard = rule.startsWith("*.");
+            String suffix = exception ? rule.substring(1) : wildcard ? rule.substring(2) : rule;
+            try {
+                suffix = IDN.toASCII(suffix, IDN.ALLOW_UNASSIGNED).toLowerCase(Locale.ROOT);
+            } catch (IllegalArgumentException e) {
+                log.debug("Skipping public suffix rule {}: {}", rule, e.getMessage());
+                continue;
+            }
+
+            Builder node = root;
+            String[] labels = suffix.split("\\.");
+            for (int i = labels.length - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(labels[i], label -> new Builder());
+            }
+            if (exception) {
+                node.exception = true;
+            } else if (wildcard) {
+                node.wildcard = true;
+            } else {
+                node.rule = true;
+            }
+            rules++;
+        }
+        return new PublicSuffixList(root.compile(), rules);
+    }
+
+    /**
+     * @param host a lowercase host name without a trailing dot
+     * @return the registrable domain, or null when the host is an IP literal or itself a public suffix
+     */
+    public String registrableDomain(String host) {
+        int start = registrableStart(host);
+        return start < 0 ? null : start == 0 ? host : host.substring(start);
+    }
+
+    /**
+     * @return the offset in {@code host} where its registrable domain starts, or -1 if it has none
+     */
+    public int registrableStart(String host) {
+        if (host == null || host.isEmpty() || isIpLiteral(host)) {
+            return -1;
+        }
+        // Without a matching rule the last label is the public suffix
+        int suffixStart = host.lastIndexOf('.') + 1;
+        Node node = root;
+        int labelEnd = host.length();
+        while (labelEnd > 0) {
+            int labelStart = host.lastIndexOf('.', labelEnd - 1) + 1;
+            Node child = node.child(host, labelStart, labelEnd);
+            if (child != null && child.exception) {
+                // An exception rule wins, and its suffix is the rule without its first label
+                suffixStart = labelEnd + 1;
+                break;
+            }
+            if (node.wildcard) {
+                suffixStart = labelStart;
+            }
+            if (child == null) {
+                break;
+            }
+            if (child.rule) {
+                suffixStart = labelStart;
+            }
+            node = child;
+            labelEnd = labelStart - 1;
+        }
+        if (suffixStart <= 1) {
+            return -1;
+        }
+        return host.lastIndexOf('.', suffixStart - 2) + 1;
+    }
+
+    private static boolean isIpLiteral(String host) {
+        if (host.indexOf(':') >= 0) {
+            return true;
+        }
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return rules;
+    }
+
+    private static final class Builder {
+        private final Map<String, Builder> children = new TreeMap<>();
+        private boolean rule;
+        private boolean wildcard;
+        private boolean exception;
+
+        Node compile() {
+            String[] labels = children.keySet().toArray(new String[0]);
+            Node[] nodes = new Node[labels.length];
+            int i = 0;
+            for (Builder child : children.values()) {
+                nodes[i++] = child.compile();
+            }
+            return new Node(labels, nodes, rule, wildcard, exception);
+        }
+    }
+
+    // Child labels are sorted, so a label of the host is found by binary search over a region of it
+    private record Node(String[] labels, Node[] children, boolean rule, boolean wildcard, boolean exception) {
+
+        Node child(String host, int start, int end) {
+            int low = 0;
+            int high = labels.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(labels[mid], host, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+        private static int compare(String label, String host, int start, int end) {
+            int length = Math.min(label.length(), end - start);
+            for (int i = 0; i < length; i++) {
+                int cmp = label.charAt(i) - host.charAt(start + i);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return label.length() - (end - start);
+        }
+    }
+}
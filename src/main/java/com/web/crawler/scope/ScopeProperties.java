@@ -0,0 +1,13 @@
+package com.web.crawler.scope;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.scope")
+public class ScopeProperties {
+    // A newer copy of https://publicsuffix.org/list/public_suffix_list.dat; empty uses the one bundled with httpclient5
+    private String publicSuffixList = "";
+}
@@ -0,0 +1,701 @@
+package com.web.crawler.search;
+
+import com.web.crawler.graph.UrlIdDictionary;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text index over a crawl's pages, fed as pages are fetched and searchable while the crawl runs.
+ * Pages go into an on-heap buffer segment; a full buffer is written to disk as an immutable segment
+ * whose term dictionary stays on heap and whose postings are read at query time, and once
+ * {@code mergeFactor} segments of one size tier exist they are merged into the next. A page indexed
+ * again, as in continuous crawls, replaces its earlier version: each page records the segment that
+ * holds its current postings, postings elsewhere are skipped, and merges drop them. Hits are ranked
+ * with BM25.
+ */
+@Slf4j
+public class SearchIndex implements Closeable {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final long[] NO_POSTINGS = new long[0];
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final UrlIdDictionary dictionary;
+    private final long bufferBytes;
+    private final int mergeFactor;
+    private final int maxTermsPerPage;
+    private final SegmentFiles files;
+    private final Cleaner.Cleanable cleanable;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Writers wait for the previous segment write, so at most one full buffer waits besides the one filling
+    private final ReentrantLock maintenance = new ReentrantLock();
+
+    // Guarded by lock
+    private final List<Segment> segments = new ArrayList<>();
+    private BufferSegment buffer;
+    private int nextSegmentId = 1;
+    private int[] pageSegments = new int[1024];
+    private int[] pageLengths = new int[1024];
+    private int pages;
+    private long totalLength;
+    private volatile long heapBytes;
+
+    public SearchIndex(UrlIdDictionary dictionary, Path directory, long bufferBytes, int mergeFactor,
+                       int maxTermsPerPage) {
+        this.dictionary = dictionary;
+        this.bufferBytes = bufferBytes;
+        this.mergeFactor = Math.max(2, mergeFactor);
+        this.maxTermsPerPage = maxTermsPerPage;
+        this.files = new SegmentFiles(directory);
+        this.cleanable = CLEANER.register(this, files);
+        this.buffer = newBuffer();
+    }
+
+    /**
+     * @param spillDirectory where segments go when {@code crawler.search.directory} is blank
+     */
+    public static SearchIndex create(UrlIdDictionary dictionary, SearchProperties properties, Path spillDirectory) {
+        String directory = properties.getDirectory();
+        return new SearchIndex(dictionary, directory == null || directory.isBlank() ? spillDirectory : Path.of(directory),
+                properties.getBufferBytes(), properties.getMergeFactor(), properties.getMaxTermsPerPage());
+    }
+
+    /**
+     * @return an empty term count for one page, limited to the configured terms per page
+     */
+    public TermCounts newPage() {
+        return new TermCounts(maxTermsPerPage);
+    }
+
+    public void add(String url, TermCounts terms) {
+        int id = dictionary.intern(url);
+        BufferSegment full = null;
+        lock.writeLock().lock();
+        try {
+            if (id >= pageSegments.length) {
+                int length = Math.max(pageSegments.length * 2, id + 1);
+                pageSegments = Arrays.copyOf(pageSegments, length);
+                pageLengths = Arrays.copyOf(pageLengths, length);
+            }
+            if (pageSegments[id] == 0) {
+                pages++;
+            } else {
+                totalLength -= pageLengths[id];
+            }
+            buffer.add(id, terms, pageSegments[id] == buffer.id);
+            pageSegments[id] = buffer.id;
+            pageLengths[id] = terms.length();
+            totalLength += terms.length();
+            if (buffer.bytes >= bufferBytes) {
+                full = buffer;
+                buffer = newBuffer();
+            }
+            updateHeapBytes();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (full != null) {
+            flush(full);
+        }
+    }
+
+    /**
+     * Ranks pages matching any of the query's terms.
+     *
+     * @return the number of matching pages and the {@code limit} best, highest score first
+     */
+    public TopHits search(String query, int limit) {
+        List<String> terms = TermCounts.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Query has no searchable terms: " + query);
+        }
+        Map<Integer, double[]> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            double averageLength = pages == 0 ? 1 : Math.max(1, (double) totalLength / pages);
+            for (String term : terms) {
+                long docFreq = 0;
+                for (Segment segment : segments) {
+                    docFreq += segment.docFreq(term);
+                }
+                if (docFreq == 0) {
+                    continue;
+                }
+                // Replaced postings still count towards docFreq until merged away, which only nudges idf
+                double idf = Math.log(1 + (Math.max(0, pages - docFreq) + 0.5) / (docFreq + 0.5));
+                for (Segment segment : segments) {
+                    for (long posting : segment.postings(term)) {
+                        int id = (int) (posting >>> 32);
+                        if (pageSegments[id] != segment.id) {
+                            continue;
+                        }
+                        int frequency = (int) posting;
+                        double norm = K1 * (1 - B + B * pageLengths[id] / averageLength);
+                        scores.computeIfAbsent(id, k -> new double[1])[0] += idf * frequency * (K1 + 1) / (frequency + norm);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read search segment", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new TopHits(scores.size(), top(scores, limit));
+    }
+
+    private static List<Hit> top(Map<Integer, double[]> scores, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Comparator<Hit> byScore = Comparator.comparingDouble(Hit::score).thenComparing(Hit::id, Comparator.reverseOrder());
+        PriorityQueue<Hit> heap = new PriorityQueue<>(byScore);
+        scores.forEach((id, score) -> {
+            Hit hit = new Hit(id, score[0]);
+            if (heap.size() < limit) {
+                heap.add(hit);
+            } else if (byScore.compare(hit, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(hit);
+            }
+        });
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(byScore.reversed());
+        return hits;
+    }
+
+    public UrlIdDictionary dictionary() {
+        return dictionary;
+    }
+
+    public int pageCount() {
+        lock.readLock().lock();
+        try {
+            return pages;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryFootprint() {
+        return heapBytes;
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment instanceof DiskSegment disk) {
+                    disk.close();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        cleanable.clean();
+    }
+
+    private BufferSegment newBuffer() {
+        BufferSegment segment = new BufferSegment(nextSegmentId++);
+        segments.add(segment);
+        return segment;
+    }
+
+    private void updateHeapBytes() {
+        long bytes = 8L * pageSegments.length;
+        for (Segment segment : segments) {
+            bytes += segment.heapBytes();
+        }
+        heapBytes = bytes;
+    }
+
+    private void flush(BufferSegment full) {
+        maintenance.lock();
+        try {
+            DiskSegment written;
+            try {
+                written = write(full);
+            } catch (IOException e) {
+                // The buffer stays searchable on heap
+                log.warn("Could not write search segment: {}", e.getMessage());
+                return;
+            }
+            replace(List.of(full), written);
+            mergeTiers();
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    private DiskSegment write(BufferSegment full) throws IOException {
+        SegmentWriter writer = new SegmentWriter(files.newFile(full.id));
+        try {
+            for (String term : full.sortedTerms()) {
+                long[] postings = full.postings(term);
+                if (postings.length > 0) {
+                    writer.add(term, postings, postings.length);
+                }
+            }
+            return writer.finish(full.id, 0);
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    private void mergeTiers() {
+        List<DiskSegment> tier;
+        while ((tier = fullTier()) != null) {
+            int[] snapshot;
+            int id;
+            lock.writeLock().lock();
+            try {
+                snapshot = pageSegments.clone();
+                id = nextSegmentId++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            DiskSegment merged;
+            try {
+                merged = merge(tier, id, snapshot);
+            } catch (IOException e) {
+                log.warn("Could not merge search segments: {}", e.getMessage());
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                // Pages re-added since the snapshot already point at a newer segment
+                for (int page = 0; page < snapshot.length; page++) {
+                    if (snapshot[page] != 0 && pageSegments[page] == snapshot[page] && contains(tier, snapshot[page])) {
+                        pageSegments[page] = id;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            replace(tier, merged);
+        }
+    }
+
+    private List<DiskSegment> fullTier() {
+        Map<Integer, List<DiskSegment>> tiers = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment instanceof DiskSegment disk) {
+                    List<DiskSegment> tier = tiers.computeIfAbsent(disk.level, level -> new ArrayList<>());
+                    tier.add(disk);
+                    if (tier.size() == mergeFactor) {
+                        return tier;
+                    }
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean contains(List<DiskSegment> tier, int id) {
+        for (DiskSegment segment : tier) {
+            if (segment.id == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private DiskSegment merge(List<DiskSegment> sources, int id, int[] snapshot) throws IOException {
+        SegmentWriter writer = new SegmentWriter(files.newFile(id));
+        try {
+            int[] cursors = new int[sources.size()];
+            long[] merged = new long[64];
+            while (true) {
+                String term = null;
+                for (int s = 0; s < cursors.length; s++) {
+                    String[] terms = sources.get(s).terms;
+                    if (cursors[s] < terms.length && (term == null || terms[cursors[s]].compareTo(term) < 0)) {
+                        term = terms[cursors[s]];
+                    }
+                }
+                if (term == null) {
+                    break;
+                }
+                int count = 0;
+                for (int s = 0; s < cursors.length; s++) {
+                    DiskSegment source = sources.get(s);
+                    if (cursors[s] >= source.terms.length || !source.terms[cursors[s]].equals(term)) {
+                        continue;
+                    }
+                    for (long posting : source.read(cursors[s]++)) {
+                        // Only the page's current version survives
+                        if (snapshot[(int) (posting >>> 32)] == source.id) {
+                            if (count == merged.length) {
+                                merged = Arrays.copyOf(merged, count * 2);
+                            }
+                            merged[count++] = posting;
+                        }
+                    }
+                }
+                if (count > 0) {
+                    Arrays.sort(merged, 0, count);
+                    writer.add(term, merged, count);
+                }
+            }
+            return writer.finish(id, sources.get(0).level + 1);
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    private void replace(List<? extends Segment> replaced, DiskSegment segment) {
+        lock.writeLock().lock();
+        try {
+            segments.removeAll(replaced);
+            segments.add(segment);
+            updateHeapBytes();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // No search can still be reading them once the write lock was held
+        for (Segment old : replaced) {
+            if (old instanceof DiskSegment disk) {
+                disk.delete();
+            }
+        }
+    }
+
+    public record Hit(int id, double score) {
+    }
+
+    public record TopHits(int totalHits, List<Hit> hits) {
+    }
+
+    private abstract static class Segment {
+        final int id;
+
+        Segment(int id) {
+            this.id = id;
+        }
+
+        abstract int docFreq(String term);
+
+        /**
+         * @return page id and term frequency, packed as {@code id << 32 | frequency}, ordered by page
+         */
+        abstract long[] postings(String term) throws IOException;
+
+        abstract long heapBytes();
+    }
+
+    private static final class BufferSegment extends Segment {
+        // HashMap entry, key string header and postings holder per term
+        private static final long TERM_OVERHEAD = 128;
+
+        private final Map<String, Postings> postings = new HashMap<>();
+        // Pages added to this buffer more than once, with the sequence of their latest version
+        private final Map<Integer, Integer> latest = new HashMap<>();
+        private int sequence;
+        private long bytes;
+
+        BufferSegment(int id) {
+            super(id);
+        }
+
+        void add(int page, TermCounts terms, boolean replacing) {
+            int added = ++sequence;
+            if (replacing) {
+                latest.put(page, added);
+            }
+            for (Map.Entry<String, int[]> entry : terms.counts().entrySet()) {
+                Postings list = postings.get(entry.getKey());
+                if (list == null) {
+                    list = new Postings();
+                    postings.put(entry.getKey(), list);
+                    bytes += TERM_OVERHEAD + 2L * entry.getKey().length() + 4L * list.values.length;
+                }
+                bytes += list.add(page, entry.getValue()[0], added);
+            }
+        }
+
+        String[] sortedTerms() {
+            String[] terms = postings.keySet().toArray(String[]::new);
+            Arrays.sort(terms);
+            return terms;
+        }
+
+        @Override
+        int docFreq(String term) {
+            Postings list = postings.get(term);
+            return list == null ? 0 : list.size / 3;
+        }
+
+        @Override
+        long[] postings(String term) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return NO_POSTINGS;
+            }
+            long[] result = new long[list.size / 3];
+            int count = 0;
+            for (int i = 0; i < list.size; i += 3) {
+                Integer current = latest.get(list.values[i]);
+                if (current == null || current == list.values[i + 2]) {
+                    result[count++] = (long) list.values[i] << 32 | list.values[i + 1];
+                }
+            }
+            result = count == result.length ? result : Arrays.copyOf(result, count);
+            Arrays.sort(result);
+            return result;
+        }
+
+        @Override
+        long heapBytes() {
+            return bytes + 48L * latest.size();
+        }
+    }
+
+    // Page id, frequency and add sequence per posting, in the order pages were added
+    private static final class Postings {
+        int[] values = new int[6];
+        int size;
+
+        /**
+         * @return the bytes the backing array grew by
+         */
+        long add(int page, int frequency, int sequence) {
+            long grown = 0;
+            if (size + 3 > values.length) {
+                int length = values.length + values.length / 2 + 3;
+                grown = 4L * (length - values.length);
+                values = Arrays.copyOf(values, length);
+            }
+            values[size++] = page;
+            values[size++] = frequency;
+            values[size++] = sequence;
+            return grown;
+        }
+    }
+
+    private static final class DiskSegment extends Segment {
+        // String header, reference, offset and document frequency per term
+        private static final long TERM_OVERHEAD = 64;
+
+        final int level;
+        final String[] terms;
+        private final long[] offsets;
+        private final int[] docFreqs;
+        private final Path file;
+        private final FileChannel channel;
+        private final long heapBytes;
+
+        DiskSegment(int id, int level, String[] terms, long[] offsets, int[] docFreqs, Path file) throws IOException {
+            super(id);
+            this.level = level;
+            this.terms = terms;
+            this.offsets = offsets;
+            this.docFreqs = docFreqs;
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            long bytes = 0;
+            for (String term : terms) {
+                bytes += TERM_OVERHEAD + 2L * term.length();
+            }
+            this.heapBytes = bytes;
+        }
+
+        @Override
+        int docFreq(String term) {
+            int index = Arrays.binarySearch(terms, term);
+            return index < 0 ? 0 : docFreqs[index];
+        }
+
+        @Override
+        long[] postings(String term) throws IOException {
+            int index = Arrays.binarySearch(terms, term);
+            return index < 0 ? NO_POSTINGS : read(index);
+        }
+
+        long[] read(int index) throws IOException {
+            ByteBuffer bytes = ByteBuffer.allocate((int) (offsets[index + 1] - offsets[index]));
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, offsets[index] + bytes.position()) < 0) {
+                    throw new EOFException(file.toString());
+                }
+            }
+            bytes.flip();
+            long[] postings = new long[docFreqs[index]];
+            int page = 0;
+            for (int i = 0; i < postings.length; i++) {
+                page += readVarInt(bytes);
+                postings[i] = (long) page << 32 | readVarInt(bytes);
+            }
+            return postings;
+        }
+
+        @Override
+        long heapBytes() {
+            return heapBytes;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Could not close search segment {}: {}", file, e.getMessage());
+            }
+        }
+
+        void delete() {
+            close();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not remove search segment {}: {}", file, e.getMessage());
+            }
+        }
+
+        private static int readVarInt(ByteBuffer bytes) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    /**
+     * Writes postings term by term in sorted order, delta-encoding page ids as varints.
+     */
+    private static final class SegmentWriter {
+        private final Path file;
+        private final OutputStream out;
+        private final List<String> terms = new ArrayList<>();
+        private long[] offsets = new long[1024];
+        private int[] docFreqs = new int[1024];
+        private long position;
+
+        SegmentWriter(Path file) throws IOException {
+            this.file = file;
+            this.out = new BufferedOutputStream(Files.newOutputStream(file));
+        }
+
+        void add(String term, long[] postings, int count) throws IOException {
+            int index = terms.size();
+            if (index + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                docFreqs = Arrays.copyOf(docFreqs, docFreqs.length * 2);
+            }
+            terms.add(term);
+            offsets[index] = position;
+            docFreqs[index] = count;
+            int previous = 0;
+            for (int i = 0; i < count; i++) {
+                int page = (int) (postings[i] >>> 32);
+                writeVarInt(page - previous);
+                writeVarInt((int) postings[i]);
+                previous = page;
+            }
+        }
+
+        DiskSegment finish(int id, int level) throws IOException {
+            out.close();
+            int count = terms.size();
+            offsets[count] = position;
+            return new DiskSegment(id, level, terms.toArray(String[]::new), Arrays.copyOf(offsets, count + 1),
+                    Arrays.copyOf(docFreqs, count), file);
+        }
+
+        void abort() {
+            try {
+                out.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.debug("Could not remove partial search segment {}: {}", file, e.getMessage());
+            }
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+                position++;
+            }
+            out.write(value);
+            position++;
+        }
+    }
+
+    /**
+     * The index's segment directory, created on the first flush and removed once the index is
+     * closed or unreachable. Kept apart from the index so the cleaner does not hold it reachable.
+     */
+    private static final class SegmentFiles implements Runnable {
+        private final Path parent;
+        private Path directory;
+
+        SegmentFiles(Path parent) {
+            this.parent = parent;
+        }
+
+        synchronized Path newFile(int id) throws IOException {
+            if (directory == null) {
+                directory = Files.createTempDirectory(parent, "search-");
+            }
+            return directory.resolve("segment-" + id + ".idx");
+        }
+
+        @Override
+        public synchronized void run() {
+            if (directory == null) {
+                return;
+            }
+            try (DirectoryStream<Path> contents = Files.newDirectoryStream(directory)) {
+                for (Path file : contents) {
+                    Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                log.warn("Could not remove search index {}: {}", directory, e.getMessage());
+            }
+            directory = null;
+        }
+    }
+}
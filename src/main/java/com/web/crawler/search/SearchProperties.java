@@ -0,0 +1,19 @@
+package com.web.crawler.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.search")
+public class SearchProperties {
+    // Postings buffered on heap per crawl before they are written out as a segment
+    private long bufferBytes = 8 * 1024 * 1024;
+    // Segments of one size tier that are merged into the next
+    private int mergeFactor = 8;
+    // Terms indexed per page; the rest of a long page is ignored
+    private int maxTermsPerPage = 20000;
+    // Where segments are written; empty uses the memory spill directory
+    private String directory = "";
+}
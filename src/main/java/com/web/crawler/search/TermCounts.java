@@ -0,0 +1,70 @@
+package com.web.crawler.search;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Term frequencies of one page, counted as its text streams through the parser. Terms are runs of
+ * letters and digits, lower-cased and cut at {@link #MAX_TERM_LENGTH} characters; counting stops
+ * after {@code maxTerms} terms, so a huge page costs no more than a large one.
+ */
+public class TermCounts {
+
+    static final int MAX_TERM_LENGTH = 40;
+
+    private final int maxTerms;
+    private final Map<String, int[]> counts = new HashMap<>();
+    private final StringBuilder term = new StringBuilder(MAX_TERM_LENGTH);
+    private int length;
+
+    public TermCounts(int maxTerms) {
+        this.maxTerms = maxTerms;
+    }
+
+    /**
+     * Splits a query with the same rules pages are indexed with.
+     */
+    public static List<String> tokenize(String text) {
+        TermCounts terms = new TermCounts(Integer.MAX_VALUE);
+        terms.add(text);
+        return List.copyOf(terms.counts.keySet());
+    }
+
+    public void add(CharSequence text) {
+        int i = 0;
+        while (i < text.length() && length < maxTerms) {
+            int c = Character.codePointAt(text, i);
+            i += Character.charCount(c);
+            if (!Character.isLetterOrDigit(c)) {
+                endTerm();
+            } else if (term.length() < MAX_TERM_LENGTH) {
+                term.appendCodePoint(Character.toLowerCase(c));
+            }
+        }
+        // Adjacent text nodes are separate words
+        endTerm();
+    }
+
+    private void endTerm() {
+        if (term.isEmpty()) {
+            return;
+        }
+        if (length < maxTerms) {
+            counts.computeIfAbsent(term.toString(), t -> new int[1])[0]++;
+            length++;
+        }
+        term.setLength(0);
+    }
+
+    /**
+     * @return the number of terms counted, for length normalization
+     */
+    public int length() {
+        return length;
+    }
+
+    Map<String, int[]> counts() {
+        return counts;
+    }
+}
@@ -0,0 +1,28 @@
+package com.web.crawler.seed;
+
+import com.web.crawler.util.UrlUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Normalized start URLs together with the scope domains they add to the crawl.
+ */
+public record SeedBatch(List<String> urls, Set<String> domains) {
+
+    public static SeedBatch of(List<String> normalizedUrls) {
+        Set<String> domains = new LinkedHashSet<>();
+        for (String url : normalizedUrls) {
+            String domain = UrlUtils.scopeDomain(UrlUtils.extractDomain(url));
+            if (domain != null) {
+                domains.add(domain);
+            }
+        }
+        return new SeedBatch(normalizedUrls, domains);
+    }
+
+    public boolean isEmpty() {
+        return urls.isEmpty();
+    }
+}
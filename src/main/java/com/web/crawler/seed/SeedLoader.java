@@ -0,0 +1,122 @@
+package com.web.crawler.seed;
+
+import com.web.crawler.model.RejectedSeed;
+import com.web.crawler.util.UrlUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Validates and normalizes seed URLs. Files are streamed line by line in chunks that are validated
+ * on a small shared pool, so neither the file nor its URL list is ever held in memory whole.
+ */
+public class SeedLoader {
+
+    static final int CHUNK_LINES = 1000;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final ExecutorService VALIDATORS = createValidatorPool();
+
+    private SeedLoader() {
+    }
+
+    /**
+     * Opens a plain or gzip-compressed seed file, one URL per line. Blank lines and lines starting
+     * with {@code #} are skipped. The file is deleted when the returned stream is closed.
+     */
+    public static SeedStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first == 0x1f && second == 0x8b) {
+            in = new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        return new SeedStream(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE),
+                file, VALIDATORS);
+    }
+
+    /**
+     * Validates URLs given inline, dropping the ones that are rejected.
+     */
+    public static SeedBatch validate(List<String> urls) {
+        return validate(urls, 1).batch();
+    }
+
+    static ValidatedChunk validate(List<String> lines, long firstLine) {
+        Set<String> urls = new LinkedHashSet<>();
+        Set<String> domains = new LinkedHashSet<>();
+        List<RejectedSeed> rejected = new ArrayList<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line == null) {
+                continue;
+            }
+            // A byte order mark survives UTF-8 decoding on the first line
+            if (line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String reason = null;
+            try {
+                URI uri = new URI(line);
+                String scheme = uri.getScheme();
+                if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+                    reason = "unsupported scheme";
+                } else if (uri.getHost() == null) {
+                    reason = "missing host";
+                } else {
+                    urls.add(UrlUtils.normalizeUrl(uri));
+                    domains.add(UrlUtils.scopeDomain(uri.getHost()));
+                }
+            } catch (URISyntaxException e) {
+                reason = "malformed URL";
+            }
+            if (reason != null) {
+                rejected.add(RejectedSeed.builder().line(firstLine + i).value(line).reason(reason).build());
+            }
+        }
+        return new ValidatedChunk(new SeedBatch(new ArrayList<>(urls), domains), rejected);
+    }
+
+    record ValidatedChunk(SeedBatch batch, List<RejectedSeed> rejected) {
+    }
+
+    private static ExecutorService createValidatorPool() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "seed-validator-" + threadNumber.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,144 @@
+package com.web.crawler.seed;
+
+import com.web.crawler.model.RejectedSeed;
+import com.web.crawler.model.SeedLoadReport;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Yields validated seed batches in file order. Reading stays a bounded number of chunks ahead of
+ * the consumer, which is what keeps memory flat for files of any size.
+ */
+public class SeedStream implements Closeable {
+
+    private static final int MAX_REJECTED_SAMPLES = 100;
+
+    private final BufferedReader reader;
+    private final Path file;
+    private final ExecutorService validators;
+    private final int window;
+    private final Deque<Future<SeedLoader.ValidatedChunk>> inFlight = new ArrayDeque<>();
+
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<RejectedSeed> rejectedSamples = new ArrayList<>();
+    private volatile boolean endOfFile;
+    private volatile boolean complete;
+    private volatile boolean closed;
+    private volatile String errorMessage;
+
+    SeedStream(BufferedReader reader, Path file, ExecutorService validators) {
+        this.reader = reader;
+        this.file = file;
+        this.validators = validators;
+        this.window = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * @return the next non-empty batch, or null at the end of the file
+     */
+    public SeedBatch next() throws IOException {
+        while (true) {
+            fill();
+            Future<SeedLoader.ValidatedChunk> head = inFlight.poll();
+            if (head == null) {
+                complete = true;
+                return null;
+            }
+            SeedLoader.ValidatedChunk chunk = await(head);
+            accepted.addAndGet(chunk.batch().urls().size());
+            rejected.addAndGet(chunk.rejected().size());
+            synchronized (rejectedSamples) {
+                for (RejectedSeed seed : chunk.rejected()) {
+                    if (rejectedSamples.size() >= MAX_REJECTED_SAMPLES) {
+                        break;
+                    }
+                    rejectedSamples.add(seed);
+                }
+            }
+            if (!chunk.batch().isEmpty()) {
+                return chunk.batch();
+            }
+        }
+    }
+
+    public void fail(String message) {
+        this.errorMessage = message;
+    }
+
+    public SeedLoadReport report() {
+        List<RejectedSeed> samples;
+        synchronized (rejectedSamples) {
+            samples = new ArrayList<>(rejectedSamples);
+        }
+        return SeedLoadReport.builder()
+                .linesRead(linesRead.get())
+                .accepted(accepted.get())
+                .rejected(rejected.get())
+                .loading(!closed)
+                .complete(complete)
+                .errorMessage(errorMessage)
+                .rejectedSamples(samples)
+                .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Future<SeedLoader.ValidatedChunk> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+        try {
+            reader.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void fill() throws IOException {
+        while (!endOfFile && inFlight.size() < window) {
+            List<String> lines = new ArrayList<>(SeedLoader.CHUNK_LINES);
+            long firstLine = linesRead.get() + 1;
+            String line;
+            while (lines.size() < SeedLoader.CHUNK_LINES && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            linesRead.addAndGet(lines.size());
+            if (lines.size() < SeedLoader.CHUNK_LINES) {
+                endOfFile = true;
+            }
+            if (!lines.isEmpty()) {
+                inFlight.add(validators.submit(() -> SeedLoader.validate(lines, firstLine)));
+            }
+        }
+    }
+
+    private static SeedLoader.ValidatedChunk await(Future<SeedLoader.ValidatedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while validating seeds");
+        } catch (ExecutionException e) {
+            throw new IOException("Seed validation failed", e.getCause());
+        }
+    }
+}
@@ -1,64 +1,159 @@
 package com.web.crawler.service;
 
+import com.web.crawler.cluster.ClusterCoordinator;
+import com.web.crawler.cluster.PartitionActivity;
+import com.web.crawler.cluster.PartitionRequest;
+import com.web.crawler.cluster.PeerStatuses;
+import com.web.crawler.cluster.UrlBatch;
+import com.web.crawler.cluster.UrlForwarder;
+import com.web.crawler.extract.PageFieldStore;
+import com.web.crawler.graph.LinkGraph;
+import com.web.crawler.graph.PageRank;
+import com.web.crawler.graph.UrlIdDictionary;
 import com.web.crawler.manager.CrawlManager;
 import com.web.crawler.manager.CrawlManagerFactory;
+import com.web.crawler.manager.UrlRouter;
+import com.web.crawler.memory.MemoryProperties;
+import com.web.crawler.model.ArchiveStats;
+import com.web.crawler.model.CrawlOptions;
 import com.web.crawler.model.CrawlResult;
+import com.web.crawler.model.CrawlResultsPageDto;
 import com.web.crawler.model.CrawlStatus;
 import com.web.crawler.model.CrawlStatusDto;
 import com.web.crawler.model.CrawlType;
+import com.web.crawler.model.FetchTimingStats;
+import com.web.crawler.model.HostFailureStats;
+import com.web.crawler.model.LinkGraphDto;
+import com.web.crawler.model.MemoryStats;
+import com.web.crawler.model.PageRankEntry;
+import com.web.crawler.model.Percentiles;
+import com.web.crawler.model.RecrawlStats;
+import com.web.crawler.model.SearchHit;
+import com.web.crawler.model.SearchResultDto;
+import com.web.crawler.model.SeedLoadReport;
 import com.web.crawler.repository.CrawlRepository;
+import com.web.crawler.search.SearchIndex;
+import com.web.crawler.seed.SeedBatch;
+import com.web.crawler.seed.SeedLoader;
+import com.web.crawler.seed.SeedStream;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CrawlService {
 
+    private static final double PAGE_RANK_DAMPING = 0.85;
+    private static final int PAGE_RANK_MAX_ITERATIONS = 50;
+    private static final double PAGE_RANK_TOLERANCE = 1e-6;
+    private static final int MAX_SEARCH_HITS = 100;
+    private static final int MAX_RESULTS_PAGE_SIZE = 1000;
+
     private final CrawlManagerFactory crawlManagerFactory;
 
     private final CrawlRepository repository;
 
+    private final ClusterCoordinator clusterCoordinator;
+
+    private final MemoryProperties memoryProperties;
+
     @Getter
     private final Map<String, CrawlManager> activeCrawls = new ConcurrentHashMap<>();
 
+    private final Map<String, SeedStream> seedStreams = new ConcurrentHashMap<>();
+
+    // Crawls whose run has not returned yet, including stopped ones still draining their workers
+    private final Set<String> unfinishedRuns = ConcurrentHashMap.newKeySet();
+
     @Value("${crawler.timeout.minutes}")
     private int crawlTimeoutMinutes;
 
     public String startCrawlAsync(List<String> urls, CrawlType type, int maxPages, int maxDepth) {
+        return startCrawlAsync(urls, type, maxPages, maxDepth, CrawlOptions.defaults());
+    }
+
+    public String startCrawlAsync(List<String> urls, CrawlType type, int maxPages, int maxDepth,
+                                  CrawlOptions options) {
+        return startCrawl(urls, type, maxPages, maxDepth, options, null);
+    }
+
+    private String startCrawl(List<String> urls, CrawlType type, int maxPages, int maxDepth,
+                              CrawlOptions options, SeedStream moreSeeds) {
         String crawlId = UUID.randomUUID().toString();
 
+        if (clusterCoordinator.isEnabled()) {
+            // Each node gets an equal share of the page budget; the local partition starts first so it
+            // can already accept URLs forwarded by peers
+            int partitionPages = (maxPages + clusterCoordinator.nodeCount() - 1) / clusterCoordinator.nodeCount();
+            PartitionRequest partition = new PartitionRequest(urls, type, partitionPages, maxDepth, options);
+            startLocalCrawl(crawlId, urls, type, partitionPages, maxDepth, options, moreSeeds);
+            clusterCoordinator.broadcastStart(crawlId, partition);
+            clusterCoordinator.coordinate(crawlId);
+            return crawlId;
+        }
+
+        startLocalCrawl(crawlId, urls, type, maxPages, maxDepth, options, moreSeeds);
+        return crawlId;
+    }
+
+    public void startPartition(String crawlId, PartitionRequest request) {
+        if (activeCrawls.containsKey(crawlId)) {
+            return;
+        }
+        startLocalCrawl(crawlId, request.urls(), request.strategy(), request.maxPages(), request.maxDepth(),
+                request.options(), null);
+    }
+
+    private void startLocalCrawl(String crawlId, List<String> urls, CrawlType type, int maxPages, int maxDepth,
+                                 CrawlOptions options, SeedStream moreSeeds) {
         CrawlManager manager;
         try {
-            manager = crawlManagerFactory.create(urls, type, maxPages, maxDepth, crawlTimeoutMinutes);
+            UrlRouter router = clusterCoordinator.routerFor(crawlId);
+            manager = crawlManagerFactory.create(urls, type, maxPages, maxDepth, crawlTimeoutMinutes, options, router);
+            manager.setCrawlId(crawlId);
         } catch (Exception e) {
+            clusterCoordinator.release(crawlId);
             log.error("Failed to create crawl manager for {}: {}", crawlId, e.getMessage(), e);
             throw new IllegalArgumentException("Invalid crawl configuration: " + e.getMessage(), e);
         }
 
         activeCrawls.put(crawlId, manager);
 
-        CrawlResult result = new CrawlResult(
-                crawlId, type, CrawlStatus.RUNNING, LocalDateTime.now(), null,
-                0, maxPages, maxDepth, null, new ArrayList<>(),
-                new HashMap<>(), null
-        );
+        CrawlResult result = CrawlResult.builder()
+                .crawlId(crawlId)
+                .strategy(type)
+                .status(CrawlStatus.RUNNING)
+                .startTime(LocalDateTime.now())
+                .maxPages(maxPages)
+                .maxDepth(maxDepth)
+                .visitedUrls(new ArrayList<>())
+                .crawlResults(new HashMap<>())
+                .build();
         repository.save(result);
 
+        if (moreSeeds != null) {
+            // Seeds keep streaming in while the crawl runs, on their own thread since feeding blocks on a full frontier
+            manager.beginSeeding();
+            seedStreams.put(crawlId, moreSeeds);
+            Thread feeder = new Thread(() -> feedSeeds(crawlId, manager, moreSeeds), "seed-feeder-" + crawlId);
+            feeder.setDaemon(true);
+            feeder.start();
+        }
+
+        unfinishedRuns.add(crawlId);
         CompletableFuture.runAsync(() -> {
             try {
                 manager.start();
@@ -68,16 +163,249 @@ public class CrawlService {
                 updateCrawlResult(crawlId, CrawlStatus.FAILED, e.getMessage());
             } finally {
                 activeCrawls.remove(crawlId);
+                clusterCoordinator.partitionFinished(crawlId);
+                unfinishedRuns.remove(crawlId);
             }
         });
 
         log.info("Started crawl {} with {} URLs, maxPages: {}, maxDepth: {}",
                 crawlId, urls.size(), maxPages, maxDepth);
+    }
 
-        return crawlId;
+    private void feedSeeds(String crawlId, CrawlManager manager, SeedStream seeds) {
+        try (seeds) {
+            SeedBatch batch;
+            while ((batch = seeds.next()) != null && manager.addSeeds(batch)) {
+                log.debug("Fed {} seeds to crawl {}", batch.urls().size(), crawlId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Seed loading for crawl {} failed: {}", crawlId, e.getMessage());
+            seeds.fail(e.getMessage());
+        } finally {
+            manager.seedingFinished();
+            SeedLoadReport report = seeds.report();
+            repository.findById(crawlId).ifPresent(result -> result.setSeedLoad(report));
+            seedStreams.remove(crawlId);
+            log.info("Seed loading for crawl {} finished: {} accepted, {} rejected of {} lines",
+                    crawlId, report.getAccepted(), report.getRejected(), report.getLinesRead());
+        }
+    }
+
+    /**
+     * URLs arriving after this partition's own run is over are acknowledged and dropped, as its page
+     * budget is spent, so the sender does not keep retrying them.
+     *
+     * @return false if this node has no partition of the crawl
+     */
+    public boolean acceptForwardedUrls(String crawlId, String batchId, List<UrlBatch> batches) {
+        UrlForwarder partition = clusterCoordinator.partition(crawlId);
+        if (partition == null) {
+            return false;
+        }
+        CrawlManager manager = activeCrawls.get(crawlId);
+        if (manager != null) {
+            for (UrlBatch batch : batches) {
+                // Depth 0 URLs are seeds streamed in on another node; they bring their domains into scope
+                if (batch.depth() == 0) {
+                    try {
+                        manager.addSeeds(SeedBatch.of(batch.urls()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                } else {
+                    manager.enqueueAll(batch.urls(), batch.depth());
+                }
+            }
+        }
+        // Counted only once queued, so the partition never looks idle with these URLs still unseen
+        partition.received(batchId, batches.stream().mapToInt(batch -> batch.urls().size()).sum());
+        return true;
+    }
+
+    public PartitionActivity getPartitionActivity(String crawlId) {
+        return clusterCoordinator.activity(crawlId);
+    }
+
+    public void endPartition(String crawlId) {
+        clusterCoordinator.endPartition(crawlId);
     }
 
     public CrawlStatusDto getCrawlStatusDto(String crawlId) {
+        CrawlStatusDto local = getLocalCrawlStatusDto(crawlId);
+        if (!clusterCoordinator.isEnabled()) {
+            return local;
+        }
+        PeerStatuses peers = clusterCoordinator.fetchPeerStatuses(crawlId);
+        CrawlStatusDto merged = mergeStatuses(local, peers.statuses());
+        merged.setUnreachableNodes(peers.unreachable());
+        return merged;
+    }
+
+    /**
+     * @return whether this node's part of the crawl has ended and its stored result will no longer change
+     */
+    public boolean isFinished(String crawlId) {
+        if (unfinishedRuns.contains(crawlId) || activeCrawls.containsKey(crawlId) || seedStreams.containsKey(crawlId)) {
+            return false;
+        }
+        return repository.findById(crawlId)
+                .map(result -> result.getStatus() != CrawlStatus.RUNNING)
+                .orElse(false);
+    }
+
+    private CrawlStatusDto mergeStatuses(CrawlStatusDto local, List<CrawlStatusDto> peers) {
+        Map<String, List<String>> results = new HashMap<>(local.getResults() != null ? local.getResults() : Map.of());
+        Map<String, Map<String, List<String>>> extractedFields = new HashMap<>(
+                local.getExtractedFields() != null ? local.getExtractedFields() : Map.of());
+        for (CrawlStatusDto peer : peers) {
+            local.setProcessedPages(local.getProcessedPages() + peer.getProcessedPages());
+            local.setMaxPages(local.getMaxPages() + peer.getMaxPages());
+            local.setPendingTasks(local.getPendingTasks() + peer.getPendingTasks());
+            local.setQueueSize(local.getQueueSize() + peer.getQueueSize());
+            local.setBytesOnWire(local.getBytesOnWire() + peer.getBytesOnWire());
+            local.setBytesDecoded(local.getBytesDecoded() + peer.getBytesDecoded());
+            local.setBytesAllocated(local.getBytesAllocated() + peer.getBytesAllocated());
+            local.setFetchOutcomes(sumCounts(local.getFetchOutcomes(), peer.getFetchOutcomes()));
+            local.setTrapRejections(sumCounts(local.getTrapRejections(), peer.getTrapRejections()));
+            local.setTrapRejectedUrls(concatLists(local.getTrapRejectedUrls(), peer.getTrapRejectedUrls()));
+            local.setMemory(sumMemory(local.getMemory(), peer.getMemory()));
+            local.setRecrawl(sumRecrawl(local.getRecrawl(), peer.getRecrawl()));
+            local.setArchive(sumArchive(local.getArchive(), peer.getArchive()));
+            local.setFetchTimings(mergeTimings(local.getFetchTimings(), peer.getFetchTimings()));
+            if (peer.getResults() != null) {
+                results.putAll(peer.getResults());
+            }
+            if (peer.getExtractedFields() != null) {
+                extractedFields.putAll(peer.getExtractedFields());
+            }
+            // Hosts are partitioned across nodes, so each host appears in only one status
+            if (peer.getHostFailures() != null) {
+                Map<String, HostFailureStats> hostFailures = new LinkedHashMap<>(
+                        local.getHostFailures() != null ? local.getHostFailures() : Map.of());
+                hostFailures.putAll(peer.getHostFailures());
+                local.setHostFailures(hostFailures);
+            }
+            if (peer.isRunning()) {
+                local.setRunning(true);
+                local.setStatus(CrawlStatus.RUNNING);
+            }
+            if (peer.getStartTime() != null
+                    && (local.getStartTime() == null || peer.getStartTime().isBefore(local.getStartTime()))) {
+                local.setStartTime(peer.getStartTime());
+            }
+            if (peer.getEndTime() != null
+                    && (local.getEndTime() == null || peer.getEndTime().isAfter(local.getEndTime()))) {
+                local.setEndTime(peer.getEndTime());
+            }
+        }
+        local.setResults(results);
+        local.setExtractedFields(extractedFields.isEmpty() ? local.getExtractedFields() : extractedFields);
+        long fetched = local.getFetchOutcomes() != null
+                ? local.getFetchOutcomes().values().stream().mapToLong(Long::longValue).sum() : 0;
+        if (fetched > 0) {
+            local.setAllocatedBytesPerPage(local.getBytesAllocated() / fetched);
+        }
+        if (local.isRunning()) {
+            local.setEndTime(null);
+        }
+        return local;
+    }
+
+    private static Map<String, Long> sumCounts(Map<String, Long> local, Map<String, Long> peer) {
+        if (peer == null) {
+            return local;
+        }
+        Map<String, Long> sum = new LinkedHashMap<>(local != null ? local : Map.of());
+        peer.forEach((key, count) -> sum.merge(key, count, Long::sum));
+        return sum;
+    }
+
+    private static Map<String, List<String>> concatLists(Map<String, List<String>> local, Map<String, List<String>> peer) {
+        if (peer == null) {
+            return local;
+        }
+        Map<String, List<String>> all = new LinkedHashMap<>(local != null ? local : Map.of());
+        peer.forEach((key, urls) -> all.merge(key, urls,
+                (mine, theirs) -> Stream.concat(mine.stream(), theirs.stream()).toList()));
+        return all;
+    }
+
+    private static MemoryStats sumMemory(MemoryStats local, MemoryStats peer) {
+        if (peer == null || local == null) {
+            return local != null ? local : peer;
+        }
+        return MemoryStats.builder()
+                .budgetBytes(local.getBudgetBytes() + peer.getBudgetBytes())
+                .frontierBytes(local.getFrontierBytes() + peer.getFrontierBytes())
+                .visitedBytes(local.getVisitedBytes() + peer.getVisitedBytes())
+                .resultBytes(local.getResultBytes() + peer.getResultBytes())
+                .frontierCapacity(local.getFrontierCapacity() + peer.getFrontierCapacity())
+                .spilledEntries(local.getSpilledEntries() + peer.getSpilledEntries())
+                .droppedUrls(local.getDroppedUrls() + peer.getDroppedUrls())
+                .droppedLinkLists(local.getDroppedLinkLists() + peer.getDroppedLinkLists())
+                .pausedMs(Math.max(local.getPausedMs(), peer.getPausedMs()))
+                .build();
+    }
+
+    private static RecrawlStats sumRecrawl(RecrawlStats local, RecrawlStats peer) {
+        if (peer == null || local == null) {
+            return local != null ? local : peer;
+        }
+        long revisits = local.getRevisits() + peer.getRevisits();
+        return RecrawlStats.builder()
+                .revisits(revisits)
+                .changedRevisits(local.getChangedRevisits() + peer.getChangedRevisits())
+                .meanRevisitSeconds(revisits == 0 ? local.getMeanRevisitSeconds()
+                        : (local.getMeanRevisitSeconds() * local.getRevisits()
+                        + peer.getMeanRevisitSeconds() * peer.getRevisits()) / revisits)
+                .build();
+    }
+
+    private static ArchiveStats sumArchive(ArchiveStats local, ArchiveStats peer) {
+        if (peer == null || local == null) {
+            return local != null ? local : peer;
+        }
+        return ArchiveStats.builder()
+                .archivedPages(local.getArchivedPages() + peer.getArchivedPages())
+                .archivedBytes(local.getArchivedBytes() + peer.getArchivedBytes())
+                .droppedPages(local.getDroppedPages() + peer.getDroppedPages())
+                .build();
+    }
+
+    // Nodes report percentiles, not histograms, so merged percentiles are the highest any node saw
+    private static FetchTimingStats mergeTimings(FetchTimingStats local, FetchTimingStats peer) {
+        if (peer == null || local == null) {
+            return local != null ? local : peer;
+        }
+        Map<String, Percentiles> phases = new LinkedHashMap<>(local.getPhasesMs());
+        peer.getPhasesMs().forEach((phase, percentiles) -> phases.merge(phase, percentiles, CrawlService::mergePercentiles));
+        // Hosts are partitioned across nodes, so each host appears in only one status
+        Map<String, Percentiles> hosts = new LinkedHashMap<>(local.getHostsMs());
+        hosts.putAll(peer.getHostsMs());
+        return FetchTimingStats.builder()
+                .phasesMs(phases)
+                .pageBytes(mergePercentiles(local.getPageBytes(), peer.getPageBytes()))
+                .statusCodes(sumCounts(local.getStatusCodes(), peer.getStatusCodes()))
+                .hostsMs(hosts)
+                .build();
+    }
+
+    private static Percentiles mergePercentiles(Percentiles local, Percentiles peer) {
+        long count = local.getCount() + peer.getCount();
+        return Percentiles.builder()
+                .count(count)
+                .mean(count == 0 ? 0 : (local.getMean() * local.getCount() + peer.getMean() * peer.getCount()) / count)
+                .p50(Math.max(local.getP50(), peer.getP50()))
+                .p90(Math.max(local.getP90(), peer.getP90()))
+                .p99(Math.max(local.getP99(), peer.getP99()))
+                .max(Math.max(local.getMax(), peer.getMax()))
+                .build();
+    }
+
+    public CrawlStatusDto getLocalCrawlStatusDto(String crawlId) {
         CrawlManager manager = activeCrawls.get(crawlId);
 
         if (manager != null) {
@@ -91,12 +419,26 @@ public class CrawlService {
                     .maxDepth((Integer) status.getOrDefault("maxDepth", 0))
                     .domain(status.getOrDefault("domains", List.of()).toString())
                     .results((Map<String, List<String>>) status.getOrDefault("results", Map.of()))
+                    .extractedFields((Map<String, Map<String, List<String>>>) status.get("extractedFields"))
                     .startTime((LocalDateTime) status.get("startTime"))
                     .endTime((LocalDateTime) status.get("endTime"))
                     .running(manager.isRunning())
                     .pendingTasks((Integer) status.getOrDefault("pendingTasks", 0))
                     .queueSize((Integer) status.getOrDefault("queueSize", 0))
                     .errorMessage((String) status.get("errorMessage"))
+                    .seedLoad(seedLoadReport(crawlId))
+                    .fetchOutcomes((Map<String, Long>) status.get("fetchOutcomes"))
+                    .hostFailures((Map<String, HostFailureStats>) status.get("hostFailures"))
+                    .trapRejections((Map<String, Long>) status.get("trapRejections"))
+                    .trapRejectedUrls((Map<String, List<String>>) status.get("trapRejectedUrls"))
+                    .memory((MemoryStats) status.get("memory"))
+                    .recrawl((RecrawlStats) status.get("recrawl"))
+                    .archive((ArchiveStats) status.get("archive"))
+                    .fetchTimings((FetchTimingStats) status.get("fetchTimings"))
+                    .bytesOnWire((Long) status.getOrDefault("bytesOnWire", 0L))
+                    .bytesDecoded((Long) status.getOrDefault("bytesDecoded", 0L))
+                    .bytesAllocated((Long) status.getOrDefault("bytesAllocated", 0L))
+                    .allocatedBytesPerPage((Long) status.getOrDefault("allocatedBytesPerPage", 0L))
                     .build();
         }
 
@@ -108,24 +450,203 @@ public class CrawlService {
                         .maxPages(result.getMaxPages())
                         .maxDepth(result.getMaxDepth())
                         .domain(result.getDomain())
-                        .results(result.getCrawlResults())
+                        .results(statusResults(result))
+                        .extractedFields(statusFields(result))
                         .startTime(result.getStartTime())
                         .endTime(result.getEndTime())
                         .running(false)
                         .pendingTasks(0)
                         .queueSize(0)
                         .errorMessage(result.getErrorMessage())
+                        .seedLoad(result.getSeedLoad())
+                        .fetchOutcomes(result.getFetchOutcomes())
+                        .hostFailures(result.getHostFailures())
+                        .trapRejections(result.getTrapRejections())
+                        .trapRejectedUrls(result.getTrapRejectedUrls())
+                        .memory(result.getMemory())
+                        .recrawl(result.getRecrawl())
+                        .archive(result.getArchive())
+                        .fetchTimings(result.getFetchTimings())
+                        .bytesOnWire(result.getBytesOnWire())
+                        .bytesDecoded(result.getBytesDecoded())
+                        .bytesAllocated(result.getBytesAllocated())
+                        .allocatedBytesPerPage(result.getAllocatedBytesPerPage())
                         .build())
                 .orElseThrow(() -> new IllegalArgumentException("Crawl ID not found: " + crawlId));
     }
 
 
+    private Map<String, List<String>> statusResults(CrawlResult result) {
+        // A finished crawl keeps its results as a graph; decode only the sample a status carries
+        if (result.getLinkGraph() != null) {
+            return result.getLinkGraph().toResultMap(memoryProperties.getStatusResultsLimit());
+        }
+        return result.getCrawlResults();
+    }
+
+    private Map<String, Map<String, List<String>>> statusFields(CrawlResult result) {
+        if (result.getPageFields() != null) {
+            return result.getPageFields().toMap(memoryProperties.getStatusResultsLimit());
+        }
+        return result.getExtractedFields();
+    }
+
+    private SeedLoadReport seedLoadReport(String crawlId) {
+        SeedStream seeds = seedStreams.get(crawlId);
+        if (seeds != null) {
+            return seeds.report();
+        }
+        return repository.findById(crawlId).map(CrawlResult::getSeedLoad).orElse(null);
+    }
+
+    public LinkGraphDto getLinkGraph(String crawlId, int top) {
+        LinkGraph graph = findLinkGraph(crawlId)
+                .orElseThrow(() -> new IllegalArgumentException("Crawl ID not found: " + crawlId));
+
+        PageRank pageRank = PageRank.compute(graph, PAGE_RANK_DAMPING, PAGE_RANK_MAX_ITERATIONS, PAGE_RANK_TOLERANCE);
+
+        List<PageRankEntry> topPages = topRanked(pageRank, top).stream()
+                .map(id -> PageRankEntry.builder()
+                        .url(graph.urlOf(id))
+                        .pageRank(pageRank.rank(id))
+                        .inDegree(pageRank.inDegree(id))
+                        .outDegree(pageRank.outDegree(id))
+                        .crawled(graph.isCrawled(id))
+                        .build())
+                .toList();
+
+        return LinkGraphDto.builder()
+                .crawlId(crawlId)
+                .nodes(pageRank.nodeCount())
+                .crawledPages(graph.crawledPageCount())
+                .edges(graph.edgeCount())
+                .iterations(pageRank.iterations())
+                .topPages(topPages)
+                .build();
+    }
+
+    /**
+     * Decodes one page of a crawl's crawled pages with their out-links and extracted fields, so a large crawl
+     * is read in bounded pieces.
+     */
+    public CrawlResultsPageDto getResults(String crawlId, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_RESULTS_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be at least 0 and size between 1 and " + MAX_RESULTS_PAGE_SIZE);
+        }
+        LinkGraph graph;
+        PageFieldStore fields;
+        CrawlManager manager = activeCrawls.get(crawlId);
+        if (manager != null && manager.getLinkGraph() != null) {
+            graph = manager.getLinkGraph();
+            fields = manager.getPageFields();
+        } else {
+            CrawlResult result = repository.findById(crawlId)
+                    .orElseThrow(() -> new IllegalArgumentException("Crawl ID not found: " + crawlId));
+            graph = result.getLinkGraph();
+            fields = result.getPageFields();
+        }
+
+        Map<String, List<String>> results = new LinkedHashMap<>();
+        Map<String, Map<String, List<String>>> extractedFields = new LinkedHashMap<>();
+        if (graph != null) {
+            for (int id : graph.crawledIds((long) page * size, size)) {
+                String url = graph.urlOf(id);
+                int[] targets = graph.outLinks(id);
+                List<String> links = new ArrayList<>(targets.length);
+                for (int target : targets) {
+                    links.add(graph.urlOf(target));
+                }
+                results.put(url, links);
+                Map<String, List<String>> pageFields = fields != null ? fields.get(id) : null;
+                if (pageFields != null) {
+                    extractedFields.put(url, pageFields);
+                }
+            }
+        }
+
+        return CrawlResultsPageDto.builder()
+                .crawlId(crawlId)
+                .page(page)
+                .size(size)
+                .crawledPages(graph != null ? graph.crawledPageCount() : 0)
+                .results(results)
+                .extractedFields(extractedFields)
+                .build();
+    }
+
+    private Optional<LinkGraph> findLinkGraph(String crawlId) {
+        CrawlManager manager = activeCrawls.get(crawlId);
+        if (manager != null && manager.getLinkGraph() != null) {
+            return Optional.of(manager.getLinkGraph());
+        }
+        return repository.findById(crawlId).map(CrawlResult::getLinkGraph);
+    }
+
+    public SearchResultDto search(String crawlId, String query, int limit) {
+        CrawlManager manager = activeCrawls.get(crawlId);
+        Optional<CrawlResult> stored = manager != null ? Optional.empty() : repository.findById(crawlId);
+        if (manager == null && stored.isEmpty()) {
+            throw new IllegalArgumentException("Crawl ID not found: " + crawlId);
+        }
+        SearchIndex index = manager != null ? manager.getSearchIndex() : stored.get().getSearchIndex();
+        if (index == null) {
+            throw new IllegalArgumentException("Crawl " + crawlId + " is not indexed; start it with \"index\": true");
+        }
+        PageFieldStore fields = manager != null ? manager.getPageFields() : stored.get().getPageFields();
+
+        SearchIndex.TopHits top = index.search(query, Math.min(limit, MAX_SEARCH_HITS));
+        UrlIdDictionary dictionary = index.dictionary();
+        List<SearchHit> hits = top.hits().stream()
+                .map(hit -> SearchHit.builder()
+                        .url(dictionary.urlOf(hit.id()))
+                        .score(hit.score())
+                        .fields(fields != null ? fields.get(hit.id()) : null)
+                        .build())
+                .toList();
+
+        return SearchResultDto.builder()
+                .crawlId(crawlId)
+                .query(query)
+                .totalHits(top.totalHits())
+                .indexedPages(index.pageCount())
+                .segments(index.segmentCount())
+                .hits(hits)
+                .build();
+    }
+
+    private List<Integer> topRanked(PageRank pageRank, int top) {
+        if (top <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Comparator.comparingDouble(pageRank::rank));
+        for (int id = 0; id < pageRank.nodeCount(); id++) {
+            if (heap.size() < top) {
+                heap.add(id);
+            } else if (pageRank.rank(id) > pageRank.rank(heap.peek())) {
+                heap.poll();
+                heap.add(id);
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(heap);
+        ranked.sort(Comparator.comparingDouble(pageRank::rank).reversed());
+        return ranked;
+    }
+
     public boolean stopCrawl(String crawlId) {
+        boolean stopped = stopLocalCrawl(crawlId);
+        if (clusterCoordinator.isEnabled()) {
+            clusterCoordinator.broadcastStop(crawlId);
+        }
+        return stopped;
+    }
+
+    public boolean stopLocalCrawl(String crawlId) {
         CrawlManager manager = activeCrawls.get(crawlId);
         if (manager != null && manager.isRunning()) {
             manager.stop();
             updateCrawlResult(crawlId, CrawlStatus.STOPPED, null);
             activeCrawls.remove(crawlId);
+            clusterCoordinator.release(crawlId);
             return true;
         }
         return false;
@@ -141,6 +662,10 @@ public class CrawlService {
 
     private void updateCrawlResult(String crawlId, CrawlStatus status, String errorMessage) {
         repository.findById(crawlId).ifPresent(result -> {
+            // The first terminal status wins: a stopped crawl's run still returns normally afterwards
+            if (result.getStatus() != CrawlStatus.RUNNING) {
+                return;
+            }
             result.setStatus(status);
             result.setEndTime(LocalDateTime.now());
             if (errorMessage != null) {
@@ -170,20 +695,57 @@ public class CrawlService {
                 result.setDomain((String) domainObj);
             }
 
-            result.setVisitedUrls((List<String>) managerStatus.get("visitedUrls"));
-            result.setCrawlResults((Map<String, List<String>>) managerStatus.get("results"));
+            result.setFetchOutcomes((Map<String, Long>) managerStatus.get("fetchOutcomes"));
+            result.setHostFailures((Map<String, HostFailureStats>) managerStatus.get("hostFailures"));
+            result.setTrapRejections((Map<String, Long>) managerStatus.get("trapRejections"));
+            result.setTrapRejectedUrls((Map<String, List<String>>) managerStatus.get("trapRejectedUrls"));
+            result.setMemory((MemoryStats) managerStatus.get("memory"));
+            result.setRecrawl((RecrawlStats) managerStatus.get("recrawl"));
+            result.setArchive((ArchiveStats) managerStatus.get("archive"));
+            result.setFetchTimings((FetchTimingStats) managerStatus.get("fetchTimings"));
+            result.setBytesOnWire((Long) managerStatus.getOrDefault("bytesOnWire", 0L));
+            result.setBytesDecoded((Long) managerStatus.getOrDefault("bytesDecoded", 0L));
+            result.setBytesAllocated((Long) managerStatus.getOrDefault("bytesAllocated", 0L));
+            result.setAllocatedBytesPerPage((Long) managerStatus.getOrDefault("allocatedBytesPerPage", 0L));
+
+            result.setPageFields(manager.getPageFields());
+            result.setSearchIndex(manager.getSearchIndex());
+            LinkGraph graph = manager.getLinkGraph();
+            if (graph != null) {
+                result.setLinkGraph(graph);
+                result.setVisitedUrls(null);
+                result.setCrawlResults(null);
+            } else {
+                result.setVisitedUrls((List<String>) managerStatus.get("visitedUrls"));
+                result.setCrawlResults((Map<String, List<String>>) managerStatus.get("results"));
+            }
 
             repository.save(result);
         });
     }
 
-    public String handleFileUrls(MultipartFile file, CrawlType strategy, int maxPages, int maxDepth) throws IOException {
-        List<String> urls = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))
-                .lines()
-                .map(String::trim)
-                .filter(line -> !line.isEmpty())
-                .collect(Collectors.toList());
-        return startCrawlAsync(urls, strategy, maxPages, maxDepth);
-
+    /**
+     * Starts a crawl from the first valid batch of an uploaded seed file (plain or gzip) and streams the
+     * rest into the running crawl. The file is deleted once read, or when the crawl cannot start.
+     * Progress and rejected lines are reported in the crawl status.
+     */
+    public String handleFileUrls(Path seedFile, CrawlType strategy, int maxPages, int maxDepth) throws IOException {
+        SeedStream seeds;
+        try {
+            seeds = SeedLoader.open(seedFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(seedFile);
+            throw e;
+        }
+        try {
+            SeedBatch first = seeds.next();
+            if (first == null) {
+                throw new IllegalArgumentException("No valid URLs found in uploaded file");
+            }
+            return startCrawl(first.urls(), strategy, maxPages, maxDepth, CrawlOptions.defaults(), seeds);
+        } catch (IOException | RuntimeException e) {
+            seeds.close();
+            throw e;
+        }
     }
 }
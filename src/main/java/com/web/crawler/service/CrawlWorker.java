@@ -1,40 +1,49 @@
 package com.web.crawler.service;
 
+import com.web.crawler.fetch.FetchedPage;
+import com.web.crawler.frontier.FrontierEntry;
 import com.web.crawler.manager.SingleDomainCrawlManager;
+import com.web.crawler.profiling.FetchEvent;
+import com.web.crawler.search.SearchIndex;
 import com.web.crawler.util.HtmlParserUtil;
-import com.web.crawler.util.UrlUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 public class CrawlWorker implements Runnable {
 
-    private final String url;
-    private final int depth;
+    private final FrontierEntry entry;
     private final SingleDomainCrawlManager manager;
 
-    public CrawlWorker(String url, int depth, SingleDomainCrawlManager manager) {
-        this.url = url;
-        this.depth = depth;
+    public CrawlWorker(FrontierEntry entry, SingleDomainCrawlManager manager) {
+        this.entry = entry;
         this.manager = manager;
     }
 
     @Override
     public void run() {
+        String url = entry.url();
         try {
-            List<String> extractedUrls = HtmlParserUtil.extractLinks(url);
-
-            String targetDomain = UrlUtils.extractDomain(url);
-            List<String> sameDomainUrls = extractedUrls.stream()
-                    .filter(link -> UrlUtils.isSameDomain(link, targetDomain))
-                    .collect(Collectors.toList());
-
-            manager.recordCrawlResult(url, sameDomainUrls);
+            SearchIndex index = manager.getSearchIndex();
+            FetchEvent event = new FetchEvent();
+            event.begin();
+            FetchedPage page = HtmlParserUtil.fetchLinks(manager.getHttpClient(), url,
+                    manager.getExtractor(), index, manager.isArchived());
+            event.commit(manager.getCrawlId(), url, page);
+            if (manager.recordFetch(entry, page)) {
+                // Re-queued for a later attempt
+                return;
+            }
 
-            for (String foundUrl : sameDomainUrls) {
-                manager.enqueueUrl(foundUrl, depth + 1);
+            // The manager scopes, normalizes and routes the links; record what it kept
+            List<String> inScopeUrls = manager.enqueueLinks(entry, page.links());
+            manager.recordCrawlResult(url, inScopeUrls, page.fields());
+            if (index != null && page.terms() != null) {
+                index.add(url, page.terms());
+            }
+            if (page.exchange() != null) {
+                manager.archive(page.exchange());
             }
 
         } catch (Exception e) {
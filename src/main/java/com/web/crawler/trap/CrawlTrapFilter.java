@@ -0,0 +1,317 @@
+package com.web.crawler.trap;
+
+import com.web.crawler.model.CrawlOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-crawl crawl-trap heuristics for the enqueue path. {@link #canonicalize} drops tracking and
+ * session parameters and sorts the rest, so query variants dedup to one URL; {@link #admit} turns
+ * away new URLs whose path is too long or repeats itself, or whose path shape or query variants
+ * have already used up their share of the crawl. Counting uses fixed-size sketches over hashes,
+ * so no key strings are built. A few rejected URLs per reason are kept so the status shows what was
+ * cut off: for the count limits, the URL that first went over each one.
+ */
+public class CrawlTrapFilter {
+
+    public static final List<String> DEFAULT_STRIPPED_PARAMS = List.of(
+            "utm_*", "gclid", "fbclid", "msclkid", "jsessionid", "phpsessid", "sessionid");
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int MIN_ID_LENGTH = 8;
+    private static final int MAX_SAMPLES = 10;
+
+    private final int maxUrlsPerPathPattern;
+    private final int maxQueryVariantsPerPath;
+    private final int maxPathLength;
+    private final int maxPathSegmentRepeats;
+    private final List<String> strippedNames = new ArrayList<>();
+    private final List<String> strippedPrefixes = new ArrayList<>();
+    private final HashCounter patterns;
+    private final HashCounter queryVariants;
+    private final AtomicLongArray rejections = new AtomicLongArray(TrapReason.values().length);
+    private final Map<TrapReason, List<String>> samples = new EnumMap<>(TrapReason.class);
+
+    public CrawlTrapFilter(CrawlOptions options, int expectedUrls) {
+        this.maxUrlsPerPathPattern = options.getMaxUrlsPerPathPattern();
+        this.maxQueryVariantsPerPath = options.getMaxQueryVariantsPerPath();
+        this.maxPathLength = options.getMaxPathLength();
+        this.maxPathSegmentRepeats = options.getMaxPathSegmentRepeats();
+        List<String> stripped = options.getStripQueryParams() != null
+                ? options.getStripQueryParams() : DEFAULT_STRIPPED_PARAMS;
+        for (String rule : stripped) {
+            String name = rule.strip().toLowerCase(Locale.ROOT);
+            if (name.endsWith("*")) {
+                strippedPrefixes.add(name.substring(0, name.length() - 1));
+            } else if (!name.isEmpty()) {
+                strippedNames.add(name);
+            }
+        }
+        this.patterns = new HashCounter(expectedUrls);
+        this.queryVariants = new HashCounter(expectedUrls);
+    }
+
+    /**
+     * Removes stripped parameters from the query and from {@code ;name=value} path parameters, and
+     * sorts the remaining query parameters by name. Returns {@code url} itself when nothing changes.
+     */
+    public String canonicalize(String url) {
+        int pathStart = pathStart(url);
+        if (pathStart < 0) {
+            return url;
+        }
+        int queryStart = url.indexOf('?', pathStart);
+        int pathEnd = queryStart < 0 ? url.length() : queryStart;
+
+        String path = url.substring(pathStart, pathEnd);
+        String canonicalPath = path.indexOf(';') < 0 ? path : stripPathParameters(path);
+        String rawQuery = queryStart < 0 ? null : url.substring(queryStart + 1);
+        String query = rawQuery == null ? null : canonicalQuery(rawQuery);
+
+        if (canonicalPath.equals(path) && Objects.equals(query, rawQuery)) {
+            return url;
+        }
+        String base = url.substring(0, pathStart) + canonicalPath;
+        return query == null || query.isEmpty() ? base : base + "?" + query;
+    }
+
+    /**
+     * Checks a URL the crawl has not seen before and counts it against its path shape and query
+     * variants.
+     *
+     * @return false if the URL looks like a crawl trap and should not be queued
+     */
+    public boolean admit(String url) {
+        TrapReason reason = check(url);
+        if (reason == null) {
+            return true;
+        }
+        rejections.incrementAndGet(reason.ordinal());
+        return false;
+    }
+
+    public Map<String, Long> rejectionCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (TrapReason reason : TrapReason.values()) {
+            long count = rejections.get(reason.ordinal());
+            if (count > 0) {
+                counts.put(reason.name(), count);
+            }
+        }
+        return counts;
+    }
+
+    public Map<String, List<String>> rejectedSamples() {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        synchronized (samples) {
+            samples.forEach((reason, urls) -> copy.put(reason.name(), List.copyOf(urls)));
+        }
+        return copy;
+    }
+
+    TrapReason check(String url) {
+        int pathStart = pathStart(url);
+        if (pathStart < 0) {
+            return null;
+        }
+        int queryStart = url.indexOf('?', pathStart);
+        int pathEnd = queryStart < 0 ? url.length() : queryStart;
+
+        if (maxPathLength > 0 && pathEnd - pathStart > maxPathLength) {
+            return sample(TrapReason.PATH_TOO_LONG, url);
+        }
+        if (maxPathSegmentRepeats > 0 && repeatsSegment(url, pathStart, pathEnd)) {
+            return sample(TrapReason.PATH_REPETITION, url);
+        }
+
+        long authorityHash = hash(FNV_OFFSET, url, 0, pathStart);
+        if (maxUrlsPerPathPattern > 0) {
+            int count = patterns.increment(patternHash(authorityHash, url, pathStart, pathEnd));
+            if (count > maxUrlsPerPathPattern) {
+                return count == maxUrlsPerPathPattern + 1 ? sample(TrapReason.PATTERN_LIMIT, url) : TrapReason.PATTERN_LIMIT;
+            }
+        }
+        if (maxQueryVariantsPerPath > 0 && queryStart >= 0) {
+            int count = queryVariants.increment(hash(authorityHash, url, pathStart, pathEnd));
+            if (count > maxQueryVariantsPerPath) {
+                return count == maxQueryVariantsPerPath + 1 ? sample(TrapReason.QUERY_VARIANTS, url) : TrapReason.QUERY_VARIANTS;
+            }
+        }
+        return null;
+    }
+
+    private TrapReason sample(TrapReason reason, String url) {
+        synchronized (samples) {
+            List<String> urls = samples.computeIfAbsent(reason, k -> new ArrayList<>());
+            if (urls.size() < MAX_SAMPLES) {
+                urls.add(url);
+            }
+        }
+        return reason;
+    }
+
+    private boolean repeatsSegment(String url, int pathStart, int pathEnd) {
+        int[] segments = new int[16];
+        int count = 0;
+        int start = pathStart + 1;
+        while (start < pathEnd) {
+            int end = url.indexOf('/', start);
+            if (end < 0 || end > pathEnd) {
+                end = pathEnd;
+            }
+            if (end > start) {
+                int segment = (int) hash(FNV_OFFSET, url, start, end);
+                int repeats = 1;
+                for (int i = 0; i < count; i++) {
+                    if (segments[i] == segment && ++repeats > maxPathSegmentRepeats) {
+                        return true;
+                    }
+                }
+                if (count == segments.length) {
+                    segments = Arrays.copyOf(segments, count * 2);
+                }
+                segments[count++] = segment;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    // Digit runs collapse to '#' and ID-like segments (hex, UUIDs, long tokens) to '*'
+    private static long patternHash(long hash, String url, int pathStart, int pathEnd) {
+        int start = pathStart;
+        while (start < pathEnd) {
+            int end = url.indexOf('/', start + 1);
+            if (end < 0 || end > pathEnd) {
+                end = pathEnd;
+            }
+            hash = (hash ^ '/') * FNV_PRIME;
+            int segmentStart = start + 1;
+            if (isIdLike(url, segmentStart, end)) {
+                hash = (hash ^ '*') * FNV_PRIME;
+            } else {
+                boolean inDigits = false;
+                for (int i = segmentStart; i < end; i++) {
+                    char c = url.charAt(i);
+                    boolean digit = c >= '0' && c <= '9';
+                    if (!digit || !inDigits) {
+                        hash = (hash ^ (digit ? '#' : c)) * FNV_PRIME;
+                    }
+                    inDigits = digit;
+                }
+            }
+            start = end;
+        }
+        return hash;
+    }
+
+    private static boolean isIdLike(String url, int start, int end) {
+        if (end - start < MIN_ID_LENGTH) {
+            return false;
+        }
+        boolean digits = false;
+        boolean hexOnly = true;
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (!((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == '-')) {
+                hexOnly = false;
+                if (!Character.isLetter(c) && c != '_') {
+                    return false;
+                }
+            }
+        }
+        // Hex strings and UUIDs, or long mixed tokens such as session or cache-busting ids
+        return digits && (hexOnly || end - start >= 20);
+    }
+
+    private String stripPathParameters(String path) {
+        StringBuilder result = new StringBuilder(path.length());
+        int i = 0;
+        while (i < path.length()) {
+            int semicolon = path.indexOf(';', i);
+            if (semicolon < 0) {
+                result.append(path, i, path.length());
+                break;
+            }
+            result.append(path, i, semicolon);
+            int end = semicolon + 1;
+            while (end < path.length() && path.charAt(end) != ';' && path.charAt(end) != '/') {
+                end++;
+            }
+            String parameter = path.substring(semicolon + 1, end);
+            int equals = parameter.indexOf('=');
+            if (!isStripped(equals < 0 ? parameter : parameter.substring(0, equals))) {
+                result.append(path, semicolon, end);
+            }
+            i = end;
+        }
+        return result.toString();
+    }
+
+    private String canonicalQuery(String query) {
+        List<String> kept = new ArrayList<>();
+        for (String parameter : query.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int equals = parameter.indexOf('=');
+            if (!isStripped(equals < 0 ? parameter : parameter.substring(0, equals))) {
+                kept.add(parameter);
+            }
+        }
+        // Stable sort, so repeated names keep their order
+        kept.sort(Comparator.comparing(CrawlTrapFilter::parameterName));
+        return String.join("&", kept);
+    }
+
+    private static String parameterName(String parameter) {
+        int equals = parameter.indexOf('=');
+        return equals < 0 ? parameter : parameter.substring(0, equals);
+    }
+
+    private boolean isStripped(String name) {
+        for (String stripped : strippedNames) {
+            if (stripped.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        for (String prefix : strippedPrefixes) {
+            if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int pathStart(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return -1;
+        }
+        int slash = url.indexOf('/', scheme + 3);
+        int query = url.indexOf('?', scheme + 3);
+        if (slash < 0 || (query >= 0 && query < slash)) {
+            return query < 0 ? url.length() : query;
+        }
+        return slash;
+    }
+
+    private static long hash(long hash, String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,34 @@
+package com.web.crawler.trap;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch keyed by a precomputed 64-bit hash, so callers can count URL shapes without
+ * building a key string. Memory is fixed and estimates only ever over-count.
+ */
+class HashCounter {
+
+    private static final int ROWS = 3;
+
+    private final AtomicIntegerArray counts;
+    private final int mask;
+
+    HashCounter(int expectedKeys) {
+        int width = Integer.highestOneBit(Math.max(1024, Math.min(1 << 18, expectedKeys)) - 1) << 1;
+        this.mask = width - 1;
+        this.counts = new AtomicIntegerArray(ROWS * width);
+    }
+
+    int increment(long hash) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < ROWS; row++) {
+            min = Math.min(min, counts.incrementAndGet(index(row, hash)));
+        }
+        return min;
+    }
+
+    private int index(int row, long hash) {
+        long h = hash * (0x9E3779B97F4A7C15L + 2L * row);
+        return row * (mask + 1) + (int) ((h ^ (h >>> 29)) & mask);
+    }
+}
@@ -0,0 +1,10 @@
+package com.web.crawler.trap;
+
+public enum TrapReason {
+    PATH_TOO_LONG,
+    PATH_REPETITION,
+    // Too many URLs share one path shape once digits and IDs are collapsed, e.g. /calendar/#/#/#
+    PATTERN_LIMIT,
+    // Too many query strings on one path, e.g. faceted search
+    QUERY_VARIANTS
+}
@@ -1,97 +1,331 @@
 // HtmlParserUtil.java
 package com.web.crawler.util;
 
+import com.web.crawler.archive.WarcExchange;
+import com.web.crawler.extract.ContentExtractor;
+import com.web.crawler.fetch.AllocationMeter;
+import com.web.crawler.fetch.CaptureInputStream;
+import com.web.crawler.fetch.ContentDecoder;
+import com.web.crawler.fetch.CountingInputStream;
+import com.web.crawler.fetch.FetchAbortedException;
+import com.web.crawler.fetch.FetchOutcome;
+import com.web.crawler.fetch.FetchTimer;
+import com.web.crawler.fetch.FetchTiming;
+import com.web.crawler.fetch.FetchedPage;
+import com.web.crawler.fetch.HttpClientProperties;
+import com.web.crawler.fetch.LimitedInputStream;
+import com.web.crawler.fetch.PooledReader;
+import com.web.crawler.fetch.SharedHttpClient;
+import com.web.crawler.profiling.ParseEvent;
+import com.web.crawler.search.SearchIndex;
+import com.web.crawler.search.TermCounts;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Connection;
-import org.jsoup.Jsoup;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.protocol.RedirectLocations;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class HtmlParserUtil {
 
-    private static final int TIMEOUT_MS = 10000;
-    private static final String USER_AGENT = "WebCrawler/1.0";
+    private static final Evaluator LINKS = QueryParser.parse("a[href]");
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
 
-    public static List<String> extractLinks(String url) throws IOException {
+    public static List<String> extractLinks(SharedHttpClient http, String url) throws IOException {
+        return fetchLinks(http, url).links();
+    }
+
+    public static FetchedPage fetchLinks(SharedHttpClient http, String url) {
+        return fetchLinks(http, url, null);
+    }
+
+    public static FetchedPage fetchLinks(SharedHttpClient http, String url, ContentExtractor extractor) {
+        return fetchLinks(http, url, extractor, null, false);
+    }
+
+    /**
+     * Fetches {@code url} through {@code http} within its limits and streams the links out of the
+     * body as it arrives, applying {@code extractor}'s rules (if any) and counting terms for
+     * {@code index} (if any) in the same pass. With {@code archive}, the body is also kept as
+     * received for the WARC writer. Links and fields found before a fetch is cut short are still
+     * returned, and every page carries a {@link FetchTiming} of where its time went.
+     */
+    public static FetchedPage fetchLinks(SharedHttpClient http, String url, ContentExtractor extractor,
+                                         SearchIndex index, boolean archive) {
+        long allocatedBefore = AllocationMeter.currentThreadAllocatedBytes();
+        FetchTimer timer = FetchTimer.start();
+        FetchedPage page;
+        FetchTiming timing;
+        try {
+            page = fetch(http, url, extractor, index, archive, timer);
+        } finally {
+            timing = timer.finish();
+        }
+        page = page.withTiming(timing);
+        if (allocatedBefore < 0) {
+            return page;
+        }
+        return page.withAllocatedBytes(AllocationMeter.currentThreadAllocatedBytes() - allocatedBefore);
+    }
+
+    private static FetchedPage fetch(SharedHttpClient http, String url, ContentExtractor extractor, SearchIndex index,
+                                     boolean archive, FetchTimer timer) {
+        HttpClientProperties limits = http.properties();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limits.getMaxFetchMs());
         List<String> links = new ArrayList<>();
+        Instant fetchedAt = Instant.now();
 
         try {
-            Connection.Response response = Jsoup.connect(url)
-                    .userAgent(USER_AGENT)
-                    .timeout(TIMEOUT_MS)
-                    .followRedirects(true)
-                    .execute();
-
-            String contentType = response.contentType();
-            if (contentType == null ||
-                    !(contentType.startsWith("text/") || contentType.contains("xml") || contentType.contains("+xml"))) {
-                log.warn("Unhandled content type at {}: {}", url, contentType);
-                return links;
+            if (limits.isHeadPrecheck() && !isParseableResource(http, url)) {
+                return new FetchedPage(links, FetchOutcome.NOT_HTML);
             }
 
-            Document doc = response.parse();
+            HttpClientContext context = HttpClientContext.create();
+            // Closing the response without reading the body discards the connection instead of downloading the rest
+            try (ClassicHttpResponse response = http.client().executeOpen(null, new HttpGet(url), context)) {
+                HttpEntity entity = response.getEntity();
+                if (response.getCode() >= 300 || entity == null) {
+                    return FetchedPage.httpError(links, response.getCode(), retryAfterMillis(response));
+                }
+
+                String contentType = entity.getContentType();
+                if (!isParseable(contentType)) {
+                    log.warn("Unhandled content type at {}: {}", url, contentType);
+                    return new FetchedPage(links, FetchOutcome.NOT_HTML);
+                }
 
-            for (Element link : doc.select("a[href]")) {
-                String href = link.attr("href");
+                // Limits apply to decoded bytes, which also caps decompression bombs
+                CaptureInputStream capture = archive
+                        ? new CaptureInputStream(entity.getContent(), limits.getMaxBodyBytes()) : null;
+                CountingInputStream wire = new CountingInputStream(capture != null ? capture : entity.getContent());
+                LimitedInputStream body = new LimitedInputStream(
+                        ContentDecoder.decode(wire, entity.getContentEncoding()), limits.getMaxBodyBytes(),
+                        deadline, limits.getMinTransferGraceMs(), limits.getMinTransferBytesPerSecond());
+                Charset charset = ContentType.parseLenient(contentType).getCharset();
+                FetchOutcome outcome;
+                long contentHash = 0;
+                ContentExtractor.PageExtraction extraction = extractor != null ? extractor.begin() : null;
+                TermCounts terms = index != null ? index.newPage() : null;
+                WarcExchange exchange = null;
+                ParseEvent event = new ParseEvent();
+                event.begin();
+                try {
+                    String finalUrl = finalUrl(url, context);
+                    long hash = streamLinks(body, charset != null ? charset : StandardCharsets.UTF_8,
+                            finalUrl, links, extraction, terms);
+                    outcome = body.isTruncated() ? FetchOutcome.TRUNCATED : FetchOutcome.OK;
+                    event.commit(finalUrl, body.bytesRead(), links.size(), body.isTruncated());
+                    contentHash = outcome == FetchOutcome.OK ? hash : 0;
+                    if (capture != null) {
+                        exchange = WarcExchange.of(finalUrl, fetchedAt, context.getRequest(), response,
+                                capture.buffer(), capture.length(), body.isTruncated() || capture.overflowed());
+                    }
+                } catch (FetchAbortedException e) {
+                    log.debug("Fetch of {} aborted: {}", url, e.getMessage());
+                    outcome = e.getOutcome();
+                    terms = null;
+                    event.commit(url, body.bytesRead(), links.size(), true);
+                }
+                timer.downloaded(wire.readNanos());
+                return new FetchedPage(links, outcome, wire.count(), body.bytesRead(), contentHash,
+                        extraction != null ? extraction.fields() : Map.of(), terms, exchange);
+            }
+        } catch (FetchAbortedException e) {
+            log.debug("Fetch of {} aborted: {}", url, e.getMessage());
+            return new FetchedPage(links, e.getOutcome());
+        } catch (SocketTimeoutException e) {
+            return new FetchedPage(links, FetchOutcome.TIMED_OUT);
+        } catch (IOException e) {
+            // Debug only - failures are counted per host in the crawl status, and logging each can overwhelm the logs
+            log.debug("Fetch of {} failed: {}", url, e.toString());
+            return new FetchedPage(links, FetchOutcome.FAILED);
+        }
+    }
 
-                if (isInvalidLink(href)) {
+    /**
+     * @return a hash of the page's text and link targets, for change detection
+     */
+    private static long streamLinks(LimitedInputStream body, Charset charset, String url, List<String> links,
+                                    ContentExtractor.PageExtraction extraction, TermCounts terms) throws IOException {
+        URI base = parseBase(url);
+        long hash = FNV_OFFSET;
+        try (PooledReader reader = PooledReader.open(body, charset);
+             StreamParser parser = new StreamParser(Parser.htmlParser()).parse(reader, url)) {
+            Document document = parser.document();
+            Iterator<Element> elements = parser.iterator();
+            // Iterating directly avoids selectNext's per-call stream; completed elements are dropped so the
+            // partial tree stays small
+            while (elements.hasNext()) {
+                Element element = elements.next();
+                hash = hashText(element, hash, terms);
+                boolean isLink = LINKS.matches(document, element);
+                String href = isLink ? element.attr("href") : null;
+                if (extraction == null) {
+                    element.remove();
+                } else {
+                    extraction.accept(document, element);
+                    if (!extraction.retains(document, element)) {
+                        element.remove();
+                    }
+                }
+                if (!isLink) {
                     continue;
                 }
+                hash = hash(href, hash);
+                body.checkLimits();
 
-                String absoluteUrl = resolveUrl(url, href);
+                if (base == null || isInvalidLink(href)) {
+                    continue;
+                }
 
-                if (absoluteUrl != null && UrlUtils.isValidUrl(absoluteUrl) && isHttpLink(absoluteUrl)) {
+                String absoluteUrl = resolveUrl(base, href);
+                if (absoluteUrl != null) {
                     links.add(absoluteUrl);
                 }
             }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return hash;
+    }
 
+    // Child elements are already removed when their parent completes, so each text node is hashed once.
+    // Script and style contents are data nodes, so nonces and inline state do not read as changes.
+    // The same text nodes feed the search index's term counts, if the crawl is indexed.
+    private static long hashText(Element element, long hash, TermCounts terms) {
+        for (int i = 0; i < element.childNodeSize(); i++) {
+            if (element.childNode(i) instanceof TextNode text) {
+                String value = text.getWholeText();
+                hash = hash(value, hash);
+                if (terms != null) {
+                    terms.add(value);
+                }
+            }
+        }
+        return hash;
+    }
+
+    // Whitespace is skipped so re-indented markup hashes the same
+    private static long hash(String value, long hash) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                hash = (hash ^ c) * FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    // Servers that reject HEAD or omit the content type get the benefit of the doubt
+    private static boolean isParseableResource(SharedHttpClient http, String url) {
+        try (ClassicHttpResponse response = http.client().executeOpen(null, new HttpHead(url), HttpClientContext.create())) {
+            Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            return response.getCode() >= 300 || contentType == null || isParseable(contentType.getValue());
         } catch (IOException e) {
-            //Do nothing - Not logging errors in crawling as this can overwhelm the logging
+            return true;
         }
+    }
 
-        return links;
+    // Retry-After is either a delay in seconds or an HTTP date
+    private static long retryAfterMillis(ClassicHttpResponse response) {
+        Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (header == null || header.getValue() == null) {
+            return -1;
+        }
+        String value = header.getValue().strip();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            Instant at = DateUtils.parseStandardDate(value);
+            return at == null ? -1 : Math.max(0, Duration.between(Instant.now(), at).toMillis());
+        }
+    }
+
+    private static boolean isParseable(String contentType) {
+        return contentType != null &&
+                (contentType.startsWith("text/") || contentType.contains("xml") || contentType.contains("+xml"));
+    }
+
+    // Relative links resolve against the page's final location after redirects
+    private static String finalUrl(String url, HttpClientContext context) {
+        RedirectLocations redirects = context.getRedirectLocations();
+        if (redirects == null || redirects.size() == 0) {
+            return url;
+        }
+        return redirects.get(redirects.size() - 1).toString();
     }
 
     private static boolean isInvalidLink(String href) {
-        if (href == null || href.trim().isEmpty()) {
+        if (href == null) {
             return true;
         }
 
-        href = href.toLowerCase().trim();
+        String trimmed = href.strip();
+
+        return trimmed.isEmpty() ||
+                startsWithIgnoreCase(trimmed, "mailto:") ||
+                startsWithIgnoreCase(trimmed, "tel:") ||
+                startsWithIgnoreCase(trimmed, "javascript:") ||
+                startsWithIgnoreCase(trimmed, "ftp:") ||
+                trimmed.startsWith("#") ||
+                trimmed.equals("/") ||
+                startsWithIgnoreCase(trimmed, "data:");
+    }
 
-        return href.startsWith("mailto:") ||
-                href.startsWith("tel:") ||
-                href.startsWith("javascript:") ||
-                href.startsWith("ftp:") ||
-                href.startsWith("#") ||
-                href.equals("/") ||
-                href.startsWith("data:");
+    private static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value.regionMatches(true, 0, prefix, 0, prefix.length());
     }
 
-    private static boolean isHttpLink(String url) {
+    private static URI parseBase(String url) {
         try {
-            URI uri = URI.create(url);
-            String scheme = uri.getScheme();
-            return "http" .equals(scheme) || "https" .equals(scheme);
-        } catch (Exception e) {
-            return false;
+            return new URI(url);
+        } catch (URISyntaxException e) {
+            log.debug("Cannot resolve links against invalid base URL {}", url);
+            return null;
         }
     }
 
-    private static String resolveUrl(String baseUrl, String relativeUrl) {
+    // The base is parsed once per page; each link costs a single parse and is checked on the resolved URI
+    private static String resolveUrl(URI base, String relativeUrl) {
         try {
-            URI base = URI.create(baseUrl);
-            URI resolved = base.resolve(relativeUrl);
+            URI resolved = base.resolve(new URI(relativeUrl));
+            String scheme = resolved.getScheme();
+            if (resolved.getHost() == null || !("http".equals(scheme) || "https".equals(scheme))) {
+                return null;
+            }
             return resolved.toString();
-        } catch (Exception e) {
-            log.debug("Failed to resolve URL {} against base {}: {}", relativeUrl, baseUrl, e.getMessage());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            log.debug("Failed to resolve URL {} against base {}: {}", relativeUrl, base, e.getMessage());
             return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,11 @@
 package com.web.crawler.util;
 
+import com.web.crawler.scope.PublicSuffixList;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Locale;
 
 @Slf4j
 public class UrlUtils {
@@ -19,42 +21,91 @@ public class UrlUtils {
         }
     }
 
-    public static boolean isSameDomain(String url, String targetDomain) {
-        if (targetDomain == null) return false;
+    /**
+     * The lowercase host of an absolute http(s) URL, read straight from the string without building a
+     * {@link URI}; null when there is none or it holds characters a host name cannot.
+     */
+    public static String host(String url) {
+        if (url == null) return null;
+
+        int scheme = url.indexOf("://");
+        if (scheme < 0) return null;
+        int start = scheme + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        int userInfo = url.lastIndexOf('@', end - 1);
+        if (userInfo >= start) {
+            start = userInfo + 1;
+        }
+        if (start < end && url.charAt(start) == '[') {
+            int close = url.indexOf(']', start);
+            return close > start && close < end ? url.substring(start, close + 1).toLowerCase(Locale.ROOT) : null;
+        }
+        int port = url.indexOf(':', start);
+        if (port >= 0 && port < end) {
+            end = port;
+        }
+        if (start == end) return null;
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '_')) {
+                return null;
+            }
+        }
+        return url.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The registrable domain (eTLD+1) of {@code host} by the public suffix list, or the host itself for
+     * IP literals and public suffixes.
+     */
+    public static String registrableDomain(PublicSuffixList suffixes, String host) {
+        if (host == null) return null;
+
+        String domain = host.toLowerCase(Locale.ROOT);
+        String registrable = suffixes.registrableDomain(domain);
+        return registrable != null ? registrable : domain;
+    }
 
-        String urlDomain = extractDomain(url);
-        if (urlDomain == null) return false;
+    /**
+     * The host a crawl scopes on: lowercased, without a leading {@code www.}.
+     */
+    public static String scopeDomain(String host) {
+        if (host == null) return null;
 
-        // Exact domain match only - no subdomains
-        return targetDomain.equals(urlDomain);
+        String domain = host.toLowerCase();
+        return domain.startsWith("www.") ? domain.substring(4) : domain;
     }
 
     public static String normalizeUrl(String url) {
         if (url == null) return null;
 
         try {
-            URI uri = new URI(url);
+            return normalizeUrl(new URI(url));
+        } catch (URISyntaxException e) {
+            log.debug("Failed to normalize URL: {}", url);
+            return url;
+        }
+    }
 
-            // Remove fragment
-            uri = new URI(uri.getScheme(), uri.getAuthority(),
-                    uri.getPath(), uri.getQuery(), null);
+    public static String normalizeUrl(URI uri) throws URISyntaxException {
+        // Remove fragment
+        uri = new URI(uri.getScheme(), uri.getAuthority(),
+                uri.getPath(), uri.getQuery(), null);
 
-            String normalized = uri.toString();
+        String normalized = uri.toString();
 
-            // Remove trailing slash unless it's root
-            if (normalized.endsWith("/") && normalized.length() > 1) {
-                String path = uri.getPath();
-                if (path != null && path.length() > 1) {
-                    normalized = normalized.substring(0, normalized.length() - 1);
-                }
+        // Remove trailing slash unless it's root
+        if (normalized.endsWith("/") && normalized.length() > 1) {
+            String path = uri.getPath();
+            if (path != null && path.length() > 1) {
+                normalized = normalized.substring(0, normalized.length() - 1);
             }
-
-            return normalized;
-
-        } catch (URISyntaxException e) {
-            log.debug("Failed to normalize URL: {}", url);
-            return url;
         }
+
+        return normalized;
     }
 
     public static boolean isValidUrl(String url) {
@@ -0,0 +1,30 @@
+package com.web.crawler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.nio.Buffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlerRuntimeHintsTest {
+
+    @Test
+    void testRegistersFieldsTheZstdDecoderReflectsOn() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new CrawlerRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onField(Buffer.class.getDeclaredField("address")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField("sun.misc.Unsafe", "theUnsafe").test(hints));
+    }
+
+    @Test
+    void testRegistersBundledPublicSuffixList() {
+        RuntimeHints hints = new RuntimeHints();
+        new CrawlerRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.resource().forResource("org/publicsuffix/list/effective_tld_names.dat")
+                .test(hints));
+    }
+}
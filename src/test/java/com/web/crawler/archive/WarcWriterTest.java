@@ -0,0 +1,86 @@
+package com.web.crawler.archive;
+
+import com.web.crawler.fetch.HttpClientProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarcWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWritesRecordsAndRotatesFiles() throws IOException {
+        WarcProperties properties = new WarcProperties();
+        properties.setDirectory(directory.toString());
+        properties.setMaxFileBytes(1);
+        WarcWriter writer = new WarcWriter(properties, new HttpClientProperties());
+
+        assertTrue(writer.submit(exchange("https://monzo.com/", "<html>home</html>")));
+        assertTrue(writer.submit(exchange("https://monzo.com/blog", "<html>blog</html>")));
+        writer.close();
+
+        List<Path> files = files();
+        assertEquals(2, files.size());
+        assertTrue(files.stream().allMatch(file -> file.getFileName().toString().endsWith(".warc.gz")));
+        assertEquals(2, writer.filesWritten());
+        assertEquals(4, writer.recordsWritten());
+        assertFalse(writer.submit(exchange("https://monzo.com/late", "")));
+
+        // Concatenated gzip members read back as one stream
+        String warc = read(files.get(0));
+        assertTrue(warc.startsWith("WARC/1.1\r\nWARC-Type: warcinfo\r\n"));
+        assertTrue(warc.contains("WARC-Type: response\r\n"));
+        assertTrue(warc.contains("WARC-Target-URI: https://monzo.com/\r\n"));
+        assertTrue(warc.contains("WARC-Block-Digest: sha1:"));
+        String block = "HTTP/1.1 200 OK\r\nContent-Type: text/html\r\n\r\n<html>home</html>";
+        assertTrue(warc.contains("Content-Length: " + block.length() + "\r\n\r\n" + block + "\r\n\r\n"));
+        assertTrue(warc.contains("WARC-Type: request\r\n"));
+        assertTrue(warc.contains("WARC-Concurrent-To: <urn:uuid:"));
+        assertFalse(warc.contains("monzo.com/blog"));
+    }
+
+    @Test
+    void testDropsPagesWhenQueueIsFull() {
+        WarcProperties properties = new WarcProperties();
+        properties.setDirectory(directory.toString());
+        properties.setQueueBytes(10);
+        WarcWriter writer = new WarcWriter(properties, new HttpClientProperties());
+
+        assertFalse(writer.submit(exchange("https://monzo.com/", "<html>too large for the queue</html>")));
+        writer.close();
+        assertEquals(0, writer.recordsWritten());
+    }
+
+    private static WarcExchange exchange(String url, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return new WarcExchange(url, Instant.parse("2026-01-01T00:00:00Z"),
+                "GET / HTTP/1.1\r\nHost: monzo.com\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1),
+                "HTTP/1.1 200 OK\r\nContent-Type: text/html\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1),
+                bytes, bytes.length, false);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static String read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.web.crawler.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.web.crawler.manager.SingleDomainCrawlManager;
+import com.web.crawler.model.CrawlOptions;
+import com.web.crawler.model.CrawlRequest;
+import com.web.crawler.model.CrawlResponseDto;
+import com.web.crawler.model.CrawlStatusDto;
+import com.web.crawler.model.CrawlType;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds many concurrent connections polling the crawl API while a crawl of a {@link SyntheticSite}
+ * runs in the same node, and reports request rate and latency per endpoint alongside the crawl's
+ * pages/sec. Every tenth request reads the history, the rest the crawl status. A second run polls the
+ * status of a finished crawl, which is served from the response cache. Run with
+ * {@code mvn test -Pbenchmark -Dtest=ApiLoadBenchmarkTest}; {@code -Dbenchmark.apiConnections} and
+ * {@code -Dbenchmark.apiSeconds} set the load.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadBenchmarkTest {
+
+    private static final int HISTORY_EVERY = 10;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testConcurrentStatusPolling() throws Exception {
+        int connections = Integer.getInteger("benchmark.apiConnections", 2000);
+        int seconds = Integer.getInteger("benchmark.apiSeconds", 20);
+        SyntheticSite.Shape shape = SyntheticSite.Shape.builder()
+                .pages(Integer.getInteger("benchmark.pages", 100_000))
+                .latencyMedianMs(20)
+                .latencyP99Ms(100)
+                .build();
+
+        Logger managerLog = (Logger) LoggerFactory.getLogger(SingleDomainCrawlManager.class);
+        Level level = managerLog.getLevel();
+        managerLog.setLevel(Level.WARN);
+        ConnectionProvider pool = ConnectionProvider.builder("api-load")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+
+        try (SyntheticSite site = SyntheticSite.start(shape)) {
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://127.0.0.1:" + port + "/api/v1/crawlers")
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool)))
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                    .build();
+            CrawlRequest request = CrawlRequest.builder()
+                    .urls(site.seeds())
+                    .strategy(CrawlType.SINGLE_DOMAIN)
+                    .maxPages(site.pages())
+                    .maxDepth(site.depth() + 1)
+                    .options(CrawlOptions.defaults())
+                    .build();
+            String crawlId = client.post().bodyValue(request).retrieve()
+                    .bodyToMono(CrawlResponseDto.class).block().getCrawlId();
+
+            Recorder statusLatency = new Recorder(2);
+            Recorder historyLatency = new Recorder(2);
+            LongAdder errors = new LongAdder();
+            AtomicLong sent = new AtomicLong();
+            int pagesBefore = processedPages(client, crawlId);
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+            Flux.range(0, connections)
+                    .flatMap(user -> Mono.defer(() -> {
+                        boolean history = sent.incrementAndGet() % HISTORY_EVERY == 0;
+                        Recorder latency = history ? historyLatency : statusLatency;
+                        long requested = System.nanoTime();
+                        return client.get().uri(history ? "/history" : "/" + crawlId + "/status")
+                                .retrieve()
+                                .toBodilessEntity()
+                                .doOnSuccess(response -> latency.recordValue(
+                                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - requested)))
+                                .onErrorResume(e -> {
+                                    errors.increment();
+                                    return Mono.empty();
+                                })
+                                .then();
+                    }).repeat(() -> System.nanoTime() < deadline), connections)
+                    .blockLast();
+
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            int pagesAfter = processedPages(client, crawlId);
+            Histogram status = statusLatency.getIntervalHistogram();
+            Histogram history = historyLatency.getIntervalHistogram();
+            long requests = status.getTotalCount() + history.getTotalCount();
+            System.out.printf("%nAPI load: %d connections for %.1f s while crawling%n", connections, elapsed);
+            System.out.printf("  requests/sec:   %.0f (%d errors)%n", requests / elapsed, errors.sum());
+            report("status", status);
+            report("history", history);
+            System.out.printf("  crawl pages/sec under load: %.1f%n%n", (pagesAfter - pagesBefore) / elapsed);
+
+            assertTrue(requests > 0);
+            client.post().uri("/" + crawlId + "/stop").retrieve().toBodilessEntity().block();
+        } finally {
+            pool.dispose();
+            managerLog.setLevel(level);
+        }
+    }
+
+    @Test
+    void testFinishedStatusPolling() throws Exception {
+        int connections = Integer.getInteger("benchmark.apiConnections", 2000);
+        int seconds = Integer.getInteger("benchmark.apiSeconds", 20);
+        SyntheticSite.Shape shape = SyntheticSite.Shape.builder()
+                .pages(Integer.getInteger("benchmark.finishedPages", 5_000))
+                .build();
+
+        Logger managerLog = (Logger) LoggerFactory.getLogger(SingleDomainCrawlManager.class);
+        Level level = managerLog.getLevel();
+        managerLog.setLevel(Level.WARN);
+        ConnectionProvider pool = ConnectionProvider.builder("api-load-finished")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+
+        try (SyntheticSite site = SyntheticSite.start(shape)) {
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://127.0.0.1:" + port + "/api/v1/crawlers")
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool).compress(true)))
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                    .build();
+            CrawlRequest request = CrawlRequest.builder()
+                    .urls(site.seeds())
+                    .strategy(CrawlType.SINGLE_DOMAIN)
+                    .maxPages(site.pages())
+                    .maxDepth(site.depth() + 1)
+                    .options(CrawlOptions.defaults())
+                    .build();
+            String crawlId = client.post().bodyValue(request).retrieve()
+                    .bodyToMono(CrawlResponseDto.class).block().getCrawlId();
+            while (client.get().uri("/" + crawlId + "/status").retrieve()
+                    .bodyToMono(CrawlStatusDto.class).block().isRunning()) {
+                TimeUnit.MILLISECONDS.sleep(200);
+            }
+
+            Recorder statusLatency = new Recorder(2);
+            LongAdder errors = new LongAdder();
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+            Flux.range(0, connections)
+                    .flatMap(user -> Mono.defer(() -> {
+                        long requested = System.nanoTime();
+                        return client.get().uri("/" + crawlId + "/status")
+                                .retrieve()
+                                .toBodilessEntity()
+                                .doOnSuccess(response -> statusLatency.recordValue(
+                                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - requested)))
+                                .onErrorResume(e -> {
+                                    errors.increment();
+                                    return Mono.empty();
+                                })
+                                .then();
+                    }).repeat(() -> System.nanoTime() < deadline), connections)
+                    .blockLast();
+
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            Histogram status = statusLatency.getIntervalHistogram();
+            System.out.printf("%nAPI load: %d connections for %.1f s on a finished %d-page crawl%n",
+                    connections, elapsed, site.pages());
+            System.out.printf("  requests/sec:   %.0f (%d errors)%n", status.getTotalCount() / elapsed, errors.sum());
+            report("status", status);
+            System.out.println();
+
+            assertTrue(status.getTotalCount() > 0);
+        } finally {
+            pool.dispose();
+            managerLog.setLevel(level);
+        }
+    }
+
+    private static int processedPages(WebClient client, String crawlId) {
+        return client.get().uri("/" + crawlId + "/status").retrieve()
+                .bodyToMono(CrawlStatusDto.class).block().getProcessedPages();
+    }
+
+    private static void report(String endpoint, Histogram latency) {
+        System.out.printf("  %-8s p50/p99/max: %.1f / %.1f / %.1f ms over %d requests%n", endpoint + ":",
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMaxValue() / 1000.0, latency.getTotalCount());
+    }
+}
@@ -0,0 +1,95 @@
+package com.web.crawler.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.web.crawler.manager.SingleDomainCrawlManager;
+import com.web.crawler.model.CrawlOptions;
+import com.web.crawler.model.FetchTimingStats;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Crawls a {@link SyntheticSite} end to end and reports throughput, fetch latency and peak heap.
+ * Run with {@code mvn test -Pbenchmark}; the site is shaped by system properties, e.g.
+ * {@code -Dbenchmark.pages=50000 -Dbenchmark.latencyMedianMs=20 -Dbenchmark.slowHosts=1}.
+ * Server latency is measured by the site, from request received to response written; the crawler's
+ * own breakdown of each fetch follows it.
+ */
+@Tag("benchmark")
+class CrawlThroughputBenchmarkTest {
+
+    private static final long HEAP_SAMPLE_MS = 10;
+
+    @Test
+    void testCrawlThroughput() throws Exception {
+        SyntheticSite.Shape shape = SyntheticSite.Shape.builder()
+                .pages(Integer.getInteger("benchmark.pages", 10_000))
+                .fanOut(Integer.getInteger("benchmark.fanOut", 10))
+                .crossLinks(Integer.getInteger("benchmark.crossLinks", 5))
+                .pageBytes(Integer.getInteger("benchmark.pageBytes", 16 * 1024))
+                .latencyMedianMs(doubleProperty("benchmark.latencyMedianMs", 5))
+                .latencyP99Ms(doubleProperty("benchmark.latencyP99Ms", 50))
+                .errorRate(doubleProperty("benchmark.errorRate", 0))
+                .hosts(Integer.getInteger("benchmark.hosts", 4))
+                .slowHosts(Integer.getInteger("benchmark.slowHosts", 0))
+                .slowHostLatencyMs(Long.getLong("benchmark.slowHostLatencyMs", 500))
+                .build();
+
+        // Per-page logging would make this a console benchmark
+        Logger managerLog = (Logger) LoggerFactory.getLogger(SingleDomainCrawlManager.class);
+        Level level = managerLog.getLevel();
+        managerLog.setLevel(Level.WARN);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peakHeap = new AtomicLong(baselineHeap);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, HEAP_SAMPLE_MS, TimeUnit.MILLISECONDS);
+
+        try (SyntheticSite site = SyntheticSite.start(shape)) {
+            CrawlOptions options = CrawlOptions.defaults();
+            var manager = new SingleDomainCrawlManager(site.seeds(), site.pages(), site.depth() + 1, 30, options);
+
+            long start = System.nanoTime();
+            manager.start();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Map<String, Object> status = manager.getStatus();
+            int crawled = (Integer) status.get("resultsCount");
+            long[] latency = site.latencyPercentilesMicros(50, 99);
+            System.out.printf("%nCrawl throughput: %d pages over %d hosts in %.2f s%n", crawled, shape.getHosts(), seconds);
+            System.out.printf("  pages/sec:      %.1f%n", crawled / seconds);
+            System.out.printf("  server p50/p99: %.2f / %.2f ms%n", latency[0] / 1000.0, latency[1] / 1000.0);
+            FetchTimingStats timings = (FetchTimingStats) status.get("fetchTimings");
+            timings.getPhasesMs().forEach((phase, ms) -> System.out.printf("  %-15s %.2f / %.2f ms%n",
+                    phase + " p50/p99:", ms.getP50(), ms.getP99()));
+            System.out.printf("  peak heap:      %d MB (%d MB above baseline)%n",
+                    peakHeap.get() >> 20, (peakHeap.get() - baselineHeap) >> 20);
+            System.out.printf("  requests:       %d (%d errors), %d MB served%n%n",
+                    site.requests(), site.errors(), site.bytesServed() >> 20);
+
+            assertTrue(crawled > 0);
+        } finally {
+            sampler.shutdownNow();
+            managerLog.setLevel(level);
+        }
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
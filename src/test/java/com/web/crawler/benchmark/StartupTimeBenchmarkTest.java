@@ -0,0 +1,145 @@
+package com.web.crawler.benchmark;
+
+import com.web.crawler.WebCrawlerApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application in fresh JVMs and reports the time from launch to its first successful
+ * request. After {@code mvn package -Pfast-start}, the extracted jar in {@code target/app} is started
+ * plain, AOT-processed, with its class data sharing archive, and with lazy initialization on top;
+ * otherwise the compiled classes are started with and without lazy initialization. Run with
+ * {@code mvn test -Pbenchmark -Dtest=StartupTimeBenchmarkTest}; {@code -Dbenchmark.startupRuns}
+ * sets the launches per variant.
+ */
+@Tag("benchmark")
+class StartupTimeBenchmarkTest {
+
+    private static final long TIMEOUT_SECONDS = 120;
+    private static final long POLL_MS = 5;
+    private static final Path APP_DIRECTORY = Path.of("target", "app");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void testTimeToFirstRequest() throws Exception {
+        int runs = Integer.getInteger("benchmark.startupRuns", 3);
+        System.out.printf("%nTime to first request, median of %d launches:%n", runs);
+        variants().forEach((name, command) -> {
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = timeToFirstRequestMs(command);
+            }
+            Arrays.sort(millis);
+            System.out.printf("  %-22s %6d ms (best %d ms)%n", name + ":", millis[runs / 2], millis[0]);
+        });
+        System.out.println();
+    }
+
+    private static Map<String, List<String>> variants() throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        Path jar = extractedJar();
+        if (jar == null) {
+            String classpath = Stream.of(System.getProperty("java.class.path").split(File.pathSeparator))
+                    .filter(entry -> !entry.endsWith("test-classes"))
+                    .collect(Collectors.joining(File.pathSeparator));
+            List<String> base = List.of(java, "-cp", classpath, WebCrawlerApplication.class.getName());
+            variants.put("classpath", base);
+            variants.put("classpath + lazy", with(base, "--spring.profiles.active=fast-start"));
+            return variants;
+        }
+        List<String> base = List.of(java, "-jar", jar.toString());
+        List<String> aot = with(List.of(java, "-Dspring.aot.enabled=true"), "-jar", jar.toString());
+        variants.put("jar", base);
+        variants.put("jar + aot", aot);
+        Path archive = APP_DIRECTORY.resolve("application.jsa");
+        if (Files.exists(archive)) {
+            List<String> cds = with(List.of(java, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true"),
+                    "-jar", jar.toString());
+            variants.put("jar + aot + cds", cds);
+            variants.put("jar + aot + cds + lazy", with(cds, "--spring.profiles.active=fast-start"));
+        }
+        return variants;
+    }
+
+    private static Path extractedJar() throws IOException {
+        if (!Files.isDirectory(APP_DIRECTORY)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(APP_DIRECTORY)) {
+            return files.filter(file -> file.toString().endsWith(".jar")).findFirst().orElse(null);
+        }
+    }
+
+    private static List<String> with(List<String> command, String... args) {
+        List<String> result = new ArrayList<>(command);
+        result.addAll(List.of(args));
+        return result;
+    }
+
+    private long timeToFirstRequestMs(List<String> command) {
+        try {
+            int port = freePort();
+            List<String> launch = with(command, "--server.port=" + port);
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://127.0.0.1:" + port + "/api/v1/crawlers/history")).build();
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(launch)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                long deadline = start + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+                while (System.nanoTime() < deadline) {
+                    assertTrue(process.isAlive(), () -> "application exited with " + process.exitValue());
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        }
+                    } catch (IOException e) {
+                        // Not listening yet
+                    }
+                    TimeUnit.MILLISECONDS.sleep(POLL_MS);
+                }
+                return fail("no response within " + TIMEOUT_SECONDS + " s");
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
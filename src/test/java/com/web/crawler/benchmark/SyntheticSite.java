@@ -0,0 +1,274 @@
+package com.web.crawler.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A generated website served from this JVM, for crawling without the network. Pages form a tree
+ * numbered breadth-first: page {@code i} links to pages {@code i * fanOut + 1 .. i * fanOut + fanOut},
+ * plus {@code crossLinks} pseudo-random links to other pages, so the crawl also sees duplicates.
+ * Pages are spread over {@code hosts} loopback addresses (127.0.0.1, 127.0.0.2, ...) that one
+ * server answers, the first {@code slowHosts} of them with extra latency. Every response waits
+ * for a log-normal latency with the configured median and p99, and {@code errorRate} of requests
+ * fail with a 503.
+ */
+public class SyntheticSite implements AutoCloseable {
+
+    private static final String FILLER = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod. ";
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shape {
+        @Builder.Default
+        private int pages = 1000;
+        @Builder.Default
+        private int fanOut = 10;
+        @Builder.Default
+        private int crossLinks = 5;
+        @Builder.Default
+        private int pageBytes = 8 * 1024;
+        private double latencyMedianMs;
+        private double latencyP99Ms;
+        private double errorRate;
+        @Builder.Default
+        private int hosts = 1;
+        private int slowHosts;
+        private long slowHostLatencyMs;
+    }
+
+    private final Shape shape;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private long[] latencyMicros = new long[1024];
+    private int latencyCount;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private SyntheticSite(Shape shape) {
+        this.shape = shape;
+    }
+
+    public static SyntheticSite start(Shape shape) throws IOException {
+        SyntheticSite site = new SyntheticSite(shape);
+        site.listen();
+        return site;
+    }
+
+    private void listen() throws IOException {
+        // The wildcard address answers every loopback address, which lets one server play several hosts
+        server = HttpServer.create(new InetSocketAddress(0), 1024);
+        executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "synthetic-site");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the root page of every host, as crawl seeds
+     */
+    public List<String> seeds() {
+        List<String> seeds = new ArrayList<>();
+        for (int host = 0; host < Math.min(shape.getHosts(), shape.getPages()); host++) {
+            seeds.add(url(host));
+        }
+        return seeds;
+    }
+
+    public String url(int page) {
+        return "http://127.0.0." + (1 + page % shape.getHosts()) + ":" + server.getAddress().getPort() + "/page/" + page;
+    }
+
+    /**
+     * @return the depth of the deepest page below a seed
+     */
+    public int depth() {
+        int depth = 0;
+        long last = 0;
+        long width = 1;
+        while (last < shape.getPages() - 1) {
+            width *= shape.getFanOut();
+            last += width;
+            depth++;
+        }
+        return depth;
+    }
+
+    public int pages() {
+        return shape.getPages();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public long bytesServed() {
+        return bytesServed.get();
+    }
+
+    /**
+     * @return the given percentiles of the time the server took to answer, in microseconds
+     */
+    public synchronized long[] latencyPercentilesMicros(double... percentiles) {
+        return percentiles(Arrays.copyOf(latencyMicros, latencyCount), percentiles);
+    }
+
+    private synchronized void recordLatency(long micros) {
+        if (latencyCount == latencyMicros.length) {
+            latencyMicros = Arrays.copyOf(latencyMicros, latencyCount * 2);
+        }
+        latencyMicros[latencyCount++] = micros;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            requests.incrementAndGet();
+            respond(exchange);
+        } finally {
+            recordLatency(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        int page = pageOf(exchange.getRequestURI().getPath());
+        if (page < 0) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        sleep(latencyMillis(exchange));
+        if (shape.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < shape.getErrorRate()) {
+            errors.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            return;
+        }
+        byte[] body = render(page);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        bytesServed.addAndGet(body.length);
+    }
+
+    private int pageOf(String path) {
+        if (!path.startsWith("/page/")) {
+            return -1;
+        }
+        try {
+            int page = Integer.parseInt(path.substring("/page/".length()));
+            return page < shape.getPages() ? page : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private long latencyMillis(HttpExchange exchange) {
+        double latency = 0;
+        double median = shape.getLatencyMedianMs();
+        if (median > 0) {
+            double sigma = shape.getLatencyP99Ms() > median ? Math.log(shape.getLatencyP99Ms() / median) / Z_99 : 0;
+            latency = median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        }
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (shape.getSlowHosts() > 0 && host != null && hostIndex(host) < shape.getSlowHosts()) {
+            latency += shape.getSlowHostLatencyMs();
+        }
+        return Math.round(latency);
+    }
+
+    private static int hostIndex(String host) {
+        int end = host.indexOf(':');
+        String address = end < 0 ? host : host.substring(0, end);
+        try {
+            return Integer.parseInt(address.substring(address.lastIndexOf('.') + 1)) - 1;
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] render(int page) {
+        StringBuilder html = new StringBuilder(shape.getPageBytes() + 256)
+                .append("<!doctype html><html><head><title>Page ").append(page).append("</title></head><body><h1>Page ")
+                .append(page).append("</h1><ul>");
+        long firstChild = (long) page * shape.getFanOut() + 1;
+        for (long child = firstChild; child < firstChild + shape.getFanOut() && child < shape.getPages(); child++) {
+            link(html, (int) child);
+        }
+        // Seeded by the page, so every fetch of a page renders the same links
+        SplittableRandom random = new SplittableRandom(page);
+        for (int i = 0; i < shape.getCrossLinks(); i++) {
+            link(html, random.nextInt(shape.getPages()));
+        }
+        html.append("</ul><p>");
+        while (html.length() < shape.getPageBytes() - 20) {
+            html.append(FILLER, 0, Math.min(FILLER.length(), shape.getPageBytes() - 20 - html.length()));
+        }
+        html.append("</p></body></html>");
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void link(StringBuilder html, int page) {
+        html.append("<li><a href=\"").append(url(page)).append("\">Page ").append(page).append("</a></li>");
+    }
+
+    /**
+     * @return the given percentiles of {@code values}, which is sorted in place
+     */
+    static long[] percentiles(long[] values, double... percentiles) {
+        Arrays.sort(values);
+        long[] result = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length && values.length > 0; i++) {
+            int index = (int) Math.ceil(percentiles[i] / 100 * values.length) - 1;
+            result[i] = values[Math.max(0, Math.min(values.length - 1, index))];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package com.web.crawler.benchmark;
+
+import com.web.crawler.manager.SingleDomainCrawlManager;
+import com.web.crawler.model.CrawlOptions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticSiteTest {
+
+    @Test
+    void testServesLinkedTreeOfPages() throws Exception {
+        SyntheticSite.Shape shape = SyntheticSite.Shape.builder().pages(100).fanOut(3).crossLinks(2).pageBytes(2048).build();
+        try (SyntheticSite site = SyntheticSite.start(shape)) {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> page = client.send(HttpRequest.newBuilder(URI.create(site.url(1))).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> missing = client.send(HttpRequest.newBuilder(URI.create(site.url(100))).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, page.statusCode());
+            assertTrue(page.body().length() >= 2000);
+            for (int child = 4; child <= 6; child++) {
+                assertTrue(page.body().contains("href=\"" + site.url(child) + "\""));
+            }
+            assertEquals(404, missing.statusCode());
+            assertEquals(4, site.depth());
+        }
+    }
+
+    @Test
+    void testCrawlReachesEveryPageAcrossHosts() throws Exception {
+        SyntheticSite.Shape shape = SyntheticSite.Shape.builder().pages(200).fanOut(4).hosts(3).pageBytes(1024).build();
+        try (SyntheticSite site = SyntheticSite.start(shape)) {
+            CrawlOptions options = CrawlOptions.defaults();
+            var manager = new SingleDomainCrawlManager(site.seeds(), 1000, site.depth() + 1, 1, options);
+
+            manager.start();
+            Map<String, Object> status = manager.getStatus();
+
+            assertEquals(200, status.get("resultsCount"));
+            assertEquals(3, ((List<?>) status.get("domains")).size());
+            assertEquals(200, site.requests());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.web.crawler.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ResponseCache cache(long maxBytes) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxBytes(maxBytes);
+        return new ResponseCache(objectMapper, properties);
+    }
+
+    @Test
+    void testSerializesOnceAndServesTheSameBytes() throws Exception {
+        ResponseCache cache = cache(1024 * 1024);
+        AtomicInteger reads = new AtomicInteger();
+
+        SerializedResponse first = cache.get("a/status", () -> {
+            reads.incrementAndGet();
+            return Map.of("crawlId", "a");
+        });
+        SerializedResponse second = cache.get("a/status", () -> {
+            reads.incrementAndGet();
+            return Map.of("crawlId", "changed");
+        });
+
+        assertEquals(1, reads.get());
+        assertSame(first, second);
+        assertEquals(Map.of("crawlId", "a"), objectMapper.readValue(first.json(), Map.class));
+    }
+
+    @Test
+    void testStrongEtagsDifferPerEncodingAndContent() {
+        SerializedResponse a = SerializedResponse.of("{\"a\":1}".getBytes());
+        SerializedResponse same = SerializedResponse.of("{\"a\":1}".getBytes());
+        SerializedResponse b = SerializedResponse.of("{\"a\":2}".getBytes());
+
+        assertEquals(a.etag(false), same.etag(false));
+        assertNotEquals(a.etag(false), b.etag(false));
+        assertNotEquals(a.etag(false), a.etag(true));
+        assertTrue(a.etag(true).startsWith("\"") && a.etag(true).endsWith("\""));
+    }
+
+    @Test
+    void testNullBodyIsNotCached() {
+        ResponseCache cache = cache(1024 * 1024);
+
+        assertNull(cache.get("a/status", () -> null));
+        assertEquals(0, cache.size());
+        assertNotNull(cache.get("a/status", () -> Map.of("crawlId", "a")));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBeyondMaxBytes() {
+        String body = "x".repeat(1000);
+        long entryBytes = SerializedResponse.of(("\"" + body + "\"").getBytes()).size();
+        ResponseCache cache = cache(entryBytes * 2);
+
+        cache.get("a", () -> body);
+        cache.get("b", () -> body);
+        cache.get("a");
+        cache.get("c", () -> body);
+
+        assertEquals(2, cache.size());
+        assertEquals(entryBytes * 2, cache.bytes());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void testResponseLargerThanCacheIsServedButNotKept() {
+        ResponseCache cache = cache(16);
+
+        SerializedResponse response = cache.get("a", () -> "y".repeat(10_000));
+
+        assertEquals(10_002, response.json().length);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+}
@@ -0,0 +1,173 @@
+package com.web.crawler.cluster;
+
+import com.web.crawler.manager.UrlRouter;
+import com.web.crawler.model.CrawlStatus;
+import com.web.crawler.model.CrawlStatusDto;
+import com.web.crawler.scope.PublicSuffixList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterCoordinatorTest {
+
+    private final StubClient client = new StubClient();
+    private final ClusterCoordinator coordinator = new ClusterCoordinator(properties(), client, PublicSuffixList.bundled());
+
+    @AfterEach
+    void tearDown() {
+        coordinator.shutdown();
+    }
+
+    @Test
+    void testSingleNodeRoutesEverythingLocally() {
+        ClusterCoordinator disabled = new ClusterCoordinator(new ClusterProperties(), client, PublicSuffixList.bundled());
+
+        assertFalse(disabled.isEnabled());
+        assertSame(UrlRouter.LOCAL, disabled.routerFor("crawl-1"));
+        assertTrue(disabled.fetchPeerStatuses("crawl-1").statuses().isEmpty());
+    }
+
+    @Test
+    void testPeerStatusesReportUnreachableNodes() {
+        PeerStatuses peers = coordinator.fetchPeerStatuses("crawl-1");
+
+        assertEquals(1, peers.statuses().size());
+        assertEquals(7, peers.statuses().get(0).getProcessedPages());
+        assertEquals(List.of("http://node-c"), peers.unreachable());
+    }
+
+    @Test
+    void testReleaseSendsWhatIsStillBuffered() {
+        UrlRouter router = coordinator.routerFor("crawl-1");
+        List<String> foreign = new ArrayList<>();
+        for (int i = 0; foreign.isEmpty(); i++) {
+            String url = "https://host" + i + ".com/";
+            if (!router.isLocal(url)) {
+                foreign.add(url);
+            }
+        }
+        router.forwardAll(foreign, 1);
+
+        coordinator.release("crawl-1");
+
+        assertEquals(List.of(new UrlBatch(1, foreign)), client.forwarded);
+        assertNotSame(router, coordinator.routerFor("crawl-1"));
+    }
+
+    @Test
+    void testCrawlEndsOnlyAfterUrlsForwardedToAnIdlePartitionAreDone() {
+        LinkedClient link = new LinkedClient();
+        ClusterCoordinator origin = link.join("http://node-a");
+        ClusterCoordinator peer = link.join("http://node-b");
+        try {
+            UrlRouter originRouter = origin.routerFor("crawl-1");
+            UrlRouter peerRouter = peer.routerFor("crawl-1");
+            AtomicBoolean peerIdle = new AtomicBoolean(true);
+            originRouter.watchIdle(() -> true);
+            peerRouter.watchIdle(peerIdle::get);
+            link.onDelivery = () -> peerIdle.set(false);
+            String url = null;
+            for (int i = 0; url == null; i++) {
+                if (!originRouter.isLocal("https://host" + i + ".com/")) {
+                    url = "https://host" + i + ".com/";
+                }
+            }
+
+            assertFalse(origin.checkTermination("crawl-1"));
+            originRouter.forwardAll(List.of(url), 1);
+            assertFalse(origin.checkTermination("crawl-1"));
+            origin.partition("crawl-1").flushAll();
+            assertFalse(origin.checkTermination("crawl-1"));
+            assertFalse(peerRouter.crawlEnded());
+
+            peerIdle.set(true);
+            assertFalse(origin.checkTermination("crawl-1"));
+            assertTrue(origin.checkTermination("crawl-1"));
+            assertTrue(peerRouter.crawlEnded());
+            assertTrue(originRouter.crawlEnded());
+            assertEquals(new PartitionActivity(true, 0, 1), peer.activity("crawl-1"));
+        } finally {
+            origin.shutdown();
+            peer.shutdown();
+        }
+    }
+
+    private static ClusterProperties properties() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodes(List.of("http://node-a", "http://node-b/", "http://node-c"));
+        properties.setSelfUrl("http://node-a/");
+        // Long enough that only release() flushes during the test
+        properties.setForwardIntervalMs(60_000);
+        return properties;
+    }
+
+    /**
+     * Wires coordinators to each other in memory; a delivery marks the receiving partition busy first,
+     * as queuing the URLs would.
+     */
+    private static class LinkedClient extends ClusterClient {
+
+        final Map<String, ClusterCoordinator> nodes = new HashMap<>();
+        Runnable onDelivery = () -> {
+        };
+
+        LinkedClient() {
+            super(new ClusterProperties());
+        }
+
+        ClusterCoordinator join(String selfUrl) {
+            ClusterProperties properties = properties();
+            properties.setNodes(List.of("http://node-a", "http://node-b"));
+            properties.setSelfUrl(selfUrl);
+            ClusterCoordinator coordinator = new ClusterCoordinator(properties, this, PublicSuffixList.bundled());
+            nodes.put(selfUrl, coordinator);
+            return coordinator;
+        }
+
+        @Override
+        public void forward(String node, String crawlId, String batchId, List<UrlBatch> batches) {
+            onDelivery.run();
+            nodes.get(node).partition(crawlId).received(batchId, batches.stream().mapToInt(b -> b.urls().size()).sum());
+        }
+
+        @Override
+        public PartitionActivity fetchActivity(String node, String crawlId) {
+            return nodes.get(node).activity(crawlId);
+        }
+
+        @Override
+        public void endPartition(String node, String crawlId) {
+            nodes.get(node).endPartition(crawlId);
+        }
+    }
+
+    private static class StubClient extends ClusterClient {
+
+        final List<UrlBatch> forwarded = new ArrayList<>();
+
+        StubClient() {
+            super(new ClusterProperties());
+        }
+
+        @Override
+        public void forward(String node, String crawlId, String batchId, List<UrlBatch> batches) {
+            forwarded.addAll(batches);
+        }
+
+        @Override
+        public CrawlStatusDto fetchStatus(String node, String crawlId) {
+            if (node.equals("http://node-c")) {
+                throw new IllegalStateException("connection refused");
+            }
+            return CrawlStatusDto.builder().crawlId(crawlId).status(CrawlStatus.COMPLETED).processedPages(7).build();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.web.crawler.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    @Test
+    void testOwnerIsStableAndSpread() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("http://a", "http://b", "http://c"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String owner = ring.ownerOf("host" + i + ".com");
+            assertEquals(owner, ring.ownerOf("host" + i + ".com"));
+            counts.merge(owner, 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 600, "unbalanced ring: " + counts));
+    }
+
+    @Test
+    void testAddingNodeOnlyMovesItsOwnKeys() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("http://a", "http://b"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("http://a", "http://b", "http://c"), 128);
+
+        for (int i = 0; i < 1000; i++) {
+            String key = "host" + i + ".com";
+            String owner = after.ownerOf(key);
+            assertTrue(owner.equals("http://c") || owner.equals(before.ownerOf(key)));
+        }
+    }
+
+    @Test
+    void testConstructorRejectsEmptyNodes() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 16));
+    }
+}
@@ -0,0 +1,162 @@
+package com.web.crawler.cluster;
+
+import com.web.crawler.scope.PublicSuffixList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlForwarderTest {
+
+    private static final String SELF = "http://node-a";
+    private static final String PEER = "http://node-b";
+
+    private final ConsistentHashRing ring = new ConsistentHashRing(List.of(SELF, PEER), 128);
+    private final StubClient client = new StubClient();
+    private final AtomicLong now = new AtomicLong();
+    private final UrlForwarder forwarder = new UrlForwarder("crawl-1", ring, SELF, client, PublicSuffixList.bundled(), 3, 100, 1000, now::get);
+
+    @Test
+    void testBatchesAreSentOnceFullGroupedByDepth() {
+        List<String> urls = peerUrls(4);
+
+        forwarder.forwardAll(urls.subList(0, 2), 1);
+        assertTrue(client.sent.isEmpty());
+
+        forwarder.forwardAll(urls.subList(2, 3), 2);
+        assertEquals(List.of(List.of(new UrlBatch(1, urls.subList(0, 2)), new UrlBatch(2, urls.subList(2, 3)))),
+                client.sent);
+
+        forwarder.forwardAll(List.of(urls.get(3), urls.get(0)), 1);
+        forwarder.flushAll();
+        // Already delivered URLs are not shipped again
+        assertEquals(List.of(new UrlBatch(1, List.of(urls.get(3)))), client.sent.get(1));
+    }
+
+    @Test
+    void testFailedSendIsRetriedWithBackoffUntilDelivered() {
+        List<String> urls = peerUrls(2);
+        client.failuresLeft = 5;
+        forwarder.forwardAll(urls, 1);
+
+        forwarder.flushAll();
+        assertEquals(1, client.attempts);
+        forwarder.flushAll();
+        assertEquals(1, client.attempts, "retried before the backoff elapsed");
+
+        // Backoff doubles from 100 ms and is capped at 1 s
+        long[] delaysMs = {100, 200, 400, 800, 1000};
+        for (long delayMs : delaysMs) {
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(delayMs) - 1);
+            forwarder.flushAll();
+            int before = client.attempts;
+            now.incrementAndGet();
+            forwarder.flushAll();
+            assertEquals(before + 1, client.attempts);
+        }
+
+        assertEquals(List.of(List.of(new UrlBatch(1, urls))), client.sent);
+        forwarder.forwardAll(urls, 1);
+        forwarder.flushAll();
+        assertEquals(1, client.sent.size());
+    }
+
+    @Test
+    void testUrlsOfFailedSendCanBeForwardedAgainWithoutDuplicates() {
+        List<String> urls = peerUrls(2);
+        client.failuresLeft = 1;
+        forwarder.forwardAll(urls, 1);
+        forwarder.flushAll();
+
+        forwarder.forwardAll(urls, 1);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        forwarder.flushAll();
+        forwarder.flushAll();
+
+        assertEquals(List.of(List.of(new UrlBatch(1, urls))), client.sent);
+    }
+
+    @Test
+    void testFinishIgnoresBackoffAndDropsWhatStillFails() {
+        List<String> delivered = peerUrls(1);
+        client.failuresLeft = 1;
+        forwarder.forwardAll(delivered, 1);
+        forwarder.flushAll();
+
+        forwarder.finish();
+        assertEquals(List.of(List.of(new UrlBatch(1, delivered))), client.sent);
+
+        client.failuresLeft = Integer.MAX_VALUE;
+        forwarder.forwardAll(peerUrls(2).subList(1, 2), 1);
+        forwarder.finish();
+        int attempts = client.attempts;
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        forwarder.flushAll();
+        assertEquals(attempts, client.attempts, "dropped URLs were sent again");
+    }
+
+    @Test
+    void testRetriedSendKeepsItsBatchIdAndCountsOnceAcknowledged() {
+        forwarder.watchIdle(() -> true);
+        List<String> urls = peerUrls(2);
+        client.failuresLeft = 1;
+        forwarder.forwardAll(urls, 1);
+
+        forwarder.flushAll();
+        assertEquals(new PartitionActivity(false, 0, 0), forwarder.activity());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        forwarder.flushAll();
+        assertEquals(2, client.batchIds.size());
+        assertEquals(client.batchIds.get(0), client.batchIds.get(1));
+        assertEquals(new PartitionActivity(true, 2, 0), forwarder.activity());
+    }
+
+    @Test
+    void testDuplicateDeliveryIsCountedOnce() {
+        forwarder.received("http://node-b#1", 3);
+        forwarder.received("http://node-b#1", 3);
+        forwarder.received("http://node-b#2", 1);
+
+        assertEquals(4, forwarder.activity().receivedUrls());
+    }
+
+    private List<String> peerUrls(int count) {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; urls.size() < count; i++) {
+            String url = "https://host" + i + ".com/page";
+            if (!forwarder.isLocal(url)) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
+    private static class StubClient extends ClusterClient {
+
+        final List<List<UrlBatch>> sent = new ArrayList<>();
+        final List<String> batchIds = new ArrayList<>();
+        int failuresLeft;
+        int attempts;
+
+        StubClient() {
+            super(new ClusterProperties());
+        }
+
+        @Override
+        public void forward(String node, String crawlId, String batchId, List<UrlBatch> batches) {
+            attempts++;
+            batchIds.add(batchId);
+            assertEquals(PEER, node);
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("node down");
+            }
+            sent.add(batches);
+        }
+    }
+}
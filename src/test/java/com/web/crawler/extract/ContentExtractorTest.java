@@ -0,0 +1,24 @@
+package com.web.crawler.extract;
+
+import com.web.crawler.model.ExtractionRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentExtractorTest {
+
+    @Test
+    void testCompileRejectsInvalidRules() {
+        ExtractionRule title = ExtractionRule.builder().name("title").selector("title").build();
+
+        assertNull(ContentExtractor.compile(List.of()));
+        assertEquals(List.of("title"), ContentExtractor.compile(List.of(title)).fieldNames());
+        assertThrows(IllegalArgumentException.class, () -> ContentExtractor.compile(List.of(title, title)));
+        assertThrows(IllegalArgumentException.class, () -> ContentExtractor.compile(
+                List.of(ExtractionRule.builder().name("broken").selector("div[").build())));
+        assertThrows(IllegalArgumentException.class, () -> ContentExtractor.compile(
+                List.of(ExtractionRule.builder().name("empty").build())));
+    }
+}
@@ -0,0 +1,61 @@
+package com.web.crawler.fetch;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingDnsResolverTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final DnsResolver delegate = new DnsResolver() {
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            lookups.incrementAndGet();
+            if (host.startsWith("missing")) {
+                throw new UnknownHostException(host);
+            }
+            return new InetAddress[]{InetAddress.getByAddress(host, new byte[]{10, 0, 0, 1})};
+        }
+
+        @Override
+        public String resolveCanonicalHostname(String host) {
+            return host;
+        }
+    };
+
+    private final CachingDnsResolver resolver = new CachingDnsResolver(delegate, 60, 5, now::get);
+
+    @Test
+    void testCachesAnswersUntilTtlExpires() throws Exception {
+        resolver.resolve("monzo.com");
+        resolver.resolve("MONZO.com");
+        assertEquals(1, lookups.get());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        resolver.resolve("monzo.com");
+
+        assertEquals(2, lookups.get());
+        assertEquals(1, resolver.hits());
+        assertEquals(2, resolver.misses());
+    }
+
+    @Test
+    void testCachesFailuresForNegativeTtl() {
+        assertThrows(UnknownHostException.class, () -> resolver.resolve("missing.example"));
+        assertThrows(UnknownHostException.class, () -> resolver.resolve("missing.example"));
+        assertEquals(1, lookups.get());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertThrows(UnknownHostException.class, () -> resolver.resolve("missing.example"));
+        assertEquals(2, lookups.get());
+    }
+}
@@ -0,0 +1,91 @@
+package com.web.crawler.fetch;
+
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentDecoderTest {
+
+    private static final String BODY = "<html><body>" + "<a href=\"/page\">page</a>".repeat(50) + "</body></html>";
+
+    @Test
+    void testDecodesEachSupportedCoding() throws IOException {
+        byte[] plain = BODY.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(BODY, decode(gzip(plain), "gzip"));
+        assertEquals(BODY, decode(deflate(plain, false), "deflate"));
+        assertEquals(BODY, decode(deflate(plain, true), "deflate"));
+        assertEquals(BODY, decode(zstd(plain), "zstd"));
+        assertEquals(BODY, decode(brotliStored(plain), "br"));
+        assertEquals(BODY, decode(plain, "identity"));
+    }
+
+    @Test
+    void testUndoesStackedCodingsInReverseOrder() throws IOException {
+        byte[] stacked = zstd(gzip(BODY.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(BODY, decode(stacked, "gzip, zstd"));
+    }
+
+    @Test
+    void testRejectsUnknownCoding() {
+        FetchAbortedException e = assertThrows(FetchAbortedException.class,
+                () -> ContentDecoder.decode(new ByteArrayInputStream(new byte[0]), "compress"));
+        assertEquals(FetchOutcome.FAILED, e.getOutcome());
+    }
+
+    private static String decode(byte[] encoded, String coding) throws IOException {
+        try (InputStream in = ContentDecoder.decode(new ByteArrayInputStream(encoded), coding)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflate.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zstd(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream zstd = new ZstdOutputStream(out)) {
+            zstd.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    // No brotli encoder is on the classpath, so build a stream from one uncompressed meta-block
+    private static byte[] brotliStored(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // WBITS=16 (1 bit), ISLAST=0, MNIBBLES=4 (2 bits), MLEN-1 (16 bits), ISUNCOMPRESSED=1, padding to 24 bits
+        long header = (long) (data.length - 1) << 4 | 1L << 20;
+        out.write((int) (header & 0xff));
+        out.write((int) (header >>> 8 & 0xff));
+        out.write((int) (header >>> 16 & 0xff));
+        out.write(data, 0, data.length);
+        // ISLAST=1, ISLASTEMPTY=1
+        out.write(0b11);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,56 @@
+package com.web.crawler.fetch;
+
+import com.web.crawler.model.FetchTimingStats;
+import com.web.crawler.model.Percentiles;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetchTimingRecorderTest {
+
+    @Test
+    void testAggregatesPhasesPerCrawlAndTotalsPerHost() {
+        FetchTimingRecorder recorder = new FetchTimingRecorder();
+        for (int i = 1; i <= 100; i++) {
+            recorder.record("fast.com", timing(200, i), 1000);
+        }
+        recorder.record("slow.com", timing(503, 500), 0);
+
+        FetchTimingStats stats = recorder.snapshot(10);
+
+        Percentiles firstByte = stats.getPhasesMs().get("firstByte");
+        assertEquals(101, firstByte.getCount());
+        assertEquals(51, firstByte.getP50(), 1);
+        assertEquals(500, firstByte.getMax(), 5);
+        assertEquals(List.of("total", "dns", "connect", "tls", "firstByte", "download", "parse"),
+                List.copyOf(stats.getPhasesMs().keySet()));
+        assertEquals(1.0, stats.getPhasesMs().get("dns").getMax(), 0.01);
+        assertEquals(Map.of("200", 100L, "503", 1L), stats.getStatusCodes());
+        assertEquals(1000, stats.getPageBytes().getP90(), 10);
+        // Slowest host first
+        assertEquals(List.of("slow.com", "fast.com"), List.copyOf(stats.getHostsMs().keySet()));
+        assertEquals(100, stats.getHostsMs().get("fast.com").getCount());
+    }
+
+    @Test
+    void testSnapshotsAccumulateAcrossReads() {
+        FetchTimingRecorder recorder = new FetchTimingRecorder();
+        recorder.record("a.com", timing(200, 10), 10);
+        recorder.snapshot(10);
+        recorder.record("a.com", timing(200, 30), 10);
+
+        FetchTimingStats stats = recorder.snapshot(1);
+
+        assertEquals(2, stats.getPhasesMs().get("total").getCount());
+        assertEquals(2, stats.getHostsMs().get("a.com").getCount());
+    }
+
+    private static FetchTiming timing(int status, long firstByteMillis) {
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+        return new FetchTiming(status, ms, 2 * ms, 0, firstByteMillis * ms, 3 * ms, ms);
+    }
+}
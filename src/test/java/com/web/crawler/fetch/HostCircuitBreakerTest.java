@@ -0,0 +1,49 @@
+package com.web.crawler.fetch;
+
+import com.web.crawler.model.HostFailureStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostCircuitBreakerTest {
+
+    @Test
+    void testOpensAfterConsecutiveFailuresAndProbesOnceOpenPeriodEnds() {
+        AtomicLong clock = new AtomicLong();
+        var breaker = new HostCircuitBreaker(3, 1000, clock::get);
+
+        breaker.recordFailure("monzo.com");
+        breaker.recordFailure("monzo.com");
+        assertEquals(0, breaker.blockedForMillis("monzo.com"));
+        breaker.recordFailure("monzo.com");
+        assertEquals(1000, breaker.blockedForMillis("monzo.com"));
+        assertEquals(0, breaker.blockedForMillis("example.com"));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(0, breaker.blockedForMillis("monzo.com"));
+        assertTrue(breaker.blockedForMillis("monzo.com") > 0);
+
+        breaker.recordSuccess("monzo.com");
+        assertEquals(0, breaker.blockedForMillis("monzo.com"));
+    }
+
+    @Test
+    void testSnapshotCountsFailuresAndRetries() {
+        var breaker = new HostCircuitBreaker(2, 1000, System::nanoTime);
+
+        breaker.recordFailure("monzo.com");
+        breaker.recordRetry("monzo.com");
+        breaker.recordFailure("monzo.com");
+        breaker.recordFailure("example.com");
+
+        HostFailureStats stats = breaker.snapshot(10).get("monzo.com");
+        assertEquals(2, stats.getFailures());
+        assertEquals(1, stats.getRetries());
+        assertEquals(1, stats.getCircuitOpenings());
+        assertTrue(stats.isCircuitOpen());
+        assertEquals(1, breaker.snapshot(1).size());
+    }
+}
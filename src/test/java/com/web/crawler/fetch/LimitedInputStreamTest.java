@@ -0,0 +1,58 @@
+package com.web.crawler.fetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitedInputStreamTest {
+
+    private static final long NO_DEADLINE = System.nanoTime() + 60_000_000_000L;
+
+    @Test
+    void testSlowConsumerIsNotTakenForSlowTransfer() throws Exception {
+        LimitedInputStream body = new LimitedInputStream(new ByteArrayInputStream(new byte[64]), 1024,
+                NO_DEADLINE, 10, 1_000_000);
+
+        byte[] buffer = new byte[8];
+        while (body.read(buffer, 0, buffer.length) != -1) {
+            // Parsing between reads takes far longer than the grace period
+            Thread.sleep(20);
+            body.checkLimits();
+        }
+
+        assertEquals(64, body.bytesRead());
+    }
+
+    @Test
+    void testSlowProducerIsAborted() {
+        InputStream slow = new FilterInputStream(new ByteArrayInputStream(new byte[64])) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+        LimitedInputStream body = new LimitedInputStream(slow, 1024, NO_DEADLINE, 10, 1_000);
+
+        FetchAbortedException e = assertThrows(FetchAbortedException.class, () -> body.readAllBytes());
+        assertEquals(FetchOutcome.TOO_SLOW, e.getOutcome());
+    }
+
+    @Test
+    void testBodyPastMaxBytesIsTruncated() throws Exception {
+        LimitedInputStream body = new LimitedInputStream(new ByteArrayInputStream(new byte[100]), 40,
+                NO_DEADLINE, 0, 0);
+
+        assertEquals(40, body.readAllBytes().length);
+        assertTrue(body.isTruncated());
+    }
+}
@@ -0,0 +1,67 @@
+package com.web.crawler.fetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledReaderTest {
+
+    private static final String TEXT = "<p>Grüße — 東京 🚀</p>".repeat(PooledReader.BUFFER_SIZE / 10);
+
+    @Test
+    void testDecodesCharactersSplitAcrossReads() throws IOException {
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(TEXT.getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 3));
+            }
+        };
+
+        assertEquals(TEXT, readAll(trickle, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReusesThreadBufferAfterClose() throws IOException {
+        PooledReader first = PooledReader.open(new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_8);
+        first.close();
+        PooledReader second = PooledReader.open(new ByteArrayInputStream("café".getBytes(StandardCharsets.ISO_8859_1)),
+                StandardCharsets.ISO_8859_1);
+
+        assertSame(first, second);
+        assertEquals("café", readAll(second));
+    }
+
+    @Test
+    void testNestedOpenGetsSeparateReader() throws IOException {
+        try (PooledReader outer = PooledReader.open(new ByteArrayInputStream("outer".getBytes()), StandardCharsets.UTF_8);
+             PooledReader inner = PooledReader.open(new ByteArrayInputStream("inner".getBytes()), StandardCharsets.UTF_8)) {
+            assertNotSame(outer, inner);
+            assertEquals("inner", readAll(inner));
+            assertEquals("outer", readAll(outer));
+        }
+    }
+
+    private static String readAll(InputStream in, Charset charset) throws IOException {
+        try (Reader reader = PooledReader.open(in, charset)) {
+            return readAll(reader);
+        }
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] chars = new char[1000];
+        int read;
+        while ((read = reader.read(chars, 0, chars.length)) != -1) {
+            text.append(chars, 0, read);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.web.crawler.fetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(4, 1000, 10_000);
+
+    @Test
+    void testBacksOffExponentiallyWithJitterUntilAttemptsRunOut() {
+        FetchedPage timedOut = new FetchedPage(List.of(), FetchOutcome.TIMED_OUT);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long ceiling = 1000L << attempt;
+            long delay = policy.delayMillis(attempt, timedOut);
+            assertTrue(delay >= ceiling / 2 && delay <= ceiling, "attempt " + attempt + " waited " + delay);
+        }
+        assertEquals(-1, policy.delayMillis(3, timedOut));
+    }
+
+    @Test
+    void testHonoursRetryAfterAndSkipsPermanentErrors() {
+        assertEquals(7000, policy.delayMillis(0, FetchedPage.httpError(List.of(), 503, 7000)));
+        assertEquals(-1, policy.delayMillis(0, FetchedPage.httpError(List.of(), 429, 120_000)));
+        assertEquals(-1, policy.delayMillis(0, FetchedPage.httpError(List.of(), 404, -1)));
+        assertEquals(-1, policy.delayMillis(0, new FetchedPage(List.of(), FetchOutcome.NOT_HTML)));
+    }
+}
@@ -0,0 +1,99 @@
+package com.web.crawler.frontier;
+
+import com.web.crawler.graph.UrlIdDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestFirstFrontierTest {
+
+    @Test
+    void testPathWeightsDecidePollOrder() throws InterruptedException {
+        var frontier = new BestFirstFrontier(10, new DefaultUrlScorer(Map.of("/tag/", -3.0, "/blog/", 2.0)),
+                new UrlIdDictionary());
+
+        frontier.offer(new FrontierEntry("https://monzo.com/tag/savings", 1, 0, -1));
+        frontier.offer(new FrontierEntry("https://monzo.com/about", 1, 1, -1));
+        frontier.offer(new FrontierEntry("https://monzo.com/blog/launch", 1, 2, -1));
+
+        assertEquals("https://monzo.com/blog/launch", frontier.poll(1, TimeUnit.SECONDS).url());
+        assertEquals("https://monzo.com/about", frontier.poll(1, TimeUnit.SECONDS).url());
+        assertEquals("https://monzo.com/tag/savings", frontier.poll(1, TimeUnit.SECONDS).url());
+    }
+
+    @Test
+    void testInlinksPromoteQueuedUrlAndStaleCopyIsSkipped() throws InterruptedException {
+        var frontier = new BestFirstFrontier(10, new DefaultUrlScorer(Map.of()), new UrlIdDictionary());
+        String popular = "https://monzo.com/popular";
+
+        frontier.recordInlink("https://monzo.com/first", 1);
+        frontier.offer(new FrontierEntry("https://monzo.com/first", 1, 0, -1));
+        frontier.recordInlink(popular, 1);
+        frontier.offer(new FrontierEntry(popular, 1, 1, -1));
+
+        boolean promoted = false;
+        for (int i = 0; i < 20 && !promoted; i++) {
+            promoted = frontier.recordInlink(popular, 1);
+        }
+        assertTrue(promoted);
+        frontier.offer(new FrontierEntry(popular, 1, 1, -1));
+
+        assertEquals(popular, frontier.poll(1, TimeUnit.SECONDS).url());
+        assertEquals("https://monzo.com/first", frontier.poll(1, TimeUnit.SECONDS).url());
+        assertNull(frontier.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRecordInlinksUsesTheCallersIdsAndSkipsDispatchedUrls() throws InterruptedException {
+        UrlIdDictionary urlIds = new UrlIdDictionary();
+        var frontier = new BestFirstFrontier(10, new DefaultUrlScorer(Map.of()), urlIds);
+        String dispatched = "https://monzo.com/dispatched";
+        String popular = "https://monzo.com/popular";
+        frontier.offer(new FrontierEntry(dispatched, 1, 0, -1));
+        assertEquals(dispatched, frontier.poll(1, TimeUnit.SECONDS).url());
+
+        List<String> page = List.of(dispatched, popular);
+        int[] ids = new int[page.size()];
+        boolean[] fresh = urlIds.markAllVisited(page, ids);
+        assertArrayEquals(new boolean[]{true, true}, fresh);
+        assertArrayEquals(new int[]{urlIds.intern(dispatched), urlIds.intern(popular)}, ids);
+
+        boolean promoted = false;
+        for (int i = 0; i < 20 && !promoted; i++) {
+            boolean[] result = frontier.recordInlinks(page, ids, 1);
+            assertFalse(result[0]);
+            promoted = result[1];
+        }
+        assertTrue(promoted);
+    }
+
+    @Test
+    void testDispatchedUrlIsTrackedByIdAndChargedToFrontier() throws InterruptedException {
+        UrlIdDictionary urlIds = new UrlIdDictionary();
+        var frontier = new BestFirstFrontier(10, new DefaultUrlScorer(Map.of()), urlIds);
+        long footprint = frontier.memoryFootprint();
+        String url = "https://monzo.com/page";
+        frontier.offer(new FrontierEntry(url, 1, 0, -1));
+        frontier.offer(new FrontierEntry(url, 1, 1, -1));
+
+        assertEquals(url, frontier.poll(1, TimeUnit.SECONDS).url());
+        // Once dispatched, in-links no longer re-queue the URL and its duplicate is skipped
+        assertFalse(frontier.recordInlink(url, 1));
+        assertNull(frontier.poll(10, TimeUnit.MILLISECONDS));
+
+        frontier.offerLater(new FrontierEntry(url, 1, 0, -1), 0, TimeUnit.MILLISECONDS);
+        assertEquals(url, frontier.poll(1, TimeUnit.SECONDS).url());
+
+        for (int i = 0; i < 5000; i++) {
+            frontier.offer(new FrontierEntry("https://monzo.com/p" + i, 1, i, -1));
+            frontier.poll(1, TimeUnit.SECONDS);
+        }
+        assertEquals(5001, urlIds.size());
+        assertTrue(frontier.memoryFootprint() > footprint);
+        assertTrue(frontier.memoryFootprint() - footprint <= 2 * 5001 / 8 + 128);
+    }
+}
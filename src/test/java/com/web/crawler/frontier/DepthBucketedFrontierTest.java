@@ -0,0 +1,60 @@
+package com.web.crawler.frontier;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepthBucketedFrontierTest {
+
+    @Test
+    void testPollReturnsShallowestEntriesFirst() throws InterruptedException {
+        var frontier = new DepthBucketedFrontier(3, 10);
+        FrontierEntry seed = FrontierEntry.seed("https://monzo.com", 0);
+
+        frontier.offer(seed.child("https://monzo.com/a", 1).child("https://monzo.com/a/b", 2));
+        frontier.offer(seed.child("https://monzo.com/c", 3));
+        frontier.offer(seed);
+
+        assertEquals(0, frontier.poll(1, TimeUnit.SECONDS).depth());
+        assertEquals(1, frontier.poll(1, TimeUnit.SECONDS).depth());
+        FrontierEntry deepest = frontier.poll(1, TimeUnit.SECONDS);
+        assertEquals(2, deepest.depth());
+        assertEquals(1, deepest.parentSequence());
+        assertNull(frontier.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testOfferAllRespectsCapacityAndMaxDepth() {
+        var frontier = new DepthBucketedFrontier(1, 2);
+
+        int accepted = frontier.offerAll(List.of(
+                new FrontierEntry("https://monzo.com/too-deep", 2, 0, -1),
+                new FrontierEntry("https://monzo.com/a", 1, 1, -1),
+                new FrontierEntry("https://monzo.com/b", 1, 2, -1),
+                new FrontierEntry("https://monzo.com/c", 1, 3, -1)));
+
+        assertEquals(2, accepted);
+        assertEquals(2, frontier.size());
+        assertFalse(frontier.offer(FrontierEntry.seed("https://monzo.com", 4)));
+    }
+
+    @Test
+    void testOfferLaterHoldsEntryUntilDue() throws InterruptedException {
+        var frontier = new DepthBucketedFrontier(1, 2);
+        FrontierEntry retry = FrontierEntry.seed("https://monzo.com/retry", 0).retry();
+
+        frontier.offerLater(retry, 200, TimeUnit.MILLISECONDS);
+        assertTrue(frontier.offer(FrontierEntry.seed("https://monzo.com", 1)));
+
+        assertEquals(2, frontier.size());
+        assertEquals("https://monzo.com", frontier.poll(1, TimeUnit.SECONDS).url());
+        assertNull(frontier.poll(50, TimeUnit.MILLISECONDS));
+        FrontierEntry due = frontier.poll(1, TimeUnit.SECONDS);
+        assertEquals("https://monzo.com/retry", due.url());
+        assertEquals(1, due.attempt());
+        assertEquals(0, frontier.size());
+    }
+}
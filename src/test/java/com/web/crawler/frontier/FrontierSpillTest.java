@@ -0,0 +1,60 @@
+package com.web.crawler.frontier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrontierSpillTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReadsEntriesBackInWriteOrder() throws IOException {
+        try (FrontierSpill spill = new FrontierSpill(directory)) {
+            FrontierEntry first = new FrontierEntry("https://monzo.com/a", 1, 7, 0, 2);
+            FrontierEntry second = new FrontierEntry("https://monzo.com/b", 2, 8, 7);
+            FrontierEntry third = new FrontierEntry("https://monzo.com/c", 2, 9, 7);
+            spill.writeAll(List.of(first, second));
+
+            assertEquals(List.of(first), spill.read(1));
+            spill.writeAll(List.of(third));
+            assertEquals(2, spill.size());
+            assertEquals(List.of(second, third), spill.read(10));
+        }
+    }
+
+    @Test
+    void testKeepsUrlsLongerThan64Kb() throws IOException {
+        try (FrontierSpill spill = new FrontierSpill(directory)) {
+            FrontierEntry huge = new FrontierEntry("https://monzo.com/?q=" + "é".repeat(40_000), 3, 1, 0);
+            FrontierEntry next = new FrontierEntry("https://monzo.com/next", 3, 2, 0);
+            spill.writeAll(List.of(huge, next));
+
+            assertEquals(List.of(huge, next), spill.read(10));
+        }
+    }
+
+    @Test
+    void testRemovesFileOnceDrained() throws IOException {
+        try (FrontierSpill spill = new FrontierSpill(directory)) {
+            spill.writeAll(List.of(FrontierEntry.seed("https://monzo.com", 0)));
+            try (var files = Files.list(directory)) {
+                assertEquals(1, files.count());
+            }
+
+            spill.read(5);
+
+            assertEquals(0, spill.size());
+            try (var files = Files.list(directory)) {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.web.crawler.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkGraphTest {
+
+    @Test
+    void testAdjacencyRoundTripsWithoutTruncation() {
+        var graph = new LinkGraph();
+        List<String> links = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            links.add("https://monzo.com/page" + i);
+        }
+        links.add("https://monzo.com/page7");
+
+        graph.addPage("https://monzo.com", links);
+
+        int[] outLinks = graph.outLinks(0);
+        assertEquals(500, outLinks.length);
+        assertEquals(500, graph.edgeCount());
+        assertEquals(501, graph.nodeCount());
+        assertEquals("https://monzo.com/page7", graph.urlOf(outLinks[7]));
+        assertTrue(graph.isCrawled(0));
+        assertFalse(graph.isCrawled(outLinks[0]));
+    }
+
+    @Test
+    void testCrawledIdsPageThroughCrawledPagesOnly() {
+        var graph = new LinkGraph();
+        for (int i = 0; i < 5; i++) {
+            graph.addPage("https://monzo.com/page" + i, List.of("https://monzo.com/other" + i));
+        }
+
+        int[] first = graph.crawledIds(0, 2);
+        int[] last = graph.crawledIds(4, 2);
+
+        assertEquals(List.of("https://monzo.com/page0", "https://monzo.com/page1"),
+                List.of(graph.urlOf(first[0]), graph.urlOf(first[1])));
+        assertEquals(1, last.length);
+        assertEquals("https://monzo.com/page4", graph.urlOf(last[0]));
+        assertEquals(0, graph.crawledIds(5, 2).length);
+        assertEquals(List.of("https://monzo.com/other0"), graph.toResultMap(1).get("https://monzo.com/page0"));
+    }
+
+    @Test
+    void testVarIntEncodingHandlesLargeGaps() {
+        int[] ids = {5, 1_000_000, 3, 128, 5, Integer.MAX_VALUE};
+
+        assertArrayEquals(new int[]{3, 5, 128, 1_000_000, Integer.MAX_VALUE}, LinkGraph.decode(LinkGraph.encode(ids)));
+    }
+
+    @Test
+    void testPageRankFavoursHubAndSumsToOne() {
+        var graph = new LinkGraph();
+        graph.addPage("https://monzo.com", List.of("https://monzo.com/a", "https://monzo.com/b", "https://monzo.com/hub"));
+        graph.addPage("https://monzo.com/a", List.of("https://monzo.com/hub"));
+        graph.addPage("https://monzo.com/b", List.of("https://monzo.com/hub"));
+        graph.addPage("https://monzo.com/hub", List.of("https://monzo.com"));
+
+        PageRank pageRank = PageRank.compute(graph, 0.85, 100, 1e-9);
+
+        double total = 0;
+        int best = 0;
+        for (int id = 0; id < pageRank.nodeCount(); id++) {
+            total += pageRank.rank(id);
+            if (pageRank.rank(id) > pageRank.rank(best)) {
+                best = id;
+            }
+        }
+        assertEquals(1.0, total, 1e-6);
+        assertEquals("https://monzo.com/hub", graph.urlOf(best));
+        assertEquals(3, pageRank.inDegree(best));
+    }
+}
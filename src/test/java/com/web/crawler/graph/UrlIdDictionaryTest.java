@@ -0,0 +1,62 @@
+package com.web.crawler.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlIdDictionaryTest {
+
+    @Test
+    void testInternRoundTripsAndDeduplicates() {
+        var dictionary = new UrlIdDictionary();
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String host = i % 3 == 0 ? "https://monzo.com" : "https://www.monzo.com";
+            urls.add(host + "/blog/2024/" + (i % 50) + "/post-" + i + (i % 7 == 0 ? "?page=" + i : ""));
+        }
+        urls.add("https://monzo.com");
+        urls.add("https://monzo.com/café");
+        urls.add("https://monzo.com/" + "x".repeat(100_000));
+
+        int[] ids = dictionary.internAll(urls);
+
+        assertEquals(urls.size(), dictionary.size());
+        for (int i = 0; i < urls.size(); i++) {
+            assertEquals(urls.get(i), dictionary.urlOf(ids[i]));
+            assertEquals(ids[i], dictionary.intern(urls.get(i)));
+        }
+    }
+
+    @Test
+    void testMarkAllVisitedReportsFirstSightingOnly() {
+        var dictionary = new UrlIdDictionary();
+        dictionary.intern("https://monzo.com/linked-only");
+
+        boolean[] first = dictionary.markAllVisited(List.of("https://monzo.com/a", "https://monzo.com/linked-only"));
+        boolean[] second = dictionary.markAllVisited(List.of("https://monzo.com/a", "https://monzo.com/b"));
+
+        assertArrayEquals(new boolean[]{true, true}, first);
+        assertArrayEquals(new boolean[]{false, true}, second);
+        assertEquals(3, dictionary.visitedCount());
+        assertEquals(List.of("https://monzo.com/linked-only", "https://monzo.com/a", "https://monzo.com/b"),
+                dictionary.visitedUrls());
+    }
+
+    @Test
+    void testRetainVisitedOrOnlyAsksAboutUnvisitedUrls() {
+        var dictionary = new UrlIdDictionary();
+        dictionary.markAllVisited(List.of("https://monzo.com/seen"));
+        List<String> asked = new ArrayList<>();
+
+        List<String> kept = dictionary.retainVisitedOr(
+                List.of("https://monzo.com/seen", "https://monzo.com/new", "https://monzo.com/trap"),
+                url -> asked.add(url) && !url.endsWith("trap"));
+
+        assertEquals(List.of("https://monzo.com/seen", "https://monzo.com/new"), kept);
+        assertEquals(List.of("https://monzo.com/new", "https://monzo.com/trap"), asked);
+        assertEquals(1, dictionary.size());
+    }
+}
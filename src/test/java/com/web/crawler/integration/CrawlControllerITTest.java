@@ -10,22 +10,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.webflux.multipart.max-in-memory-size=1KB",
+        "spring.webflux.multipart.max-disk-usage-per-part=4KB"})
 @AutoConfigureWebTestClient
 @ActiveProfiles("test")
 public class CrawlControllerITTest {
@@ -53,7 +65,7 @@ public class CrawlControllerITTest {
                 .build();
 
         when(crawlService.startCrawlAsync(request.getUrls(), request.getStrategy(),
-                request.getMaxPages(), request.getMaxDepth()))
+                request.getMaxPages(), request.getMaxDepth(), request.getOptions()))
                 .thenReturn(TEST_CRAWL_ID);
 
         // Act & Assert
@@ -73,7 +85,7 @@ public class CrawlControllerITTest {
                 });
 
         verify(crawlService).startCrawlAsync(request.getUrls(), request.getStrategy(),
-                request.getMaxPages(), request.getMaxDepth());
+                request.getMaxPages(), request.getMaxDepth(), request.getOptions());
     }
 
     @Test
@@ -95,7 +107,169 @@ public class CrawlControllerITTest {
                 .exchange()
                 .expectStatus().isBadRequest();
 
-        verify(crawlService, never()).startCrawlAsync(anyList(), any(CrawlType.class), anyInt(), anyInt());
+        verify(crawlService, never()).startCrawlAsync(anyList(), any(CrawlType.class), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void initiateCrawl_withNegativeLimitsOrInvertedRevisitBounds_returnsBadRequest() {
+        // Arrange
+        CrawlRequest request = CrawlRequest.builder()
+                .urls(List.of("https://example.com"))
+                .strategy(CrawlType.SINGLE_DOMAIN)
+                .maxDepth(2)
+                .maxPages(10)
+                .options(CrawlOptions.builder().maxQueryVariantsPerPath(-1)
+                        .minRevisitSeconds(7200).maxRevisitSeconds(3600).build())
+                .build();
+
+        // Act & Assert
+        webTestClient
+                .post()
+                .uri(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(request))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors['options.maxQueryVariantsPerPath']").isEqualTo("maxQueryVariantsPerPath cannot be negative")
+                .jsonPath("$.validationErrors['options.revisitRangeValid']").isEqualTo("minRevisitSeconds cannot exceed maxRevisitSeconds");
+
+        verify(crawlService, never()).startCrawlAsync(anyList(), any(CrawlType.class), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void initiateCrawlFromFile_streamsUploadToSeedFile() throws IOException {
+        // Arrange
+        AtomicReference<String> received = new AtomicReference<>();
+        when(crawlService.handleFileUrls(any(Path.class), eq(CrawlType.SINGLE_DOMAIN), eq(20), eq(2)))
+                .thenAnswer(invocation -> {
+                    received.set(Files.readString(invocation.getArgument(0)));
+                    return TEST_CRAWL_ID;
+                });
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", new ByteArrayResource("https://example.com\nhttps://example.org\n".getBytes()) {
+            @Override
+            public String getFilename() {
+                return "urls.txt";
+            }
+        });
+
+        // Act & Assert
+        webTestClient
+                .post()
+                .uri(uriBuilder -> uriBuilder
+                        .path(BASE_URL + "/upload")
+                        .queryParam("strategy", "SINGLE_DOMAIN")
+                        .queryParam("maxPages", "20")
+                        .queryParam("maxDepth", "2")
+                        .build())
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CrawlResponseDto.class)
+                .value(res -> {
+                    assertThat(res.getCrawlId()).isEqualTo(TEST_CRAWL_ID);
+                    assertThat(res.getStatus()).isEqualTo(CrawlStatus.RUNNING);
+                });
+
+        assertThat(received.get()).isEqualTo("https://example.com\nhttps://example.org\n");
+    }
+
+    @Test
+    void initiateCrawlFromFile_overDiskLimit_returnsPayloadTooLarge() {
+        // Arrange
+        byte[] seeds = "https://example.com/page\n".repeat(400).getBytes();
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", new ByteArrayResource(seeds) {
+            @Override
+            public String getFilename() {
+                return "urls.txt";
+            }
+        });
+
+        // Act & Assert
+        webTestClient
+                .post()
+                .uri(uriBuilder -> uriBuilder
+                        .path(BASE_URL + "/upload")
+                        .queryParam("strategy", "SINGLE_DOMAIN")
+                        .build())
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().isEqualTo(413)
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getError()).isEqualTo("File Too Large"));
+
+        verifyNoInteractions(crawlService);
+    }
+
+    @Test
+    void initiateCrawlFromFile_justOverDiskLimit_namesLimitAndSuggestsGzip() {
+        // Arrange: 164 lines of 25 bytes is 4100 bytes, 4 over the 4KB cap
+        byte[] seeds = "https://example.com/page\n".repeat(164).getBytes();
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", new ByteArrayResource(seeds) {
+            @Override
+            public String getFilename() {
+                return "urls.txt";
+            }
+        });
+
+        // Act & Assert
+        webTestClient
+                .post()
+                .uri(uriBuilder -> uriBuilder
+                        .path(BASE_URL + "/upload")
+                        .queryParam("strategy", "SINGLE_DOMAIN")
+                        .build())
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().isEqualTo(413)
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getMessage())
+                        .contains("4KB", "spring.webflux.multipart.max-disk-usage-per-part", "gzip"));
+
+        verifyNoInteractions(crawlService);
+    }
+
+    @Test
+    void initiateCrawlFromFile_gzipOfSeedsOverDiskLimit_isAccepted() throws IOException {
+        // Arrange: the same 10000 bytes of URLs that are rejected as plain text fit once compressed
+        byte[] plain = "https://example.com/page\n".repeat(400).getBytes();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(plain);
+        }
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        when(crawlService.handleFileUrls(any(Path.class), eq(CrawlType.SINGLE_DOMAIN), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    received.set(Files.readAllBytes(invocation.getArgument(0)));
+                    return TEST_CRAWL_ID;
+                });
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", new ByteArrayResource(compressed.toByteArray()) {
+            @Override
+            public String getFilename() {
+                return "urls.txt.gz";
+            }
+        });
+
+        // Act & Assert
+        webTestClient
+                .post()
+                .uri(uriBuilder -> uriBuilder
+                        .path(BASE_URL + "/upload")
+                        .queryParam("strategy", "SINGLE_DOMAIN")
+                        .build())
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(received.get()).isEqualTo(compressed.toByteArray());
     }
 
     @Test
@@ -153,6 +327,119 @@ public class CrawlControllerITTest {
         verify(crawlService).getCrawlStatusDto(nonExistentId);
     }
 
+    @Test
+    void getCrawlStatus_finishedCrawl_servesCachedBytesWithEtag() throws IOException {
+        // Arrange
+        String crawlId = "finished-crawl-1";
+        CrawlStatusDto statusDto = CrawlStatusDto.builder()
+                .crawlId(crawlId)
+                .status(CrawlStatus.COMPLETED)
+                .processedPages(42)
+                .results(Map.of("https://example.com", List.of("https://example.com/a")))
+                .build();
+
+        when(crawlService.isFinished(crawlId)).thenReturn(true);
+        when(crawlService.getCrawlStatusDto(crawlId)).thenReturn(statusDto);
+
+        // Act & Assert - first read serializes, later reads are served from the cache
+        String etag = webTestClient
+                .get()
+                .uri(BASE_URL + "/{crawlId}/status", crawlId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(CrawlStatusDto.class)
+                .value(res -> {
+                    assertThat(res.getStatus()).isEqualTo(CrawlStatus.COMPLETED);
+                    assertThat(res.getProcessedPages()).isEqualTo(42);
+                })
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        assertThat(etag).startsWith("\"").doesNotStartWith("W/");
+
+        webTestClient
+                .get()
+                .uri(BASE_URL + "/{crawlId}/status", crawlId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
+
+        byte[] gzipped = webTestClient
+                .get()
+                .uri(BASE_URL + "/{crawlId}/status", crawlId)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().value(HttpHeaders.ETAG, gzipEtag -> assertThat(gzipEtag).isNotEqualTo(etag))
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(objectMapper.readValue(json, CrawlStatusDto.class).getResults())
+                    .containsKey("https://example.com");
+        }
+
+        verify(crawlService, times(1)).getCrawlStatusDto(crawlId);
+    }
+
+    @Test
+    void getCrawlStatus_peerStillRunning_isNotCached() {
+        // Arrange
+        String crawlId = "finished-locally-1";
+        CrawlStatusDto statusDto = CrawlStatusDto.builder()
+                .crawlId(crawlId)
+                .status(CrawlStatus.RUNNING)
+                .running(true)
+                .build();
+
+        when(crawlService.isFinished(crawlId)).thenReturn(true);
+        when(crawlService.getCrawlStatusDto(crawlId)).thenReturn(statusDto);
+
+        // Act & Assert
+        for (int i = 0; i < 2; i++) {
+            webTestClient
+                    .get()
+                    .uri(BASE_URL + "/{crawlId}/status", crawlId)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                    .expectBody(CrawlStatusDto.class)
+                    .value(res -> assertThat(res.isRunning()).isTrue());
+        }
+    }
+
+    @Test
+    void getCrawlStatus_peerUnreachable_isNotCached() {
+        // Arrange
+        String crawlId = "finished-partial-1";
+        CrawlStatusDto statusDto = CrawlStatusDto.builder()
+                .crawlId(crawlId)
+                .status(CrawlStatus.COMPLETED)
+                .unreachableNodes(List.of("http://node-b:8080"))
+                .build();
+
+        when(crawlService.isFinished(crawlId)).thenReturn(true);
+        when(crawlService.getCrawlStatusDto(crawlId)).thenReturn(statusDto);
+
+        // Act & Assert
+        for (int i = 0; i < 2; i++) {
+            webTestClient
+                    .get()
+                    .uri(BASE_URL + "/{crawlId}/status", crawlId)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                    .expectBody(CrawlStatusDto.class)
+                    .value(res -> assertThat(res.getUnreachableNodes()).containsExactly("http://node-b:8080"));
+        }
+    }
+
     @Test
     void stopCrawl_returnsStoppedStatus() {
         // Arrange
@@ -228,6 +515,54 @@ public class CrawlControllerITTest {
         verify(crawlService).getCrawlHistory(0, 10, Optional.empty());
     }
 
+    @Test
+    void getCrawlHistory_leavesDecodedResultsOut() {
+        // Arrange
+        CrawlResult result = createMockCrawlResult("crawl-1", CrawlStatus.COMPLETED);
+        result.setVisitedUrls(List.of("https://example.com"));
+        result.setCrawlResults(Map.of("https://example.com", List.of("https://example.com/a")));
+
+        when(crawlService.getCrawlHistory(0, 10, Optional.empty())).thenReturn(List.of(result));
+
+        // Act & Assert
+        webTestClient
+                .get()
+                .uri(BASE_URL + "/history")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].crawlId").isEqualTo("crawl-1")
+                .jsonPath("$[0].visitedUrls").doesNotExist()
+                .jsonPath("$[0].crawlResults").doesNotExist()
+                .jsonPath("$[0].extractedFields").doesNotExist();
+    }
+
+    @Test
+    void getResults_returnsRequestedPage() {
+        // Arrange
+        CrawlResultsPageDto page = CrawlResultsPageDto.builder()
+                .crawlId(TEST_CRAWL_ID)
+                .page(2)
+                .size(50)
+                .crawledPages(500)
+                .results(Map.of("https://example.com", List.of("https://example.com/a")))
+                .build();
+
+        when(crawlService.getResults(TEST_CRAWL_ID, 2, 50)).thenReturn(page);
+
+        // Act & Assert
+        webTestClient
+                .get()
+                .uri(BASE_URL + "/{crawlId}/results?page=2&size=50", TEST_CRAWL_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CrawlResultsPageDto.class)
+                .value(res -> {
+                    assertThat(res.getCrawledPages()).isEqualTo(500);
+                    assertThat(res.getResults()).containsKey("https://example.com");
+                });
+    }
+
     @Test
     void getCrawlHistory_withCustomParams_returnsFilteredHistory() {
         // Arrange
@@ -286,7 +621,7 @@ public class CrawlControllerITTest {
                 .maxPages(5)
                 .build();
 
-        when(crawlService.startCrawlAsync(anyList(), any(CrawlType.class), anyInt(), anyInt()))
+        when(crawlService.startCrawlAsync(anyList(), any(CrawlType.class), anyInt(), anyInt(), any()))
                 .thenReturn(TEST_CRAWL_ID);
 
         CrawlStatusDto runningStatus = CrawlStatusDto.builder()
@@ -352,6 +687,18 @@ public class CrawlControllerITTest {
                 .value(res -> assertThat(res.getStatus()).isEqualTo(CrawlStatus.NOT_FOUND));
     }
 
+    @Test
+    void listRecordings_profilingDisabledByDefault_returnsNotFound() {
+        // Act & Assert
+        webTestClient
+                .get()
+                .uri("/api/v1/admin/recordings")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getMessage()).isEqualTo("Profiling is disabled"));
+    }
+
     @Test
     void testInvalidPathParameters_handleGracefully() {
         // Test with invalid crawl ID
@@ -1,7 +1,21 @@
 package com.web.crawler.manager;
 
+import com.web.crawler.fetch.FetchOutcome;
+import com.web.crawler.fetch.FetchedPage;
+import com.web.crawler.frontier.FrontierEntry;
+import com.web.crawler.memory.MemoryBudget;
+import com.web.crawler.memory.MemoryProperties;
+import com.web.crawler.model.CrawlOptions;
+import com.web.crawler.model.HostFailureStats;
+import com.web.crawler.model.MemoryStats;
+import com.web.crawler.model.RecrawlStats;
+import com.web.crawler.model.ScopeMode;
+import com.web.crawler.seed.SeedLoader;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -45,6 +59,190 @@ class SingleDomainCrawlManagerTest {
         assertTrue((Integer) status.get("queueSize") > 0 || (Integer) status.get("visitedUrlsCount") > 0);
     }
 
+    @Test
+    void testEnqueueAllDeduplicatesWithinBatch() {
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 10, 2, 10);
+
+        manager.enqueueAll(List.of("https://monzo.com/page1", "https://monzo.com/page1/",
+                "https://monzo.com/page1#top", "https://otherdomain.com/page1"), 1);
+        Map<String, Object> status = manager.getStatus();
+
+        assertEquals(2, status.get("visitedUrlsCount"));
+        assertEquals(2, status.get("queueSize"));
+    }
+
+    @Test
+    void testDomainScopeAdmitsSubdomainsOfSeedDomain() {
+        var options = CrawlOptions.builder().scope(ScopeMode.DOMAIN).build();
+        var manager = new SingleDomainCrawlManager(List.of("https://www.monzo.com"), 10, 2, 10, options, UrlRouter.LOCAL);
+
+        manager.enqueueAll(List.of("https://monzo.com/a", "https://web.monzo.com/b", "https://monzo.co.uk/c"), 1);
+        Map<String, Object> status = manager.getStatus();
+
+        // The seed and the two links under monzo.com
+        assertEquals(3, status.get("visitedUrlsCount"));
+        assertEquals(List.of("monzo.com"), status.get("domains"));
+    }
+
+    @Test
+    void testEnqueueLinksTurnsAwayCrawlTraps() {
+        var options = CrawlOptions.builder().maxUrlsPerPathPattern(5).build();
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 100, 3, 10, options, UrlRouter.LOCAL);
+        List<String> days = new ArrayList<>();
+        for (int day = 1; day <= 20; day++) {
+            days.add("https://monzo.com/calendar/2024/01/" + day);
+        }
+        days.add("https://monzo.com/about?utm_campaign=spring");
+
+        List<String> kept = manager.enqueueLinks(FrontierEntry.seed("https://monzo.com", 0), days);
+
+        assertEquals(6, kept.size());
+        assertTrue(kept.contains("https://monzo.com/about"));
+        Map<String, Object> status = manager.getStatus();
+        assertEquals(7, status.get("visitedUrlsCount"));
+        assertEquals(Map.of("PATTERN_LIMIT", 15L), status.get("trapRejections"));
+        assertEquals(Map.of("PATTERN_LIMIT", List.of("https://monzo.com/calendar/2024/01/6")), status.get("trapRejectedUrls"));
+    }
+
+    @Test
+    void testFullFrontierSpillsToDisk(@TempDir Path spillDirectory) {
+        MemoryProperties properties = new MemoryProperties();
+        properties.setSpillDirectory(spillDirectory.toString());
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 2, 2, 10,
+                CrawlOptions.defaults(), UrlRouter.LOCAL, withMemory(properties));
+        List<String> links = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            links.add("https://monzo.com/page" + i);
+        }
+
+        assertEquals(10, manager.enqueueLinks(FrontierEntry.seed("https://monzo.com", 0), links).size());
+
+        Map<String, Object> status = manager.getStatus();
+        MemoryStats memory = (MemoryStats) status.get("memory");
+        assertEquals(4, memory.getFrontierCapacity());
+        assertEquals(7, memory.getSpilledEntries());
+        assertEquals(11, status.get("queueSize"));
+    }
+
+    @Test
+    void testExhaustedBudgetDropsNewUrlsAndLinkLists() {
+        MemoryProperties properties = new MemoryProperties();
+        properties.setMaxCrawlBytes(1);
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 100, 3, 10,
+                CrawlOptions.defaults(), UrlRouter.LOCAL, withMemory(properties));
+        FrontierEntry seed = FrontierEntry.seed("https://monzo.com", 0);
+        manager.recordCrawlResult("https://monzo.com", List.of("https://monzo.com/about"));
+
+        List<String> kept = manager.enqueueLinks(seed, List.of("https://monzo.com", "https://monzo.com/new"));
+        manager.recordCrawlResult("https://monzo.com/jobs", List.of("https://monzo.com/about"));
+
+        assertEquals(List.of("https://monzo.com"), kept);
+        Map<String, Object> status = manager.getStatus();
+        MemoryStats memory = (MemoryStats) status.get("memory");
+        assertEquals(1, memory.getDroppedUrls());
+        assertEquals(2, memory.getDroppedLinkLists());
+        assertEquals(2, status.get("processedPages"));
+        assertEquals(Map.of("https://monzo.com", List.of(), "https://monzo.com/jobs", List.of()),
+                status.get("results"));
+    }
+
+    @Test
+    void testFinishedCrawlReturnsItsShareOfTheBudget() {
+        MemoryProperties properties = new MemoryProperties();
+        properties.setHeapFraction(256.0 * 1024 / Runtime.getRuntime().maxMemory());
+        CrawlResources resources = withMemory(properties);
+        List<String> links = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            links.add("https://monzo.com/page" + i);
+        }
+
+        var first = new SingleDomainCrawlManager(List.of("https://monzo.com"), 1, 2, 10,
+                CrawlOptions.defaults(), UrlRouter.LOCAL, resources);
+        long fullBudget = ((MemoryStats) first.getStatus().get("memory")).getBudgetBytes();
+        first.enqueueLinks(FrontierEntry.seed("https://monzo.com", 0), links);
+        // Its one page is already crawled, so start() finishes without fetching
+        first.recordCrawlResult("https://monzo.com", List.of());
+        first.start();
+        assertTrue(((MemoryStats) first.getStatus().get("memory")).getVisitedBytes() > 0);
+
+        var second = new SingleDomainCrawlManager(List.of("https://monzo.com"), 100, 2, 10,
+                CrawlOptions.defaults(), UrlRouter.LOCAL, resources);
+        List<String> kept = second.enqueueLinks(FrontierEntry.seed("https://monzo.com", 0), links.subList(0, 50));
+
+        assertEquals(fullBudget, ((MemoryStats) second.getStatus().get("memory")).getBudgetBytes());
+        assertEquals(50, kept.size());
+        assertEquals(0, ((MemoryStats) second.getStatus().get("memory")).getDroppedUrls());
+    }
+
+    @Test
+    void testEnqueueAllForwardsUrlsOwnedByOtherNodes() {
+        List<String> forwarded = new ArrayList<>();
+        UrlRouter router = new UrlRouter() {
+            @Override
+            public boolean isLocal(String url) {
+                return url.startsWith("https://monzo.com");
+            }
+
+            @Override
+            public void forwardAll(List<String> urls, int depth) {
+                forwarded.addAll(urls);
+            }
+        };
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com", "https://example.com"),
+                10, 2, 10, CrawlOptions.defaults(), router);
+
+        manager.enqueueAll(List.of("https://monzo.com/page1", "https://example.com/page1"), 1);
+        Map<String, Object> status = manager.getStatus();
+
+        assertEquals(List.of("https://example.com/page1"), forwarded);
+        assertEquals(2, status.get("visitedUrlsCount"));
+        assertEquals(2, status.get("queueSize"));
+    }
+
+    @Test
+    void testAddSeedsExtendsScope() throws Exception {
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 10, 2, 10);
+
+        manager.enqueueUrl("https://example.com/before", 1);
+        assertTrue(manager.addSeeds(SeedLoader.validate(List.of("https://example.com/"))));
+        manager.enqueueUrl("https://example.com/after", 1);
+
+        Map<String, Object> status = manager.getStatus();
+        assertEquals(3, status.get("visitedUrlsCount"));
+        assertTrue(((List<?>) status.get("domains")).contains("example.com"));
+    }
+
+    @Test
+    void testRecordFetchRequeuesTransientFailures() {
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 10, 2, 10);
+        FrontierEntry entry = new FrontierEntry("https://monzo.com/busy", 1, 5, 0);
+
+        assertTrue(manager.recordFetch(entry, FetchedPage.httpError(List.of(), 503, 0)));
+        assertFalse(manager.recordFetch(entry, FetchedPage.httpError(List.of(), 404, -1)));
+
+        Map<String, Object> status = manager.getStatus();
+        assertEquals(2, status.get("queueSize"));
+        HostFailureStats stats = ((Map<String, HostFailureStats>) status.get("hostFailures")).get("monzo.com");
+        assertEquals(1, stats.getFailures());
+        assertEquals(1, stats.getRetries());
+    }
+
+    @Test
+    void testContinuousCrawlSchedulesRevisits() {
+        var options = CrawlOptions.builder().continuous(true).initialRevisitSeconds(600).minRevisitSeconds(60).build();
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 1, 2, 10, options, UrlRouter.LOCAL);
+        FrontierEntry entry = FrontierEntry.seed("https://monzo.com", 0);
+
+        assertFalse(manager.recordFetch(entry, new FetchedPage(List.of(), FetchOutcome.OK, 10, 10, 42)));
+        manager.recordCrawlResult(entry.url(), List.of());
+        manager.enqueueLinks(entry, List.of("https://monzo.com/about"));
+
+        Map<String, Object> status = manager.getStatus();
+        assertEquals(2, status.get("queueSize"));
+        assertEquals(600, ((RecrawlStats) status.get("recrawl")).getMeanRevisitSeconds());
+        assertEquals(1, status.get("visitedUrlsCount"));
+    }
+
     @Test
     void testStartAndStopCrawl() throws Exception {
         var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 5, 1,10);
@@ -110,4 +308,10 @@ class SingleDomainCrawlManagerTest {
         assertTrue(status.containsKey("domains"));
         assertTrue(status.containsKey("resultsCount"));
     }
+
+    private static CrawlResources withMemory(MemoryProperties properties) {
+        CrawlResources defaults = CrawlResources.defaults();
+        return new CrawlResources(defaults.http(), new MemoryBudget(properties), defaults.suffixes(),
+                defaults.archive(), defaults.search());
+    }
 }
@@ -0,0 +1,53 @@
+package com.web.crawler.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryBudgetTest {
+
+    @Test
+    void testCrawlsShareTheGlobalBudget() {
+        MemoryProperties properties = new MemoryProperties();
+        properties.setHeapFraction(0.5);
+        properties.setMaxCrawlBytes(400);
+        MemoryBudget budget = new MemoryBudget(properties, 1000, () -> 0);
+
+        CrawlMemory first = budget.register(new Object());
+        CrawlMemory second = budget.register(new Object());
+        assertEquals(400, first.allowanceBytes());
+        assertEquals(80, first.frontierLimitBytes());
+
+        first.update(50, 100, 150);
+        second.update(0, 50, 0);
+        assertEquals(200, second.allowanceBytes());
+        assertFalse(second.visitedExhausted());
+
+        first.update(50, 100, 170);
+        assertTrue(first.resultsExhausted());
+        assertFalse(first.visitedExhausted());
+
+        first.close();
+        second.update(0, 50, 0);
+        assertEquals(400, second.allowanceBytes());
+    }
+
+    @Test
+    void testHeapPressureExhaustsEverything() {
+        AtomicLong liveHeap = new AtomicLong(100);
+        MemoryBudget budget = new MemoryBudget(new MemoryProperties(), 1000, liveHeap::get);
+        CrawlMemory crawl = budget.register(new Object());
+
+        crawl.update(0, 10, 10);
+        assertFalse(crawl.underPressure());
+        assertFalse(crawl.visitedExhausted());
+
+        liveHeap.set(900);
+        crawl.update(0, 10, 10);
+        assertTrue(crawl.underPressure());
+        assertTrue(crawl.visitedExhausted());
+        assertTrue(crawl.resultsExhausted());
+    }
+}
@@ -0,0 +1,96 @@
+package com.web.crawler.profiling;
+
+import com.web.crawler.frontier.FrontierEntry;
+import com.web.crawler.manager.SingleDomainCrawlManager;
+import com.web.crawler.model.RecordingDto;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingServiceTest {
+
+    private final RecordingService service = new RecordingService();
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void testRecordsCrawlEventsWithCrawlId() throws Exception {
+        var manager = new SingleDomainCrawlManager(List.of("https://monzo.com"), 10, 2, 10);
+        manager.setCrawlId("crawl-1");
+        FrontierEntry parent = new FrontierEntry("https://monzo.com", 0, 0, FrontierEntry.NO_PARENT);
+
+        RecordingDto started = service.start("default", 16, null);
+        List<String> inScope = manager.enqueueLinks(parent,
+                List.of("https://monzo.com/a", "https://monzo.com/b", "https://monzo.com/a", "https://other.com/"));
+        manager.recordCrawlResult("https://monzo.com", inScope);
+        RecordingDto stopped = service.stop(started.getId());
+
+        Path file = service.dump(started.getId());
+        List<RecordedEvent> events;
+        try {
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+        Map<String, RecordedEvent> crawlEvents = events.stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.web.crawler."))
+                .collect(Collectors.toMap(event -> event.getEventType().getName(), event -> event, (a, b) -> a));
+
+        assertEquals("RUNNING", started.getState());
+        assertEquals("STOPPED", stopped.getState());
+        RecordedEvent enqueue = crawlEvents.get("com.web.crawler.Enqueue");
+        assertEquals("crawl-1", enqueue.getString("crawlId"));
+        assertEquals("monzo.com", enqueue.getString("host"));
+        assertEquals(4, enqueue.getInt("links"));
+        assertEquals(2, enqueue.getInt("inScope"));
+        RecordedEvent dedup = crawlEvents.get("com.web.crawler.Dedup");
+        assertEquals(2, dedup.getInt("fresh"));
+        RecordedEvent save = crawlEvents.get("com.web.crawler.Save");
+        assertEquals("https://monzo.com", save.getString("url"));
+        assertEquals(2, save.getInt("links"));
+    }
+
+    @Test
+    void testRejectsSecondRunningRecordingAndUnknownSettings() {
+        RecordingDto first = service.start("default", 16, null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.start("default", 16, null));
+        service.stop(first.getId());
+        assertThrows(IllegalArgumentException.class, () -> service.start("no-such-settings", 16, null));
+        service.delete(first.getId());
+        assertTrue(service.list().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.stop(first.getId()));
+    }
+
+    @Test
+    void testLeavesOutEnvironmentAndSystemProperties() throws Exception {
+        RecordingDto started = service.start("profile", 16, null);
+        service.stop(started.getId());
+
+        Path file = service.dump(started.getId());
+        List<String> eventNames;
+        try {
+            eventNames = RecordingFile.readAllEvents(file).stream()
+                    .map(event -> event.getEventType().getName())
+                    .toList();
+        } finally {
+            Files.delete(file);
+        }
+
+        assertFalse(eventNames.isEmpty());
+        assertFalse(eventNames.contains("jdk.InitialEnvironmentVariable"));
+        assertFalse(eventNames.contains("jdk.InitialSystemProperty"));
+    }
+}
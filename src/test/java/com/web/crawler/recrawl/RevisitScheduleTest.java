@@ -0,0 +1,49 @@
+package com.web.crawler.recrawl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevisitScheduleTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final RevisitSchedule schedule = new RevisitSchedule(100, 10, 1000, clock::get);
+
+    @Test
+    void testUnchangedPagesBackOffUpToMax() {
+        assertEquals(100_000, schedule.recordFetch(3, 42));
+
+        long delay = 0;
+        for (int visit = 0; visit < 6; visit++) {
+            clock.addAndGet(TimeUnit.SECONDS.toMillis(schedule.intervalSeconds(3)));
+            delay = schedule.recordFetch(3, visit == 0 ? 0 : 42);
+            if (visit == 0) {
+                assertEquals(200_000, delay);
+            }
+        }
+
+        assertEquals(1_000_000, delay);
+        assertEquals(6, schedule.revisits());
+        assertEquals(0, schedule.changedRevisits());
+    }
+
+    @Test
+    void testFrequentlyChangingPagesAreRevisitedSooner() {
+        schedule.recordFetch(0, 1);
+        for (int visit = 2; visit <= 8; visit++) {
+            clock.addAndGet(TimeUnit.SECONDS.toMillis(schedule.intervalSeconds(0)));
+            schedule.recordFetch(0, visit);
+        }
+
+        assertTrue(schedule.intervalSeconds(0) < 50, "interval " + schedule.intervalSeconds(0));
+        assertEquals(7, schedule.changedRevisits());
+    }
+
+    @Test
+    void testRejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new RevisitSchedule(100, 50, 10, clock::get));
+    }
+}
@@ -0,0 +1,31 @@
+package com.web.crawler.repository;
+
+import com.web.crawler.model.CrawlResult;
+import com.web.crawler.model.CrawlStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCrawlRepositoryTest {
+
+    @Test
+    void testHistoryEvictsOldestFinishedCrawls() {
+        InMemoryCrawlRepository repository = new InMemoryCrawlRepository();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        repository.save(crawl("running", CrawlStatus.RUNNING, start.minusDays(1)));
+        for (int i = 0; i < 100; i++) {
+            repository.save(crawl("crawl-" + i, CrawlStatus.COMPLETED, start.plusMinutes(i)));
+        }
+
+        assertTrue(repository.existsById("running"));
+        assertFalse(repository.existsById("crawl-0"));
+        assertTrue(repository.existsById("crawl-1"));
+        assertTrue(repository.existsById("crawl-99"));
+    }
+
+    private static CrawlResult crawl(String crawlId, CrawlStatus status, LocalDateTime startTime) {
+        return CrawlResult.builder().crawlId(crawlId).status(status).startTime(startTime).build();
+    }
+}
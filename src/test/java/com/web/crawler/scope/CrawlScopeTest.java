@@ -0,0 +1,73 @@
+package com.web.crawler.scope;
+
+import com.web.crawler.model.CrawlOptions;
+import com.web.crawler.model.ScopeMode;
+import com.web.crawler.util.UrlUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlScopeTest {
+
+    @Test
+    void testHostScopeIgnoresLeadingWww() {
+        CrawlScope scope = CrawlScope.of(CrawlOptions.defaults(), List.of("example.co.uk"), PublicSuffixList.bundled());
+
+        assertTrue(scope.contains("https://example.co.uk/a"));
+        assertTrue(scope.contains("https://WWW.Example.co.uk:8443/a?b#c"));
+        assertFalse(scope.contains("https://blog.example.co.uk/"));
+        assertFalse(scope.contains("https://other.co.uk/"));
+        assertEquals(Set.of("example.co.uk"), scope.domains());
+    }
+
+    @Test
+    void testDomainScopeFollowsSubdomainsOfRegistrableDomain() {
+        CrawlOptions options = CrawlOptions.builder().scope(ScopeMode.DOMAIN).build();
+        CrawlScope scope = CrawlScope.of(options, List.of("shop.example.co.uk"), PublicSuffixList.bundled());
+
+        assertTrue(scope.contains("https://example.co.uk/"));
+        assertTrue(scope.contains("https://blog.example.co.uk/post"));
+        assertFalse(scope.contains("https://example.com/"));
+        assertFalse(scope.contains("https://co.uk/"));
+        assertEquals(Set.of("example.co.uk"), scope.domains());
+
+        scope.addSeedDomains(List.of("alice.github.io"));
+        assertTrue(scope.contains("https://docs.alice.github.io/"));
+        assertFalse(scope.contains("https://bob.github.io/"));
+    }
+
+    @Test
+    void testHostListScopeIgnoresSeedDomains() {
+        CrawlOptions options = CrawlOptions.builder()
+                .scope(ScopeMode.HOST_LIST)
+                .scopeHosts(List.of("docs.example.com", " API.example.com "))
+                .build();
+        CrawlScope scope = CrawlScope.of(options, List.of("example.com"), PublicSuffixList.bundled());
+        scope.addSeedDomains(List.of("example.org"));
+
+        assertTrue(scope.contains("https://docs.example.com/"));
+        assertTrue(scope.contains("https://api.example.com/v1"));
+        assertFalse(scope.contains("https://example.com/"));
+        assertFalse(scope.contains("https://example.org/"));
+    }
+
+    @Test
+    void testHostListScopeNeedsHosts() {
+        CrawlOptions options = CrawlOptions.builder().scope(ScopeMode.HOST_LIST).build();
+
+        assertThrows(IllegalArgumentException.class, () -> CrawlScope.of(options, List.of("example.com"), PublicSuffixList.bundled()));
+    }
+
+    @Test
+    void testHostIsReadFromTheUrlString() {
+        assertEquals("example.com", UrlUtils.host("https://user:pw@Example.COM:8080/a@b?q=1"));
+        assertEquals("example.com", UrlUtils.host("http://example.com?q"));
+        assertEquals("[::1]", UrlUtils.host("http://[::1]:8080/"));
+        assertNull(UrlUtils.host("mailto:someone@example.com"));
+        assertNull(UrlUtils.host("https:///path"));
+        assertNull(UrlUtils.host("https://exa mple.com/"));
+    }
+}
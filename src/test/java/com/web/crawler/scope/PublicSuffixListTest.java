@@ -0,0 +1,59 @@
+package com.web.crawler.scope;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicSuffixListTest {
+
+    @Test
+    void testRulesWildcardsAndExceptions() throws Exception {
+        PublicSuffixList list = PublicSuffixList.parse(new StringReader("""
+                // comment
+                com
+                uk
+                co.uk
+                *.ck
+                !www.ck
+                *.kawasaki.jp
+                !city.kawasaki.jp
+                """));
+
+        assertEquals(7, list.size());
+        assertEquals("example.com", list.registrableDomain("www.example.com"));
+        assertEquals("example.co.uk", list.registrableDomain("a.b.example.co.uk"));
+        assertEquals("b.a.ck", list.registrableDomain("c.b.a.ck"));
+        assertEquals("www.ck", list.registrableDomain("www.ck"));
+        assertEquals("city.kawasaki.jp", list.registrableDomain("a.city.kawasaki.jp"));
+        assertEquals("x.other.kawasaki.jp", list.registrableDomain("x.other.kawasaki.jp"));
+        // No rule: the last label is the public suffix
+        assertEquals("example.test", list.registrableDomain("deep.example.test"));
+    }
+
+    @Test
+    void testPublicSuffixesAndIpLiteralsHaveNoRegistrableDomain() throws Exception {
+        PublicSuffixList list = PublicSuffixList.parse(new StringReader("co.uk\n*.ck\n"));
+
+        assertNull(list.registrableDomain("co.uk"));
+        assertNull(list.registrableDomain("uk"));
+        assertNull(list.registrableDomain("a.ck"));
+        assertNull(list.registrableDomain("127.0.0.1"));
+        assertNull(list.registrableDomain("[::1]"));
+        assertNull(list.registrableDomain(""));
+        assertEquals(-1, list.registrableStart(null));
+    }
+
+    @Test
+    void testBundledList() {
+        PublicSuffixList list = PublicSuffixList.bundled();
+
+        assertTrue(list.size() > 5000);
+        assertEquals("bbc.co.uk", list.registrableDomain("www.bbc.co.uk"));
+        assertEquals("monzo.com", list.registrableDomain("web.monzo.com"));
+        // Private-section suffixes give each tenant its own registrable domain
+        assertEquals("someone.github.io", list.registrableDomain("docs.someone.github.io"));
+        assertEquals("xn--85x722f.xn--55qx5d.cn", list.registrableDomain("www.xn--85x722f.xn--55qx5d.cn"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.web.crawler.search;
+
+import com.web.crawler.graph.UrlIdDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRanksAcrossFlushedAndMergedSegments() throws IOException {
+        UrlIdDictionary dictionary = new UrlIdDictionary();
+        // Every page fills a buffer, so each is flushed and pairs of segments are merged
+        SearchIndex index = new SearchIndex(dictionary, directory, 1, 2, 1000);
+
+        add(index, "https://monzo.com/savings", "Savings pots: save money, savings interest, SAVINGS goals");
+        add(index, "https://monzo.com/loans", "Personal loans and money advice");
+        add(index, "https://monzo.com/blog", "Blog posts about money, budgeting and savings");
+        add(index, "https://monzo.com/about", "About the company");
+
+        SearchIndex.TopHits hits = index.search("Savings", 10);
+
+        assertEquals(2, hits.totalHits());
+        assertEquals(List.of("https://monzo.com/savings", "https://monzo.com/blog"), urls(dictionary, hits));
+        assertEquals(3, index.search("money", 2).totalHits());
+        assertEquals(2, index.search("money", 2).hits().size());
+        assertEquals(0, index.search("mortgage", 10).totalHits());
+        assertEquals(4, index.pageCount());
+        // Four flushed segments merged into one, plus the empty buffer
+        assertEquals(2, index.segmentCount());
+        assertEquals(1, segmentFiles());
+        assertThrows(IllegalArgumentException.class, () -> index.search(" -- ", 10));
+
+        index.close();
+        assertEquals(0, segmentFiles());
+    }
+
+    @Test
+    void testReindexedPageReplacesEarlierVersion() {
+        UrlIdDictionary dictionary = new UrlIdDictionary();
+        SearchIndex index = new SearchIndex(dictionary, directory, 1 << 20, 2, 1000);
+
+        add(index, "https://monzo.com/news", "old headline");
+        add(index, "https://monzo.com/news", "fresh headline");
+        assertEquals(0, index.search("old", 10).totalHits());
+        assertEquals(1, index.search("headline", 10).totalHits());
+
+        SearchIndex flushing = new SearchIndex(dictionary, directory, 1, 2, 1000);
+        add(flushing, "https://monzo.com/news", "old headline");
+        add(flushing, "https://monzo.com/news", "fresh headline");
+        add(flushing, "https://monzo.com/jobs", "open roles");
+        assertEquals(0, flushing.search("old", 10).totalHits());
+        assertEquals(List.of("https://monzo.com/news"), urls(dictionary, flushing.search("headline fresh", 10)));
+        assertEquals(2, flushing.pageCount());
+        flushing.close();
+    }
+
+    @Test
+    void testTermCountsStopAtLimit() {
+        TermCounts terms = new TermCounts(3);
+        terms.add("Grüße, café-crème 2024 ignored");
+
+        assertEquals(3, terms.length());
+        assertEquals(Set.of("grüße", "café", "crème"), terms.counts().keySet());
+        assertEquals(List.of("x".repeat(TermCounts.MAX_TERM_LENGTH)), TermCounts.tokenize("x".repeat(100)));
+    }
+
+    private static void add(SearchIndex index, String url, String text) {
+        TermCounts terms = index.newPage();
+        terms.add(text);
+        index.add(url, terms);
+    }
+
+    private static List<String> urls(UrlIdDictionary dictionary, SearchIndex.TopHits hits) {
+        return hits.hits().stream().map(hit -> dictionary.urlOf(hit.id())).toList();
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.toString().endsWith(".idx")).count();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.web.crawler.seed;
+
+import com.web.crawler.model.SeedLoadReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStreamsGzipFileInOrderAndReportsRejectedLines() throws Exception {
+        Path file = tempDir.resolve("seeds.txt.gz");
+        int urlCount = SeedLoader.CHUNK_LINES * 3 + 17;
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)),
+                StandardCharsets.UTF_8)) {
+            writer.write("# seed list\n\n");
+            for (int i = 0; i < urlCount; i++) {
+                writer.write("https://www.site" + (i % 5) + ".com/page" + i + "#frag\n");
+            }
+            writer.write("ftp://files.example.com/x\n");
+            writer.write("not a url\n");
+        }
+
+        List<String> urls = new ArrayList<>();
+        SeedLoadReport report;
+        try (SeedStream seeds = SeedLoader.open(file)) {
+            SeedBatch batch;
+            while ((batch = seeds.next()) != null) {
+                urls.addAll(batch.urls());
+                assertTrue(batch.domains().contains("site0.com"));
+            }
+            report = seeds.report();
+        }
+
+        assertEquals(urlCount, urls.size());
+        assertEquals("https://www.site0.com/page0", urls.get(0));
+        assertEquals("https://www.site1.com/page" + (urlCount - 1), urls.get(urlCount - 1));
+        assertEquals(urlCount + 4, report.getLinesRead());
+        assertEquals(urlCount, report.getAccepted());
+        assertEquals(2, report.getRejected());
+        assertTrue(report.isComplete());
+        assertEquals("unsupported scheme", report.getRejectedSamples().get(0).getReason());
+        assertEquals(urlCount + 4, report.getRejectedSamples().get(1).getLine());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testValidateNormalizesAndDeduplicates() {
+        SeedBatch batch = SeedLoader.validate(List.of("https://monzo.com/about/", "https://monzo.com/about#team",
+                "mailto:someone@monzo.com", " https://WWW.Example.org "));
+
+        assertEquals(List.of("https://monzo.com/about", "https://WWW.Example.org"), batch.urls());
+        assertEquals(List.of("monzo.com", "example.org"), new ArrayList<>(batch.domains()));
+    }
+
+    @Test
+    void testEmptyFileYieldsNoBatches() throws Exception {
+        Path file = tempDir.resolve("empty.txt");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write("\n# nothing here\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (SeedStream seeds = SeedLoader.open(file)) {
+            assertNull(seeds.next());
+            assertEquals(0, seeds.report().getAccepted());
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.web.crawler.service;
 
+import com.web.crawler.cluster.ClusterCoordinator;
+import com.web.crawler.cluster.PeerStatuses;
+import com.web.crawler.cluster.UrlBatch;
+import com.web.crawler.cluster.UrlForwarder;
+import com.web.crawler.graph.LinkGraph;
 import com.web.crawler.manager.CrawlManager;
 import com.web.crawler.manager.CrawlManagerFactory;
+import com.web.crawler.memory.MemoryProperties;
 import com.web.crawler.model.*;
 import com.web.crawler.repository.CrawlRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.springframework.mock.web.MockMultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +36,12 @@ class CrawlServiceTest {
     @Mock
     private CrawlManager crawlManager;
 
+    @Mock
+    private ClusterCoordinator clusterCoordinator;
+
+    @Spy
+    private MemoryProperties memoryProperties = new MemoryProperties();
+
     @InjectMocks
     private CrawlService crawlService;
 
@@ -41,7 +55,7 @@ class CrawlServiceTest {
 
     @Test
     void testStartCrawlAsync() {
-        when(crawlManagerFactory.create(any(), any(), anyInt(), anyInt(), anyInt())).thenReturn(crawlManager);
+        when(crawlManagerFactory.create(any(), any(), anyInt(), anyInt(), anyInt(), any(), any())).thenReturn(crawlManager);
         String crawlId = crawlService.startCrawlAsync(urls, CrawlType.SINGLE_DOMAIN, 10, 2);
         assertNotNull(crawlId);
         verify(crawlRepository).save(any(CrawlResult.class));
@@ -75,12 +89,10 @@ class CrawlServiceTest {
     @Test
     void testHandleFileUrls() throws Exception {
         String content = "http://monzo.com\nhttp://example.org";
-        MockMultipartFile file = new MockMultipartFile(
-                "file", "urls.txt", "text/plain",
-                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))
-        );
+        Path file = Files.createTempFile("urls", ".txt");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
 
-        when(crawlManagerFactory.create(anyList(), any(), anyInt(), anyInt(), anyInt())).thenReturn(crawlManager);
+        when(crawlManagerFactory.create(anyList(), any(), anyInt(), anyInt(), anyInt(), any(), any())).thenReturn(crawlManager);
 
         String crawlId = crawlService.handleFileUrls(file, CrawlType.SINGLE_DOMAIN, 5, 1);
         assertNotNull(crawlId);
@@ -114,4 +126,106 @@ class CrawlServiceTest {
                 () -> crawlService.getCrawlStatusDto("missing"));
         assertTrue(ex.getMessage().contains("Crawl ID not found"));
     }
+
+    @Test
+    void testIsFinished() {
+        CrawlResult completed = new CrawlResult();
+        completed.setStatus(CrawlStatus.COMPLETED);
+        CrawlResult running = new CrawlResult();
+        running.setStatus(CrawlStatus.RUNNING);
+        when(crawlRepository.findById("completed")).thenReturn(Optional.of(completed));
+        when(crawlRepository.findById("running")).thenReturn(Optional.of(running));
+        when(crawlRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertTrue(crawlService.isFinished("completed"));
+        assertFalse(crawlService.isFinished("running"));
+        assertFalse(crawlService.isFinished("missing"));
+
+        // Stored as completed, but the manager is still saving its last results
+        crawlService.getActiveCrawls().put("completed", crawlManager);
+        assertFalse(crawlService.isFinished("completed"));
+    }
+
+    @Test
+    void testGetResultsPagesThroughStoredGraph() {
+        LinkGraph graph = new LinkGraph();
+        for (int i = 0; i < 3; i++) {
+            graph.addPage("https://monzo.com/page" + i, List.of("https://monzo.com/"));
+        }
+        CrawlResult result = new CrawlResult();
+        result.setCrawlId("stored-id");
+        result.setLinkGraph(graph);
+        when(crawlRepository.findById("stored-id")).thenReturn(Optional.of(result));
+
+        CrawlResultsPageDto page = crawlService.getResults("stored-id", 1, 2);
+
+        assertEquals(3, page.getCrawledPages());
+        assertEquals(List.of("https://monzo.com/page2"), new ArrayList<>(page.getResults().keySet()));
+        assertEquals(List.of("https://monzo.com/"), page.getResults().get("https://monzo.com/page2"));
+        assertThrows(IllegalArgumentException.class, () -> crawlService.getResults("stored-id", 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> crawlService.getResults("stored-id", 0, 1001));
+    }
+
+    @Test
+    void testStoppedCrawlKeepsStatusAndFinishesOnlyWhenItsRunReturns() throws Exception {
+        AtomicReference<CrawlResult> stored = new AtomicReference<>();
+        doAnswer(call -> {
+            stored.set(call.getArgument(0));
+            return null;
+        }).when(crawlRepository).save(any(CrawlResult.class));
+        when(crawlRepository.findById(anyString())).thenAnswer(call -> Optional.ofNullable(stored.get()));
+        CountDownLatch drained = new CountDownLatch(1);
+        doAnswer(call -> {
+            drained.await();
+            return null;
+        }).when(crawlManager).start();
+        when(crawlManager.isRunning()).thenReturn(true);
+        when(crawlManager.getStatus()).thenReturn(new HashMap<>(Map.of("processedPages", 3)));
+        when(crawlManagerFactory.create(any(), any(), anyInt(), anyInt(), anyInt(), any(), any())).thenReturn(crawlManager);
+
+        String crawlId = crawlService.startCrawlAsync(urls, CrawlType.SINGLE_DOMAIN, 10, 2);
+        assertTrue(crawlService.stopLocalCrawl(crawlId));
+
+        // Stored as stopped, but the workers are still draining
+        assertEquals(CrawlStatus.STOPPED, stored.get().getStatus());
+        assertFalse(crawlService.isFinished(crawlId));
+
+        drained.countDown();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!crawlService.isFinished(crawlId) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(crawlService.isFinished(crawlId));
+        assertEquals(CrawlStatus.STOPPED, stored.get().getStatus());
+    }
+
+    @Test
+    void testGetCrawlStatusDtoListsUnreachablePeers() {
+        CrawlResult result = new CrawlResult();
+        result.setCrawlId("cluster-id");
+        result.setStatus(CrawlStatus.COMPLETED);
+        result.setProcessedPages(5);
+        when(crawlRepository.findById("cluster-id")).thenReturn(Optional.of(result));
+        when(clusterCoordinator.isEnabled()).thenReturn(true);
+        CrawlStatusDto peer = CrawlStatusDto.builder().status(CrawlStatus.COMPLETED).processedPages(4).build();
+        when(clusterCoordinator.fetchPeerStatuses("cluster-id"))
+                .thenReturn(new PeerStatuses(List.of(peer), List.of("http://node-c:8080")));
+
+        CrawlStatusDto dto = crawlService.getCrawlStatusDto("cluster-id");
+
+        assertEquals(9, dto.getProcessedPages());
+        assertEquals(List.of("http://node-c:8080"), dto.getUnreachableNodes());
+    }
+
+    @Test
+    void testForwardedUrlsAreAcknowledgedAfterThePartitionRunEnded() {
+        UrlForwarder partition = mock(UrlForwarder.class);
+        when(clusterCoordinator.partition("cluster-id")).thenReturn(partition);
+
+        assertTrue(crawlService.acceptForwardedUrls("cluster-id", "http://node-b#1",
+                List.of(new UrlBatch(2, List.of("https://monzo.com/a", "https://monzo.com/b")))));
+        assertFalse(crawlService.acceptForwardedUrls("other-id", "http://node-b#2", List.of()));
+
+        verify(partition).received("http://node-b#1", 2);
+    }
 }
@@ -1,11 +1,15 @@
 package com.web.crawler.service;
 
+import com.web.crawler.fetch.FetchOutcome;
+import com.web.crawler.fetch.FetchedPage;
+import com.web.crawler.frontier.FrontierEntry;
 import com.web.crawler.manager.SingleDomainCrawlManager;
 import com.web.crawler.util.HtmlParserUtil;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.*;
 
@@ -21,12 +25,34 @@ class CrawlWorkerTest {
         SingleDomainCrawlManager mockManager = mock(SingleDomainCrawlManager.class);
 
         try (MockedStatic<HtmlParserUtil> mockedStatic = mockStatic(HtmlParserUtil.class)) {
-            mockedStatic.when(() -> HtmlParserUtil.extractLinks(url)).thenReturn(extractedLinks);
-            CrawlWorker worker = new CrawlWorker(url, depth, mockManager);
+            FetchedPage page = new FetchedPage(extractedLinks, FetchOutcome.OK, 120, 480);
+            mockedStatic.when(() -> HtmlParserUtil.fetchLinks(null, url, null, null, false)).thenReturn(page);
+            FrontierEntry entry = new FrontierEntry(url, depth, 7, 3);
+            when(mockManager.enqueueLinks(entry, extractedLinks)).thenReturn(extractedLinks);
+            CrawlWorker worker = new CrawlWorker(entry, mockManager);
             worker.run();
-            verify(mockManager).recordCrawlResult(url, extractedLinks);
-            verify(mockManager).enqueueUrl("https://monzo.com/business-banking", 2);
-            verify(mockManager).enqueueUrl("https://monzo.com/sign-up", 2);
+            verify(mockManager).recordFetch(entry, page);
+            verify(mockManager).recordCrawlResult(url, extractedLinks, Map.of());
+            verify(mockManager).enqueueLinks(entry, extractedLinks);
+            verify(mockManager, never()).enqueueUrl(any(), anyInt());
+            verify(mockManager).taskCompleted();
+        }
+    }
+
+    @Test
+    void testRun_retriedPageRecordsNoResult() {
+        String url = "https://monzo.com";
+
+        SingleDomainCrawlManager mockManager = mock(SingleDomainCrawlManager.class);
+        try (MockedStatic<HtmlParserUtil> mockedStatic = mockStatic(HtmlParserUtil.class)) {
+            FetchedPage page = FetchedPage.httpError(List.of(), 503, 2000);
+            mockedStatic.when(() -> HtmlParserUtil.fetchLinks(null, url, null, null, false)).thenReturn(page);
+            FrontierEntry entry = new FrontierEntry(url, 1, 7, 3);
+            when(mockManager.recordFetch(entry, page)).thenReturn(true);
+            CrawlWorker worker = new CrawlWorker(entry, mockManager);
+            worker.run();
+            verify(mockManager, never()).recordCrawlResult(any(), any(), any());
+            verify(mockManager, never()).enqueueLinks(any(), any());
             verify(mockManager).taskCompleted();
         }
     }
@@ -38,11 +64,11 @@ class CrawlWorkerTest {
 
         SingleDomainCrawlManager mockManager = mock(SingleDomainCrawlManager.class);
         try (MockedStatic<HtmlParserUtil> mockedStatic = mockStatic(HtmlParserUtil.class)) {
-            mockedStatic.when(() -> HtmlParserUtil.extractLinks(url)).thenThrow(new RuntimeException("Parse failure"));
-            CrawlWorker worker = new CrawlWorker(url, depth, mockManager);
+            mockedStatic.when(() -> HtmlParserUtil.fetchLinks(null, url, null, null, false)).thenThrow(new RuntimeException("Parse failure"));
+            CrawlWorker worker = new CrawlWorker(new FrontierEntry(url, depth, 7, 3), mockManager);
             worker.run();
-            verify(mockManager, never()).recordCrawlResult(any(), any());
-            verify(mockManager, never()).enqueueUrl(any(), anyInt());
+            verify(mockManager, never()).recordCrawlResult(any(), any(), any());
+            verify(mockManager, never()).enqueueLinks(any(), any());
             verify(mockManager).taskCompleted();
         }
     }
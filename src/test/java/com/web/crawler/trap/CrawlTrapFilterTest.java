@@ -0,0 +1,71 @@
+package com.web.crawler.trap;
+
+import com.web.crawler.model.CrawlOptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlTrapFilterTest {
+
+    @Test
+    void testCanonicalizeStripsTrackingParametersAndSortsTheRest() {
+        var filter = new CrawlTrapFilter(CrawlOptions.defaults(), 100);
+        String plain = "https://monzo.com/blog?page=2";
+
+        assertEquals("https://monzo.com/a?a=1&b=2",
+                filter.canonicalize("https://monzo.com/a;jsessionid=F00D?utm_source=x&b=2&UTM_medium=y&a=1"));
+        assertEquals("https://monzo.com/a", filter.canonicalize("https://monzo.com/a?fbclid=123"));
+        assertSame(plain, filter.canonicalize(plain));
+
+        var custom = new CrawlTrapFilter(CrawlOptions.builder().stripQueryParams(List.of("sort")).build(), 100);
+        assertEquals("https://monzo.com/a?utm_source=x", custom.canonicalize("https://monzo.com/a?utm_source=x&sort=asc"));
+    }
+
+    @Test
+    void testPatternLimitCollapsesDigitsAndIds() {
+        var filter = new CrawlTrapFilter(CrawlOptions.builder().maxUrlsPerPathPattern(3).build(), 100);
+
+        assertTrue(filter.admit("https://monzo.com/calendar/2024/01/01"));
+        assertTrue(filter.admit("https://monzo.com/calendar/2024/01/02"));
+        assertTrue(filter.admit("https://monzo.com/calendar/2031/12/31"));
+        assertFalse(filter.admit("https://monzo.com/calendar/1999/07/04"));
+        assertTrue(filter.admit("https://monzo.com/blog/2024/01/01"));
+
+        assertTrue(filter.admit("https://monzo.com/item/3f2504e0-4f89-11d3-9a0c-0305e82c3301"));
+        assertTrue(filter.admit("https://monzo.com/item/deadbeef42"));
+        assertTrue(filter.admit("https://monzo.com/item/a1B2c3D4e5F6g7H8i9J0k"));
+        assertFalse(filter.admit("https://monzo.com/item/00000000-0000-0000-0000-000000000000"));
+
+        assertEquals(2L, filter.rejectionCounts().get(TrapReason.PATTERN_LIMIT.name()));
+        assertEquals(Map.of(TrapReason.PATTERN_LIMIT.name(), List.of("https://monzo.com/calendar/1999/07/04",
+                "https://monzo.com/item/00000000-0000-0000-0000-000000000000")), filter.rejectedSamples());
+    }
+
+    @Test
+    void testCountLimitsAreOffByDefault() {
+        var filter = new CrawlTrapFilter(CrawlOptions.defaults(), 100);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.admit("https://monzo.com/products/" + i));
+            assertTrue(filter.admit("https://monzo.com/item?id=" + i));
+        }
+        assertTrue(filter.rejectionCounts().isEmpty());
+    }
+
+    @Test
+    void testRejectsQueryExplosionLongAndRepeatingPaths() {
+        var filter = new CrawlTrapFilter(CrawlOptions.builder().maxQueryVariantsPerPath(2).maxPathLength(40).build(), 100);
+
+        assertTrue(filter.admit("https://monzo.com/search?color=red"));
+        assertTrue(filter.admit("https://monzo.com/search?color=blue&size=m"));
+        assertEquals(TrapReason.QUERY_VARIANTS, filter.check("https://monzo.com/search?size=l"));
+        assertNull(filter.check("https://monzo.com/search"));
+
+        assertEquals(TrapReason.PATH_TOO_LONG, filter.check("https://monzo.com/" + "x".repeat(40)));
+        assertEquals(TrapReason.PATH_REPETITION, filter.check("https://monzo.com/a/b/a/b/a/b/a"));
+        assertNull(filter.check("https://monzo.com/a/b/a/b/a/b"));
+    }
+}
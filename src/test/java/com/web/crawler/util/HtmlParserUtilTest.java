@@ -0,0 +1,255 @@
+package com.web.crawler.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.web.crawler.archive.WarcExchange;
+import com.web.crawler.extract.ContentExtractor;
+import com.web.crawler.fetch.FetchOutcome;
+import com.web.crawler.fetch.FetchTiming;
+import com.web.crawler.fetch.FetchedPage;
+import com.web.crawler.fetch.HttpClientProperties;
+import com.web.crawler.fetch.SharedHttpClient;
+import com.web.crawler.graph.UrlIdDictionary;
+import com.web.crawler.model.ExtractionRule;
+import com.web.crawler.search.SearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlParserUtilTest {
+
+    private final AtomicReference<String> news = new AtomicReference<>();
+    private SharedHttpClient http;
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxBodyBytes(4096);
+        // Only testSlowTransferIsAborted checks the transfer rate, so a loaded machine cannot fail the others
+        properties.setMinTransferBytesPerSecond(0);
+        http = new SharedHttpClient(properties);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page", exchange -> respond(exchange, "text/html",
+                "<html><body><a href=\"/a\">a</a><a href=\"b\">b</a><a href=\"mailto:x@y.z\">m</a></body></html>"));
+        server.createContext("/big", exchange -> respond(exchange, "text/html; charset=utf-8",
+                "<a href=\"/first\">first</a>" + "x".repeat(10_000) + "<a href=\"/hidden\">hidden</a>"));
+        server.createContext("/gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(("<a href=\"/zipped\">z</a>" + " ".repeat(2000)).getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                compressed.writeTo(out);
+            }
+        });
+        server.createContext("/news", exchange -> respond(exchange, "text/html", news.get()));
+        server.createContext("/article", exchange -> respond(exchange, "text/html",
+                "<html><head><title>Monzo Blog</title><meta name=\"description\" content=\"Money news\"></head>"
+                        + "<body><h2>Saving <b>made</b> easy</h2><p>text</p><h2><a href=\"/budgets\">Budgets</a></h2>"
+                        + "<h2>Third</h2></body></html>"));
+        server.createContext("/busy", exchange -> {
+            exchange.getResponseHeaders().add("Retry-After", "7");
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.createContext("/file.pdf", exchange -> respond(exchange, "application/pdf", "%PDF-1.4"));
+        server.createContext("/slow", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 20; i++) {
+                    out.write("<p>drip</p>".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    Thread.sleep(100);
+                }
+            } catch (InterruptedException | IOException e) {
+                // client gave up
+            }
+        });
+        server.createContext("/late", exchange -> {
+            try {
+                Thread.sleep(150);
+                exchange.getResponseHeaders().add("Content-Type", "text/html");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write("<p>first</p>".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    Thread.sleep(100);
+                    out.write("<a href=\"/after\">after</a>".getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        http.close();
+    }
+
+    @Test
+    void testFetchLinksResolvesAndFilters() {
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/page");
+
+        assertEquals(FetchOutcome.OK, page.outcome());
+        assertEquals(List.of(baseUrl + "/a", baseUrl + "/b"), page.links());
+        assertTrue(page.allocatedBytes() > 0);
+    }
+
+    @Test
+    void testContentHashIgnoresMarkupNoise() {
+        news.set("<html><body><h1>Rates</h1><p>Savings 4.1%</p><script nonce=\"a1\">var t = 1;</script></body></html>");
+        long first = HtmlParserUtil.fetchLinks(http, baseUrl + "/news").contentHash();
+        news.set("<html>\n  <body>\n    <h1 class=\"title\">Rates</h1>\n    <p>Savings 4.1%</p>\n"
+                + "    <script nonce=\"b2\">var t = 2;</script>\n  </body>\n</html>");
+        long reformatted = HtmlParserUtil.fetchLinks(http, baseUrl + "/news").contentHash();
+        news.set("<html><body><h1>Rates</h1><p>Savings 4.3%</p></body></html>");
+        long changed = HtmlParserUtil.fetchLinks(http, baseUrl + "/news").contentHash();
+
+        assertNotEquals(0, first);
+        assertEquals(first, reformatted);
+        assertNotEquals(first, changed);
+    }
+
+    @Test
+    void testExtractsFieldsInTheLinkPass() {
+        ContentExtractor extractor = ContentExtractor.compile(List.of(
+                ExtractionRule.builder().name("title").selector("title").build(),
+                ExtractionRule.builder().name("description").selector("meta[name=description]").attribute("content").build(),
+                ExtractionRule.builder().name("headings").selector("h2").maxValues(2).build(),
+                ExtractionRule.builder().name("missing").selector("h6").build()));
+
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/article", extractor);
+
+        assertEquals(List.of(baseUrl + "/budgets"), page.links());
+        assertEquals(Map.of("title", List.of("Monzo Blog"), "description", List.of("Money news"),
+                "headings", List.of("Saving made easy", "Budgets")), page.fields());
+    }
+
+    @Test
+    void testCountsTermsForSearchIndex(@TempDir Path directory) {
+        UrlIdDictionary dictionary = new UrlIdDictionary();
+        SearchIndex index = new SearchIndex(dictionary, directory, 1 << 20, 8, 1000);
+
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/article", null, index, false);
+        index.add(baseUrl + "/article", page.terms());
+
+        assertEquals(8, page.terms().length());
+        assertEquals(1, index.search("budgets", 10).totalHits());
+        assertNull(HtmlParserUtil.fetchLinks(http, baseUrl + "/article").terms());
+    }
+
+    @Test
+    void testCapturesRawExchangeForArchive() {
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/article", null, null, true);
+
+        WarcExchange exchange = page.exchange();
+        assertEquals(baseUrl + "/article", exchange.url());
+        assertEquals(page.wireBytes(), exchange.bodyLength());
+        assertFalse(exchange.truncated());
+        assertTrue(new String(exchange.request(), StandardCharsets.ISO_8859_1).startsWith("GET /article HTTP/1.1\r\n"));
+        assertTrue(new String(exchange.responseHead(), StandardCharsets.ISO_8859_1).startsWith("HTTP/1.1 200"));
+        assertTrue(new String(exchange.body(), 0, exchange.bodyLength(), StandardCharsets.UTF_8).contains("<title>Monzo Blog</title>"));
+        assertNull(HtmlParserUtil.fetchLinks(http, baseUrl + "/article").exchange());
+    }
+
+    @Test
+    void testTimesEachPhaseOfTheFetch() {
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/late");
+        FetchTiming timing = page.timing();
+
+        assertEquals(List.of(baseUrl + "/after"), page.links());
+        assertEquals(200, timing.status());
+        assertTrue(timing.firstByteNanos() >= TimeUnit.MILLISECONDS.toNanos(140), timing::toString);
+        assertTrue(timing.downloadNanos() >= TimeUnit.MILLISECONDS.toNanos(90), timing::toString);
+        assertTrue(timing.firstByteNanos() < TimeUnit.MILLISECONDS.toNanos(240), timing::toString);
+        assertEquals(0, timing.tlsNanos());
+    }
+
+    @Test
+    void testCompressedBodyIsDecodedAndCounted() {
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/gzip");
+
+        assertEquals(FetchOutcome.OK, page.outcome());
+        assertEquals(List.of(baseUrl + "/zipped"), page.links());
+        assertTrue(page.wireBytes() < page.decodedBytes());
+        assertEquals(2023, page.decodedBytes());
+    }
+
+    @Test
+    void testOversizedBodyIsTruncatedKeepingEarlyLinks() {
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/big");
+
+        assertEquals(FetchOutcome.TRUNCATED, page.outcome());
+        assertEquals(List.of(baseUrl + "/first"), page.links());
+    }
+
+    @Test
+    void testSlowTransferIsAborted() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMinTransferGraceMs(300);
+        properties.setMinTransferBytesPerSecond(10_000);
+
+        SharedHttpClient slow = new SharedHttpClient(properties);
+
+        FetchedPage page;
+        try {
+            page = HtmlParserUtil.fetchLinks(slow, baseUrl + "/slow");
+        } finally {
+            slow.close();
+        }
+
+        assertEquals(FetchOutcome.TOO_SLOW, page.outcome());
+    }
+
+    @Test
+    void testNonHtmlIsSkipped() {
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/file.pdf");
+
+        assertEquals(FetchOutcome.NOT_HTML, page.outcome());
+        assertTrue(page.links().isEmpty());
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    void testUnavailableReportsStatusAndRetryAfter() {
+        FetchedPage page = HtmlParserUtil.fetchLinks(http, baseUrl + "/busy");
+
+        assertEquals(FetchOutcome.HTTP_ERROR, page.outcome());
+        assertEquals(503, page.status());
+        assertEquals(7000, page.retryAfterMs());
+    }
+}